@@ -3,6 +3,7 @@ package com.nextera.article.service;
 import com.nextera.api.article.dto.ArticleCreateRequest;
 import com.nextera.article.dto.ArticleDTO;
 import com.nextera.common.core.Result;
+import com.nextera.common.core.ResultCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
@@ -90,6 +91,9 @@ public class BizArticleService {
 
     public Result<com.nextera.api.article.dto.ArticleDTO> getArticleById(Long id) {
         ArticleDTO articleDTO = localArticleService.getArticleById(id);
+        if (articleDTO == null) {
+            return Result.error(ResultCode.ARTICLE_NOT_FOUND);
+        }
         com.nextera.api.article.dto.ArticleDTO ret = new com.nextera.api.article.dto.ArticleDTO();
         BeanUtils.copyProperties(articleDTO, ret);
         return Result.success(ret);
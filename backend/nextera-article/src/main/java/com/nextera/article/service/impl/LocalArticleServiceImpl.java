@@ -9,6 +9,9 @@ import com.nextera.article.entity.Article;
 import com.nextera.article.mapper.ArticleCategoryMapper;
 import com.nextera.article.mapper.ArticleMapper;
 import com.nextera.article.service.LocalArticleService;
+import com.nextera.common.cache.TwoLevelCacheEvict;
+import com.nextera.common.cache.TwoLevelCacheable;
+import com.nextera.common.constant.CommonConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
@@ -57,14 +60,19 @@ public class LocalArticleServiceImpl implements LocalArticleService {
     }
 
     @Override
+    @TwoLevelCacheable(cache = CommonConstants.CachePrefix.ARTICLE)
     public ArticleDTO getArticleById(Long id) {
         Article article = articleMapper.selectById(id);
+        if (article == null) {
+            return null;
+        }
         ArticleDTO articleDTO = new ArticleDTO();
         BeanUtils.copyProperties(article, articleDTO);
         return articleDTO;
     }
 
     @Override
+    @TwoLevelCacheEvict(cache = CommonConstants.CachePrefix.ARTICLE, key = "#p0")
     public boolean updateArticleInner(Long id, com.nextera.api.article.dto.ArticleCreateRequest request) {
         LambdaUpdateWrapper<Article> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(Article::getId, id);
@@ -77,6 +85,7 @@ public class LocalArticleServiceImpl implements LocalArticleService {
     }
 
     @Override
+    @TwoLevelCacheEvict(cache = CommonConstants.CachePrefix.ARTICLE, key = "#p0")
     public boolean updateArticle(Long id, ArticleCreateRequest request) {
         
         LambdaUpdateWrapper<Article> updateWrapper = new LambdaUpdateWrapper<>();
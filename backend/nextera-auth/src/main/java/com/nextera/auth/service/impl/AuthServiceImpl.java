@@ -10,12 +10,15 @@ import com.nextera.auth.dto.RegisterRequest;
 import com.nextera.auth.entity.User;
 import com.nextera.auth.mapper.UserMapper;
 import com.nextera.auth.service.AuthService;
+import com.nextera.common.cache.TwoLevelCacheManager;
 import com.nextera.common.constant.CommonConstants;
 import com.nextera.common.core.Result;
 import com.nextera.common.core.ResultCode;
+import com.nextera.common.util.JwtPrincipal;
 import com.nextera.common.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
@@ -39,6 +42,7 @@ public class AuthServiceImpl implements AuthService {
     private final JwtUtil jwtUtil;
     private final StringRedisTemplate redisTemplate;
     private final Producer kaptchaProducer;
+    private final ObjectProvider<TwoLevelCacheManager> cacheManager;
 
     @Override
     public Result<LoginResponse> loginInner(com.nextera.api.auth.dto.LoginRequest loginRequest) {
@@ -70,9 +74,10 @@ public class AuthServiceImpl implements AuthService {
             redisTemplate.opsForValue().set(tokenKey, accessToken, Duration.ofHours(24));
             redisTemplate.opsForValue().set(refreshKey, refreshToken, Duration.ofDays(7));
             
-            // 更新用户登录信息
+            // 更新用户登录信息，并失效用户服务缓存的用户信息
             user.setLastLoginTime(LocalDateTime.now());
             userMapper.updateById(user);
+            evictUserInfo(user.getId());
             
             // 构建响应
             LoginResponse response = new LoginResponse();
@@ -146,9 +151,10 @@ public class AuthServiceImpl implements AuthService {
             redisTemplate.opsForValue().set(tokenKey, accessToken, Duration.ofHours(24));
             redisTemplate.opsForValue().set(refreshKey, refreshToken, Duration.ofDays(7));
 
-            // 更新用户登录信息
+            // 更新用户登录信息，并失效用户服务缓存的用户信息
             user.setLastLoginTime(LocalDateTime.now());
             userMapper.updateById(user);
+            evictUserInfo(user.getId());
 
             // 构建响应
             LoginResponse response = new LoginResponse();
@@ -290,13 +296,14 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public Result<LoginResponse> refreshToken(String refreshToken) {
         try {
-            // 验证刷新Token
-            if (!jwtUtil.validateToken(refreshToken)) {
+            // 验证刷新Token，只解析一次
+            JwtPrincipal principal = jwtUtil.tryParse(refreshToken);
+            if (principal == null) {
                 return Result.error(ResultCode.REFRESH_TOKEN_INVALID);
             }
             
-            Long userId = jwtUtil.getUserIdFromToken(refreshToken);
-            String username = jwtUtil.getUsernameFromToken(refreshToken);
+            Long userId = principal.userId();
+            String username = principal.username();
             
             // 检查Redis中的刷新Token
             String refreshKey = CommonConstants.CachePrefix.REFRESH_TOKEN + userId;
@@ -331,11 +338,12 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public Result<Void> logout(String token) {
         try {
-            if (!jwtUtil.validateToken(token)) {
+            JwtPrincipal principal = jwtUtil.tryParse(token);
+            if (principal == null) {
                 return Result.error(ResultCode.TOKEN_INVALID);
             }
             
-            Long userId = jwtUtil.getUserIdFromToken(token);
+            Long userId = principal.userId();
             
             // 删除Redis中的Token
             String tokenKey = CommonConstants.CachePrefix.LOGIN_TOKEN + userId;
@@ -356,11 +364,12 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public Result<Boolean> validateToken(String token) {
         try {
-            if (!jwtUtil.validateToken(token)) {
+            JwtPrincipal principal = jwtUtil.tryParse(token);
+            if (principal == null) {
                 return Result.success(false);
             }
             
-            Long userId = jwtUtil.getUserIdFromToken(token);
+            Long userId = principal.userId();
             String tokenKey = CommonConstants.CachePrefix.LOGIN_TOKEN + userId;
             String storedToken = redisTemplate.opsForValue().get(tokenKey);
             
@@ -395,4 +404,13 @@ public class AuthServiceImpl implements AuthService {
             return Result.error("生成验证码失败");
         }
     }
+
+    /**
+     * 登录更新了用户表，失效用户服务的用户信息二级缓存，其他实例通过失效广播清理本地副本
+     *
+     * @param userId 用户ID
+     */
+    private void evictUserInfo(Long userId) {
+        cacheManager.ifAvailable(manager -> manager.getCache(CommonConstants.CachePrefix.USER_INFO).evict(userId));
+    }
 } 
\ No newline at end of file
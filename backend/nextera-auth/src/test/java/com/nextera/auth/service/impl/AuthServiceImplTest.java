@@ -10,6 +10,7 @@ import com.nextera.auth.service.AuthService;
 import com.nextera.common.constant.CommonConstants;
 import com.nextera.common.core.Result;
 import com.nextera.common.core.ResultCode;
+import com.nextera.common.util.JwtPrincipal;
 import com.nextera.common.util.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +21,7 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -253,8 +255,7 @@ public class AuthServiceImplTest extends BaseTest {
         String token = "valid-token";
         
         // Mock JWT验证
-        when(jwtUtil.validateToken(token)).thenReturn(true);
-        when(jwtUtil.getUserIdFromToken(token)).thenReturn(1L);
+        when(jwtUtil.tryParse(token)).thenReturn(new JwtPrincipal(1L, "testuser", Long.MAX_VALUE, Map.of()));
         
         // Mock Redis验证
         when(valueOperations.get(CommonConstants.CachePrefix.LOGIN_TOKEN + 1L))
@@ -273,8 +274,8 @@ public class AuthServiceImplTest extends BaseTest {
     void testValidateTokenFail() {
         String token = "invalid-token";
         
-        // Mock JWT验证返回false
-        when(jwtUtil.validateToken(token)).thenReturn(false);
+        // Mock JWT验证返回无效
+        when(jwtUtil.tryParse(token)).thenReturn(null);
 
         // 执行验证
         Result<Boolean> result = authService.validateToken(token);
@@ -290,8 +291,7 @@ public class AuthServiceImplTest extends BaseTest {
         String token = "valid-token";
         
         // Mock JWT验证
-        when(jwtUtil.validateToken(token)).thenReturn(true);
-        when(jwtUtil.getUserIdFromToken(token)).thenReturn(1L);
+        when(jwtUtil.tryParse(token)).thenReturn(new JwtPrincipal(1L, "testuser", Long.MAX_VALUE, Map.of()));
         
         // Mock Redis删除
         doNothing().when(redisTemplate).delete(anyString());
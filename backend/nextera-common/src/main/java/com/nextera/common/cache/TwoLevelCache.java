@@ -0,0 +1,422 @@
+package com.nextera.common.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nextera.common.json.JsonCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 二级缓存：进程内有界缓存（L1，Caffeine）+ Redis（L2）
+ * <p>
+ * 读取顺序为L1 → L2 → 加载逻辑。未命中时同一实例内相同key只有一个线程回源，
+ * 其余线程等待其结果；跨实例通过Redis互斥锁协调，未抢到锁的实例短暂等待L2被回填。
+ * 两级的过期时间都带随机抖动，空值按 {@code null-ttl} 缓存。失效时删除L2并通过Redis发布/订阅通知其他实例
+ * 清理L1，发布/订阅不保证送达，错过广播的L1副本最多保留 {@code local-ttl}。Redis不可用时退化为只用L1。
+ * 处于 {@link TwoLevelCacheBypass} 范围内的读取直接执行加载逻辑。
+ * <p>
+ * 事务内的失效在本地事务结束后再执行一次；Seata全局事务回滚由undo log在本地提交之后恢复数据，
+ * 需要由全局事务发起方注册Seata的 {@code TransactionHook}，在全局事务结束后再次失效。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class TwoLevelCache {
+
+    private static final String METRIC_REQUESTS = "nextera.cache.requests";
+
+    private static final String METRIC_LOADS = "nextera.cache.loads";
+
+    private static final String METRIC_EVICTIONS = "nextera.cache.evictions";
+
+    private static final String METRIC_ERRORS = "nextera.cache.redis.errors";
+
+    private static final String METRIC_SIZE = "nextera.cache.local.size";
+
+    /**
+     * L1中空值的占位对象
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    /**
+     * L2中空值的占位内容，合法的JSON不会是空串
+     */
+    private static final String NULL_JSON = "";
+
+    private static final String LOCK_SUFFIX = ":lock";
+
+    private static final long LOCK_POLL_MILLIS = 20;
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final String name;
+
+    private final TwoLevelCacheProperties properties;
+
+    private final TwoLevelCacheProperties.Spec spec;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final JsonCodec jsonCodec;
+
+    private final TwoLevelCacheManager manager;
+
+    private final Cache<String, Object> local;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final Counter localHits;
+
+    private final Counter remoteHits;
+
+    private final Counter misses;
+
+    private final Counter coalesced;
+
+    private final Timer loadSuccess;
+
+    private final Timer loadFailure;
+
+    private final Counter localEvictions;
+
+    private final Counter remoteEvictions;
+
+    private final Counter redisErrors;
+
+    TwoLevelCache(String name, TwoLevelCacheProperties properties, StringRedisTemplate redisTemplate,
+                  JsonCodec jsonCodec, TwoLevelCacheManager manager, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.properties = properties;
+        this.spec = properties.resolve(name);
+        this.redisTemplate = redisTemplate;
+        this.jsonCodec = jsonCodec;
+        this.manager = manager;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(spec.getLocalMaxSize())
+                .expireAfter(new JitteredExpiry())
+                .build();
+
+        String tag = name.endsWith(":") ? name.substring(0, name.length() - 1) : name;
+        this.localHits = requests(meterRegistry, tag, "l1_hit");
+        this.remoteHits = requests(meterRegistry, tag, "l2_hit");
+        this.misses = requests(meterRegistry, tag, "miss");
+        this.coalesced = requests(meterRegistry, tag, "coalesced");
+        this.loadSuccess = Timer.builder(METRIC_LOADS).tag("cache", tag).tag("outcome", "success")
+                .register(meterRegistry);
+        this.loadFailure = Timer.builder(METRIC_LOADS).tag("cache", tag).tag("outcome", "failure")
+                .register(meterRegistry);
+        this.localEvictions = Counter.builder(METRIC_EVICTIONS).tag("cache", tag).tag("source", "local")
+                .register(meterRegistry);
+        this.remoteEvictions = Counter.builder(METRIC_EVICTIONS).tag("cache", tag).tag("source", "remote")
+                .register(meterRegistry);
+        this.redisErrors = Counter.builder(METRIC_ERRORS).tag("cache", tag).register(meterRegistry);
+        Gauge.builder(METRIC_SIZE, local, Cache::estimatedSize).tag("cache", tag).register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 读取缓存，未命中时调用loader加载并回填
+     *
+     * @param key    缓存key，不含前缀
+     * @param type   值类型
+     * @param loader 加载逻辑，可返回null
+     * @return 缓存值
+     * @throws ValueRetrievalException loader抛出异常时，原异常为其cause
+     */
+    public <T> T get(Object key, Class<T> type, Callable<? extends T> loader) {
+        return get(key, jsonCodec.getObjectMapper().constructType(type), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, JavaType type, Callable<? extends T> loader) {
+        if (!properties.isEnabled() || TwoLevelCacheBypass.isActive()) {
+            return call(key, loader);
+        }
+        String localKey = String.valueOf(key);
+        Object cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            localHits.increment();
+            return (T) unwrap(cached);
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(localKey, flight);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return (T) unwrap(existing.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            Object value = loadThrough(localKey, type, loader);
+            flight.complete(value);
+            return (T) unwrap(value);
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(localKey, flight);
+        }
+    }
+
+    /**
+     * 写入缓存并通知其他实例丢弃旧的L1副本
+     *
+     * @param key   缓存key，不含前缀
+     * @param value 缓存值，可为null
+     */
+    public void put(Object key, Object value) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String localKey = String.valueOf(key);
+        writeRemote(name + localKey, value);
+        local.put(localKey, value == null ? NULL_VALUE : value);
+        manager.publish(name, localKey);
+    }
+
+    /**
+     * 失效缓存并通知其他实例，事务中调用时在事务结束后再失效一次
+     *
+     * @param key 缓存key，不含前缀
+     */
+    public void evict(Object key) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String localKey = String.valueOf(key);
+        evictNow(localKey);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(localKey);
+                }
+            });
+        }
+    }
+
+    /**
+     * 收到其他实例的失效广播时只清理L1
+     */
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+        remoteEvictions.increment();
+    }
+
+    private void evictNow(String localKey) {
+        local.invalidate(localKey);
+        try {
+            redisTemplate.delete(name + localKey);
+        } catch (RuntimeException e) {
+            redisError("delete", localKey, e);
+        }
+        localEvictions.increment();
+        manager.publish(name, localKey);
+    }
+
+    /**
+     * L1未命中后依次查询L2和加载逻辑，返回值中空值以 {@link #NULL_VALUE} 表示
+     */
+    private Object loadThrough(String localKey, JavaType type, Callable<?> loader) {
+        String redisKey = name + localKey;
+        Object remote = readRemote(redisKey, type);
+        if (remote != null) {
+            remoteHits.increment();
+            local.put(localKey, remote);
+            return remote;
+        }
+        misses.increment();
+
+        String token = tryLock(redisKey);
+        if (token == null) {
+            remote = awaitRemote(redisKey, type);
+            if (remote != null) {
+                local.put(localKey, remote);
+                return remote;
+            }
+        }
+        try {
+            Object value = timedCall(localKey, loader);
+            writeRemote(redisKey, value);
+            Object stored = value == null ? NULL_VALUE : value;
+            local.put(localKey, stored);
+            return stored;
+        } finally {
+            if (token != null) {
+                unlock(redisKey, token);
+            }
+        }
+    }
+
+    /**
+     * 其他实例正在回源，轮询L2直到被回填或超过 {@code lock-wait}
+     */
+    private Object awaitRemote(String redisKey, JavaType type) {
+        long deadline = System.nanoTime() + properties.getLockWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Object remote = readRemote(redisKey, type);
+            if (remote != null) {
+                remoteHits.increment();
+                return remote;
+            }
+        }
+        return null;
+    }
+
+    private Object readRemote(String redisKey, JavaType type) {
+        String json;
+        try {
+            json = redisTemplate.opsForValue().get(redisKey);
+        } catch (RuntimeException e) {
+            redisError("get", redisKey, e);
+            return null;
+        }
+        if (json == null) {
+            return null;
+        }
+        if (NULL_JSON.equals(json)) {
+            return NULL_VALUE;
+        }
+        try {
+            return jsonCodec.reader(type).readValue(json);
+        } catch (Exception e) {
+            // 类型变更后的旧数据按未命中处理，回源后覆盖
+            log.warn("二级缓存反序列化失败，按未命中处理: key={}", redisKey, e);
+            return null;
+        }
+    }
+
+    private void writeRemote(String redisKey, Object value) {
+        try {
+            if (value == null) {
+                redisTemplate.opsForValue().set(redisKey, NULL_JSON, jittered(properties.getNullTtl()));
+            } else {
+                redisTemplate.opsForValue().set(redisKey, jsonCodec.toJson(value), jittered(spec.getTtl()));
+            }
+        } catch (RuntimeException e) {
+            redisError("set", redisKey, e);
+        }
+    }
+
+    private String tryLock(String redisKey) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean locked = redisTemplate.opsForValue()
+                    .setIfAbsent(redisKey + LOCK_SUFFIX, token, properties.getLockTimeout());
+            return Boolean.TRUE.equals(locked) ? token : null;
+        } catch (RuntimeException e) {
+            redisError("lock", redisKey, e);
+            // Redis不可用时不再等待，直接回源
+            return token;
+        }
+    }
+
+    private void unlock(String redisKey, String token) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(redisKey + LOCK_SUFFIX), token);
+        } catch (RuntimeException e) {
+            redisError("unlock", redisKey, e);
+        }
+    }
+
+    private Object timedCall(Object key, Callable<?> loader) {
+        long start = System.nanoTime();
+        try {
+            Object value = call(key, loader);
+            loadSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return value;
+        } catch (RuntimeException e) {
+            loadFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static <T> T call(Object key, Callable<? extends T> loader) {
+        try {
+            return loader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, loader, e);
+        }
+    }
+
+    private void redisError(String operation, String key, RuntimeException e) {
+        redisErrors.increment();
+        log.warn("二级缓存Redis操作失败，退化为本地缓存: operation={}, key={}, error={}", operation, key, e.getMessage());
+    }
+
+    private Duration jittered(Duration base) {
+        long millis = base.toMillis();
+        long delta = (long) (millis * properties.getTtlJitter());
+        if (delta <= 0) {
+            return base;
+        }
+        return Duration.ofMillis(Math.max(1, millis + ThreadLocalRandom.current().nextLong(-delta, delta + 1)));
+    }
+
+    private static Object unwrap(Object value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String cache, String result) {
+        return Counter.builder(METRIC_REQUESTS).tag("cache", cache).tag("result", result).register(meterRegistry);
+    }
+
+    /**
+     * L1按条目计算带抖动的过期时间，空值不超过 {@code null-ttl}
+     */
+    private class JitteredExpiry implements Expiry<String, Object> {
+
+        @Override
+        public long expireAfterCreate(String key, Object value, long currentTime) {
+            Duration ttl = value == NULL_VALUE && properties.getNullTtl().compareTo(spec.getLocalTtl()) < 0
+                    ? properties.getNullTtl() : spec.getLocalTtl();
+            return jittered(ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
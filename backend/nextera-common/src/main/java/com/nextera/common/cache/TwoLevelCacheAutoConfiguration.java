@@ -0,0 +1,72 @@
+package com.nextera.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nextera.common.json.JsonCodec;
+import com.nextera.common.json.JsonCodecAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 二级缓存自动配置
+ * <p>
+ * 缓存为阻塞实现，只在引入Redis与Caffeine的Servlet服务中启用，响应式的网关不使用。
+ *
+ * @author Nextera
+ */
+@AutoConfiguration(after = {RedisAutoConfiguration.class, JsonCodecAutoConfiguration.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({StringRedisTemplate.class, Caffeine.class, MeterRegistry.class})
+@ConditionalOnBean({StringRedisTemplate.class, JsonCodec.class})
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
+public class TwoLevelCacheAutoConfiguration {
+
+    @Bean
+    public TwoLevelCacheManager twoLevelCacheManager(TwoLevelCacheProperties properties,
+                                                     StringRedisTemplate redisTemplate, JsonCodec jsonCodec,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new TwoLevelCacheManager(properties, redisTemplate, jsonCodec,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * 订阅失效广播，使用独立的监听容器，不影响服务自己的订阅
+     */
+    @Bean
+    public RedisMessageListenerContainer twoLevelCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        TwoLevelCacheManager cacheManager,
+                                                                        TwoLevelCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(properties.getChannel()));
+        return container;
+    }
+
+    /**
+     * 注解切面，以基础设施角色注册，由事务使用的自动代理创建器一并织入
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor twoLevelCacheAdvisor(ObjectProvider<TwoLevelCacheManager> cacheManager) {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMethodMatcher(TwoLevelCacheable.class))
+                .union(new AnnotationMethodMatcher(TwoLevelCacheEvict.class));
+        return new DefaultPointcutAdvisor(pointcut, new TwoLevelCacheInterceptor(cacheManager));
+    }
+}
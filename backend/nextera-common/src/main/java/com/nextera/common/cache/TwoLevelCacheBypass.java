@@ -0,0 +1,53 @@
+package com.nextera.common.cache;
+
+import java.util.function.Supplier;
+
+/**
+ * 跳过二级缓存的读取范围
+ * <p>
+ * TCC快照、补偿等必须读到数据库当前值的场景在范围内调用，{@link TwoLevelCache#get} 直接执行加载逻辑，不读取也不回填缓存。
+ * 通过Dubbo调用时由 {@link TwoLevelCacheBypassDubboFilter} 以附件传递到提供端。
+ *
+ * @author Nextera
+ */
+public final class TwoLevelCacheBypass {
+
+    /**
+     * Dubbo附件名
+     */
+    public static final String ATTACHMENT = "nextera-cache-bypass";
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private TwoLevelCacheBypass() {
+    }
+
+    /**
+     * 当前线程是否处于跳过缓存的范围内
+     *
+     * @return 是否跳过缓存
+     */
+    public static boolean isActive() {
+        return Boolean.TRUE.equals(ACTIVE.get());
+    }
+
+    /**
+     * 在跳过缓存的范围内执行操作
+     *
+     * @param action 操作
+     * @return 操作结果
+     */
+    public static <T> T call(Supplier<T> action) {
+        Boolean previous = ACTIVE.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+        }
+    }
+}
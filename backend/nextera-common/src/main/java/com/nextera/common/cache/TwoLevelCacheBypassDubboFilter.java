@@ -0,0 +1,34 @@
+package com.nextera.common.cache;
+
+import org.apache.dubbo.common.constants.CommonConstants;
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+
+/**
+ * Dubbo跳过缓存标记传递过滤器
+ * <p>
+ * 消费端处于 {@link TwoLevelCacheBypass} 范围内时带上附件，提供端收到附件后在同一范围内执行调用。
+ *
+ * @author Nextera
+ */
+@Activate(group = {CommonConstants.CONSUMER, CommonConstants.PROVIDER}, order = -8000)
+public class TwoLevelCacheBypassDubboFilter implements Filter {
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        if (CommonConstants.CONSUMER_SIDE.equals(invoker.getUrl().getSide())) {
+            if (TwoLevelCacheBypass.isActive()) {
+                invocation.setAttachment(TwoLevelCacheBypass.ATTACHMENT, Boolean.TRUE.toString());
+            }
+            return invoker.invoke(invocation);
+        }
+        if (Boolean.TRUE.toString().equals(invocation.getAttachment(TwoLevelCacheBypass.ATTACHMENT))) {
+            return TwoLevelCacheBypass.call(() -> invoker.invoke(invocation));
+        }
+        return invoker.invoke(invocation);
+    }
+}
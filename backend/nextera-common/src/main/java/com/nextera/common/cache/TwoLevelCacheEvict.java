@@ -0,0 +1,30 @@
+package com.nextera.common.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 方法正常返回后失效二级缓存中的key，并广播给其他实例
+ * <p>
+ * 在事务中调用时，事务结束后会再失效一次，避免并发读取在提交前回填旧值。
+ *
+ * @author Nextera
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TwoLevelCacheEvict {
+
+    /**
+     * 缓存名，同时作为Redis key前缀
+     */
+    String cache();
+
+    /**
+     * key的SpEL表达式，规则同 {@link TwoLevelCacheable#key()}
+     */
+    String key() default "";
+}
@@ -0,0 +1,88 @@
+package com.nextera.common.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 处理 {@link TwoLevelCacheable} 与 {@link TwoLevelCacheEvict} 注解的方法拦截器
+ *
+ * @author Nextera
+ */
+public class TwoLevelCacheInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<TwoLevelCacheManager> cacheManager;
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    private final Map<Method, JavaType> returnTypes = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheManager 延迟获取，避免创建切面时提前初始化Redis相关Bean
+     */
+    public TwoLevelCacheInterceptor(ObjectProvider<TwoLevelCacheManager> cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null;
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        Object[] args = invocation.getArguments();
+
+        TwoLevelCacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, TwoLevelCacheable.class);
+        if (cacheable != null) {
+            TwoLevelCacheManager manager = cacheManager.getObject();
+            JavaType returnType = returnTypes.computeIfAbsent(method,
+                    m -> manager.getJsonCodec().getObjectMapper().constructType(m.getGenericReturnType()));
+            try {
+                return manager.getCache(cacheable.cache()).get(key(cacheable.key(), method, args), returnType, () -> {
+                    try {
+                        return invocation.proceed();
+                    } catch (Exception | Error e) {
+                        throw e;
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                });
+            } catch (ValueRetrievalException e) {
+                throw e.getCause();
+            }
+        }
+
+        Object result = invocation.proceed();
+        TwoLevelCacheEvict evict = AnnotatedElementUtils.findMergedAnnotation(method, TwoLevelCacheEvict.class);
+        if (evict != null) {
+            cacheManager.getObject().getCache(evict.cache()).evict(key(evict.key(), method, args));
+        }
+        return result;
+    }
+
+    private Object key(String expression, Method method, Object[] args) {
+        if (!StringUtils.hasText(expression)) {
+            return args.length == 1 ? args[0] : StringUtils.arrayToDelimitedString(args, ":");
+        }
+        MethodBasedEvaluationContext context =
+                new MethodBasedEvaluationContext(null, method, args, parameterNameDiscoverer);
+        return expressions.computeIfAbsent(expression, parser::parseExpression).getValue(context);
+    }
+}
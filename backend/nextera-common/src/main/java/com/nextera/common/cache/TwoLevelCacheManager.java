@@ -0,0 +1,104 @@
+package com.nextera.common.cache;
+
+import com.nextera.common.json.JsonCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 二级缓存管理器，按名称创建 {@link TwoLevelCache}，并负责失效消息的发布与订阅
+ * <p>
+ * 编程方式使用：
+ *
+ * <pre>
+ * cacheManager.getCache(CommonConstants.CachePrefix.USER_INFO).evict(userId);
+ * </pre>
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class TwoLevelCacheManager implements MessageListener {
+
+    /**
+     * 当前实例标识，忽略自己发出的失效消息
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private final TwoLevelCacheProperties properties;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final JsonCodec jsonCodec;
+
+    private final MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(TwoLevelCacheProperties properties, StringRedisTemplate redisTemplate,
+                                JsonCodec jsonCodec, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.jsonCodec = jsonCodec;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 获取缓存，不存在时创建
+     *
+     * @param name 缓存名，同时作为Redis key前缀
+     * @return 二级缓存
+     */
+    public TwoLevelCache getCache(String name) {
+        return caches.computeIfAbsent(name,
+                n -> new TwoLevelCache(n, properties, redisTemplate, jsonCodec, this, meterRegistry));
+    }
+
+    JsonCodec getJsonCodec() {
+        return jsonCodec;
+    }
+
+    void publish(String cache, String key) {
+        try {
+            redisTemplate.convertAndSend(properties.getChannel(),
+                    jsonCodec.toJson(new Invalidation(instanceId, cache, key)));
+        } catch (RuntimeException e) {
+            log.warn("二级缓存失效广播失败，其他实例的本地副本将在过期后更新: cache={}, key={}, error={}",
+                    cache, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Invalidation invalidation;
+        try {
+            invalidation = jsonCodec.fromJson(message.getBody(), Invalidation.class);
+        } catch (RuntimeException e) {
+            log.warn("忽略无法解析的二级缓存失效消息", e);
+            return;
+        }
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        // 本实例尚未使用的缓存没有本地副本
+        TwoLevelCache cache = caches.get(invalidation.cache());
+        if (cache != null) {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    /**
+     * 失效消息
+     *
+     * @param origin 发出消息的实例
+     * @param cache  缓存名
+     * @param key    缓存key，不含前缀
+     */
+    public record Invalidation(String origin, String cache, String key) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.nextera.common.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 二级缓存配置
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.cache")
+public class TwoLevelCacheProperties {
+
+    /**
+     * 是否启用，关闭后直接调用加载逻辑
+     */
+    private boolean enabled = true;
+
+    /**
+     * 失效广播的Redis频道
+     */
+    private String channel = "nextera:cache:invalidate";
+
+    /**
+     * Redis（L2）过期时间
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /**
+     * 本地（L1）过期时间，同时是错过失效广播时本地副本的最长陈旧时间
+     */
+    private Duration localTtl = Duration.ofMinutes(1);
+
+    /**
+     * 每个缓存的本地最大条目数
+     */
+    private long localMaxSize = 10_000;
+
+    /**
+     * 过期时间随机抖动比例，避免同一批写入的key同时过期
+     */
+    private double ttlJitter = 0.1;
+
+    /**
+     * 空值的缓存时间，防止不存在的key反复穿透到数据库
+     */
+    private Duration nullTtl = Duration.ofMinutes(1);
+
+    /**
+     * 回源互斥锁的过期时间，应大于一次回源的耗时
+     */
+    private Duration lockTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 未抢到回源锁时等待其他实例回填Redis的最长时间，超时后自行回源
+     */
+    private Duration lockWait = Duration.ofMillis(300);
+
+    /**
+     * 按缓存名覆盖的配置
+     */
+    private List<Spec> caches = new ArrayList<>();
+
+    /**
+     * 获取指定缓存生效的配置，未覆盖的项使用全局配置
+     *
+     * @param name 缓存名（即Redis key前缀）
+     * @return 生效的配置
+     */
+    public Spec resolve(String name) {
+        Spec resolved = new Spec();
+        resolved.setName(name);
+        resolved.setTtl(ttl);
+        resolved.setLocalTtl(localTtl);
+        resolved.setLocalMaxSize(localMaxSize);
+        for (Spec spec : caches) {
+            if (name.equals(spec.getName())) {
+                if (spec.getTtl() != null) {
+                    resolved.setTtl(spec.getTtl());
+                }
+                if (spec.getLocalTtl() != null) {
+                    resolved.setLocalTtl(spec.getLocalTtl());
+                }
+                if (spec.getLocalMaxSize() != null) {
+                    resolved.setLocalMaxSize(spec.getLocalMaxSize());
+                }
+            }
+        }
+        return resolved;
+    }
+
+    @Data
+    public static class Spec {
+
+        /**
+         * 缓存名，如 {@code nextera:user:info:}
+         */
+        private String name;
+
+        private Duration ttl;
+
+        private Duration localTtl;
+
+        private Long localMaxSize;
+    }
+}
@@ -0,0 +1,30 @@
+package com.nextera.common.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 通过二级缓存读取方法返回值，未命中时执行方法并回填
+ * <p>
+ * 返回值会被多个调用方共享，调用方不应修改返回的对象。
+ *
+ * @author Nextera
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TwoLevelCacheable {
+
+    /**
+     * 缓存名，同时作为Redis key前缀，使用 {@code CommonConstants.CachePrefix} 中的常量
+     */
+    String cache();
+
+    /**
+     * key的SpEL表达式，如 {@code #p0}；为空时使用全部参数，多个参数以冒号连接
+     */
+    String key() default "";
+}
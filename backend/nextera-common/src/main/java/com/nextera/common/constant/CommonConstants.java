@@ -197,5 +197,11 @@ public interface CommonConstants {
         String REQUEST_ID = "X-Request-ID";
         /** 租户ID */
         String TENANT_ID = "X-Tenant-ID";
+        /** 网关校验后的用户ID（可信头，仅由网关写入） */
+        String USER_ID = "X-User-Id";
+        /** 网关校验后的用户名（可信头，URL编码，仅由网关写入） */
+        String USERNAME = "X-User-Name";
+        /** 请求截止时间（毫秒时间戳，由网关写入，各跳按剩余时间缩短超时） */
+        String DEADLINE = "X-Request-Deadline";
     }
 } 
\ No newline at end of file
@@ -21,6 +21,8 @@ public enum ResultCode {
     METHOD_NOT_ALLOWED(405, "请求方法不允许"),
     CONFLICT(409, "资源冲突"),
     TOO_MANY_REQUESTS(429, "请求过于频繁"),
+    SERVICE_UNAVAILABLE(503, "服务繁忙，请稍后重试"),
+    DEADLINE_EXCEEDED(504, "请求已超时"),
 
     // 业务状态码
     USER_NOT_FOUND(10001, "用户不存在"),
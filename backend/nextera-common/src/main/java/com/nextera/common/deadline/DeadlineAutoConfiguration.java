@@ -0,0 +1,53 @@
+package com.nextera.common.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Capability;
+import feign.RequestInterceptor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 截止时间传递自动配置，Dubbo过滤器通过SPI（META-INF/dubbo）注册
+ *
+ * @author Nextera
+ */
+@AutoConfiguration
+@ConditionalOnProperty(value = "nextera.deadline.enabled", havingValue = "true", matchIfMissing = true)
+public class DeadlineAutoConfiguration {
+
+    /**
+     * 注册截止时间Servlet过滤器，排在其他过滤器之前以尽早丢弃过期请求
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<DeadlineServletFilter> deadlineServletFilter(ObjectMapper objectMapper) {
+        FilterRegistrationBean<DeadlineServletFilter> registration =
+                new FilterRegistrationBean<>(new DeadlineServletFilter(objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Feign截止时间传递，在引入OpenFeign的服务中生效
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RequestInterceptor.class)
+    static class FeignDeadlineConfiguration {
+
+        @Bean
+        public DeadlineFeignRequestInterceptor deadlineFeignRequestInterceptor() {
+            return new DeadlineFeignRequestInterceptor();
+        }
+
+        @Bean
+        public Capability deadlineFeignCapability() {
+            return new DeadlineFeignCapability();
+        }
+    }
+}
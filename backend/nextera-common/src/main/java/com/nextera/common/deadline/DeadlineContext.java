@@ -0,0 +1,83 @@
+package com.nextera.common.deadline;
+
+/**
+ * 当前请求的截止时间
+ * <p>
+ * 由 {@link DeadlineServletFilter} 或 {@link DeadlineDubboFilter} 在处理请求的线程上设置，
+ * Feign、Dubbo调用时按剩余时间缩短超时并继续向下游传递。截止时间为毫秒时间戳，各服务器需保持时钟同步。
+ *
+ * @author Nextera
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    /**
+     * 获取当前请求的截止时间
+     *
+     * @return 截止时间（毫秒时间戳），没有截止时间时为null
+     */
+    public static Long get() {
+        return DEADLINE.get();
+    }
+
+    /**
+     * 设置当前请求的截止时间
+     *
+     * @param deadline 截止时间（毫秒时间戳），为null时清除
+     */
+    public static void set(Long deadline) {
+        if (deadline == null) {
+            DEADLINE.remove();
+        } else {
+            DEADLINE.set(deadline);
+        }
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * 剩余时间
+     *
+     * @return 剩余毫秒数，已过期时小于等于0，没有截止时间时为 {@link Long#MAX_VALUE}
+     */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.currentTimeMillis();
+    }
+
+    /**
+     * 截止时间已过时抛出异常，用于在开始耗时操作前放弃调用方已不再等待的请求
+     *
+     * @param operation 操作描述
+     * @throws DeadlineExceededException 截止时间已过
+     */
+    public static void checkNotExpired(String operation) {
+        long remaining = remainingMillis();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException(operation, -remaining);
+        }
+    }
+
+    /**
+     * 解析截止时间请求头
+     *
+     * @param value 请求头的值
+     * @return 截止时间，为空或格式错误时为null
+     */
+    public static Long parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
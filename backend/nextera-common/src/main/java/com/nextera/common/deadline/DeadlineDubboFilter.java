@@ -0,0 +1,73 @@
+package com.nextera.common.deadline;
+
+import org.apache.dubbo.common.constants.CommonConstants;
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+
+/**
+ * Dubbo截止时间传递过滤器
+ * <p>
+ * 消费端：截止时间已过时不再调用，否则通过附件传递截止时间，并把本次调用的超时缩短到剩余时间。
+ * 提供端：截止时间已过时直接返回超时异常，否则在执行期间设置 {@link DeadlineContext}，使其发起的下游调用继续传递。
+ *
+ * @author Nextera
+ */
+@Activate(group = {CommonConstants.CONSUMER, CommonConstants.PROVIDER}, order = -9000)
+public class DeadlineDubboFilter implements Filter {
+
+    /**
+     * 截止时间附件名
+     */
+    public static final String DEADLINE_ATTACHMENT = "nextera-deadline";
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        if (CommonConstants.CONSUMER_SIDE.equals(invoker.getUrl().getSide())) {
+            return invokeConsumer(invoker, invocation);
+        }
+        return invokeProvider(invoker, invocation);
+    }
+
+    private Result invokeConsumer(Invoker<?> invoker, Invocation invocation) {
+        Long deadline = DeadlineContext.get();
+        if (deadline == null) {
+            return invoker.invoke(invocation);
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new RpcException(RpcException.TIMEOUT_EXCEPTION, "调用 " + invoker.getInterface().getName() + "#"
+                    + invocation.getMethodName() + " 前已超过截止时间 " + (-remaining) + "ms");
+        }
+        invocation.setAttachment(DEADLINE_ATTACHMENT, String.valueOf(deadline));
+        long configured = invoker.getUrl().getMethodPositiveParameter(invocation.getMethodName(),
+                CommonConstants.TIMEOUT_KEY, CommonConstants.DEFAULT_TIMEOUT);
+        if (remaining < configured) {
+            invocation.setObjectAttachment(CommonConstants.TIMEOUT_KEY, (int) remaining);
+        }
+        return invoker.invoke(invocation);
+    }
+
+    private Result invokeProvider(Invoker<?> invoker, Invocation invocation) {
+        Long deadline = DeadlineContext.parse(invocation.getAttachment(DEADLINE_ATTACHMENT));
+        if (deadline == null) {
+            return invoker.invoke(invocation);
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return AsyncRpcResult.newDefaultAsyncResult(new RpcException(RpcException.TIMEOUT_EXCEPTION,
+                    "丢弃已超过截止时间的调用 " + invocation.getMethodName() + " " + (-remaining) + "ms"), invocation);
+        }
+        Long previous = DeadlineContext.get();
+        DeadlineContext.set(deadline);
+        try {
+            return invoker.invoke(invocation);
+        } finally {
+            DeadlineContext.set(previous);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.nextera.common.deadline;
+
+import com.nextera.common.core.ResultCode;
+import com.nextera.common.exception.BusinessException;
+
+/**
+ * 请求截止时间已过，调用方已不再等待结果
+ *
+ * @author Nextera
+ */
+public class DeadlineExceededException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String operation, long overdueMillis) {
+        super(ResultCode.DEADLINE_EXCEEDED, operation + " 已超过截止时间 " + overdueMillis + "ms");
+    }
+}
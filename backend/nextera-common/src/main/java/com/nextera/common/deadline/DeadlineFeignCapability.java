@@ -0,0 +1,32 @@
+package com.nextera.common.deadline;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将Feign调用的连接、读取超时缩短到截止时间的剩余时间
+ * <p>
+ * 超时参数在 {@link Client#execute} 时才传入，RequestInterceptor无法修改，因此通过包装Client实现。
+ *
+ * @author Nextera
+ */
+public class DeadlineFeignCapability implements Capability {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> client.execute(request, shorten(options));
+    }
+
+    static Request.Options shorten(Request.Options options) {
+        long remaining = DeadlineContext.remainingMillis();
+        if (remaining >= options.connectTimeoutMillis() && remaining >= options.readTimeoutMillis()) {
+            return options;
+        }
+        long budget = Math.max(1, remaining);
+        return new Request.Options(Math.min(options.connectTimeoutMillis(), budget), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutMillis(), budget), TimeUnit.MILLISECONDS, options.isFollowRedirects());
+    }
+}
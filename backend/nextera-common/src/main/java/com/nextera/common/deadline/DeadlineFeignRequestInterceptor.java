@@ -0,0 +1,23 @@
+package com.nextera.common.deadline;
+
+import com.nextera.common.constant.CommonConstants;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Feign调用传递截止时间，截止时间已过时不再发起调用
+ *
+ * @author Nextera
+ */
+public class DeadlineFeignRequestInterceptor implements RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        Long deadline = DeadlineContext.get();
+        if (deadline == null) {
+            return;
+        }
+        DeadlineContext.checkNotExpired("Feign " + template.method() + " " + template.path());
+        template.header(CommonConstants.Header.DEADLINE, String.valueOf(deadline));
+    }
+}
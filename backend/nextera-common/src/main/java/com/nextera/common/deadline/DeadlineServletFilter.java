@@ -0,0 +1,57 @@
+package com.nextera.common.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.common.core.Result;
+import com.nextera.common.core.ResultCode;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 读取网关写入的截止时间请求头，已过期的请求直接返回504，否则在处理期间设置 {@link DeadlineContext}
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class DeadlineServletFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+
+    public DeadlineServletFilter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long deadline = DeadlineContext.parse(request.getHeader(CommonConstants.Header.DEADLINE));
+        if (deadline == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            log.debug("丢弃已超过截止时间的请求: {} {}ms", request.getRequestURI(), -remaining);
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(CommonConstants.UTF8);
+            objectMapper.writeValue(response.getOutputStream(), Result.error(ResultCode.DEADLINE_EXCEEDED));
+            return;
+        }
+        Long previous = DeadlineContext.get();
+        DeadlineContext.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DeadlineContext.set(previous);
+        }
+    }
+}
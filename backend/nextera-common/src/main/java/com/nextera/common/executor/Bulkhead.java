@@ -0,0 +1,238 @@
+package com.nextera.common.executor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 隔离舱：有界并发与有界排队的执行器
+ * <p>
+ * 平台线程模式为有界队列的 {@link ThreadPoolExecutor}；虚拟线程模式每个任务一个虚拟线程，
+ * 以信号量限制同时执行数，排队的任务是阻塞在信号量上的虚拟线程，排队数同样有上限。
+ * 超出上限时按 {@link RejectionPolicy} 处理，被丢弃的 {@link Future} 会被取消，调用方不会永久等待。
+ * 任务执行时恢复提交线程的MDC（请求ID等）。
+ * <p>
+ * 指标（标签 {@code bulkhead}）：{@code nextera.bulkhead.queued}、{@code nextera.bulkhead.active}、
+ * {@code nextera.bulkhead.wait}（从提交到开始执行）、{@code nextera.bulkhead.rejected}。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class Bulkhead implements AsyncTaskExecutor {
+
+    private static final String METRIC_PREFIX = "nextera.bulkhead.";
+
+    private final String name;
+
+    private final RejectionPolicy rejection;
+
+    private final ExecutorService executor;
+
+    /**
+     * 平台线程模式的线程池，虚拟线程模式为null
+     */
+    private final ThreadPoolExecutor pool;
+
+    /**
+     * 虚拟线程模式的并发许可与容量（最大并发数 + 排队上限）
+     */
+    private final Semaphore permits;
+
+    private final int capacity;
+
+    /**
+     * 虚拟线程模式下已提交未完成的任务数
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final Timer waitTimer;
+
+    private final Counter rejected;
+
+    public Bulkhead(BulkheadProperties.Spec spec, MeterRegistry meterRegistry) {
+        this.name = spec.getName();
+        this.rejection = spec.getRejection();
+        if (spec.isVirtual()) {
+            this.pool = null;
+            this.permits = new Semaphore(spec.getMaxSize());
+            this.capacity = spec.getMaxSize() + spec.getQueueCapacity();
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        } else {
+            BlockingQueue<Runnable> queue = spec.getQueueCapacity() > 0
+                    ? new ArrayBlockingQueue<>(spec.getQueueCapacity()) : new SynchronousQueue<>();
+            this.pool = new ThreadPoolExecutor(spec.getCoreSize(), spec.getMaxSize(),
+                    spec.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS, queue,
+                    new CustomizableThreadFactory(name + "-"), (task, executor) -> reject(((Task) task).delegate));
+            this.permits = null;
+            this.capacity = spec.getMaxSize() + spec.getQueueCapacity();
+            this.executor = pool;
+        }
+
+        this.waitTimer = Timer.builder(METRIC_PREFIX + "wait")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder(METRIC_PREFIX + "rejected")
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "queued", this, Bulkhead::getQueued)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "active", this, Bulkhead::getActive)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 正在执行的任务数
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * 排队等待执行的任务数
+     */
+    public int getQueued() {
+        return pool != null ? pool.getQueue().size() : Math.max(0, pending.get() - active.get());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (pool != null) {
+            pool.execute(new Task(task));
+            return;
+        }
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            reject(task);
+            return;
+        }
+        try {
+            executor.execute(new Task(task));
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            throw new TaskRejectedException("Bulkhead " + name + " is shut down", e);
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    private void reject(Runnable task) {
+        if (executor.isShutdown()) {
+            throw new TaskRejectedException("Bulkhead " + name + " is shut down");
+        }
+        rejected.increment();
+        switch (rejection) {
+            case CALLER_RUNS -> task.run();
+            case DISCARD -> {
+                log.warn("隔离舱已满，丢弃任务: bulkhead={}, capacity={}", name, capacity);
+                if (task instanceof Future<?> future) {
+                    future.cancel(false);
+                }
+            }
+            default -> throw new TaskRejectedException("Bulkhead " + name + " is full (capacity " + capacity + ")");
+        }
+    }
+
+    /**
+     * 停止接收任务并等待已提交的任务完成，超时后中断
+     *
+     * @param timeout 最长等待时间
+     */
+    public void shutdown(Duration timeout) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("隔离舱关闭超时，中断未完成的任务: bulkhead={}", name);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 记录排队时间并传递MDC的任务包装
+     */
+    private final class Task implements Runnable {
+
+        private final Runnable delegate;
+
+        private final Map<String, String> context = MDC.getCopyOfContextMap();
+
+        private final long submitNanos = System.nanoTime();
+
+        private Task(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            if (permits != null) {
+                permits.acquireUninterruptibly();
+            }
+            waitTimer.record(System.nanoTime() - submitNanos, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            setContext(context);
+            try {
+                delegate.run();
+            } finally {
+                setContext(previous);
+                active.decrementAndGet();
+                if (permits != null) {
+                    permits.release();
+                    pending.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
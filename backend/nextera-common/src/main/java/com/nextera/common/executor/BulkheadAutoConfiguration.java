@@ -0,0 +1,64 @@
+package com.nextera.common.executor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.TaskManagementConfigUtils;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * 隔离舱线程池自动配置
+ * <p>
+ * 异步任务通过 {@link BulkheadRegistry#get} 取用 {@code nextera.executor.bulkheads} 中声明的具名隔离舱；
+ * {@code @Scheduled} 使用多线程的调度器。
+ *
+ * @author Nextera
+ */
+@Slf4j
+@AutoConfiguration(before = TaskSchedulingAutoConfiguration.class)
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(value = "nextera.executor.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public BulkheadRegistry bulkheadRegistry(BulkheadProperties properties,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BulkheadRegistry(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * 替代Spring Boot默认的单线程调度器，开启 {@code @EnableScheduling} 时生效。
+     * 由Spring Boot的构建器创建，{@code spring.task.scheduling.*} 中的线程名前缀、关闭等待等配置照常生效，
+     * 线程数取 {@code spring.task.scheduling.pool.size} 与 {@code nextera.executor.scheduler-pool-size} 的较大值
+     */
+    @Bean(name = "taskScheduler")
+    @ConditionalOnBean(name = TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME)
+    @ConditionalOnMissingBean({TaskScheduler.class, ScheduledExecutorService.class})
+    public ThreadPoolTaskScheduler taskScheduler(ObjectProvider<ThreadPoolTaskSchedulerBuilder> builder,
+                                                 ObjectProvider<TaskSchedulingProperties> schedulingProperties,
+                                                 BulkheadProperties properties) {
+        int poolSize = Math.max(properties.getSchedulerPoolSize(),
+                schedulingProperties.getIfAvailable(TaskSchedulingProperties::new).getPool().getSize());
+        ThreadPoolTaskScheduler scheduler = builder.getIfAvailable(ThreadPoolTaskSchedulerBuilder::new)
+                .poolSize(poolSize)
+                .build();
+        scheduler.setErrorHandler(e -> log.error("定时任务执行异常", e));
+        return scheduler;
+    }
+}
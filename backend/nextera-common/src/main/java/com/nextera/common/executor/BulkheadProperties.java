@@ -0,0 +1,78 @@
+package com.nextera.common.executor;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 隔离舱线程池配置
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.executor")
+public class BulkheadProperties {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * {@code @Scheduled} 的调度线程数下限，与 {@code spring.task.scheduling.pool.size} 取较大值；
+     * Spring默认只有1个线程，一个任务阻塞会推迟其他任务
+     */
+    private int schedulerPoolSize = 2;
+
+    /**
+     * 关闭时等待隔离舱中已提交任务完成的最长时间
+     */
+    private Duration awaitTermination = Duration.ofSeconds(30);
+
+    /**
+     * 声明的隔离舱
+     */
+    private List<Spec> bulkheads = new ArrayList<>();
+
+    @Data
+    public static class Spec {
+
+        /**
+         * 隔离舱名，同时是线程名前缀与指标标签
+         */
+        private String name;
+
+        /**
+         * 核心线程数，虚拟线程模式下不使用
+         */
+        private int coreSize = 4;
+
+        /**
+         * 最大并发数：平台线程模式下为最大线程数，虚拟线程模式下为同时执行的任务数
+         */
+        private int maxSize = 8;
+
+        /**
+         * 排队任务上限，超出后按拒绝策略处理，为0时不排队
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * 超过核心线程数的空闲线程存活时间
+         */
+        private Duration keepAlive = Duration.ofSeconds(60);
+
+        /**
+         * 队列已满时的处理方式
+         */
+        private RejectionPolicy rejection = RejectionPolicy.ABORT;
+
+        /**
+         * 是否每个任务使用一个虚拟线程，适合阻塞IO为主的任务，并发数仍受 {@link #maxSize} 限制
+         */
+        private boolean virtual = false;
+    }
+}
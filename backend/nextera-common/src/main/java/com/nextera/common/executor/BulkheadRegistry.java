@@ -0,0 +1,59 @@
+package com.nextera.common.executor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 隔离舱注册表
+ * <p>
+ * 按配置 {@code nextera.executor.bulkheads} 创建具名隔离舱，不同类型的异步任务使用各自的隔离舱，
+ * 一类任务积压不会占满其他任务的线程与队列。应用关闭时依次等待各隔离舱的任务完成。
+ *
+ * @author Nextera
+ */
+public class BulkheadRegistry implements DisposableBean {
+
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+    private final Duration awaitTermination;
+
+    public BulkheadRegistry(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.awaitTermination = properties.getAwaitTermination();
+        for (BulkheadProperties.Spec spec : properties.getBulkheads()) {
+            if (bulkheads.containsKey(spec.getName())) {
+                throw new IllegalStateException("Duplicate bulkhead: " + spec.getName());
+            }
+            bulkheads.put(spec.getName(), new Bulkhead(spec, meterRegistry));
+        }
+    }
+
+    /**
+     * 获取已声明的隔离舱
+     *
+     * @param name 隔离舱名
+     * @return 隔离舱
+     * @throws IllegalArgumentException 隔离舱未声明
+     */
+    public Bulkhead get(String name) {
+        Bulkhead bulkhead = bulkheads.get(name);
+        if (bulkhead == null) {
+            throw new IllegalArgumentException("Undeclared bulkhead: " + name + ", declared: " + bulkheads.keySet());
+        }
+        return bulkhead;
+    }
+
+    public Collection<Bulkhead> getBulkheads() {
+        return Collections.unmodifiableCollection(bulkheads.values());
+    }
+
+    @Override
+    public void destroy() {
+        bulkheads.values().forEach(bulkhead -> bulkhead.shutdown(awaitTermination));
+    }
+}
@@ -0,0 +1,24 @@
+package com.nextera.common.executor;
+
+/**
+ * 隔离舱已满时的拒绝策略
+ *
+ * @author Nextera
+ */
+public enum RejectionPolicy {
+
+    /**
+     * 抛出 {@link org.springframework.core.task.TaskRejectedException}，由调用方决定降级方式
+     */
+    ABORT,
+
+    /**
+     * 丢弃任务，只记录拒绝指标，适用于可丢失的任务（如统计上报）
+     */
+    DISCARD,
+
+    /**
+     * 在提交任务的线程上执行。调用方为请求线程时会阻塞请求，仅用于调用方本身就是后台线程的场景
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,223 @@
+package com.nextera.common.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * 统一的JSON编解码器
+ * <p>
+ * 包装Spring容器中唯一的 {@link ObjectMapper}，按类型缓存 {@link ObjectReader}/{@link ObjectWriter}，
+ * 避免每次调用重新查找根类型的序列化器。读写失败时抛出 {@link UncheckedIOException}。
+ * 缓存的Reader/Writer是ObjectMapper配置的快照，ObjectMapper需在创建本对象前完成配置。
+ *
+ * @author Nextera
+ */
+public class JsonCodec {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public JsonCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * 获取指定类型的Reader
+     *
+     * @param type 目标类型
+     * @return 缓存的Reader
+     */
+    public ObjectReader reader(Class<?> type) {
+        return reader(objectMapper.constructType(type));
+    }
+
+    /**
+     * 获取泛型类型的Reader，如 {@code Result<ArticleDTO>}
+     *
+     * @param type 目标类型
+     * @return 缓存的Reader
+     */
+    public ObjectReader reader(TypeReference<?> type) {
+        return reader(objectMapper.constructType(type));
+    }
+
+    public ObjectReader reader(JavaType type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    /**
+     * 获取指定运行时类型的Writer
+     *
+     * @param type 值的运行时类型
+     * @return 缓存的Writer
+     */
+    public ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    public String toJson(Object value) {
+        try {
+            return writerOf(value).writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public byte[] toJsonBytes(Object value) {
+        try {
+            return writerOf(value).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public <T> T fromJson(String json, Class<T> type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public <T> T fromJson(String json, TypeReference<T> type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public <T> T fromJson(byte[] json, Class<T> type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 解析JSON对象为Map
+     *
+     * @param json JSON对象字符串
+     * @return 属性Map
+     */
+    public Map<String, Object> toMap(String json) {
+        return fromJson(json, MAP_TYPE);
+    }
+
+    /**
+     * 从输入流读取单个值，不关闭输入流
+     *
+     * @param in   输入流
+     * @param type 目标类型
+     * @return 解析结果
+     */
+    public <T> T read(InputStream in, Class<T> type) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return reader(type).readValue(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 将单个值写入输出流，不关闭输出流
+     *
+     * @param out   输出流
+     * @param value 待写出的值
+     */
+    public void write(OutputStream out, Object value) {
+        try (JsonGenerator generator = createGenerator(out)) {
+            writerOf(value).writeValue(generator, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 逐个读取根级JSON数组的元素（或以空白分隔的多个JSON值），不会将整个数组加载到内存
+     * <p>
+     * 调用方负责关闭返回的迭代器，迭代器关闭时同时关闭输入流。
+     *
+     * @param in   输入流
+     * @param type 元素类型
+     * @return 元素迭代器
+     */
+    public <T> MappingIterator<T> readValues(InputStream in, Class<T> type) {
+        try {
+            return reader(type).readValues(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 逐个读取根级JSON数组的元素并交给action处理，处理完成后关闭输入流
+     *
+     * @param in     输入流
+     * @param type   元素类型
+     * @param action 元素处理逻辑
+     */
+    public <T> void forEach(InputStream in, Class<T> type, Consumer<? super T> action) {
+        try (MappingIterator<T> iterator = readValues(in, type)) {
+            while (iterator.hasNextValue()) {
+                action.accept(iterator.nextValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 以JSON数组的形式逐个写出元素，不关闭输出流
+     *
+     * @param out    输出流
+     * @param type   元素类型
+     * @param values 待写出的元素
+     */
+    public <T> void writeValues(OutputStream out, Class<T> type, Iterable<? extends T> values) {
+        try (JsonGenerator generator = createGenerator(out);
+             SequenceWriter sequence = writer(type).writeValuesAsArray(generator)) {
+            for (T value : values) {
+                sequence.write(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private ObjectWriter writerOf(Object value) {
+        return value == null ? objectMapper.writer() : writer(value.getClass());
+    }
+}
@@ -0,0 +1,116 @@
+package com.nextera.common.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * JSON编解码自动配置
+ * <p>
+ * 统一调整Spring Boot创建的ObjectMapper（HTTP消息转换、Feign、网关共用同一实例），
+ * 并基于该实例提供 {@link JsonCodec}，业务代码不再自行创建ObjectMapper。
+ * 服务间调用可通过 {@link WireCodec} 协商Smile/CBOR格式，对外接口的默认格式仍为JSON。
+ *
+ * @author Nextera
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class)
+@ConditionalOnClass(ObjectMapper.class)
+public class JsonCodecAutoConfiguration {
+
+    /**
+     * 服务间通用的序列化约定，未知属性与日期格式沿用Spring Boot默认（忽略未知属性、ISO-8601）
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer nexteraJsonCustomizer() {
+        return builder -> builder.featuresToDisable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+    }
+
+    /**
+     * Blackbird通过LambdaMetafactory生成属性访问器，替代反射调用getter/setter，
+     * Spring Boot会将容器中的Module注册到ObjectMapper
+     */
+    @Bean
+    @ConditionalOnClass(BlackbirdModule.class)
+    @ConditionalOnProperty(value = "nextera.json.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    @ConditionalOnBean(ObjectMapper.class)
+    @ConditionalOnMissingBean
+    public JsonCodec jsonCodec(ObjectMapper objectMapper) {
+        return new JsonCodec(objectMapper);
+    }
+
+    /**
+     * 服务间二进制消息格式，{@code nextera.json.wire-format} 为优先请求的格式（smile、cbor或json）
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({SmileFactory.class, CBORFactory.class})
+    @ConditionalOnBean(ObjectMapper.class)
+    @ConditionalOnProperty(value = "nextera.json.binary.enabled", havingValue = "true", matchIfMissing = true)
+    static class WireFormatConfiguration {
+
+        /**
+         * Smile/CBOR的ObjectMapper不注册为Bean，否则Spring Boot的Jackson自动配置会因已存在ObjectMapper而退出
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public WireCodec wireCodec(JsonCodec jsonCodec, ObjectProvider<Jackson2ObjectMapperBuilder> builders,
+                                   @Value("${nextera.json.wire-format:smile}") WireFormat preferred) {
+            ObjectMapper smileMapper = builders.getIfAvailable(Jackson2ObjectMapperBuilder::new)
+                    .factory(new SmileFactory()).build();
+            ObjectMapper cborMapper = builders.getIfAvailable(Jackson2ObjectMapperBuilder::new)
+                    .factory(new CBORFactory()).build();
+            return new WireCodec(jsonCodec, smileMapper, cborMapper, preferred);
+        }
+
+        /**
+         * Spring Boot的HttpMessageConverters用同类型的Bean原位替换默认转换器，二者排在JSON之后，
+         * 只有Accept中明确要求时才会选中，Accept为 {@code *}{@code /*} 的外部客户端仍得到JSON
+         */
+        @Bean
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+        public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(WireCodec wireCodec) {
+            return new MappingJackson2SmileHttpMessageConverter(wireCodec.mapper(WireFormat.SMILE));
+        }
+
+        @Bean
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+        public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(WireCodec wireCodec) {
+            return new MappingJackson2CborHttpMessageConverter(wireCodec.mapper(WireFormat.CBOR));
+        }
+
+        /**
+         * Feign的SpringDecoder使用同一组HttpMessageConverters，按响应的Content-Type解码
+         */
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(RequestInterceptor.class)
+        static class FeignWireFormatConfiguration {
+
+            @Bean
+            public WireFormatFeignRequestInterceptor wireFormatFeignRequestInterceptor(WireCodec wireCodec) {
+                return new WireFormatFeignRequestInterceptor(wireCodec);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.nextera.common.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 服务间HTTP调用的编解码器
+ * <p>
+ * 请求通过 {@link #acceptHeader()} 声明优先的二进制格式，响应按Content-Type选择对应的ObjectMapper解码，
+ * 对端未启用二进制格式时自动退回JSON。请求体仍使用JSON，避免对端不支持时返回415。
+ * JSON复用 {@link JsonCodec}，Smile/CBOR的ObjectMapper由同一个Jackson2ObjectMapperBuilder构建，序列化配置一致。
+ *
+ * @author Nextera
+ */
+public class WireCodec {
+
+    private final JsonCodec jsonCodec;
+
+    private final WireFormat preferred;
+
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+
+    private final ConcurrentMap<JavaType, ObjectReader> smileReaders = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<JavaType, ObjectReader> cborReaders = new ConcurrentHashMap<>();
+
+    /**
+     * @param jsonCodec   JSON编解码器
+     * @param smileMapper Smile格式的ObjectMapper
+     * @param cborMapper  CBOR格式的ObjectMapper
+     * @param preferred   优先请求的格式，为JSON时不协商
+     */
+    public WireCodec(JsonCodec jsonCodec, ObjectMapper smileMapper, ObjectMapper cborMapper, WireFormat preferred) {
+        this.jsonCodec = jsonCodec;
+        this.preferred = preferred;
+        mappers.put(WireFormat.JSON, jsonCodec.getObjectMapper());
+        mappers.put(WireFormat.SMILE, smileMapper);
+        mappers.put(WireFormat.CBOR, cborMapper);
+    }
+
+    public WireFormat getPreferred() {
+        return preferred;
+    }
+
+    public ObjectMapper mapper(WireFormat format) {
+        return mappers.get(format);
+    }
+
+    /**
+     * 服务间请求使用的Accept请求头
+     */
+    public String acceptHeader() {
+        return preferred.acceptHeader();
+    }
+
+    /**
+     * 获取指定格式与类型的Reader
+     *
+     * @param format 消息格式
+     * @param type   目标类型
+     * @return 缓存的Reader
+     */
+    public ObjectReader reader(WireFormat format, JavaType type) {
+        return switch (format) {
+            case JSON -> jsonCodec.reader(type);
+            case SMILE -> smileReaders.computeIfAbsent(type, mappers.get(WireFormat.SMILE)::readerFor);
+            case CBOR -> cborReaders.computeIfAbsent(type, mappers.get(WireFormat.CBOR)::readerFor);
+        };
+    }
+
+    /**
+     * 按响应的Content-Type解码
+     *
+     * @param contentType 响应的Content-Type，可为null
+     * @param body        响应体
+     * @param type        目标类型
+     * @return 解析结果
+     */
+    public <T> T read(String contentType, byte[] body, TypeReference<T> type) {
+        return read(contentType, body, jsonCodec.getObjectMapper().constructType(type));
+    }
+
+    public <T> T read(String contentType, byte[] body, JavaType type) {
+        try {
+            return reader(WireFormat.of(contentType), type).readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 将响应体转为JSON文本用于日志，二进制格式先解析为树再输出
+     *
+     * @param contentType 响应的Content-Type，可为null
+     * @param body        响应体
+     * @return JSON文本，无法解析时返回长度描述
+     */
+    public String toLogString(String contentType, byte[] body) {
+        WireFormat format = WireFormat.of(contentType);
+        if (format == WireFormat.JSON) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        try {
+            return jsonCodec.toJson(mappers.get(format).readTree(body));
+        } catch (IOException | RuntimeException e) {
+            return "<" + format + " " + body.length + " bytes>";
+        }
+    }
+}
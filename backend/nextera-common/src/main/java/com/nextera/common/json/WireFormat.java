@@ -0,0 +1,52 @@
+package com.nextera.common.json;
+
+/**
+ * 服务间HTTP调用的消息格式
+ * <p>
+ * Smile与CBOR是JSON数据模型的二进制编码，省去字段名与数字的文本表示，
+ * 与JSON使用同一套Jackson注解和序列化配置，DTO无需改动。
+ *
+ * @author Nextera
+ */
+public enum WireFormat {
+
+    JSON("application/json"),
+
+    SMILE("application/x-jackson-smile"),
+
+    CBOR("application/cbor");
+
+    private final String mediaType;
+
+    WireFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * 优先使用本格式、对端不支持时退回JSON的Accept请求头
+     */
+    public String acceptHeader() {
+        return this == JSON ? mediaType : mediaType + ", " + JSON.mediaType + ";q=0.9";
+    }
+
+    /**
+     * 按Content-Type响应头判断格式，未知或缺失时按JSON处理
+     *
+     * @param contentType Content-Type，可为null
+     * @return 消息格式
+     */
+    public static WireFormat of(String contentType) {
+        if (contentType != null) {
+            for (WireFormat format : values()) {
+                if (contentType.regionMatches(true, 0, format.mediaType, 0, format.mediaType.length())) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,26 @@
+package com.nextera.common.json;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Feign调用声明优先的二进制响应格式，接口已通过 {@code produces} 指定Accept时不覆盖
+ *
+ * @author Nextera
+ */
+public class WireFormatFeignRequestInterceptor implements RequestInterceptor {
+
+    private final String acceptHeader;
+
+    public WireFormatFeignRequestInterceptor(WireCodec wireCodec) {
+        this.acceptHeader = wireCodec.acceptHeader();
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+            template.header(HttpHeaders.ACCEPT, acceptHeader);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.nextera.common.leader;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 集群内只在持有租约的实例上执行，通常与 {@code @Scheduled} 一起使用
+ * <p>
+ * 未获得租约的实例直接跳过并返回null；执行期间可通过 {@link ClusterSingletonContext} 获取防护令牌、
+ * 在长循环中确认仍持有租约。服务未引入Redis时不生效，方法在每个实例上执行。
+ *
+ * @author Nextera
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ClusterSingleton {
+
+    /**
+     * 租约名，默认为方法的全限定名；多个方法使用同一租约名时由同一实例执行
+     */
+    String value() default "";
+}
@@ -0,0 +1,72 @@
+package com.nextera.common.leader;
+
+/**
+ * 当前线程正在执行的集群单例任务的租约
+ *
+ * @author Nextera
+ */
+public final class ClusterSingletonContext {
+
+    private static final ThreadLocal<Binding> CURRENT = new ThreadLocal<>();
+
+    private ClusterSingletonContext() {
+    }
+
+    /**
+     * 获取当前任务的防护令牌
+     *
+     * @return 防护令牌，不在 {@link ClusterSingleton} 方法中时为null
+     */
+    public static FencingToken currentToken() {
+        Binding binding = CURRENT.get();
+        return binding != null ? binding.token() : null;
+    }
+
+    /**
+     * 确认当前实例仍持有租约，耗时较长的任务应在处理每批数据前检查，失去租约后停止
+     *
+     * @return 仍持有租约，或不在 {@link ClusterSingleton} 方法中时返回true
+     */
+    public static boolean isLeader() {
+        Binding binding = CURRENT.get();
+        return binding == null || binding.elector().isLeader(binding.token());
+    }
+
+    /**
+     * 把当前任务的租约带到其他线程上执行的子任务中，子任务内同样可以获取令牌、确认租约
+     *
+     * @param task 子任务
+     * @return 绑定了当前租约的子任务，不在 {@link ClusterSingleton} 方法中时原样返回
+     */
+    public static Runnable wrap(Runnable task) {
+        Binding binding = CURRENT.get();
+        if (binding == null) {
+            return task;
+        }
+        return () -> {
+            Binding previous = bind(binding.elector(), binding.token());
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    static Binding bind(LeaderElector elector, FencingToken token) {
+        Binding previous = CURRENT.get();
+        CURRENT.set(new Binding(elector, token));
+        return previous;
+    }
+
+    static void restore(Binding previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    record Binding(LeaderElector elector, FencingToken token) {
+    }
+}
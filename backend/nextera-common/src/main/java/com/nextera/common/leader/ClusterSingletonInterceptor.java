@@ -0,0 +1,62 @@
+package com.nextera.common.leader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 处理 {@link ClusterSingleton} 注解的方法拦截器
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class ClusterSingletonInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<LeaderElector> leaderElector;
+
+    private final Map<Method, String> leaseNames = new ConcurrentHashMap<>();
+
+    /**
+     * @param leaderElector 延迟获取，避免创建切面时提前初始化Redis相关Bean
+     */
+    public ClusterSingletonInterceptor(ObjectProvider<LeaderElector> leaderElector) {
+        this.leaderElector = leaderElector;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : null;
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        String name = leaseNames.computeIfAbsent(method, ClusterSingletonInterceptor::leaseName);
+
+        LeaderElector elector = leaderElector.getObject();
+        FencingToken token = elector.tryAcquire(name);
+        if (token == null) {
+            log.debug("未持有集群租约，跳过执行: lease={}", name);
+            return null;
+        }
+        ClusterSingletonContext.Binding previous = ClusterSingletonContext.bind(elector, token);
+        try {
+            return invocation.proceed();
+        } finally {
+            ClusterSingletonContext.restore(previous);
+        }
+    }
+
+    private static String leaseName(Method method) {
+        ClusterSingleton annotation = AnnotatedElementUtils.findMergedAnnotation(method, ClusterSingleton.class);
+        if (annotation != null && StringUtils.hasText(annotation.value())) {
+            return annotation.value();
+        }
+        return ClassUtils.getQualifiedMethodName(method);
+    }
+}
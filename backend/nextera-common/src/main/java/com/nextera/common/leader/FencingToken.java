@@ -0,0 +1,14 @@
+package com.nextera.common.leader;
+
+/**
+ * 防护令牌
+ * <p>
+ * 每次有实例重新获得租约时令牌递增，同一任期内续约不变。写入外部存储时附带令牌，
+ * 存储拒绝比已见过的令牌更小的写入，即可挡住因GC停顿等原因在租约过期后仍以为自己是主的旧实例。
+ *
+ * @param lease 租约名
+ * @param token 令牌，单调递增
+ * @author Nextera
+ */
+public record FencingToken(String lease, long token) {
+}
@@ -0,0 +1,46 @@
+package com.nextera.common.leader;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Role;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 集群单例任务自动配置，在引入Redis的服务中启用
+ *
+ * @author Nextera
+ */
+@AutoConfiguration(after = RedisAutoConfiguration.class)
+@ConditionalOnClass(StringRedisTemplate.class)
+@ConditionalOnBean(StringRedisTemplate.class)
+@ConditionalOnProperty(value = "nextera.leader.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(LeaderElectionProperties.class)
+public class LeaderElectionAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LeaderElector leaderElector(StringRedisTemplate redisTemplate, LeaderElectionProperties properties) {
+        return new LeaderElector(redisTemplate, properties);
+    }
+
+    /**
+     * 注解切面，以基础设施角色注册，由事务使用的自动代理创建器一并织入
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor clusterSingletonAdvisor(ObjectProvider<LeaderElector> leaderElector) {
+        return new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(ClusterSingleton.class),
+                new ClusterSingletonInterceptor(leaderElector));
+    }
+}
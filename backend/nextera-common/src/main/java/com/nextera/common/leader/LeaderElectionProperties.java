@@ -0,0 +1,36 @@
+package com.nextera.common.leader;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 集群单例任务的选主配置
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.leader")
+public class LeaderElectionProperties {
+
+    /**
+     * 是否启用，关闭后 {@link ClusterSingleton} 方法在每个实例上执行
+     */
+    private boolean enabled = true;
+
+    /**
+     * 租约在Redis中的key前缀
+     */
+    private String keyPrefix = "nextera:leader:";
+
+    /**
+     * 租约有效期，持有者宕机后最长经过该时间由其他实例接管
+     */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    /**
+     * 持有者续约间隔，应明显小于租约有效期
+     */
+    private Duration renewInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,209 @@
+package com.nextera.common.leader;
+
+import cn.hutool.core.util.IdUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis租约的选主
+ * <p>
+ * 租约key的值为 {@code 实例ID:令牌}，带过期时间。key不存在时获得租约，并通过一个永不过期的计数器
+ * 生成递增的防护令牌；持有者由后台线程按 {@code renewInterval} 续约，宕机后租约过期由其他实例接管，
+ * 正常关闭时主动释放。续约线程在首次尝试获得租约时启动。租约key与计数器使用同一hash tag，兼容Redis Cluster。
+ * <p>
+ * 本地只在距上次成功续约不超过租约有效期的 90% 时认为自己是主，为实例间的时钟速率差留出余量；
+ * Redis不可用时不会获得新租约，已有租约在本地到期后失效，任务在所有实例上暂停而不是并发执行。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class LeaderElector implements DisposableBean {
+
+    /**
+     * 获取或续约：key不存在时生成新令牌并写入，已由本实例持有时续期并返回原令牌，否则返回-1
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('get', KEYS[1]) "
+                    + "if not current then "
+                    + "local token = redis.call('incr', KEYS[2]) "
+                    + "redis.call('set', KEYS[1], ARGV[1] .. ':' .. token, 'px', ARGV[2]) "
+                    + "return token end "
+                    + "local prefix = ARGV[1] .. ':' "
+                    + "if string.sub(current, 1, string.len(prefix)) == prefix then "
+                    + "redis.call('pexpire', KEYS[1], ARGV[2]) "
+                    + "return tonumber(string.sub(current, string.len(prefix) + 1)) end "
+                    + "return -1",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final LeaderElectionProperties properties;
+
+    private final String instanceId;
+
+    private final long validityNanos;
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    /**
+     * 续约线程，首次尝试获得租约时才启动，没有集群单例任务的服务不创建线程
+     */
+    private ScheduledExecutorService renewer;
+
+    private boolean destroyed;
+
+    public LeaderElector(StringRedisTemplate redisTemplate, LeaderElectionProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.instanceId = ManagementFactory.getRuntimeMXBean().getName() + "-" + IdUtil.fastSimpleUUID().substring(0, 8);
+        this.validityNanos = properties.getLeaseTtl().toNanos() / 10 * 9;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * 尝试获得（或确认仍持有）租约
+     *
+     * @param name 租约名
+     * @return 防护令牌，租约由其他实例持有或Redis不可用时返回null
+     */
+    public FencingToken tryAcquire(String name) {
+        startRenewer();
+        long start = System.nanoTime();
+        long token = acquireOrRenew(name);
+        if (token < 0) {
+            return null;
+        }
+        Lease lease = leases.compute(name, (key, previous) -> {
+            if (previous == null || previous.token() != token) {
+                log.info("获得集群租约: lease={}, token={}, instance={}", name, token, instanceId);
+            }
+            return new Lease(new FencingToken(name, token), start + validityNanos);
+        });
+        return lease.fencingToken();
+    }
+
+    /**
+     * 确认令牌对应的任期仍然有效：本地未过期且Redis中的租约仍是该令牌
+     *
+     * @param token 防护令牌
+     * @return 是否仍是主
+     */
+    public boolean isLeader(FencingToken token) {
+        Lease lease = leases.get(token.lease());
+        if (lease == null || lease.token() != token.token() || System.nanoTime() - lease.validUntilNanos() > 0) {
+            return false;
+        }
+        try {
+            return value(token).equals(redisTemplate.opsForValue().get(leaseKey(token.lease())));
+        } catch (RuntimeException e) {
+            log.warn("确认集群租约失败: lease={}, error={}", token.lease(), e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void startRenewer() {
+        if (renewer != null || destroyed) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("leader-renewal-");
+        threadFactory.setDaemon(true);
+        renewer = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        long interval = properties.getRenewInterval().toMillis();
+        renewer.scheduleWithFixedDelay(this::renewAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private long acquireOrRenew(String name) {
+        try {
+            Long token = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(leaseKey(name), fenceKey(name)),
+                    instanceId, String.valueOf(properties.getLeaseTtl().toMillis()));
+            return token != null ? token : -1;
+        } catch (RuntimeException e) {
+            log.warn("获取集群租约失败: lease={}, error={}", name, e.getMessage());
+            return -1;
+        }
+    }
+
+    void renewAll() {
+        for (Map.Entry<String, Lease> entry : leases.entrySet()) {
+            String name = entry.getKey();
+            long start = System.nanoTime();
+            long token = acquireOrRenew(name);
+            if (token == entry.getValue().token()) {
+                leases.put(name, new Lease(entry.getValue().fencingToken(), start + validityNanos));
+            } else if (token < 0 && isRedisReachable(name)) {
+                // 租约已被其他实例接管（如本实例长时间停顿后过期）
+                log.warn("失去集群租约: lease={}, token={}", name, entry.getValue().token());
+                leases.remove(name, entry.getValue());
+            } else if (token >= 0) {
+                // 本实例的租约过期后又重新获得，令牌已变化
+                leases.put(name, new Lease(new FencingToken(name, token), start + validityNanos));
+            }
+        }
+    }
+
+    private boolean isRedisReachable(String name) {
+        try {
+            redisTemplate.hasKey(leaseKey(name));
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (this) {
+            destroyed = true;
+            if (renewer != null) {
+                renewer.shutdownNow();
+            }
+        }
+        // 主动释放，其他实例无需等待租约过期即可接管
+        leases.forEach((name, lease) -> {
+            try {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey(name)), value(lease.fencingToken()));
+            } catch (RuntimeException e) {
+                log.warn("释放集群租约失败: lease={}, error={}", name, e.getMessage());
+            }
+        });
+        leases.clear();
+    }
+
+    private String value(FencingToken token) {
+        return instanceId + ":" + token.token();
+    }
+
+    private String leaseKey(String name) {
+        return properties.getKeyPrefix() + "{" + name + "}";
+    }
+
+    private String fenceKey(String name) {
+        return properties.getKeyPrefix() + "{" + name + "}:fence";
+    }
+
+    private record Lease(FencingToken fencingToken, long validUntilNanos) {
+
+        long token() {
+            return fencingToken.token();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.nextera.common.trace;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单跳耗时记录
+ * <p>
+ * 每一跳（HTTP入口、Feign/Dubbo调用、RocketMQ收发）开始时创建，结束时记录到指标
+ * {@code nextera.span{kind,component,name,outcome}}，并以DEBUG级别输出带请求ID的耗时日志；
+ * 按请求ID检索各服务日志即可得到一次请求在各跳的耗时分布。
+ * 处理期间MDC中的 {@code span} 为当前跳的描述，嵌套的跳结束后恢复外层的值。
+ * <p>
+ * 指标写入 {@link Metrics#globalRegistry}，Spring Boot默认会把容器中的MeterRegistry加入其中，
+ * 因此Dubbo SPI等非Spring管理的组件也能使用。name应为有限取值（路由模板、接口方法、Topic），不应包含ID等参数。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public final class HopSpan {
+
+    /**
+     * 当前跳的MDC键
+     */
+    public static final String MDC_KEY = "span";
+
+    private static final String METRIC_SPAN = "nextera.span";
+
+    public static final String KIND_SERVER = "server";
+
+    public static final String KIND_CLIENT = "client";
+
+    public static final String KIND_PRODUCER = "producer";
+
+    public static final String KIND_CONSUMER = "consumer";
+
+    public static final String OUTCOME_SUCCESS = "success";
+
+    public static final String OUTCOME_ERROR = "error";
+
+    private final String kind;
+
+    private final String component;
+
+    private final boolean attached;
+
+    private final String requestId;
+
+    private final String previousSpan;
+
+    private final long startNanos;
+
+    private String name;
+
+    private HopSpan(String kind, String component, String name, boolean attached) {
+        this.kind = kind;
+        this.component = component;
+        this.name = name;
+        this.attached = attached;
+        this.requestId = RequestIdContext.get();
+        this.previousSpan = attached ? MDC.get(MDC_KEY) : null;
+        this.startNanos = System.nanoTime();
+        if (attached) {
+            MDC.put(MDC_KEY, describe());
+        }
+    }
+
+    /**
+     * 开始一跳，并把当前跳写入MDC，必须在同一线程上结束
+     *
+     * @param kind      server、client、producer或consumer
+     * @param component http、feign、dubbo或rocketmq
+     * @param name      跳的名称
+     * @return 进行中的跳
+     */
+    public static HopSpan start(String kind, String component, String name) {
+        return new HopSpan(kind, component, name, true);
+    }
+
+    /**
+     * 开始一跳但不改动MDC，用于在其他线程上结束的跳（如Dubbo异步结果回调）
+     */
+    public static HopSpan startDetached(String kind, String component, String name) {
+        return new HopSpan(kind, component, name, false);
+    }
+
+    /**
+     * 名称在处理完成后才能确定时（如HTTP入口的路由模板）在结束前更新
+     */
+    public void rename(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 结束当前跳，记录耗时并恢复外层跳的MDC
+     *
+     * @param outcome success或error
+     */
+    public void end(String outcome) {
+        long duration = System.nanoTime() - startNanos;
+        try {
+            record(kind, component, name, outcome, duration);
+            if (log.isDebugEnabled()) {
+                log.debug("span {} requestId={} {} {}ms", describe(), requestId, outcome,
+                        TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+        } finally {
+            if (attached) {
+                if (previousSpan == null) {
+                    MDC.remove(MDC_KEY);
+                } else {
+                    MDC.put(MDC_KEY, previousSpan);
+                }
+            }
+        }
+    }
+
+    /**
+     * 直接记录一跳的耗时，用于开始与结束之间只能传递基本类型的场景（如RocketMQ异步发送）
+     *
+     * @param durationNanos 耗时（纳秒）
+     */
+    public static void record(String kind, String component, String name, String outcome, long durationNanos) {
+        Timer.builder(METRIC_SPAN)
+                .tag("kind", kind)
+                .tag("component", component)
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String describe() {
+        return kind + ':' + component + ':' + name;
+    }
+}
@@ -0,0 +1,55 @@
+package com.nextera.common.trace;
+
+import feign.Capability;
+import feign.RequestInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 请求ID传递与逐跳耗时自动配置，Dubbo过滤器通过SPI（META-INF/dubbo）注册，
+ * RocketMQ钩子 {@link RequestIdRocketMQHook} 由使用方注册到生产者与消费者
+ *
+ * @author Nextera
+ */
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(value = "nextera.request-id.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestIdAutoConfiguration {
+
+    /**
+     * 注册请求ID Servlet过滤器，排在截止时间过滤器之前，使被丢弃的请求日志中也带有请求ID
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<RequestIdServletFilter> requestIdServletFilter() {
+        FilterRegistrationBean<RequestIdServletFilter> registration =
+                new FilterRegistrationBean<>(new RequestIdServletFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Feign请求ID传递，在引入OpenFeign的服务中生效
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RequestInterceptor.class)
+    static class FeignRequestIdConfiguration {
+
+        @Bean
+        public RequestIdFeignRequestInterceptor requestIdFeignRequestInterceptor() {
+            return new RequestIdFeignRequestInterceptor();
+        }
+
+        @Bean
+        public Capability requestIdFeignCapability() {
+            return new RequestIdFeignCapability();
+        }
+    }
+}
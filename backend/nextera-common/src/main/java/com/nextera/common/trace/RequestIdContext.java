@@ -0,0 +1,77 @@
+package com.nextera.common.trace;
+
+import cn.hutool.core.util.IdUtil;
+import org.slf4j.MDC;
+
+/**
+ * 当前请求的请求ID（{@code X-Request-ID}）
+ * <p>
+ * 请求ID保存在MDC中，日志格式中使用 {@code %X{requestId}} 输出。由网关生成，经HTTP请求头、Feign、Dubbo附件和
+ * RocketMQ消息属性逐跳传递；入口处没有合法的请求ID时重新生成。
+ *
+ * @author Nextera
+ */
+public final class RequestIdContext {
+
+    /**
+     * 请求ID的MDC键
+     */
+    public static final String MDC_KEY = "requestId";
+
+    private static final int MAX_LENGTH = 64;
+
+    private RequestIdContext() {
+    }
+
+    /**
+     * 获取当前请求ID
+     *
+     * @return 请求ID，不在请求中时为null
+     */
+    public static String get() {
+        return MDC.get(MDC_KEY);
+    }
+
+    /**
+     * 设置当前请求ID
+     *
+     * @param requestId 请求ID，为null时清除
+     */
+    public static void set(String requestId) {
+        if (requestId == null) {
+            MDC.remove(MDC_KEY);
+        } else {
+            MDC.put(MDC_KEY, requestId);
+        }
+    }
+
+    /**
+     * 校验上游传入的请求ID，不合法（为空、过长或含有字母数字与 {@code -_.:} 以外的字符）时生成新的ID，
+     * 避免伪造的请求ID污染日志
+     *
+     * @param candidate 上游传入的请求ID
+     * @return 可用的请求ID
+     */
+    public static String accept(String candidate) {
+        return isValid(candidate) ? candidate : generate();
+    }
+
+    public static String generate() {
+        return IdUtil.fastSimpleUUID();
+    }
+
+    static boolean isValid(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == ':';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
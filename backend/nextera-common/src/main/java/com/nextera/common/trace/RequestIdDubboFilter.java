@@ -0,0 +1,70 @@
+package com.nextera.common.trace;
+
+import org.apache.dubbo.common.constants.CommonConstants;
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+
+/**
+ * Dubbo请求ID传递与耗时记录过滤器
+ * <p>
+ * 消费端：通过附件传递请求ID，调用结果返回时（含异步调用）记录耗时。
+ * 提供端：读取附件中的请求ID写入MDC，记录执行耗时。跳的名称为 {@code 接口简单名#方法名}。
+ *
+ * @author Nextera
+ */
+@Activate(group = {CommonConstants.CONSUMER, CommonConstants.PROVIDER}, order = -10000)
+public class RequestIdDubboFilter implements Filter, Filter.Listener {
+
+    /**
+     * 请求ID附件名
+     */
+    public static final String REQUEST_ID_ATTACHMENT = "nextera-request-id";
+
+    private static final String SPAN_ATTRIBUTE = "nextera.span";
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        String name = invoker.getInterface().getSimpleName() + "#" + invocation.getMethodName();
+        if (CommonConstants.CONSUMER_SIDE.equals(invoker.getUrl().getSide())) {
+            String requestId = RequestIdContext.get();
+            if (requestId != null) {
+                invocation.setAttachment(REQUEST_ID_ATTACHMENT, requestId);
+            }
+            invocation.put(SPAN_ATTRIBUTE, HopSpan.startDetached(HopSpan.KIND_CLIENT, "dubbo", name));
+            return invoker.invoke(invocation);
+        }
+
+        String previous = RequestIdContext.get();
+        RequestIdContext.set(RequestIdContext.accept(invocation.getAttachment(REQUEST_ID_ATTACHMENT)));
+        HopSpan span = HopSpan.start(HopSpan.KIND_SERVER, "dubbo", name);
+        String outcome = HopSpan.OUTCOME_ERROR;
+        try {
+            Result result = invoker.invoke(invocation);
+            outcome = result.hasException() ? HopSpan.OUTCOME_ERROR : HopSpan.OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            span.end(outcome);
+            RequestIdContext.set(previous);
+        }
+    }
+
+    @Override
+    public void onResponse(Result appResponse, Invoker<?> invoker, Invocation invocation) {
+        endClientSpan(invocation, appResponse.hasException() ? HopSpan.OUTCOME_ERROR : HopSpan.OUTCOME_SUCCESS);
+    }
+
+    @Override
+    public void onError(Throwable t, Invoker<?> invoker, Invocation invocation) {
+        endClientSpan(invocation, HopSpan.OUTCOME_ERROR);
+    }
+
+    private static void endClientSpan(Invocation invocation, String outcome) {
+        if (invocation.get(SPAN_ATTRIBUTE) instanceof HopSpan span) {
+            span.end(outcome);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.nextera.common.trace;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+
+/**
+ * 记录Feign调用的耗时，跳的名称为Feign方法的configKey（如 {@code ArticleClient#getArticle(Long)}）
+ *
+ * @author Nextera
+ */
+public class RequestIdFeignCapability implements Capability {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            HopSpan span = HopSpan.start(HopSpan.KIND_CLIENT, "feign", nameOf(request));
+            String outcome = HopSpan.OUTCOME_ERROR;
+            try {
+                Response response = client.execute(request, options);
+                outcome = response.status() >= 500 ? HopSpan.OUTCOME_ERROR : HopSpan.OUTCOME_SUCCESS;
+                return response;
+            } finally {
+                span.end(outcome);
+            }
+        };
+    }
+
+    private static String nameOf(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        MethodMetadata metadata = template != null ? template.methodMetadata() : null;
+        if (metadata != null) {
+            return metadata.configKey();
+        }
+        return request.httpMethod().name();
+    }
+}
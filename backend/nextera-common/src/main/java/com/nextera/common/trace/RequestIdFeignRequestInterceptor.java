@@ -0,0 +1,21 @@
+package com.nextera.common.trace;
+
+import com.nextera.common.constant.CommonConstants;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Feign调用传递请求ID
+ *
+ * @author Nextera
+ */
+public class RequestIdFeignRequestInterceptor implements RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        String requestId = RequestIdContext.get();
+        if (requestId != null) {
+            template.header(CommonConstants.Header.REQUEST_ID, requestId);
+        }
+    }
+}
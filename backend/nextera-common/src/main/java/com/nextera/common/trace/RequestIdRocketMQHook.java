@@ -0,0 +1,99 @@
+package com.nextera.common.trace;
+
+import org.apache.rocketmq.client.hook.ConsumeMessageContext;
+import org.apache.rocketmq.client.hook.ConsumeMessageHook;
+import org.apache.rocketmq.client.hook.SendMessageContext;
+import org.apache.rocketmq.client.hook.SendMessageHook;
+import org.apache.rocketmq.common.message.Message;
+import org.apache.rocketmq.common.message.MessageExt;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RocketMQ请求ID传递与耗时记录钩子
+ * <p>
+ * 发送端把当前请求ID写入消息属性 {@value #REQUEST_ID_PROPERTY} 并记录发送耗时；消费端在消费线程上恢复请求ID到MDC，
+ * 记录消费耗时，批量消费时取第一条消息的请求ID。跳的名称为Topic。需由使用方注册到生产者与消费者：
+ *
+ * <pre>
+ * producer.getDefaultMQProducerImpl().registerSendMessageHook(hook);
+ * consumer.getDefaultMQPushConsumerImpl().registerConsumeMessageHook(hook);
+ * </pre>
+ *
+ * @author Nextera
+ */
+public class RequestIdRocketMQHook implements SendMessageHook, ConsumeMessageHook {
+
+    /**
+     * 请求ID消息属性名
+     */
+    public static final String REQUEST_ID_PROPERTY = "nexteraRequestId";
+
+    private static final String SEND_START_PROP = "nexteraSendStartNanos";
+
+    /**
+     * 消费前后的钩子在同一个消费线程上执行
+     */
+    private static final ThreadLocal<ConsumeScope> CONSUME_SCOPE = new ThreadLocal<>();
+
+    @Override
+    public String hookName() {
+        return "nextera-request-id";
+    }
+
+    @Override
+    public void sendMessageBefore(SendMessageContext context) {
+        Message message = context.getMessage();
+        String requestId = RequestIdContext.get();
+        if (requestId != null && message.getUserProperty(REQUEST_ID_PROPERTY) == null) {
+            message.putUserProperty(REQUEST_ID_PROPERTY, requestId);
+        }
+        // 异步发送的after在回调线程上执行，开始时间随上下文传递
+        Map<String, String> props = context.getProps() != null ? context.getProps() : new HashMap<>();
+        props.put(SEND_START_PROP, String.valueOf(System.nanoTime()));
+        context.setProps(props);
+    }
+
+    @Override
+    public void sendMessageAfter(SendMessageContext context) {
+        String start = context.getProps() != null ? context.getProps().get(SEND_START_PROP) : null;
+        if (start == null) {
+            return;
+        }
+        String outcome = context.getException() == null ? HopSpan.OUTCOME_SUCCESS : HopSpan.OUTCOME_ERROR;
+        HopSpan.record(HopSpan.KIND_PRODUCER, "rocketmq", context.getMessage().getTopic(), outcome,
+                System.nanoTime() - Long.parseLong(start));
+    }
+
+    @Override
+    public void consumeMessageBefore(ConsumeMessageContext context) {
+        List<MessageExt> messages = context.getMsgList();
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        MessageExt first = messages.get(0);
+        String previous = RequestIdContext.get();
+        RequestIdContext.set(RequestIdContext.accept(first.getUserProperty(REQUEST_ID_PROPERTY)));
+        HopSpan span = HopSpan.start(HopSpan.KIND_CONSUMER, "rocketmq", first.getTopic());
+        CONSUME_SCOPE.set(new ConsumeScope(previous, span));
+    }
+
+    @Override
+    public void consumeMessageAfter(ConsumeMessageContext context) {
+        ConsumeScope scope = CONSUME_SCOPE.get();
+        if (scope == null) {
+            return;
+        }
+        CONSUME_SCOPE.remove();
+        try {
+            scope.span().end(context.isSuccess() ? HopSpan.OUTCOME_SUCCESS : HopSpan.OUTCOME_ERROR);
+        } finally {
+            RequestIdContext.set(scope.previousRequestId());
+        }
+    }
+
+    private record ConsumeScope(String previousRequestId, HopSpan span) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.nextera.common.trace;
+
+import com.nextera.common.constant.CommonConstants;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 读取或生成请求ID写入MDC并回写到响应头，同时记录本服务处理请求的耗时
+ * <p>
+ * 跳的名称为请求方法加Spring MVC匹配到的路由模板，未匹配到处理器时为 {@code UNMATCHED}。
+ *
+ * @author Nextera
+ */
+public class RequestIdServletFilter extends OncePerRequestFilter {
+
+    private static final String UNMATCHED = "UNMATCHED";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = RequestIdContext.accept(request.getHeader(CommonConstants.Header.REQUEST_ID));
+        String previous = RequestIdContext.get();
+        RequestIdContext.set(requestId);
+        response.setHeader(CommonConstants.Header.REQUEST_ID, requestId);
+
+        HopSpan span = HopSpan.start(HopSpan.KIND_SERVER, "http", request.getMethod() + " " + UNMATCHED);
+        String outcome = HopSpan.OUTCOME_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            outcome = response.getStatus() >= 500 ? HopSpan.OUTCOME_ERROR : HopSpan.OUTCOME_SUCCESS;
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                span.rename(request.getMethod() + " " + pattern);
+            }
+            span.end(outcome);
+            RequestIdContext.set(previous);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nextera.common.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 解析并校验通过的Token主体信息，不可变，可在一次请求内多处复用而不必重复解析Token
+ *
+ * @param userId 用户ID
+ * @param username 用户名
+ * @param expiresAt 过期时间（毫秒时间戳）
+ * @param claims 全部Claims（只读）
+ * @author Nextera
+ */
+public record JwtPrincipal(Long userId, String username, long expiresAt, Map<String, Object> claims) {
+
+    /**
+     * 刷新Token的type值
+     */
+    public static final String REFRESH_TYPE = "refresh";
+
+    public JwtPrincipal {
+        claims = claims == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(claims));
+    }
+
+    /**
+     * 判断Token在指定时刻是否已过期
+     *
+     * @param nowMillis 当前毫秒时间戳
+     * @return 是否过期
+     */
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAt;
+    }
+
+    /**
+     * 是否为刷新Token
+     *
+     * @return 是否为刷新Token
+     */
+    public boolean isRefreshToken() {
+        return REFRESH_TYPE.equals(claims.get("type"));
+    }
+}
@@ -1,18 +1,39 @@
 package com.nextera.common.util;
 
-import io.jsonwebtoken.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT工具类
+ * <p>
+ * 密钥与解析器在初始化时构建一次。需要多个字段时使用 {@link #parse(String)} 只解析一次Token；
+ * 配置 {@code nextera.jwt.cache-size} 后，校验通过的Token按SHA-256摘要缓存在有界Caffeine缓存中（需引入Caffeine），
+ * 条目在Token过期时失效，配置 {@code nextera.jwt.cache-ttl} 时不超过该时长。
  *
  * @author Nextera
  */
@@ -38,11 +59,36 @@ public class JwtUtil {
     @Value("${nextera.jwt.refresh-expiration:7}")
     private Integer refreshExpiration;
 
+    /**
+     * 校验通过的Token缓存条数，为0时不缓存
+     */
+    @Value("${nextera.jwt.cache-size:0}")
+    private int cacheSize;
+
+    /**
+     * 校验通过的Token最长缓存时间，为0时缓存到Token过期
+     */
+    @Value("${nextera.jwt.cache-ttl:0s}")
+    private Duration cacheTtl = Duration.ZERO;
+
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    private VerifiedTokenCache cache;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.cache = cacheSize > 0 ? new VerifiedTokenCache(cacheSize, cacheTtl) : null;
+    }
+
     /**
      * 获取密钥
      */
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     /**
@@ -99,6 +145,46 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * 解析并校验Token，返回不可变的主体信息，启用缓存时相同Token在过期前只校验一次签名
+     *
+     * @param token Token
+     * @return 主体信息
+     */
+    public JwtPrincipal parse(String token) {
+        if (cache == null) {
+            return toPrincipal(parseToken(token));
+        }
+        TokenKey key = TokenKey.of(token);
+        JwtPrincipal cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        JwtPrincipal principal = toPrincipal(parseToken(token));
+        cache.put(key, principal);
+        return principal;
+    }
+
+    /**
+     * 解析并校验Token，无效时返回null而不抛出异常
+     *
+     * @param token Token
+     * @return 主体信息，Token无效或已过期时为null
+     */
+    public JwtPrincipal tryParse(String token) {
+        try {
+            return parse(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static JwtPrincipal toPrincipal(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return new JwtPrincipal(claims.get("userId", Long.class), claims.getSubject(),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE, claims);
+    }
+
     /**
      * 解析Token
      *
@@ -107,11 +193,7 @@ public class JwtUtil {
      */
     public Claims parseToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             log.warn("Token已过期: {}", e.getMessage());
             throw new RuntimeException("Token已过期");
@@ -137,12 +219,7 @@ public class JwtUtil {
      * @return 是否有效
      */
     public boolean validateToken(String token) {
-        try {
-            parseToken(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return tryParse(token) != null;
     }
 
     /**
@@ -152,8 +229,7 @@ public class JwtUtil {
      * @return 用户名
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.getSubject();
+        return parse(token).username();
     }
 
     /**
@@ -163,19 +239,18 @@ public class JwtUtil {
      * @return 用户ID
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.get("userId", Long.class);
+        return parse(token).userId();
     }
 
     /**
      * 从Token中获取过期时间
      *
      * @param token Token
-     * @return 过期时间
+     * @return 过期时间，Token没有exp时为null
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = parseToken(token);
-        return claims.getExpiration();
+        long expiresAt = parse(token).expiresAt();
+        return expiresAt == Long.MAX_VALUE ? null : new Date(expiresAt);
     }
 
     /**
@@ -187,7 +262,7 @@ public class JwtUtil {
     public boolean isTokenExpired(String token) {
         try {
             Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
+            return expiration == null || expiration.before(new Date());
         } catch (Exception e) {
             return true;
         }
@@ -201,12 +276,76 @@ public class JwtUtil {
      */
     public String refreshToken(String token) {
         try {
-            Claims claims = parseToken(token);
-            Long userId = claims.get("userId", Long.class);
-            String username = claims.getSubject();
-            return generateToken(userId, username);
+            JwtPrincipal principal = parse(token);
+            return generateToken(principal.userId(), principal.username());
         } catch (Exception e) {
             throw new RuntimeException("Token刷新失败");
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Token的SHA-256摘要前128位，缓存中不保存Token原文
+     */
+    private record TokenKey(long high, long low) {
+
+        static TokenKey of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenKey(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 校验通过的Token的有界缓存，每个条目在Token过期或超过最长缓存时间时失效
+     */
+    private static final class VerifiedTokenCache {
+
+        private final Cache<TokenKey, JwtPrincipal> entries;
+
+        private final long ttlNanos;
+
+        VerifiedTokenCache(int maxSize, Duration ttl) {
+            this.ttlNanos = ttl != null && ttl.isPositive() ? ttl.toNanos() : Long.MAX_VALUE;
+            this.entries = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfter(new Expiry<TokenKey, JwtPrincipal>() {
+                        @Override
+                        public long expireAfterCreate(TokenKey key, JwtPrincipal principal, long currentTime) {
+                            return Math.min(ttlNanos, remainingNanos(principal));
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(TokenKey key, JwtPrincipal principal, long currentTime,
+                                long currentDuration) {
+                            return Math.min(ttlNanos, remainingNanos(principal));
+                        }
+
+                        @Override
+                        public long expireAfterRead(TokenKey key, JwtPrincipal principal, long currentTime,
+                                long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build();
+        }
+
+        private static long remainingNanos(JwtPrincipal principal) {
+            if (principal.expiresAt() == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, principal.expiresAt() - System.currentTimeMillis()));
+        }
+
+        JwtPrincipal get(TokenKey key) {
+            return entries.getIfPresent(key);
+        }
+
+        void put(TokenKey key, JwtPrincipal principal) {
+            entries.put(key, principal);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.nextera.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.json.JsonCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 二级缓存测试
+ *
+ * @author Nextera
+ */
+@DisplayName("二级缓存测试")
+public class TwoLevelCacheTest {
+
+    private static final String NAME = "nextera:test:";
+
+    private final JsonCodec jsonCodec = new JsonCodec(new ObjectMapper());
+
+    private final TwoLevelCacheProperties properties = new TwoLevelCacheProperties();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private StringRedisTemplate redisTemplate;
+
+    private ValueOperations<String, String> valueOperations;
+
+    private TwoLevelCacheManager manager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties.setLockWait(Duration.ofMillis(200));
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(Boolean.TRUE);
+        manager = new TwoLevelCacheManager(properties, redisTemplate, jsonCodec, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("加载结果为null时缓存空值，L1与L2命中空值都不再回源")
+    void shouldCacheNullValues() {
+        TwoLevelCache cache = manager.getCache(NAME);
+
+        assertNull(cache.get(1L, String.class, this::loadNull));
+        assertNull(cache.get(1L, String.class, this::loadNull));
+        assertEquals(1, loads.get());
+        ArgumentCaptor<Duration> ttl = ArgumentCaptor.forClass(Duration.class);
+        verify(valueOperations).set(eq(NAME + "1"), eq(""), ttl.capture());
+        assertTrue(ttl.getValue().compareTo(properties.getNullTtl().multipliedBy(2)) < 0);
+
+        // 新实例的L1为空，L2中的空值占位同样命中
+        when(valueOperations.get(NAME + "2")).thenReturn("");
+        assertNull(cache.get(2L, String.class, this::loadNull));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("未抢到回源锁时等待其他实例回填L2，超时后自行回源")
+    void shouldAwaitRemoteWhenLockIsHeld() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(Boolean.FALSE);
+        when(valueOperations.get(NAME + "1")).thenReturn(null, null, "\"remote\"");
+        TwoLevelCache cache = manager.getCache(NAME);
+
+        assertEquals("remote", cache.get(1L, String.class, () -> load("local")));
+        assertEquals(0, loads.get());
+        assertEquals("remote", cache.get(1L, String.class, () -> load("local")));
+
+        long start = System.nanoTime();
+        assertEquals("local", cache.get(2L, String.class, () -> load("local")));
+        assertTrue(System.nanoTime() - start >= properties.getLockWait().toNanos());
+        assertEquals(1, loads.get());
+        verify(valueOperations).set(eq(NAME + "2"), eq("\"local\""), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("忽略自己发出的失效广播，其他实例的广播只清理L1")
+    void shouldIgnoreOwnInvalidation() {
+        TwoLevelCache cache = manager.getCache(NAME);
+        assertEquals("v1", cache.get(1L, String.class, () -> load("v1")));
+
+        cache.put(1L, "v1");
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(properties.getChannel()), published.capture());
+        manager.onMessage(message(published.getValue()), null);
+        assertEquals("v1", cache.get(1L, String.class, () -> load("v2")));
+        assertEquals(1, loads.get());
+
+        TwoLevelCacheManager.Invalidation remote = new TwoLevelCacheManager.Invalidation("other", NAME, "1");
+        manager.onMessage(message(jsonCodec.toJson(remote)), null);
+        assertEquals("v2", cache.get(1L, String.class, () -> load("v2")));
+        assertEquals(2, loads.get());
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("跳过缓存的范围内直接回源，不回填缓存")
+    void shouldBypassCache() {
+        TwoLevelCache cache = manager.getCache(NAME);
+        assertEquals("v1", cache.get(1L, String.class, () -> load("v1")));
+
+        assertEquals("v2", TwoLevelCacheBypass.call(() -> cache.get(1L, String.class, () -> load("v2"))));
+        assertFalse(TwoLevelCacheBypass.isActive());
+        assertEquals("v1", cache.get(1L, String.class, () -> load("v3")));
+        assertEquals(2, loads.get());
+    }
+
+    private String loadNull() {
+        loads.incrementAndGet();
+        return null;
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("nextera:cache:invalidate".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,60 @@
+package com.nextera.common.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 请求截止时间上下文测试
+ *
+ * @author Nextera
+ */
+@DisplayName("请求截止时间上下文测试")
+public class DeadlineContextTest {
+
+    @AfterEach
+    void clear() {
+        DeadlineContext.clear();
+    }
+
+    @Test
+    @DisplayName("没有截止时间时剩余时间不受限且不会过期")
+    void shouldBeUnboundedWithoutDeadline() {
+        assertNull(DeadlineContext.get());
+        assertEquals(Long.MAX_VALUE, DeadlineContext.remainingMillis());
+        assertDoesNotThrow(() -> DeadlineContext.checkNotExpired("query"));
+    }
+
+    @Test
+    @DisplayName("剩余时间为截止时间减去当前时间")
+    void shouldComputeRemainingBudget() {
+        DeadlineContext.set(System.currentTimeMillis() + 500);
+        long remaining = DeadlineContext.remainingMillis();
+        assertTrue(remaining > 0 && remaining <= 500, "remaining: " + remaining);
+        assertDoesNotThrow(() -> DeadlineContext.checkNotExpired("query"));
+
+        DeadlineContext.set(null);
+        assertNull(DeadlineContext.get());
+    }
+
+    @Test
+    @DisplayName("截止时间已过时抛出超时异常")
+    void shouldRejectExpiredDeadline() {
+        DeadlineContext.set(System.currentTimeMillis() - 100);
+        assertTrue(DeadlineContext.remainingMillis() <= -100);
+        DeadlineExceededException e = assertThrows(DeadlineExceededException.class,
+                () -> DeadlineContext.checkNotExpired("query"));
+        assertTrue(e.getMessage().startsWith("query"));
+    }
+
+    @Test
+    @DisplayName("截止时间请求头为空或格式错误时视为没有截止时间")
+    void shouldParseHeader() {
+        assertEquals(1700000000000L, DeadlineContext.parse(" 1700000000000 "));
+        assertNull(DeadlineContext.parse(null));
+        assertNull(DeadlineContext.parse(""));
+        assertNull(DeadlineContext.parse("10s"));
+    }
+}
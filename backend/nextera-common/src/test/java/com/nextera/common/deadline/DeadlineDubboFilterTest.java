@@ -0,0 +1,124 @@
+package com.nextera.common.deadline;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.constants.CommonConstants;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Dubbo截止时间传递过滤器测试
+ *
+ * @author Nextera
+ */
+@DisplayName("Dubbo截止时间传递过滤器测试")
+public class DeadlineDubboFilterTest {
+
+    private static final URL CONSUMER_URL = URL.valueOf("dubbo://127.0.0.1:20880/com.nextera.api.UserService?side=consumer&timeout=3000");
+
+    private static final URL PROVIDER_URL = URL.valueOf("dubbo://127.0.0.1:20880/com.nextera.api.UserService?side=provider");
+
+    private final DeadlineDubboFilter filter = new DeadlineDubboFilter();
+
+    private final Result result = mock(Result.class);
+
+    @AfterEach
+    void clear() {
+        DeadlineContext.clear();
+    }
+
+    @Test
+    @DisplayName("消费端剩余时间小于配置超时时传递截止时间并缩短超时")
+    void shouldShortenConsumerTimeout() {
+        long deadline = System.currentTimeMillis() + 500;
+        DeadlineContext.set(deadline);
+        RpcInvocation invocation = invocation();
+
+        assertSame(result, filter.invoke(invoker(CONSUMER_URL), invocation));
+        assertEquals(String.valueOf(deadline), invocation.getAttachment(DeadlineDubboFilter.DEADLINE_ATTACHMENT));
+        int timeout = (Integer) invocation.getObjectAttachment(CommonConstants.TIMEOUT_KEY);
+        assertTrue(timeout > 0 && timeout <= 500, "timeout: " + timeout);
+    }
+
+    @Test
+    @DisplayName("消费端剩余时间充足时保留配置超时，没有截止时间时不传递")
+    void shouldKeepConsumerTimeoutWithinBudget() {
+        DeadlineContext.set(System.currentTimeMillis() + 60_000);
+        RpcInvocation invocation = invocation();
+        filter.invoke(invoker(CONSUMER_URL), invocation);
+        assertNotNull(invocation.getAttachment(DeadlineDubboFilter.DEADLINE_ATTACHMENT));
+        assertNull(invocation.getObjectAttachment(CommonConstants.TIMEOUT_KEY));
+
+        DeadlineContext.clear();
+        invocation = invocation();
+        filter.invoke(invoker(CONSUMER_URL), invocation);
+        assertNull(invocation.getAttachment(DeadlineDubboFilter.DEADLINE_ATTACHMENT));
+    }
+
+    @Test
+    @DisplayName("消费端截止时间已过时不再发起调用")
+    void shouldRejectExpiredConsumerCall() {
+        DeadlineContext.set(System.currentTimeMillis() - 100);
+        Invoker<?> invoker = invoker(CONSUMER_URL);
+
+        RpcException e = assertThrows(RpcException.class, () -> filter.invoke(invoker, invocation()));
+        assertTrue(e.isTimeout());
+        verify(invoker, never()).invoke(any());
+    }
+
+    @Test
+    @DisplayName("提供端执行期间设置截止时间，结束后恢复")
+    void shouldExposeDeadlineOnProvider() {
+        long deadline = System.currentTimeMillis() + 500;
+        RpcInvocation invocation = invocation();
+        invocation.setAttachment(DeadlineDubboFilter.DEADLINE_ATTACHMENT, String.valueOf(deadline));
+        AtomicReference<Long> seen = new AtomicReference<>();
+        Invoker<?> invoker = invoker(PROVIDER_URL);
+        when(invoker.invoke(any())).thenAnswer(call -> {
+            seen.set(DeadlineContext.get());
+            return result;
+        });
+
+        assertSame(result, filter.invoke(invoker, invocation));
+        assertEquals(deadline, seen.get());
+        assertNull(DeadlineContext.get());
+    }
+
+    @Test
+    @DisplayName("提供端丢弃已超过截止时间的调用")
+    void shouldDropExpiredProviderCall() {
+        RpcInvocation invocation = invocation();
+        invocation.setAttachment(DeadlineDubboFilter.DEADLINE_ATTACHMENT,
+                String.valueOf(System.currentTimeMillis() - 100));
+        Invoker<?> invoker = invoker(PROVIDER_URL);
+
+        Result dropped = filter.invoke(invoker, invocation);
+        assertTrue(dropped.hasException());
+        assertTrue(((RpcException) dropped.getException()).isTimeout());
+        verify(invoker, never()).invoke(any());
+    }
+
+    private Invoker<?> invoker(URL url) {
+        Invoker<?> invoker = mock(Invoker.class);
+        when(invoker.getUrl()).thenReturn(url);
+        doReturn(Runnable.class).when(invoker).getInterface();
+        when(invoker.invoke(any())).thenReturn(result);
+        return invoker;
+    }
+
+    private static RpcInvocation invocation() {
+        RpcInvocation invocation = new RpcInvocation();
+        invocation.setMethodName("getUserById");
+        return invocation;
+    }
+}
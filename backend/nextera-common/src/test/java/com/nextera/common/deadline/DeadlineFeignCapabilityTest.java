@@ -0,0 +1,78 @@
+package com.nextera.common.deadline;
+
+import feign.Client;
+import feign.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Feign截止时间超时缩短测试
+ *
+ * @author Nextera
+ */
+@DisplayName("Feign截止时间超时缩短测试")
+public class DeadlineFeignCapabilityTest {
+
+    private final Request.Options options = new Request.Options(1000, TimeUnit.MILLISECONDS, 5000,
+            TimeUnit.MILLISECONDS, true);
+
+    @AfterEach
+    void clear() {
+        DeadlineContext.clear();
+    }
+
+    @Test
+    @DisplayName("剩余时间充足或没有截止时间时保留原超时")
+    void shouldKeepOptionsWithinBudget() {
+        assertSame(options, DeadlineFeignCapability.shorten(options));
+
+        DeadlineContext.set(System.currentTimeMillis() + 60_000);
+        assertSame(options, DeadlineFeignCapability.shorten(options));
+    }
+
+    @Test
+    @DisplayName("剩余时间不足时连接、读取超时缩短到剩余时间")
+    void shouldShortenToRemainingBudget() {
+        DeadlineContext.set(System.currentTimeMillis() + 2000);
+        Request.Options shortened = DeadlineFeignCapability.shorten(options);
+        assertEquals(1000, shortened.connectTimeoutMillis());
+        assertTrue(shortened.readTimeoutMillis() > 0 && shortened.readTimeoutMillis() <= 2000,
+                "read timeout: " + shortened.readTimeoutMillis());
+        assertTrue(shortened.isFollowRedirects());
+
+        DeadlineContext.set(System.currentTimeMillis() + 300);
+        shortened = DeadlineFeignCapability.shorten(options);
+        assertTrue(shortened.connectTimeoutMillis() <= 300);
+        assertTrue(shortened.readTimeoutMillis() <= 300);
+    }
+
+    @Test
+    @DisplayName("截止时间已过时超时不小于1毫秒")
+    void shouldUseMinimalTimeoutWhenExpired() {
+        DeadlineContext.set(System.currentTimeMillis() - 100);
+        Request.Options shortened = DeadlineFeignCapability.shorten(options);
+        assertEquals(1, shortened.connectTimeoutMillis());
+        assertEquals(1, shortened.readTimeoutMillis());
+    }
+
+    @Test
+    @DisplayName("包装后的Client以缩短后的超时执行请求")
+    void shouldEnrichClient() throws Exception {
+        AtomicReference<Request.Options> used = new AtomicReference<>();
+        Client client = (request, options) -> {
+            used.set(options);
+            return null;
+        };
+        Client enriched = new DeadlineFeignCapability().enrich(client);
+
+        DeadlineContext.set(System.currentTimeMillis() + 300);
+        enriched.execute(null, options);
+        assertTrue(used.get().readTimeoutMillis() <= 300);
+    }
+}
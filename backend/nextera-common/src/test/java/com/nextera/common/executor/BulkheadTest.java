@@ -0,0 +1,120 @@
+package com.nextera.common.executor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 隔离舱测试
+ *
+ * @author Nextera
+ */
+@DisplayName("隔离舱测试")
+public class BulkheadTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private Bulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (bulkhead != null) {
+            bulkhead.shutdown(Duration.ofSeconds(5));
+        }
+    }
+
+    @ParameterizedTest(name = "virtual={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("并发数与排队数达到上限后拒绝，排队与执行数计入指标")
+    void shouldRejectWhenFull(boolean virtual) throws Exception {
+        bulkhead = new Bulkhead(spec(virtual, RejectionPolicy.ABORT), registry);
+
+        Future<?> running = bulkhead.submit(this::block);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<?> queued = bulkhead.submit(() -> { });
+
+        assertEquals(1, gauge("active"));
+        assertEquals(1, gauge("queued"));
+        assertThrows(TaskRejectedException.class, () -> bulkhead.submit(() -> { }));
+        assertEquals(1, registry.get("nextera.bulkhead.rejected").tag("bulkhead", "test").counter().count());
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        // Future完成早于任务包装的计数回收，关闭并等待线程结束后再检查
+        bulkhead.shutdown(Duration.ofSeconds(5));
+        assertEquals(0, gauge("active"));
+        assertEquals(0, gauge("queued"));
+        assertEquals(2, registry.get("nextera.bulkhead.wait").tag("bulkhead", "test").timer().count());
+    }
+
+    @ParameterizedTest(name = "virtual={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("DISCARD策略丢弃任务时取消其Future，调用方不会永久等待")
+    void shouldCancelDiscardedFuture(boolean virtual) throws Exception {
+        bulkhead = new Bulkhead(spec(virtual, RejectionPolicy.DISCARD), registry);
+
+        bulkhead.submit(this::block);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bulkhead.submit(() -> { });
+        Future<String> discarded = bulkhead.submit(() -> "discarded");
+
+        assertTrue(discarded.isCancelled());
+        assertEquals(1, registry.get("nextera.bulkhead.rejected").tag("bulkhead", "test").counter().count());
+    }
+
+    @ParameterizedTest(name = "virtual={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("CALLER_RUNS策略在提交线程上执行超出容量的任务")
+    void shouldRunOnCaller(boolean virtual) throws Exception {
+        bulkhead = new Bulkhead(spec(virtual, RejectionPolicy.CALLER_RUNS), registry);
+
+        bulkhead.submit(this::block);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bulkhead.submit(() -> { });
+        Thread caller = Thread.currentThread();
+        Future<Thread> overflow = bulkhead.submit(Thread::currentThread);
+
+        assertTrue(overflow.isDone());
+        assertSame(caller, overflow.get());
+    }
+
+    private void block() {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double gauge(String name) {
+        return registry.get("nextera.bulkhead." + name).tag("bulkhead", "test").gauge().value();
+    }
+
+    private static BulkheadProperties.Spec spec(boolean virtual, RejectionPolicy rejection) {
+        BulkheadProperties.Spec spec = new BulkheadProperties.Spec();
+        spec.setName("test");
+        spec.setCoreSize(1);
+        spec.setMaxSize(1);
+        spec.setQueueCapacity(1);
+        spec.setRejection(rejection);
+        spec.setVirtual(virtual);
+        return spec;
+    }
+}
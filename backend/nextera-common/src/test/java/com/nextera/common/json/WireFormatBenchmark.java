@@ -0,0 +1,132 @@
+package com.nextera.common.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.nextera.common.core.Result;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务间消息格式基准测试
+ * <p>
+ * 以文章列表的 {@code Result} 响应为负载，比较JSON、Smile、CBOR的编码与解码耗时，
+ * 负载大小作为辅助计数器 {@code payloadBytes} 与耗时一起输出。解码走 {@link WireCodec#read} 按Content-Type选择Reader的路径。
+ *
+ * @author Nextera
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<Result<List<ArticleView>>> RESULT_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public WireFormat format;
+
+    @Param({"1", "50"})
+    public int articles;
+
+    private WireCodec wireCodec;
+
+    private ObjectWriter writer;
+
+    private JavaType resultType;
+
+    private Result<List<ArticleView>> payload;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        wireCodec = wireCodec(WireFormat.SMILE);
+        ObjectMapper mapper = wireCodec.mapper(format);
+        resultType = mapper.constructType(RESULT_TYPE);
+        writer = mapper.writerFor(resultType);
+        payload = Result.success(articles(articles));
+        encoded = writer.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize size) throws IOException {
+        return writer.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public Result<List<ArticleView>> decode(PayloadSize size) {
+        return wireCodec.read(format.getMediaType(), encoded, resultType);
+    }
+
+    /**
+     * 编码后的负载大小，每轮迭代开始时设置，不随调用次数累加
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void setUp(WireFormatBenchmark benchmark) {
+            payloadBytes = benchmark.encoded.length;
+        }
+    }
+
+    private static WireCodec wireCodec(WireFormat preferred) {
+        JsonCodec jsonCodec = new JsonCodec(new Jackson2ObjectMapperBuilder().build());
+        return new WireCodec(jsonCodec, new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build(),
+                new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build(), preferred);
+    }
+
+    private static List<ArticleView> articles(int count) {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 17, 10, 30);
+        List<ArticleView> articles = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            articles.add(new ArticleView(1_000_000L + i, "文章标题 " + i, "这是第" + i + "篇文章的摘要，用于列表展示。",
+                    "https://cdn.nextera.com/cover/" + i + ".png", 7L, 42L + i, 1, false, true, 1024L * i, 16L * i,
+                    List.of("java", "spring", "microservice"), now.minusDays(i), now));
+        }
+        return articles;
+    }
+
+    public record ArticleView(Long id, String title, String summary, String coverImage, Long categoryId,
+            Long authorId, Integer status, Boolean isTop, Boolean isRecommend, Long viewCount, Long likeCount,
+            List<String> tags, LocalDateTime createTime, LocalDateTime updateTime) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WireFormatBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
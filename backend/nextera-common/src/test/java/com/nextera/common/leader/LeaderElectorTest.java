@@ -0,0 +1,186 @@
+package com.nextera.common.leader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 基于Redis租约的选主测试
+ * <p>
+ * 以内存Map模拟获取/续约与释放脚本的语义，校验选主对脚本结果的处理。
+ *
+ * @author Nextera
+ */
+@DisplayName("基于Redis租约的选主测试")
+public class LeaderElectorTest {
+
+    private static final String LEASE = "compensation";
+
+    private static final String LEASE_KEY = "nextera:leader:{compensation}";
+
+    private final Map<String, String> store = new HashMap<>();
+
+    private final List<LeaderElector> electors = new ArrayList<>();
+
+    private StringRedisTemplate redisTemplate;
+
+    private boolean redisDown;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> redis(() -> store.get(invocation.getArgument(0))));
+        when(redisTemplate.hasKey(anyString())).thenAnswer(invocation -> redis(() -> store.containsKey(invocation.getArgument(0))));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any())).thenAnswer(invocation -> redis(() -> {
+            List<String> keys = invocation.getArgument(1);
+            return release(keys.get(0), invocation.getArgument(2));
+        }));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenAnswer(invocation -> redis(() -> {
+            List<String> keys = invocation.getArgument(1);
+            return acquire(keys.get(0), keys.get(1), invocation.getArgument(2));
+        }));
+    }
+
+    @AfterEach
+    void tearDown() {
+        electors.forEach(LeaderElector::destroy);
+    }
+
+    @Test
+    @DisplayName("租约不存在时获得新令牌，续约保持令牌不变，其他实例获取失败")
+    void shouldAcquireAndRenew() {
+        LeaderElector first = elector();
+        LeaderElector second = elector();
+
+        FencingToken token = first.tryAcquire(LEASE);
+        assertEquals(new FencingToken(LEASE, 1), token);
+        assertEquals(first.getInstanceId() + ":1", store.get(LEASE_KEY));
+        assertEquals("1", store.get(LEASE_KEY + ":fence"));
+        assertTrue(first.isLeader(token));
+
+        assertEquals(token, first.tryAcquire(LEASE));
+        assertNull(second.tryAcquire(LEASE));
+        assertEquals("1", store.get(LEASE_KEY + ":fence"));
+
+        // 主动释放后由其他实例接管，令牌递增
+        first.destroy();
+        assertFalse(store.containsKey(LEASE_KEY));
+        FencingToken next = second.tryAcquire(LEASE);
+        assertEquals(new FencingToken(LEASE, 2), next);
+        assertFalse(first.isLeader(token));
+        assertTrue(second.isLeader(next));
+    }
+
+    @Test
+    @DisplayName("续约时发现租约已被其他实例接管，丢弃本地租约")
+    void shouldDropLeaseWhenTakenOver() {
+        LeaderElector elector = elector();
+        FencingToken token = elector.tryAcquire(LEASE);
+
+        // 本实例停顿期间租约过期，被其他实例以更大的令牌获得
+        store.put(LEASE_KEY, "other-instance:2");
+        store.put(LEASE_KEY + ":fence", "2");
+        elector.renewAll();
+
+        assertFalse(elector.isLeader(token));
+        assertNull(elector.tryAcquire(LEASE));
+
+        // 其他实例释放后重新获得，令牌变化
+        store.remove(LEASE_KEY);
+        assertEquals(new FencingToken(LEASE, 3), elector.tryAcquire(LEASE));
+        assertFalse(elector.isLeader(token));
+    }
+
+    @Test
+    @DisplayName("Redis不可用时续约失败但不丢弃本地租约，恢复后续约成功")
+    void shouldKeepLeaseWhileRedisIsDown() {
+        LeaderElector elector = elector();
+        FencingToken token = elector.tryAcquire(LEASE);
+
+        redisDown = true;
+        elector.renewAll();
+        assertFalse(elector.isLeader(token));
+        assertNull(elector.tryAcquire(LEASE));
+
+        redisDown = false;
+        elector.renewAll();
+        assertTrue(elector.isLeader(token));
+    }
+
+    @Test
+    @DisplayName("续约线程在首次尝试获得租约时才启动")
+    void shouldStartRenewerLazily() {
+        LeaderElector elector = elector();
+        assertNull(renewer(elector));
+
+        elector.tryAcquire(LEASE);
+        ScheduledExecutorService renewer = renewer(elector);
+        assertNotNull(renewer);
+        elector.tryAcquire(LEASE);
+        assertSame(renewer, renewer(elector));
+
+        elector.destroy();
+        assertTrue(renewer.isShutdown());
+    }
+
+    private LeaderElector elector() {
+        LeaderElector elector = new LeaderElector(redisTemplate, new LeaderElectionProperties());
+        electors.add(elector);
+        return elector;
+    }
+
+    /**
+     * 获取或续约脚本的语义
+     */
+    private Long acquire(String leaseKey, String fenceKey, String instanceId) {
+        String current = store.get(leaseKey);
+        if (current == null) {
+            long token = Long.parseLong(store.getOrDefault(fenceKey, "0")) + 1;
+            store.put(fenceKey, String.valueOf(token));
+            store.put(leaseKey, instanceId + ":" + token);
+            return token;
+        }
+        String prefix = instanceId + ":";
+        return current.startsWith(prefix) ? Long.parseLong(current.substring(prefix.length())) : -1L;
+    }
+
+    /**
+     * 释放脚本的语义
+     */
+    private Long release(String leaseKey, String value) {
+        return value.equals(store.get(leaseKey)) && store.remove(leaseKey) != null ? 1L : 0L;
+    }
+
+    private <T> T redis(Supplier<T> operation) {
+        if (redisDown) {
+            throw new RedisConnectionFailureException("Connection refused");
+        }
+        return operation.get();
+    }
+
+    private static ScheduledExecutorService renewer(LeaderElector elector) {
+        return (ScheduledExecutorService) ReflectionTestUtils.getField(elector, "renewer");
+    }
+}
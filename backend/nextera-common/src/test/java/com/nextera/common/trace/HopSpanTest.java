@@ -0,0 +1,87 @@
+package com.nextera.common.trace;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单跳耗时记录测试
+ *
+ * @author Nextera
+ */
+@DisplayName("单跳耗时记录测试")
+public class HopSpanTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.removeRegistry(registry);
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("嵌套的跳结束后恢复外层跳的MDC，最外层结束后清除")
+    void shouldRestoreOuterSpan() {
+        HopSpan server = HopSpan.start(HopSpan.KIND_SERVER, "http", "GET /api/user/{id}");
+        assertEquals("server:http:GET /api/user/{id}", MDC.get(HopSpan.MDC_KEY));
+
+        HopSpan client = HopSpan.start(HopSpan.KIND_CLIENT, "dubbo", "ArticleService.getArticleById");
+        assertEquals("client:dubbo:ArticleService.getArticleById", MDC.get(HopSpan.MDC_KEY));
+        client.end(HopSpan.OUTCOME_SUCCESS);
+        assertEquals("server:http:GET /api/user/{id}", MDC.get(HopSpan.MDC_KEY));
+
+        server.end(HopSpan.OUTCOME_SUCCESS);
+        assertNull(MDC.get(HopSpan.MDC_KEY));
+    }
+
+    @Test
+    @DisplayName("跳结束时恢复开始前已有的MDC值")
+    void shouldRestorePreexistingSpan() {
+        MDC.put(HopSpan.MDC_KEY, "outer");
+        HopSpan.start(HopSpan.KIND_PRODUCER, "rocketmq", "article-topic").end(HopSpan.OUTCOME_ERROR);
+        assertEquals("outer", MDC.get(HopSpan.MDC_KEY));
+    }
+
+    @Test
+    @DisplayName("分离的跳不改动MDC，可在其他线程上结束")
+    void shouldNotTouchMdcWhenDetached() throws InterruptedException {
+        HopSpan server = HopSpan.start(HopSpan.KIND_SERVER, "http", "GET /api/article/{id}");
+        HopSpan detached = HopSpan.startDetached(HopSpan.KIND_CLIENT, "dubbo", "UserService.getUserInfo");
+        assertEquals("server:http:GET /api/article/{id}", MDC.get(HopSpan.MDC_KEY));
+
+        Thread thread = new Thread(() -> detached.end(HopSpan.OUTCOME_SUCCESS));
+        thread.start();
+        thread.join();
+        assertEquals("server:http:GET /api/article/{id}", MDC.get(HopSpan.MDC_KEY));
+        server.end(HopSpan.OUTCOME_SUCCESS);
+        assertNull(MDC.get(HopSpan.MDC_KEY));
+    }
+
+    @Test
+    @DisplayName("结束时按重命名后的名称和结果记录耗时")
+    void shouldRecordRenamedSpan() {
+        HopSpan span = HopSpan.start(HopSpan.KIND_SERVER, "http", "unknown");
+        span.rename("POST /api/article");
+        span.end(HopSpan.OUTCOME_ERROR);
+
+        Timer timer = registry.find("nextera.span")
+                .tags("kind", "server", "component", "http", "name", "POST /api/article", "outcome", "error")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertNull(registry.find("nextera.span").tag("name", "unknown").timer());
+    }
+}
@@ -0,0 +1,59 @@
+package com.nextera.common.trace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 请求ID上下文测试
+ *
+ * @author Nextera
+ */
+@DisplayName("请求ID上下文测试")
+public class RequestIdContextTest {
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    @DisplayName("只接受长度不超过64、由字母数字与-_.:组成的请求ID")
+    void shouldValidateRequestId() {
+        assertTrue(RequestIdContext.isValid("0af7651916cd43dd8448eb211c80319c"));
+        assertTrue(RequestIdContext.isValid("gw-1.node_2:42"));
+        assertTrue(RequestIdContext.isValid("a".repeat(64)));
+
+        assertFalse(RequestIdContext.isValid(null));
+        assertFalse(RequestIdContext.isValid(""));
+        assertFalse(RequestIdContext.isValid("a".repeat(65)));
+        assertFalse(RequestIdContext.isValid("abc def"));
+        assertFalse(RequestIdContext.isValid("abc\nERROR forged"));
+        assertFalse(RequestIdContext.isValid("请求"));
+    }
+
+    @Test
+    @DisplayName("合法的请求ID原样接受，不合法时生成新的ID")
+    void shouldAcceptOrRegenerate() {
+        assertEquals("req-1", RequestIdContext.accept("req-1"));
+
+        String generated = RequestIdContext.accept("abc\r\nforged");
+        assertNotEquals("abc\r\nforged", generated);
+        assertTrue(RequestIdContext.isValid(generated));
+        assertTrue(RequestIdContext.isValid(RequestIdContext.accept(null)));
+    }
+
+    @Test
+    @DisplayName("请求ID保存在MDC中，设置为null时清除")
+    void shouldStoreInMdc() {
+        RequestIdContext.set("req-1");
+        assertEquals("req-1", MDC.get(RequestIdContext.MDC_KEY));
+        assertEquals("req-1", RequestIdContext.get());
+
+        RequestIdContext.set(null);
+        assertNull(RequestIdContext.get());
+    }
+}
@@ -0,0 +1,104 @@
+package com.nextera.common.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token解析基准测试
+ * <p>
+ * legacy 为改造前的做法：每个方法各自生成密钥、构建解析器，一次请求校验、取用户ID、取用户名共解析3次；
+ * getters 为密钥与解析器复用后仍调用3个方法；parseOnce 为 {@link JwtUtil#parse} 解析一次；
+ * parseCached 为启用校验缓存后的命中路径。
+ *
+ * @author Nextera
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "nextera-framework-jwt-secret-key-2024";
+
+    private JwtUtil jwtUtil;
+
+    private JwtUtil cachedJwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = jwtUtil(0);
+        cachedJwtUtil = jwtUtil(1024);
+        token = jwtUtil.generateToken(42L, "benchmark-user");
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        blackhole.consume(legacyParse(token) != null);
+        blackhole.consume(legacyParse(token).get("userId", Long.class));
+        blackhole.consume(legacyParse(token).getSubject());
+    }
+
+    @Benchmark
+    public void getters(Blackhole blackhole) {
+        blackhole.consume(jwtUtil.validateToken(token));
+        blackhole.consume(jwtUtil.getUserIdFromToken(token));
+        blackhole.consume(jwtUtil.getUsernameFromToken(token));
+    }
+
+    @Benchmark
+    public JwtPrincipal parseOnce() {
+        return jwtUtil.parse(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal parseCached() {
+        return cachedJwtUtil.parse(token);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static JwtUtil jwtUtil(int cacheSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", 24);
+        ReflectionTestUtils.setField(util, "refreshExpiration", 7);
+        ReflectionTestUtils.setField(util, "cacheSize", cacheSize);
+        util.init();
+        return util;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtParseBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.nextera.common.util;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JWT工具类测试
+ *
+ * @author Nextera
+ */
+@DisplayName("JWT工具类测试")
+public class JwtUtilTest {
+
+    private static final String SECRET = "nextera-framework-jwt-secret-key-2024";
+
+    @Test
+    @DisplayName("一次解析得到用户ID、用户名与过期时间")
+    void shouldParseOnce() {
+        JwtUtil jwtUtil = jwtUtil(0);
+        String token = jwtUtil.generateToken(42L, "alice");
+
+        JwtPrincipal principal = jwtUtil.parse(token);
+        assertEquals(42L, principal.userId());
+        assertEquals("alice", principal.username());
+        assertFalse(principal.isRefreshToken());
+        assertEquals(principal.expiresAt(), jwtUtil.getExpirationDateFromToken(token).getTime());
+        assertFalse(jwtUtil.isTokenExpired(token));
+        assertTrue(jwtUtil.parse(jwtUtil.generateRefreshToken(42L, "alice")).isRefreshToken());
+    }
+
+    @Test
+    @DisplayName("启用缓存时相同Token复用已校验的主体，未启用时每次重新解析")
+    void shouldReuseCachedPrincipal() {
+        JwtUtil cached = jwtUtil(16);
+        String token = cached.generateToken(42L, "alice");
+        assertSame(cached.parse(token), cached.parse(token));
+
+        JwtUtil uncached = jwtUtil(0);
+        assertNotSame(uncached.parse(token), uncached.parse(token));
+    }
+
+    @Test
+    @DisplayName("缓存条目在Token过期后失效，不再返回已过期的主体")
+    void shouldNotServeExpiredTokenFromCache() throws InterruptedException {
+        JwtUtil jwtUtil = jwtUtil(16);
+        String token = token(new Date(System.currentTimeMillis() + 2000));
+        assertNotNull(jwtUtil.parse(token));
+
+        Thread.sleep(2100);
+        assertNull(jwtUtil.tryParse(token));
+        assertThrows(RuntimeException.class, () -> jwtUtil.parse(token));
+        assertTrue(jwtUtil.isTokenExpired(token));
+    }
+
+    @Test
+    @DisplayName("配置最长缓存时间时，条目在Token过期前按该时间失效")
+    void shouldCapCacheTtl() throws InterruptedException {
+        JwtUtil jwtUtil = jwtUtil(16);
+        ReflectionTestUtils.setField(jwtUtil, "cacheTtl", Duration.ofMillis(100));
+        jwtUtil.init();
+        String token = jwtUtil.generateToken(42L, "alice");
+        JwtPrincipal first = jwtUtil.parse(token);
+        assertSame(first, jwtUtil.parse(token));
+
+        Thread.sleep(200);
+        JwtPrincipal reparsed = jwtUtil.parse(token);
+        assertNotSame(first, reparsed);
+        assertEquals(first.userId(), reparsed.userId());
+    }
+
+    @Test
+    @DisplayName("签名错误或格式错误的Token校验失败")
+    void shouldRejectInvalidToken() {
+        JwtUtil jwtUtil = jwtUtil(16);
+        String token = jwtUtil.generateToken(42L, "alice");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertFalse(jwtUtil.validateToken(tampered));
+        assertFalse(jwtUtil.validateToken("not-a-token"));
+        assertNull(jwtUtil.tryParse(tampered));
+    }
+
+    @Test
+    @DisplayName("没有exp的Token过期时间为null，并按已过期处理")
+    void shouldReturnNullExpirationWithoutExp() {
+        JwtUtil jwtUtil = jwtUtil(16);
+        String token = token(null);
+
+        assertNotNull(jwtUtil.parse(token));
+        assertNull(jwtUtil.getExpirationDateFromToken(token));
+        assertTrue(jwtUtil.isTokenExpired(token));
+    }
+
+    private static String token(Date expiration) {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("userId", 42L)
+                .claim("username", "alice")
+                .setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static JwtUtil jwtUtil(int cacheSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SECRET);
+        ReflectionTestUtils.setField(util, "expiration", 24);
+        ReflectionTestUtils.setField(util, "refreshExpiration", 7);
+        ReflectionTestUtils.setField(util, "cacheSize", cacheSize);
+        util.init();
+        return util;
+    }
+}
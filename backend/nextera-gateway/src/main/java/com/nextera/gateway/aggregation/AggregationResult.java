@@ -0,0 +1,27 @@
+package com.nextera.gateway.aggregation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * 聚合接口的合并结果，作为Result的data返回
+ *
+ * @param results 各分支的数据，下游返回Result时取其data；失败的分支为null
+ * @param failures 失败分支及原因，全部成功时不输出
+ * @author Nextera
+ */
+public record AggregationResult(Map<String, Object> results,
+		@JsonInclude(JsonInclude.Include.NON_EMPTY) Map<String, BranchFailure> failures) {
+
+	/**
+	 * 分支失败原因
+	 *
+	 * @param code 下游Result的code或网关错误码
+	 * @param message 失败描述
+	 */
+	public record BranchFailure(Integer code, String message) {
+
+	}
+
+}
@@ -0,0 +1,319 @@
+package com.nextera.gateway.apidoc;
+
+import com.alibaba.cloud.nacos.NacosDiscoveryProperties;
+import com.alibaba.cloud.nacos.NacosServiceManager;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nextera.gateway.config.NexteraApiDocProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 各服务OpenAPI文档的内存缓存
+ * <p>
+ * 启动时及每隔 {@code refresh-interval} 拉取所有服务的文档；订阅Nacos实例变化，服务实例变化后延迟
+ * {@code refresh-delay} 只刷新该服务。刷新失败（服务下线、发布中）时保留上一次成功的内容并标记为stale。
+ * 文档页面请求的其他文档路径（如分组文档）在首次请求时拉取，之后随所属服务一起刷新；
+ * 拉取失败且没有旧内容的路径在 {@code missing-ttl} 内直接返回空，不再为每个请求访问下游。
+ * 默认文档变化后重新生成合并文档。
+ * <p>
+ * 指标：{@code nextera.gateway.api-docs.refresh{service,outcome}} 刷新次数，
+ * {@code nextera.gateway.api-docs.stale} 处于stale状态的文档数。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class ApiDocCache implements InitializingBean, DisposableBean {
+
+	private static final String METRIC_PREFIX = "nextera.gateway.api-docs.";
+
+	private static final int MAX_PATHS_PER_SERVICE = 16;
+
+	private static final int MAX_MISSING_PATHS = 1024;
+
+	/**
+	 * 服务名到（文档路径到文档）的映射
+	 */
+	private final Map<String, Map<String, ApiDocument>> documents = new ConcurrentHashMap<>();
+
+	private final Map<String, Disposable> pendingRefreshes = new ConcurrentHashMap<>();
+
+	private final Map<String, EventListener> listeners = new ConcurrentHashMap<>();
+
+	private final Map<String, Counter> refreshCounters = new ConcurrentHashMap<>();
+
+	/**
+	 * 拉取失败且没有旧内容的文档，键为服务名加文档路径
+	 */
+	private final Cache<String, Boolean> missing;
+
+	private final NexteraApiDocProperties properties;
+
+	private final WebClient webClient;
+
+	private final ReactiveDiscoveryClient discoveryClient;
+
+	private final NacosServiceManager nacosServiceManager;
+
+	private final NacosDiscoveryProperties nacosProperties;
+
+	private final ObjectMapper objectMapper;
+
+	private final MeterRegistry meterRegistry;
+
+	private volatile ApiDocument merged;
+
+	private Disposable refreshSubscription;
+
+	/**
+	 * @param nacosServiceManager Nacos服务管理器，为空时只按间隔刷新
+	 * @param nacosProperties Nacos服务发现配置，为空时只按间隔刷新
+	 */
+	public ApiDocCache(NexteraApiDocProperties properties, WebClient.Builder webClientBuilder,
+			LoadBalancedExchangeFilterFunction loadBalancerFunction, ReactiveDiscoveryClient discoveryClient,
+			NacosServiceManager nacosServiceManager, NacosDiscoveryProperties nacosProperties,
+			ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.webClient = webClientBuilder.filter(loadBalancerFunction)
+			.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) properties.getMaxBodySize().toBytes()))
+			.build();
+		this.discoveryClient = discoveryClient;
+		this.nacosServiceManager = nacosServiceManager;
+		this.nacosProperties = nacosProperties;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+		this.missing = Caffeine.newBuilder()
+			.maximumSize(MAX_MISSING_PATHS)
+			.expireAfterWrite(properties.getMissingTtl())
+			.build();
+		Gauge.builder(METRIC_PREFIX + "stale", this, ApiDocCache::staleCount).register(meterRegistry);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		// 首次加载在后台进行，不阻塞网关启动
+		refreshSubscription = Flux.interval(Duration.ZERO, properties.getRefreshInterval())
+			.concatMap(tick -> refreshAll().onErrorResume(e -> {
+				log.warn("API doc refresh failed: {}", e.getMessage());
+				return Mono.empty();
+			}))
+			.subscribe();
+	}
+
+	@Override
+	public void destroy() {
+		if (refreshSubscription != null) {
+			refreshSubscription.dispose();
+		}
+		pendingRefreshes.values().forEach(Disposable::dispose);
+		listeners.forEach((service, listener) -> {
+			try {
+				nacosServiceManager.getNamingService().unsubscribe(service, nacosProperties.getGroup(), listener);
+			}
+			catch (NacosException e) {
+				log.debug("Failed to unsubscribe {}: {}", service, e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * 获取服务的文档，未缓存时拉取
+	 * @param service 服务名
+	 * @param path 服务内的文档路径，含查询参数
+	 * @return 文档，拉取失败且没有缓存时为空
+	 */
+	public Mono<ApiDocument> get(String service, String path) {
+		ApiDocument cached = documents.getOrDefault(service, Map.of()).get(path);
+		if (cached != null) {
+			return Mono.just(cached);
+		}
+		if (missing.getIfPresent(service + path) != null) {
+			return Mono.empty();
+		}
+		return fetch(service, path);
+	}
+
+	/**
+	 * 获取合并文档
+	 * @return 合并文档，还没有任何服务的文档时为空
+	 */
+	public Mono<ApiDocument> getMerged() {
+		return Mono.justOrEmpty(merged);
+	}
+
+	/**
+	 * 判断是否为已缓存文档的服务
+	 * @param service 服务名
+	 * @return 是否已知
+	 */
+	public boolean isKnownService(String service) {
+		return documents.containsKey(service);
+	}
+
+	/**
+	 * 服务实例变化，延迟刷新该服务的文档，期间的多次变化合并为一次
+	 * @param service 服务名
+	 */
+	public void onInstancesChanged(String service) {
+		Disposable refresh = Mono.delay(properties.getRefreshDelay()).then(refreshService(service)).subscribe();
+		Disposable previous = pendingRefreshes.put(service, refresh);
+		if (previous != null) {
+			previous.dispose();
+		}
+	}
+
+	private Mono<Void> refreshAll() {
+		return discoveryClient.getServices()
+			.filter(service -> !properties.getExcludedServices().contains(service))
+			.doOnNext(this::subscribe)
+			.flatMap(this::refreshDocuments, 4)
+			.then(Mono.fromRunnable(this::rebuildMerged));
+	}
+
+	private Mono<Void> refreshService(String service) {
+		return refreshDocuments(service).then(Mono.fromRunnable(this::rebuildMerged));
+	}
+
+	/**
+	 * 刷新服务的默认文档及已请求过的其他文档
+	 */
+	private Mono<Void> refreshDocuments(String service) {
+		Set<String> paths = new TreeSet<>(documents.getOrDefault(service, Map.of()).keySet());
+		paths.add(properties.getDocPath());
+		return Flux.fromIterable(paths).concatMap(path -> fetch(service, path)).then();
+	}
+
+	private Mono<ApiDocument> fetch(String service, String path) {
+		return webClient.get()
+			.uri("http://" + service + path)
+			.retrieve()
+			.bodyToMono(byte[].class)
+			.timeout(properties.getFetchTimeout())
+			.map(body -> {
+				ApiDocument document = ApiDocument.of(body);
+				Map<String, ApiDocument> serviceDocuments = documents.computeIfAbsent(service,
+						key -> new ConcurrentHashMap<>());
+				// 限制每个服务缓存的文档路径数，避免任意查询参数撑大缓存
+				if (serviceDocuments.containsKey(path) || serviceDocuments.size() < MAX_PATHS_PER_SERVICE) {
+					serviceDocuments.put(path, document);
+				}
+				missing.invalidate(service + path);
+				count(service, "success");
+				return document;
+			})
+			.onErrorResume(e -> {
+				log.warn("Failed to fetch API doc {}{}: {}", service, path, e.getMessage());
+				count(service, "failure");
+				Map<String, ApiDocument> serviceDocuments = documents.get(service);
+				ApiDocument lastGood = serviceDocuments != null ? serviceDocuments.get(path) : null;
+				if (lastGood == null) {
+					missing.put(service + path, Boolean.TRUE);
+					return Mono.empty();
+				}
+				ApiDocument stale = lastGood.markStale();
+				serviceDocuments.put(path, stale);
+				return Mono.just(stale);
+			});
+	}
+
+	/**
+	 * 用各服务的默认文档重新生成合并文档，内容未变化时保持原ETag
+	 */
+	private void rebuildMerged() {
+		Map<String, JsonNode> docs = new LinkedHashMap<>();
+		new TreeSet<>(documents.keySet()).forEach(service -> {
+			ApiDocument document = documents.get(service).get(properties.getDocPath());
+			if (document == null) {
+				return;
+			}
+			try {
+				docs.put(service, objectMapper.readTree(document.body()));
+			}
+			catch (IOException e) {
+				log.warn("Ignoring unparsable API doc of {}: {}", service, e.getMessage());
+			}
+		});
+		if (docs.isEmpty()) {
+			return;
+		}
+		try {
+			byte[] body = objectMapper
+				.writeValueAsBytes(OpenApiMerger.merge(properties.getTitle(), docs, objectMapper));
+			ApiDocument current = merged;
+			if (current == null || !current.etag().equals(ApiDocument.etag(body))) {
+				merged = ApiDocument.of(body);
+			}
+		}
+		catch (JsonProcessingException e) {
+			log.warn("Failed to write merged API doc: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * 订阅服务的Nacos实例变化
+	 */
+	private void subscribe(String service) {
+		if (nacosServiceManager == null || nacosProperties == null || listeners.containsKey(service)) {
+			return;
+		}
+		EventListener listener = event -> {
+			if (event instanceof NamingEvent) {
+				onInstancesChanged(service);
+			}
+		};
+		if (listeners.putIfAbsent(service, listener) != null) {
+			return;
+		}
+		try {
+			nacosServiceManager.getNamingService().subscribe(service, nacosProperties.getGroup(), listener);
+		}
+		catch (NacosException e) {
+			listeners.remove(service);
+			log.warn("Failed to subscribe instance changes of {}: {}", service, e.getMessage());
+		}
+	}
+
+	private void count(String service, String outcome) {
+		refreshCounters.computeIfAbsent(service + ':' + outcome, key -> Counter.builder(METRIC_PREFIX + "refresh")
+			.tag("service", service)
+			.tag("outcome", outcome)
+			.register(meterRegistry)).increment();
+	}
+
+	private int staleCount() {
+		int count = 0;
+		for (Map<String, ApiDocument> serviceDocuments : documents.values()) {
+			for (ApiDocument document : serviceDocuments.values()) {
+				if (document.stale()) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.nextera.gateway.apidoc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.core.Result;
+import com.nextera.common.core.ResultCode;
+import com.nextera.gateway.config.NexteraApiDocProperties;
+import com.nextera.gateway.ipfilter.IpAccessRules;
+import com.nextera.gateway.ipfilter.IpAction;
+import com.nextera.gateway.ratelimit.HierarchicalRateLimiter;
+import com.nextera.gateway.ratelimit.RateLimitTier;
+import com.nextera.gateway.utils.ResponseUtil;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.function.Supplier;
+
+/**
+ * 从 {@link ApiDocCache} 提供OpenAPI文档，文档页面加载时不再实时访问各服务
+ * <p>
+ * 处理以下GET请求，其余请求交给网关路由：
+ * <ul>
+ * <li>{@code merged-path}：合并文档</li>
+ * <li>{@code /<服务名><doc-path>[/**]}：服务发现路由形式的文档（Knife4j discover模式）</li>
+ * <li>{@code <doc-path>/<服务名>}：按服务名配置的文档路由</li>
+ * </ul>
+ * 响应带ETag，If-None-Match匹配时返回304；内容来自刷新失败前的旧文档时带 {@link #STALE_HEADER} 响应头。
+ * 排在最低优先级，Knife4j的Basic认证等过滤器先执行。
+ * <p>
+ * 文档请求在WebFilter中直接应答，不经过网关全局过滤器，因此在这里按 {@link IpAccessRules} 检查客户端地址（未启用时跳过），
+ * 并以 {@link #ROUTE_ID} 为路由按IP限流（{@code ip-rate}）。文档对匿名请求开放，与认证过滤器的处理一致。
+ *
+ * @author Nextera
+ */
+public class ApiDocWebFilter implements WebFilter, Ordered {
+
+	/**
+	 * 文档为刷新失败前的旧内容时的响应头
+	 */
+	public static final String STALE_HEADER = "X-Nextera-Doc-Stale";
+
+	/**
+	 * 文档请求限流使用的路由ID
+	 */
+	public static final String ROUTE_ID = "api-docs";
+
+	private final ApiDocCache cache;
+
+	private final NexteraApiDocProperties properties;
+
+	private final IpAccessRules ipRules;
+
+	private final HierarchicalRateLimiter rateLimiter;
+
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * @param ipRules 客户端地址规则，未启用地址过滤时为空
+	 */
+	public ApiDocWebFilter(ApiDocCache cache, NexteraApiDocProperties properties, IpAccessRules ipRules,
+			HierarchicalRateLimiter rateLimiter, ObjectMapper objectMapper) {
+		this.cache = cache;
+		this.properties = properties;
+		this.ipRules = ipRules;
+		this.rateLimiter = rateLimiter;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		if (!HttpMethod.GET.equals(request.getMethod())) {
+			return chain.filter(exchange);
+		}
+		String path = request.getPath().pathWithinApplication().value();
+		if (path.equals(properties.getMergedPath())) {
+			return guard(exchange, () -> write(exchange, cache.getMerged()));
+		}
+		String docPath = properties.getDocPath();
+		// <doc-path>/<服务名>
+		if (path.startsWith(docPath + "/")) {
+			String service = path.substring(docPath.length() + 1);
+			if (cache.isKnownService(service)) {
+				return guard(exchange, () -> write(exchange, cache.get(service, withQuery(path, request))));
+			}
+		}
+		// /<服务名><doc-path>[/**]
+		int slash = path.indexOf('/', 1);
+		if (slash > 1) {
+			String service = path.substring(1, slash);
+			String rest = path.substring(slash);
+			if ((rest.equals(docPath) || rest.startsWith(docPath + "/")) && cache.isKnownService(service)) {
+				return guard(exchange, () -> write(exchange, cache.get(service, withQuery(rest, request))));
+			}
+		}
+		return chain.filter(exchange);
+	}
+
+	/**
+	 * 依次检查客户端地址与IP限流，都通过后才读取文档
+	 */
+	private Mono<Void> guard(ServerWebExchange exchange, Supplier<Mono<Void>> serve) {
+		InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+		InetAddress address = remoteAddress != null ? remoteAddress.getAddress() : null;
+		if (address != null && ipRules != null && ipRules.decide(address) != IpAction.ALLOW) {
+			return ResponseUtil.writeResult(exchange, HttpStatus.FORBIDDEN, Result.error(ResultCode.FORBIDDEN),
+					objectMapper);
+		}
+		if (properties.getIpRate() <= 0) {
+			return serve.get();
+		}
+		String ip = address != null ? address.getHostAddress() : "unknown";
+		long burst = properties.getIpBurst() > 0 ? properties.getIpBurst() : (long) Math.ceil(properties.getIpRate());
+		return rateLimiter.tryAcquire(ROUTE_ID, RateLimitTier.IP, ip, properties.getIpRate(), burst)
+			.flatMap(allowed -> {
+				if (allowed) {
+					return serve.get();
+				}
+				exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+				return ResponseUtil.writeResult(exchange, HttpStatus.TOO_MANY_REQUESTS,
+						Result.error(ResultCode.TOO_MANY_REQUESTS), objectMapper);
+			});
+	}
+
+	private static String withQuery(String path, ServerHttpRequest request) {
+		String query = request.getURI().getRawQuery();
+		return query != null ? path + '?' + query : path;
+	}
+
+	private Mono<Void> write(ServerWebExchange exchange, Mono<ApiDocument> document) {
+		return document.flatMap(doc -> {
+			ServerHttpResponse response = exchange.getResponse();
+			HttpHeaders headers = response.getHeaders();
+			headers.setETag(doc.etag());
+			headers.setCacheControl("no-cache");
+			if (doc.stale()) {
+				headers.set(STALE_HEADER, "true");
+			}
+			if (doc.matches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+				response.setStatusCode(HttpStatus.NOT_MODIFIED);
+				return response.setComplete();
+			}
+			headers.setContentType(MediaType.APPLICATION_JSON);
+			headers.setContentLength(doc.body().length);
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(doc.body())));
+		})
+			.switchIfEmpty(Mono.defer(() -> ResponseUtil.writeResult(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+					Result.error(ResultCode.SERVICE_UNAVAILABLE), objectMapper)));
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+}
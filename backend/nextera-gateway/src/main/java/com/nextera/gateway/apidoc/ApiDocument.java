@@ -0,0 +1,57 @@
+package com.nextera.gateway.apidoc;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 缓存的OpenAPI文档
+ *
+ * @param body 文档内容
+ * @param etag 按内容计算的强ETag（带引号）
+ * @param fetchedAt 最近一次成功拉取的时间（毫秒时间戳）
+ * @param stale 最近一次刷新是否失败，失败时继续提供上一次成功的内容
+ * @author Nextera
+ */
+public record ApiDocument(byte[] body, String etag, long fetchedAt, boolean stale) {
+
+	public static ApiDocument of(byte[] body) {
+		return new ApiDocument(body, etag(body), System.currentTimeMillis(), false);
+	}
+
+	public ApiDocument markStale() {
+		return stale ? this : new ApiDocument(body, etag, fetchedAt, true);
+	}
+
+	/**
+	 * 判断If-None-Match是否与当前ETag匹配
+	 * @param ifNoneMatch If-None-Match请求头，可包含多个以逗号分隔的ETag
+	 * @return 是否匹配
+	 */
+	public boolean matches(String ifNoneMatch) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals("*") || tag.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static String etag(byte[] body) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+			return '"' + HexFormat.of().formatHex(digest, 0, 16) + '"';
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
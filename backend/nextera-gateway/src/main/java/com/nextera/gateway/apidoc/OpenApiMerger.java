@@ -0,0 +1,112 @@
+package com.nextera.gateway.apidoc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 合并各服务的OpenAPI文档
+ * <p>
+ * 路径加上 {@code /服务名} 前缀，与网关服务发现路由一致；组件名加上 {@code 服务名.} 前缀避免不同服务的同名模型互相覆盖，
+ * 文档中所有指向组件的 {@code $ref} 同步改写；标签合并去重。
+ *
+ * @author Nextera
+ */
+public final class OpenApiMerger {
+
+	private static final String COMPONENT_REF_PREFIX = "#/components/";
+
+	private OpenApiMerger() {
+	}
+
+	/**
+	 * 合并文档
+	 * @param title 合并后文档的标题
+	 * @param documents 服务名到文档的映射，按迭代顺序合并
+	 * @param objectMapper 对象映射器
+	 * @return 合并后的文档
+	 */
+	public static ObjectNode merge(String title, Map<String, JsonNode> documents, ObjectMapper objectMapper) {
+		ObjectNode merged = objectMapper.createObjectNode();
+		merged.put("openapi", "3.0.1");
+		merged.putObject("info").put("title", title).put("version", "merged");
+		ObjectNode paths = merged.putObject("paths");
+		ObjectNode components = objectMapper.createObjectNode();
+		ArrayNode tags = objectMapper.createArrayNode();
+		Set<String> tagNames = new HashSet<>();
+
+		documents.forEach((service, document) -> {
+			JsonNode copy = rewriteRefs(document.deepCopy(), service);
+			copy.path("paths").fields()
+				.forEachRemaining(entry -> paths.set("/" + service + entry.getKey(), entry.getValue()));
+			copy.path("components").fields().forEachRemaining(section -> {
+				if (!section.getValue().isObject()) {
+					return;
+				}
+				ObjectNode target = components.has(section.getKey()) ? (ObjectNode) components.get(section.getKey())
+						: components.putObject(section.getKey());
+				section.getValue()
+					.fields()
+					.forEachRemaining(component -> target.set(service + "." + component.getKey(),
+							component.getValue()));
+			});
+			for (JsonNode tag : copy.path("tags")) {
+				if (tagNames.add(tag.path("name").asText())) {
+					tags.add(tag);
+				}
+			}
+		});
+		if (!tags.isEmpty()) {
+			merged.set("tags", tags);
+		}
+		if (!components.isEmpty()) {
+			merged.set("components", components);
+		}
+		return merged;
+	}
+
+	/**
+	 * 把 {@code #/components/<类型>/<名称>} 改写为 {@code #/components/<类型>/<服务名>.<名称>}
+	 */
+	static JsonNode rewriteRefs(JsonNode node, String service) {
+		if (node.isObject()) {
+			ObjectNode object = (ObjectNode) node;
+			Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				JsonNode value = field.getValue();
+				if ("$ref".equals(field.getKey()) && value.isTextual()) {
+					field.setValue(TextNode.valueOf(rewriteRef(value.asText(), service)));
+				}
+				else {
+					rewriteRefs(value, service);
+				}
+			}
+		}
+		else if (node.isArray()) {
+			for (JsonNode element : node) {
+				rewriteRefs(element, service);
+			}
+		}
+		return node;
+	}
+
+	private static String rewriteRef(String ref, String service) {
+		if (!ref.startsWith(COMPONENT_REF_PREFIX)) {
+			return ref;
+		}
+		int slash = ref.indexOf('/', COMPONENT_REF_PREFIX.length());
+		if (slash < 0) {
+			return ref;
+		}
+		return ref.substring(0, slash + 1) + service + "." + ref.substring(slash + 1);
+	}
+
+}
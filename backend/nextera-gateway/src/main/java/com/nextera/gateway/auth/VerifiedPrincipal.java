@@ -0,0 +1,22 @@
+package com.nextera.gateway.auth;
+
+/**
+ * 网关校验通过的Token主体信息
+ *
+ * @param userId 用户ID
+ * @param username 用户名
+ * @param expiresAt Token过期时间（毫秒时间戳）
+ * @author Nextera
+ */
+public record VerifiedPrincipal(Long userId, String username, long expiresAt) {
+
+	/**
+	 * 判断Token在指定时刻是否已过期
+	 * @param nowMillis 当前毫秒时间戳
+	 * @return 是否过期
+	 */
+	public boolean isExpired(long nowMillis) {
+		return nowMillis >= expiresAt;
+	}
+
+}
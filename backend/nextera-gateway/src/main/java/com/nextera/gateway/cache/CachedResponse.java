@@ -0,0 +1,86 @@
+package com.nextera.gateway.cache;
+
+import cn.hutool.core.codec.Base64;
+import cn.hutool.crypto.digest.DigestUtil;
+import org.springframework.http.HttpHeaders;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 网关缓存的响应
+ *
+ * @param status HTTP状态码
+ * @param headers 需要回放的响应头
+ * @param body 响应体
+ * @param etag 强ETag（含双引号）
+ * @param createdAt 缓存时间（毫秒时间戳）
+ * @param expiresAt 过期时间（毫秒时间戳）
+ * @author Nextera
+ */
+public record CachedResponse(int status, Map<String, List<String>> headers, byte[] body, String etag, long createdAt,
+		long expiresAt) {
+
+	/**
+	 * 不回放的响应头（逐跳头及每次响应都不同的头）
+	 */
+	private static final Set<String> EXCLUDED_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+			"te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization", "date", "set-cookie", "etag",
+			"content-length", "x-cache");
+
+	public boolean isExpired(long nowMillis) {
+		return nowMillis >= expiresAt;
+	}
+
+	/**
+	 * 根据响应体计算强ETag
+	 * @param body 响应体
+	 * @return 带双引号的ETag
+	 */
+	public static String strongETag(byte[] body) {
+		return "\"" + Base64.encodeUrlSafe(DigestUtil.sha256(body)) + "\"";
+	}
+
+	/**
+	 * 判断If-None-Match是否命中，按RFC 7232对If-None-Match使用弱比较
+	 * @param ifNoneMatch 请求头If-None-Match的值
+	 * @param etag 当前ETag
+	 * @return 是否命中
+	 */
+	public static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null || etag == null) {
+			return false;
+		}
+		String opaque = stripWeak(etag);
+		for (String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+			if ("*".equals(value) || stripWeak(value).equals(opaque)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 复制可以回放给其他请求的响应头
+	 * @param headers 下游响应头
+	 * @return 可回放的响应头
+	 */
+	public static Map<String, List<String>> replayableHeaders(HttpHeaders headers) {
+		Map<String, List<String>> replay = new LinkedHashMap<>();
+		headers.forEach((name, values) -> {
+			if (!EXCLUDED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+				replay.put(name, List.copyOf(values));
+			}
+		});
+		return replay;
+	}
+
+	private static String stripWeak(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+}
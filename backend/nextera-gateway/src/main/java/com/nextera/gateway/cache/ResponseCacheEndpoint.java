@@ -0,0 +1,33 @@
+package com.nextera.gateway.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * 响应缓存管理端点
+ * <p>
+ * {@code DELETE /actuator/responsecache/{keyPrefix}} 按key前缀清除缓存，key格式为 {@code 路由ID:路径?查询参数}，
+ * 路径为 {@code StripPrefix} 重写后的路径，前缀只在路径段边界上匹配，
+ * 例如 {@code DELETE /actuator/responsecache/nextera-article:/1} 清除 {@code /1} 及 {@code /1/...}，不影响 {@code /10}；
+ * 只给出路由ID时清除整个路由。
+ *
+ * @author Nextera
+ */
+@Endpoint(id = "responsecache")
+@RequiredArgsConstructor
+public class ResponseCacheEndpoint {
+
+	private final ResponseCacheManager cacheManager;
+
+	@DeleteOperation
+	public Mono<Map<String, Object>> purge(@Selector(match = Selector.Match.ALL_REMAINING) String[] keyPrefix) {
+		String prefix = String.join("/", keyPrefix);
+		return cacheManager.purge(prefix).map(removed -> Map.of("prefix", prefix, "removed", removed));
+	}
+
+}
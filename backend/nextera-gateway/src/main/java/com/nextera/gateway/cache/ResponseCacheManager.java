@@ -0,0 +1,294 @@
+package com.nextera.gateway.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nextera.gateway.config.NexteraResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 两级响应缓存：本地Caffeine（L1）+ Redis（L2）
+ * <p>
+ * L2命中时回填L1；按前缀清除时同时清除Redis中的key，并通过Redis发布订阅通知所有网关实例清除各自的L1。
+ * <p>
+ * 缓存key格式为 {@code 路由ID:路径?查询参数|...}。写入L2时同时登记到该路由的索引（有序集合，分数为过期时间），
+ * 按前缀清除只遍历对应路由的索引，不扫描整个keyspace；前缀只在路径段边界上匹配，清除 {@code /article/1} 时保留
+ * {@code /article/10}。同一路由的缓存key与索引使用相同的hash tag。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class ResponseCacheManager implements InitializingBean, DisposableBean {
+
+	private static final String METRIC_REQUESTS = "nextera.gateway.cache.requests";
+
+	private static final int SCAN_BATCH = 500;
+
+	private static final String INDEX_SUFFIX = "}.index";
+
+	private static final RedisScript<Long> PUT_SCRIPT = RedisScript
+		.of(new ClassPathResource("META-INF/scripts/nextera_cache_put.lua"), Long.class);
+
+	private static final RedisScript<Long> PURGE_SCRIPT = RedisScript
+		.of(new ClassPathResource("META-INF/scripts/nextera_cache_purge.lua"), Long.class);
+
+	/**
+	 * 缓存查找结果，用作指标标签
+	 */
+	public enum Outcome {
+
+		L1_HIT, L2_HIT, MISS, BYPASS;
+
+		final String tag = name().toLowerCase();
+
+	}
+
+	private final ReactiveStringRedisTemplate redisTemplate;
+
+	private final ObjectMapper objectMapper;
+
+	private final NexteraResponseCacheProperties properties;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Cache<String, CachedResponse> l1;
+
+	private final Map<String, Map<Outcome, Counter>> counters = new ConcurrentHashMap<>();
+
+	private Disposable purgeSubscription;
+
+	public ResponseCacheManager(ReactiveStringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+			NexteraResponseCacheProperties properties, MeterRegistry meterRegistry) {
+		this.redisTemplate = redisTemplate;
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.l1 = Caffeine.newBuilder()
+			.maximumWeight(properties.getL1MaximumSize().toBytes())
+			.weigher((String key, CachedResponse value) -> key.length() + value.body().length)
+			.expireAfter(new Expiry<String, CachedResponse>() {
+				@Override
+				public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+					return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt() - System.currentTimeMillis()));
+				}
+
+				@Override
+				public long expireAfterUpdate(String key, CachedResponse value, long currentTime,
+						long currentDuration) {
+					return expireAfterCreate(key, value, currentTime);
+				}
+
+				@Override
+				public long expireAfterRead(String key, CachedResponse value, long currentTime,
+						long currentDuration) {
+					return currentDuration;
+				}
+			})
+			.build();
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (!properties.isL2Enabled()) {
+			return;
+		}
+		purgeSubscription = redisTemplate.listenToChannel(properties.getPurgeChannel())
+			.subscribe(message -> invalidateLocal(message.getMessage()),
+					e -> log.warn("Response cache purge subscription terminated: {}", e.getMessage()));
+	}
+
+	@Override
+	public void destroy() {
+		if (purgeSubscription != null) {
+			purgeSubscription.dispose();
+		}
+	}
+
+	/**
+	 * 查找缓存，依次查询L1、L2
+	 * @param routeId 路由ID，用于指标
+	 * @param key 缓存key
+	 * @return 未过期的缓存响应，未命中时为空
+	 */
+	public Mono<CachedResponse> get(String routeId, String key) {
+		CachedResponse local = l1.getIfPresent(key);
+		if (local != null && !local.isExpired(System.currentTimeMillis())) {
+			record(routeId, Outcome.L1_HIT);
+			return Mono.just(local);
+		}
+		if (!properties.isL2Enabled()) {
+			record(routeId, Outcome.MISS);
+			return Mono.empty();
+		}
+		return redisTemplate.opsForValue()
+			.get(redisKey(key))
+			.flatMap(json -> Mono.fromCallable(() -> objectMapper.readValue(json, CachedResponse.class)))
+			.filter(remote -> !remote.isExpired(System.currentTimeMillis()))
+			.doOnNext(remote -> {
+				l1.put(key, remote);
+				record(routeId, Outcome.L2_HIT);
+			})
+			.switchIfEmpty(Mono.fromRunnable(() -> record(routeId, Outcome.MISS)))
+			.onErrorResume(e -> {
+				log.warn("Response cache L2 lookup failed for {}: {}", key, e.getMessage());
+				record(routeId, Outcome.MISS);
+				return Mono.empty();
+			});
+	}
+
+	/**
+	 * 写入缓存，L2异步写入
+	 * @param key 缓存key
+	 * @param response 缓存响应
+	 */
+	public void put(String key, CachedResponse response) {
+		l1.put(key, response);
+		if (!properties.isL2Enabled()) {
+			return;
+		}
+		long ttlMillis = response.expiresAt() - System.currentTimeMillis();
+		if (ttlMillis <= 0) {
+			return;
+		}
+		int split = routeSplit(key);
+		Mono.fromCallable(() -> objectMapper.writeValueAsString(response))
+			.flatMap(json -> redisTemplate
+				.execute(PUT_SCRIPT, List.of(redisKey(key), indexKey(key.substring(0, split))),
+						List.of(json, String.valueOf(ttlMillis), key.substring(split)))
+				.then())
+			.subscribe(null, e -> log.warn("Response cache L2 write failed for {}: {}", key, e.getMessage()));
+	}
+
+	/**
+	 * 按key前缀清除缓存，前缀只在路径段边界上匹配
+	 * @param keyPrefix 缓存key前缀，格式为 {@code 路由ID:路径}，只有路由ID时清除整个路由，为空时清除全部
+	 * @return 清除的Redis key数量
+	 */
+	public Mono<Long> purge(String keyPrefix) {
+		String prefix = keyPrefix == null ? "" : keyPrefix;
+		invalidateLocal(prefix);
+		if (!properties.isL2Enabled()) {
+			return Mono.just(0L);
+		}
+		if (prefix.isEmpty()) {
+			return purgeAll();
+		}
+		int split = routeSplit(prefix);
+		return purgeRoute(prefix.substring(0, split), prefix.substring(split), prefix);
+	}
+
+	/**
+	 * 清除一个路由索引中匹配前缀的缓存，并通知其他实例清除L1
+	 */
+	private Mono<Long> purgeRoute(String routeId, String memberPrefix, String message) {
+		return redisTemplate
+			.execute(PURGE_SCRIPT, List.of(indexKey(routeId)), List.of(routeKeyPrefix(routeId), memberPrefix,
+					properties.getPurgeChannel(), message))
+			.next()
+			.defaultIfEmpty(0L);
+	}
+
+	/**
+	 * 清除全部缓存，只用于管理端点，按索引key扫描各路由
+	 */
+	private Mono<Long> purgeAll() {
+		String indexPrefix = properties.getKeyPrefix() + '{';
+		ScanOptions options = ScanOptions.scanOptions()
+			.match(escapeGlob(indexPrefix) + "*" + escapeGlob(INDEX_SUFFIX))
+			.count(SCAN_BATCH)
+			.build();
+		return redisTemplate.scan(options)
+			.map(index -> index.substring(indexPrefix.length(), index.length() - INDEX_SUFFIX.length()))
+			.concatMap(routeId -> purgeRoute(routeId, "", routeId))
+			.reduce(0L, Long::sum);
+	}
+
+	private void invalidateLocal(String prefix) {
+		if (prefix.isEmpty()) {
+			l1.invalidateAll();
+			return;
+		}
+		l1.asMap().keySet().removeIf(key -> matchesPrefix(key, prefix));
+	}
+
+	/**
+	 * key是否以前缀开头且前缀结束在路径段边界上；只有路由ID的前缀匹配整个路由
+	 */
+	static boolean matchesPrefix(String key, String prefix) {
+		if (!key.startsWith(prefix)) {
+			return false;
+		}
+		if (key.length() == prefix.length() || prefix.indexOf(':') < 0 && key.charAt(prefix.length()) == ':') {
+			return true;
+		}
+		char last = prefix.charAt(prefix.length() - 1);
+		char next = key.charAt(prefix.length());
+		return last == '/' || next == '/' || next == '?' || next == '|';
+	}
+
+	/**
+	 * 路由ID与其余部分的分隔位置，没有分隔符时整个key为路由ID
+	 */
+	private static int routeSplit(String key) {
+		int split = key.indexOf(':');
+		return split < 0 ? key.length() : split;
+	}
+
+	private String routeKeyPrefix(String routeId) {
+		return properties.getKeyPrefix() + '{' + routeId + '}';
+	}
+
+	private String redisKey(String key) {
+		int split = routeSplit(key);
+		return routeKeyPrefix(key.substring(0, split)) + key.substring(split);
+	}
+
+	private String indexKey(String routeId) {
+		return properties.getKeyPrefix() + '{' + routeId + INDEX_SUFFIX;
+	}
+
+	public void record(String routeId, Outcome outcome) {
+		counters.computeIfAbsent(routeId, this::registerCounters).get(outcome).increment();
+	}
+
+	private Map<Outcome, Counter> registerCounters(String routeId) {
+		Map<Outcome, Counter> map = new EnumMap<>(Outcome.class);
+		for (Outcome outcome : Outcome.values()) {
+			map.put(outcome, Counter.builder(METRIC_REQUESTS)
+				.tag("route", routeId)
+				.tag("result", outcome.tag)
+				.register(meterRegistry));
+		}
+		return map;
+	}
+
+	private static String escapeGlob(String value) {
+		StringBuilder builder = new StringBuilder(value.length() + 8);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+				builder.append('\\');
+			}
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.nextera.gateway.circuitbreaker;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 排除当前路由下已熔断实例的实例列表
+ * <p>
+ * 路由从负载均衡请求携带的交换属性中读取；全部实例都已熔断时返回空列表，网关直接返回503。
+ *
+ * @author Nextera
+ */
+public class CircuitBreakerServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+	private final InstanceCircuitBreakerRegistry registry;
+
+	public CircuitBreakerServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+			InstanceCircuitBreakerRegistry registry) {
+		super(delegate);
+		this.registry = registry;
+	}
+
+	@Override
+	public Flux<List<ServiceInstance>> get() {
+		return getDelegate().get();
+	}
+
+	@Override
+	public Flux<List<ServiceInstance>> get(Request request) {
+		String routeId = routeId(request);
+		if (routeId == null) {
+			return getDelegate().get(request);
+		}
+		return getDelegate().get(request).map(instances -> available(routeId, instances));
+	}
+
+	private List<ServiceInstance> available(String routeId, List<ServiceInstance> instances) {
+		List<ServiceInstance> available = new ArrayList<>(instances.size());
+		for (ServiceInstance instance : instances) {
+			if (registry.get(routeId, instance).isAvailable()) {
+				available.add(instance);
+			}
+		}
+		return available.size() == instances.size() ? instances : available;
+	}
+
+	private static String routeId(Request<?> request) {
+		if (request.getContext() instanceof RequestDataContext context && context.getClientRequest() != null
+				&& context.getClientRequest().getAttributes() != null
+				&& context.getClientRequest().getAttributes().get(GATEWAY_ROUTE_ATTR) instanceof Route route) {
+			return route.getId();
+		}
+		return null;
+	}
+
+}
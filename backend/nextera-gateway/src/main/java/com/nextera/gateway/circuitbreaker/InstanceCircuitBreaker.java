@@ -0,0 +1,179 @@
+package com.nextera.gateway.circuitbreaker;
+
+import com.nextera.gateway.config.NexteraCircuitBreakerProperties;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 单个路由 + 下游实例的熔断器
+ * <p>
+ * 关闭状态下按最近 {@code window-size} 次调用统计失败率（5xx、异常与慢调用计为失败），达到阈值后打开；
+ * 打开 {@code open-duration} 后进入半开状态，放行 {@code half-open-permits} 个探测请求，
+ * 全部成功则关闭，任一失败则重新打开。
+ *
+ * @author Nextera
+ */
+public class InstanceCircuitBreaker {
+
+	public enum State {
+
+		CLOSED, OPEN, HALF_OPEN
+
+	}
+
+	private final int minimumCalls;
+
+	private final int failureRateThreshold;
+
+	private final long slowCallNanos;
+
+	private final long openNanos;
+
+	private final int halfOpenPermits;
+
+	private final LongSupplier nanoClock;
+
+	/**
+	 * 环形窗口，true表示失败
+	 */
+	private final boolean[] window;
+
+	private int index;
+
+	private int calls;
+
+	private int failures;
+
+	private volatile State state = State.CLOSED;
+
+	private long openedAt;
+
+	private int remainingPermits;
+
+	private int probeSuccesses;
+
+	public InstanceCircuitBreaker(NexteraCircuitBreakerProperties properties) {
+		this(properties, System::nanoTime);
+	}
+
+	InstanceCircuitBreaker(NexteraCircuitBreakerProperties properties, LongSupplier nanoClock) {
+		this.window = new boolean[properties.getWindowSize()];
+		this.minimumCalls = Math.min(properties.getMinimumCalls(), properties.getWindowSize());
+		this.failureRateThreshold = properties.getFailureRateThreshold();
+		this.slowCallNanos = properties.getSlowCallDuration().toNanos();
+		this.openNanos = properties.getOpenDuration().toNanos();
+		this.halfOpenPermits = properties.getHalfOpenPermits();
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * 实例当前是否可被负载均衡选中，不占用半开探测名额
+	 */
+	public synchronized boolean isAvailable() {
+		return switch (state) {
+			case CLOSED -> true;
+			case OPEN -> nanoClock.getAsLong() - openedAt >= openNanos;
+			case HALF_OPEN -> remainingPermits > 0;
+		};
+	}
+
+	/**
+	 * 获取调用许可，打开状态到期后转为半开并占用一个探测名额
+	 * @return 是否允许调用
+	 */
+	public synchronized boolean tryAcquirePermission() {
+		if (state == State.OPEN) {
+			if (nanoClock.getAsLong() - openedAt < openNanos) {
+				return false;
+			}
+			state = State.HALF_OPEN;
+			remainingPermits = halfOpenPermits;
+			probeSuccesses = 0;
+		}
+		if (state == State.HALF_OPEN) {
+			if (remainingPermits == 0) {
+				return false;
+			}
+			remainingPermits--;
+		}
+		return true;
+	}
+
+	/**
+	 * 记录调用结果
+	 * @param durationNanos 调用耗时（纳秒）
+	 * @param failed 是否失败（5xx或异常）
+	 */
+	public synchronized void onResult(long durationNanos, boolean failed) {
+		boolean failure = failed || durationNanos >= slowCallNanos;
+		switch (state) {
+			case HALF_OPEN -> {
+				if (failure) {
+					open();
+				}
+				else if (++probeSuccesses >= halfOpenPermits) {
+					close();
+				}
+			}
+			case CLOSED -> {
+				record(failure);
+				if (calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+					open();
+				}
+			}
+			default -> {
+				// 打开之前发出的调用返回，不影响状态
+			}
+		}
+	}
+
+	/**
+	 * 调用被取消等不反映实例状况的情况，归还半开探测名额
+	 */
+	public synchronized void onIgnored() {
+		if (state == State.HALF_OPEN && remainingPermits < halfOpenPermits) {
+			remainingPermits++;
+		}
+	}
+
+	/**
+	 * 打开状态剩余时间
+	 * @return 剩余纳秒数，非打开状态为0
+	 */
+	public synchronized long remainingOpenNanos() {
+		return state == State.OPEN ? Math.max(0, openNanos - (nanoClock.getAsLong() - openedAt)) : 0;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	private void record(boolean failure) {
+		if (calls == window.length) {
+			if (window[index]) {
+				failures--;
+			}
+		}
+		else {
+			calls++;
+		}
+		window[index] = failure;
+		if (failure) {
+			failures++;
+		}
+		index = (index + 1) % window.length;
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openedAt = nanoClock.getAsLong();
+	}
+
+	private void close() {
+		state = State.CLOSED;
+		index = 0;
+		calls = 0;
+		failures = 0;
+	}
+
+}
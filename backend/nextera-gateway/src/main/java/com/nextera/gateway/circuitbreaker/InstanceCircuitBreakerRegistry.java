@@ -0,0 +1,88 @@
+package com.nextera.gateway.circuitbreaker;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nextera.gateway.config.NexteraCircuitBreakerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+
+/**
+ * 按路由 + 下游实例维护的熔断器
+ * <p>
+ * 指标：{@code nextera.gateway.circuitbreaker.state{route, instance}}（0关闭、1半开、2打开），
+ * {@code nextera.gateway.circuitbreaker.rejected{route, instance}} 熔断拒绝的请求数。
+ * 长时间没有请求的实例（通常已下线）的熔断器会被淘汰。
+ *
+ * @author Nextera
+ */
+public class InstanceCircuitBreakerRegistry {
+
+	private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+	private final Cache<String, Entry> breakers = Caffeine.newBuilder().expireAfterAccess(IDLE_TIMEOUT).build();
+
+	private final NexteraCircuitBreakerProperties properties;
+
+	private final MeterRegistry meterRegistry;
+
+	public InstanceCircuitBreakerRegistry(NexteraCircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * 获取熔断器
+	 * @param routeId 路由ID
+	 * @param instance 下游实例
+	 * @return 熔断器
+	 */
+	public InstanceCircuitBreaker get(String routeId, ServiceInstance instance) {
+		return entry(routeId, instance).breaker;
+	}
+
+	/**
+	 * 获取调用许可，被拒绝时计入指标
+	 * @param routeId 路由ID
+	 * @param instance 下游实例
+	 * @return 熔断器，不允许调用时返回null
+	 */
+	public InstanceCircuitBreaker tryAcquire(String routeId, ServiceInstance instance) {
+		Entry entry = entry(routeId, instance);
+		if (entry.breaker.tryAcquirePermission()) {
+			return entry.breaker;
+		}
+		entry.rejected.increment();
+		return null;
+	}
+
+	private Entry entry(String routeId, ServiceInstance instance) {
+		String address = instance.getHost() + ':' + instance.getPort();
+		return breakers.get(routeId + '|' + address, key -> new Entry(routeId, address));
+	}
+
+	private final class Entry {
+
+		private final InstanceCircuitBreaker breaker;
+
+		private final Counter rejected;
+
+		Entry(String routeId, String address) {
+			this.breaker = new InstanceCircuitBreaker(properties);
+			Gauge.builder("nextera.gateway.circuitbreaker.state", breaker, b -> switch (b.getState()) {
+				case CLOSED -> 0;
+				case HALF_OPEN -> 1;
+				case OPEN -> 2;
+			}).tag("route", routeId).tag("instance", address).register(meterRegistry);
+			this.rejected = Counter.builder("nextera.gateway.circuitbreaker.rejected")
+				.tag("route", routeId)
+				.tag("instance", address)
+				.register(meterRegistry);
+		}
+
+	}
+
+}
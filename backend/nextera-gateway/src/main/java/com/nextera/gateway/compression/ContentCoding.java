@@ -0,0 +1,138 @@
+package com.nextera.gateway.compression;
+
+import io.netty.handler.codec.compression.ZlibWrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 网关支持的响应压缩编码
+ * <p>
+ * 按Accept-Encoding的q值从高到低选择，q值相同时按枚举顺序（gzip优先）。
+ * 协商结果只取决于 {@link #acceptable(String)} 的返回值，响应缓存以 {@link #varyKey(String)} 区分压缩变体。
+ *
+ * @author Nextera
+ */
+public enum ContentCoding {
+
+	GZIP("gzip", ZlibWrapper.GZIP),
+
+	/**
+	 * HTTP中的deflate为zlib格式
+	 */
+	DEFLATE("deflate", ZlibWrapper.ZLIB);
+
+	private static final ContentCoding[] VALUES = values();
+
+	private final String token;
+
+	private final ZlibWrapper wrapper;
+
+	ContentCoding(String token, ZlibWrapper wrapper) {
+		this.token = token;
+		this.wrapper = wrapper;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	public ZlibWrapper getWrapper() {
+		return wrapper;
+	}
+
+	/**
+	 * 解析Accept-Encoding，返回客户端可接受的编码
+	 * @param acceptEncoding 请求头Accept-Encoding的值
+	 * @return 按优先级排列的可接受编码，不接受压缩时为空
+	 */
+	public static List<ContentCoding> acceptable(String acceptEncoding) {
+		if (acceptEncoding == null || acceptEncoding.isBlank()) {
+			return List.of();
+		}
+		// -1 表示未显式声明，按通配符 * 的q值处理
+		double[] quality = new double[VALUES.length];
+		Arrays.fill(quality, -1);
+		double wildcard = 0;
+		for (String part : acceptEncoding.split(",")) {
+			String[] tokens = part.split(";");
+			String name = tokens[0].trim().toLowerCase(Locale.ROOT);
+			double q = qualityOf(tokens);
+			if ("*".equals(name)) {
+				wildcard = q;
+				continue;
+			}
+			for (ContentCoding coding : VALUES) {
+				if (coding.token.equals(name)) {
+					quality[coding.ordinal()] = q;
+				}
+			}
+		}
+		List<ContentCoding> result = new ArrayList<>(VALUES.length);
+		for (ContentCoding coding : VALUES) {
+			if (quality[coding.ordinal()] < 0) {
+				quality[coding.ordinal()] = wildcard;
+			}
+			if (quality[coding.ordinal()] > 0) {
+				result.add(coding);
+			}
+		}
+		// List.sort为稳定排序，q值相同时保持枚举顺序
+		result.sort(Comparator.comparingDouble(coding -> -quality[coding.ordinal()]));
+		return result;
+	}
+
+	private static double qualityOf(String[] tokens) {
+		for (int i = 1; i < tokens.length; i++) {
+			String param = tokens[i].trim();
+			if (param.startsWith("q=")) {
+				try {
+					return Double.parseDouble(param.substring(2));
+				}
+				catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * 选择响应使用的编码
+	 * @param acceptEncoding 请求头Accept-Encoding的值
+	 * @param enabled 允许使用的编码
+	 * @return 编码，不压缩时返回null
+	 */
+	public static ContentCoding negotiate(String acceptEncoding, List<ContentCoding> enabled) {
+		for (ContentCoding coding : acceptable(acceptEncoding)) {
+			if (enabled.contains(coding)) {
+				return coding;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 可接受编码的规范化表示，用于区分缓存中的压缩变体
+	 * @param acceptEncoding 请求头Accept-Encoding的值
+	 * @return 以逗号连接的编码，不接受压缩时为空字符串
+	 */
+	public static String varyKey(String acceptEncoding) {
+		List<ContentCoding> codings = acceptable(acceptEncoding);
+		if (codings.isEmpty()) {
+			return "";
+		}
+		StringBuilder key = new StringBuilder(16);
+		for (ContentCoding coding : codings) {
+			if (!key.isEmpty()) {
+				key.append(',');
+			}
+			key.append(coding.token);
+		}
+		return key.toString();
+	}
+
+}
@@ -0,0 +1,289 @@
+package com.nextera.gateway.concurrency;
+
+import com.nextera.gateway.config.NexteraConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按下游服务ID维护的自适应并发限制器
+ * <p>
+ * 每个服务一个 {@link GradientConcurrencyLimit} 和一个 {@link WeightedFairQueue}。超过并发上限的请求按优先级排队，
+ * 名额释放时按权重出队；LOW优先级最多排队 {@code target-delay}，每高一级翻倍，预计排队时间超过或排队超时的请求被丢弃，
+ * 因此队列延迟升高时低优先级请求先被丢弃。队列已满时挤出更低优先级中最后入队的请求，没有更低优先级时拒绝新请求。
+ * <p>
+ * 指标：
+ * {@code nextera.gateway.concurrency.limit{service}} 当前上限，
+ * {@code nextera.gateway.concurrency.inflight{service}} 当前并发数，
+ * {@code nextera.gateway.concurrency.shed{service}} 被拒绝的请求数，
+ * {@code nextera.gateway.concurrency.queue.depth{service,priority}} 排队数，
+ * {@code nextera.gateway.concurrency.queue.wait{service,priority}} 出队请求的排队时间，
+ * {@code nextera.gateway.concurrency.queue.shed{service,priority,reason}} 按原因（full/evicted/delay/timeout）统计的丢弃数。
+ *
+ * @author Nextera
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	/**
+	 * 请求被丢弃时 {@link #acquire} 发出的值
+	 */
+	public static final int SHED = -1;
+
+	private static final String METRIC_PREFIX = "nextera.gateway.concurrency.";
+
+	private static final int WAITING = 0;
+
+	private static final int GRANTED = 1;
+
+	private static final int DELIVERED = 2;
+
+	private static final int CANCELLED = 3;
+
+	private final Map<String, ServiceLimit> limits = new ConcurrentHashMap<>();
+
+	private final NexteraConcurrencyLimitProperties properties;
+
+	private final MeterRegistry meterRegistry;
+
+	public AdaptiveConcurrencyLimiter(NexteraConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * 为服务占用一个并发名额，超过上限时按优先级排队
+	 * @param serviceId 下游服务ID
+	 * @param priority 请求优先级
+	 * @return 占用后的并发数，被丢弃时为 {@link #SHED}
+	 */
+	public Mono<Integer> acquire(String serviceId, RequestPriority priority) {
+		return limits.computeIfAbsent(serviceId, ServiceLimit::new).acquire(priority);
+	}
+
+	/**
+	 * 请求结束，释放名额、按本次RTT调整上限并唤醒排队的请求
+	 * @param serviceId 下游服务ID
+	 * @param rttNanos 本次请求耗时（纳秒）
+	 * @param inFlightAtStart 请求开始时的并发数
+	 * @param dropped 是否以过载类错误结束
+	 */
+	public void release(String serviceId, long rttNanos, int inFlightAtStart, boolean dropped) {
+		ServiceLimit limit = limits.get(serviceId);
+		limit.limit.release(rttNanos, inFlightAtStart, dropped);
+		limit.dispatch();
+	}
+
+	/**
+	 * 请求被取消等无法反映下游状况的情况，只释放名额并唤醒排队的请求
+	 * @param serviceId 下游服务ID
+	 */
+	public void releaseIgnored(String serviceId) {
+		ServiceLimit limit = limits.get(serviceId);
+		limit.limit.releaseIgnored();
+		limit.dispatch();
+	}
+
+	/**
+	 * 获取服务的并发上限
+	 * @param serviceId 下游服务ID
+	 * @return 服务的并发上限
+	 */
+	public GradientConcurrencyLimit limitFor(String serviceId) {
+		return limits.computeIfAbsent(serviceId, ServiceLimit::new).limit;
+	}
+
+	/**
+	 * 排队中的请求
+	 */
+	private static final class Waiter {
+
+		private final Sinks.One<Integer> sink = Sinks.one();
+
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+
+		private final RequestPriority priority;
+
+		private final long enqueuedNanos;
+
+		private Disposable expiry;
+
+		Waiter(RequestPriority priority, long enqueuedNanos) {
+			this.priority = priority;
+			this.enqueuedNanos = enqueuedNanos;
+		}
+
+	}
+
+	private final class ServiceLimit {
+
+		private final String serviceId;
+
+		private final GradientConcurrencyLimit limit;
+
+		private final WeightedFairQueue<Waiter> queue;
+
+		private final Counter shed;
+
+		private final Map<RequestPriority, Timer> waitTimers = new EnumMap<>(RequestPriority.class);
+
+		private final Map<String, Counter> queueShed = new ConcurrentHashMap<>();
+
+		ServiceLimit(String serviceId) {
+			this.serviceId = serviceId;
+			this.limit = new GradientConcurrencyLimit(properties.settingsFor(serviceId));
+			this.queue = new WeightedFairQueue<>(properties.getQueue().getCapacity(),
+					properties.getQueue().getWeights());
+			Gauge.builder(METRIC_PREFIX + "limit", limit, GradientConcurrencyLimit::getLimit)
+				.tag("service", serviceId)
+				.register(meterRegistry);
+			Gauge.builder(METRIC_PREFIX + "inflight", limit, GradientConcurrencyLimit::getInFlight)
+				.tag("service", serviceId)
+				.register(meterRegistry);
+			this.shed = Counter.builder(METRIC_PREFIX + "shed").tag("service", serviceId).register(meterRegistry);
+			for (RequestPriority priority : RequestPriority.values()) {
+				String tag = priority.name().toLowerCase();
+				Gauge.builder(METRIC_PREFIX + "queue.depth", this, l -> l.depth(priority))
+					.tag("service", serviceId)
+					.tag("priority", tag)
+					.register(meterRegistry);
+				waitTimers.put(priority, Timer.builder(METRIC_PREFIX + "queue.wait")
+					.tag("service", serviceId)
+					.tag("priority", tag)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+			}
+		}
+
+		Mono<Integer> acquire(RequestPriority priority) {
+			Waiter waiter;
+			Waiter evicted = null;
+			synchronized (this) {
+				// 已有排队请求时新请求不插队
+				if (queue.size() == 0) {
+					int inFlight = limit.tryAcquire();
+					if (inFlight > 0) {
+						return Mono.just(inFlight);
+					}
+				}
+				long now = System.nanoTime();
+				long maxWait = maxWaitNanos(priority);
+				long oldest = queue.oldestEnqueuedNanos(priority);
+				if (maxWait <= 0 || (oldest >= 0 && now - oldest > maxWait)) {
+					return shed(priority, maxWait <= 0 ? "full" : "delay");
+				}
+				waiter = new Waiter(priority, now);
+				if (!queue.offer(waiter, priority, now)) {
+					evicted = queue.evictLowerThan(priority);
+					if (evicted == null) {
+						return shed(priority, "full");
+					}
+					queue.offer(waiter, priority, now);
+				}
+				waiter.expiry = Schedulers.parallel().schedule(() -> expire(waiter), maxWait, TimeUnit.NANOSECONDS);
+			}
+			if (evicted != null) {
+				reject(evicted, "evicted");
+			}
+			// 入队前名额可能刚好释放
+			dispatch();
+			return waiter.sink.asMono()
+				.doOnNext(v -> waiter.state.compareAndSet(GRANTED, DELIVERED))
+				.doOnCancel(() -> cancel(waiter));
+		}
+
+		/**
+		 * 有空闲名额时按加权公平顺序放行排队的请求
+		 */
+		void dispatch() {
+			for (;;) {
+				Waiter waiter;
+				int inFlight;
+				synchronized (this) {
+					if (queue.size() == 0) {
+						return;
+					}
+					inFlight = limit.tryAcquire();
+					if (inFlight < 0) {
+						return;
+					}
+					waiter = queue.poll();
+					waiter.state.set(GRANTED);
+				}
+				waiter.expiry.dispose();
+				waitTimers.get(waiter.priority).record(System.nanoTime() - waiter.enqueuedNanos, TimeUnit.NANOSECONDS);
+				if (waiter.sink.tryEmitValue(inFlight).isFailure() && waiter.state.compareAndSet(GRANTED, CANCELLED)) {
+					releaseIgnored(serviceId);
+				}
+			}
+		}
+
+		private void expire(Waiter waiter) {
+			boolean removed;
+			synchronized (this) {
+				removed = queue.remove(waiter, waiter.priority);
+			}
+			if (removed) {
+				reject(waiter, "timeout");
+			}
+		}
+
+		private void cancel(Waiter waiter) {
+			boolean removed;
+			synchronized (this) {
+				removed = queue.remove(waiter, waiter.priority);
+			}
+			if (removed) {
+				waiter.expiry.dispose();
+			}
+			else if (waiter.state.compareAndSet(GRANTED, CANCELLED)) {
+				// 已放行但调用方已取消，归还名额
+				releaseIgnored(serviceId);
+			}
+		}
+
+		private void reject(Waiter waiter, String reason) {
+			waiter.expiry.dispose();
+			countShed(waiter.priority, reason);
+			waiter.sink.tryEmitValue(SHED);
+		}
+
+		private Mono<Integer> shed(RequestPriority priority, String reason) {
+			countShed(priority, reason);
+			return Mono.just(SHED);
+		}
+
+		private void countShed(RequestPriority priority, String reason) {
+			shed.increment();
+			queueShed.computeIfAbsent(priority.name() + ':' + reason, key -> Counter
+				.builder(METRIC_PREFIX + "queue.shed")
+				.tag("service", serviceId)
+				.tag("priority", priority.name().toLowerCase())
+				.tag("reason", reason)
+				.register(meterRegistry)).increment();
+		}
+
+		private long maxWaitNanos(RequestPriority priority) {
+			if (properties.getQueue().getCapacity() <= 0) {
+				return 0;
+			}
+			return properties.getQueue().getTargetDelay().toNanos() * priority.delayMultiplier();
+		}
+
+		private synchronized int depth(RequestPriority priority) {
+			return queue.size(priority);
+		}
+
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.nextera.gateway.concurrency;
+
+import com.nextera.gateway.config.NexteraConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于RTT梯度的自适应并发上限（Gradient2）
+ * <p>
+ * 以长期RTT均值作为无排队时的基准，按 {@code 容忍度 × 长期RTT / 本次RTT} 计算梯度（限定在0.5~1.0之间），
+ * 新上限 = 当前上限 × 梯度 + 排队余量，再做平滑。下游变慢时上限随RTT升高而收缩，恢复后按排队余量逐步增长；
+ * 请求以5xx网关类错误或超时结束时按最小梯度收缩。并发数不足上限一半时视为调用方受限，不调整上限。
+ *
+ * @author Nextera
+ */
+public class GradientConcurrencyLimit {
+
+	/**
+	 * 长期RTT明显高于本次RTT时（负载骤降），长期RTT的衰减系数
+	 */
+	private static final double LONG_RTT_DECAY = 0.95;
+
+	private static final double MIN_GRADIENT = 0.5;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double smoothing;
+
+	private final double rttTolerance;
+
+	private final int queueSize;
+
+	private final double longRttFactor;
+
+	private volatile double estimatedLimit;
+
+	/**
+	 * 长期RTT的指数加权均值（纳秒），仅在持有锁时读写
+	 */
+	private double longRtt;
+
+	public GradientConcurrencyLimit(NexteraConcurrencyLimitProperties.Limit settings) {
+		this.minLimit = settings.getMinLimit();
+		this.maxLimit = settings.getMaxLimit();
+		this.smoothing = settings.getSmoothing();
+		this.rttTolerance = settings.getRttTolerance();
+		this.queueSize = settings.getQueueSize();
+		this.longRttFactor = 2.0 / (settings.getLongWindow() + 1);
+		this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, settings.getInitialLimit()));
+	}
+
+	/**
+	 * 尝试占用一个并发名额
+	 * @return 占用后的并发数，超过上限时返回-1
+	 */
+	public int tryAcquire() {
+		for (;;) {
+			int current = inFlight.get();
+			if (current >= (int) estimatedLimit) {
+				return -1;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return current + 1;
+			}
+		}
+	}
+
+	/**
+	 * 请求结束，释放名额并按本次RTT调整上限
+	 * @param rttNanos 本次请求耗时（纳秒）
+	 * @param inFlightAtStart 请求开始时的并发数，即 {@link #tryAcquire()} 的返回值
+	 * @param dropped 是否以过载类错误结束
+	 */
+	public void release(long rttNanos, int inFlightAtStart, boolean dropped) {
+		inFlight.decrementAndGet();
+		if (rttNanos > 0) {
+			update(rttNanos, inFlightAtStart, dropped);
+		}
+	}
+
+	/**
+	 * 请求被取消等无法反映下游状况的情况，只释放名额
+	 */
+	public void releaseIgnored() {
+		inFlight.decrementAndGet();
+	}
+
+	private synchronized void update(long rttNanos, int inFlightAtStart, boolean dropped) {
+		double rtt = rttNanos;
+		longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) * longRttFactor;
+		if (longRtt / rtt > 2) {
+			longRtt *= LONG_RTT_DECAY;
+		}
+
+		double limit = estimatedLimit;
+		if (!dropped && inFlightAtStart < limit / 2) {
+			return;
+		}
+		double gradient = dropped ? MIN_GRADIENT : Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRtt / rtt));
+		double newLimit = limit * gradient + queueSize;
+		newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+		estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+	}
+
+	public int getLimit() {
+		return (int) estimatedLimit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+}
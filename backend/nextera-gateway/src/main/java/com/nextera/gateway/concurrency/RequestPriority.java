@@ -0,0 +1,65 @@
+package com.nextera.gateway.concurrency;
+
+/**
+ * 请求优先级，按重要性从高到低排列
+ * <p>
+ * 排队时按权重分配出队机会；队列延迟超过目标时低优先级请求先被丢弃，每高一级可容忍的排队时间翻倍。
+ *
+ * @author Nextera
+ */
+public enum RequestPriority {
+
+	/**
+	 * 登录、Token刷新等不可丢弃的请求
+	 */
+	CRITICAL(8),
+
+	/**
+	 * 管理后台请求
+	 */
+	HIGH(4),
+
+	/**
+	 * 已登录用户的普通请求
+	 */
+	NORMAL(2),
+
+	/**
+	 * 匿名读请求等可丢弃的请求
+	 */
+	LOW(1);
+
+	private final int defaultWeight;
+
+	RequestPriority(int defaultWeight) {
+		this.defaultWeight = defaultWeight;
+	}
+
+	public int getDefaultWeight() {
+		return defaultWeight;
+	}
+
+	/**
+	 * 可容忍的排队时间相对目标延迟的倍数，LOW为1，每高一级翻倍
+	 * @return 排队时间倍数
+	 */
+	public int delayMultiplier() {
+		return 1 << (LOW.ordinal() - ordinal());
+	}
+
+	/**
+	 * 解析配置中的优先级，忽略大小写
+	 * @param value 配置值
+	 * @return 优先级，为空时返回null
+	 */
+	public static RequestPriority parse(Object value) {
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof RequestPriority priority) {
+			return priority;
+		}
+		return valueOf(value.toString().trim().toUpperCase());
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.nextera.gateway.concurrency;
+
+import com.nextera.gateway.config.NexteraConcurrencyLimitProperties;
+import com.nextera.gateway.filter.NexteraAuthGlobalFilter;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 请求优先级分类器
+ * <p>
+ * 依次匹配 {@code nextera.gateway.concurrency-limit.priority.rules}（路由、请求头、是否登录），
+ * 未命中时取路由元数据 {@link #PRIORITY_METADATA}，都没有时使用默认优先级。
+ * 客户端无法通过自定义请求头提升优先级，请求头条件只应使用网关可信的请求头。
+ *
+ * @author Nextera
+ */
+public class RequestPriorityClassifier implements ApplicationListener<RefreshRoutesEvent> {
+
+	/**
+	 * 路由元数据中配置优先级的key
+	 */
+	public static final String PRIORITY_METADATA = "nextera-priority";
+
+	private final Map<String, RequestPriority> routePriorities = new ConcurrentHashMap<>();
+
+	private final NexteraConcurrencyLimitProperties.Priority properties;
+
+	public RequestPriorityClassifier(NexteraConcurrencyLimitProperties.Priority properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * 计算请求的优先级
+	 * @param exchange 当前服务器交换对象
+	 * @param route 匹配的路由，可为空
+	 * @return 请求优先级
+	 */
+	public RequestPriority classify(ServerWebExchange exchange, Route route) {
+		List<NexteraConcurrencyLimitProperties.Rule> rules = properties.getRules();
+		for (int i = 0; i < rules.size(); i++) {
+			NexteraConcurrencyLimitProperties.Rule rule = rules.get(i);
+			if (matches(rule, exchange, route)) {
+				return rule.getPriority();
+			}
+		}
+		if (route == null) {
+			return properties.getDefaultPriority();
+		}
+		return routePriorities.computeIfAbsent(route.getId(), id -> {
+			RequestPriority priority = RequestPriority.parse(route.getMetadata().get(PRIORITY_METADATA));
+			return priority != null ? priority : properties.getDefaultPriority();
+		});
+	}
+
+	private static boolean matches(NexteraConcurrencyLimitProperties.Rule rule, ServerWebExchange exchange,
+			Route route) {
+		if (rule.getRoute() != null && (route == null || !rule.getRoute().equals(route.getId()))) {
+			return false;
+		}
+		if (rule.getAuthenticated() != null && rule.getAuthenticated() != isAuthenticated(exchange)) {
+			return false;
+		}
+		if (rule.getHeader() != null) {
+			HttpHeaders headers = exchange.getRequest().getHeaders();
+			String value = headers.getFirst(rule.getHeader());
+			return rule.getValue() == null ? value != null : rule.getValue().equalsIgnoreCase(value);
+		}
+		return true;
+	}
+
+	private static boolean isAuthenticated(ServerWebExchange exchange) {
+		return exchange.getAttribute(NexteraAuthGlobalFilter.VERIFIED_PRINCIPAL_ATTR) != null;
+	}
+
+	/**
+	 * 路由刷新后元数据可能变化，清空缓存的路由优先级
+	 */
+	@Override
+	public void onApplicationEvent(RefreshRoutesEvent event) {
+		routePriorities.clear();
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.nextera.gateway.concurrency;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 按优先级加权公平出队的有界队列（非线程安全，由调用方加锁）
+ * <p>
+ * 每个优先级一条FIFO通道。入队时按虚拟时间打上完成标签
+ * {@code max(虚拟时间, 本通道上一个标签) + 1 / 权重}，出队取各通道队首中标签最小的元素，
+ * 并把虚拟时间推进到该标签。持续排队时各优先级按权重比例出队，高优先级不会让低优先级完全饿死。
+ *
+ * @param <E> 元素类型
+ * @author Nextera
+ */
+public class WeightedFairQueue<E> {
+
+	private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+	private final int capacity;
+
+	private final double[] cost = new double[PRIORITIES.length];
+
+	private final double[] lastFinish = new double[PRIORITIES.length];
+
+	@SuppressWarnings("unchecked")
+	private final ArrayDeque<Entry<E>>[] lanes = new ArrayDeque[PRIORITIES.length];
+
+	private double virtualTime;
+
+	private int size;
+
+	/**
+	 * @param capacity 队列容量
+	 * @param weights 各优先级的权重，未配置的使用默认权重
+	 */
+	public WeightedFairQueue(int capacity, Map<RequestPriority, Integer> weights) {
+		this.capacity = capacity;
+		for (RequestPriority priority : PRIORITIES) {
+			int weight = weights.getOrDefault(priority, priority.getDefaultWeight());
+			cost[priority.ordinal()] = 1.0 / Math.max(1, weight);
+			lanes[priority.ordinal()] = new ArrayDeque<>();
+		}
+	}
+
+	/**
+	 * 入队
+	 * @param element 元素
+	 * @param priority 优先级
+	 * @param nowNanos 入队时间
+	 * @return 队列已满时返回false
+	 */
+	public boolean offer(E element, RequestPriority priority, long nowNanos) {
+		if (size >= capacity) {
+			return false;
+		}
+		int lane = priority.ordinal();
+		double finish = Math.max(virtualTime, lastFinish[lane]) + cost[lane];
+		lastFinish[lane] = finish;
+		lanes[lane].addLast(new Entry<>(element, finish, nowNanos));
+		size++;
+		return true;
+	}
+
+	/**
+	 * 按加权公平顺序出队
+	 * @return 队首元素，队列为空时返回null
+	 */
+	public E poll() {
+		int best = -1;
+		double bestFinish = Double.MAX_VALUE;
+		for (int lane = 0; lane < lanes.length; lane++) {
+			Entry<E> head = lanes[lane].peekFirst();
+			if (head != null && head.finish < bestFinish) {
+				best = lane;
+				bestFinish = head.finish;
+			}
+		}
+		if (best < 0) {
+			return null;
+		}
+		Entry<E> entry = lanes[best].pollFirst();
+		virtualTime = entry.finish;
+		size--;
+		return entry.element;
+	}
+
+	/**
+	 * 移除指定元素，用于排队超时或取消
+	 * @param element 元素
+	 * @param priority 入队时的优先级
+	 * @return 元素仍在队列中并被移除时返回true
+	 */
+	public boolean remove(E element, RequestPriority priority) {
+		Iterator<Entry<E>> iterator = lanes[priority.ordinal()].iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().element == element) {
+				iterator.remove();
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 为更高优先级的请求腾出位置：移除比指定优先级低的最低一级通道中最后入队的元素
+	 * @param priority 新请求的优先级
+	 * @return 被移除的元素，没有更低优先级的元素时返回null
+	 */
+	public E evictLowerThan(RequestPriority priority) {
+		for (int lane = lanes.length - 1; lane > priority.ordinal(); lane--) {
+			Entry<E> entry = lanes[lane].pollLast();
+			if (entry != null) {
+				size--;
+				return entry.element;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 不低于指定优先级的请求中最早的入队时间，用于估计新请求需要的排队时间
+	 * @param priority 优先级
+	 * @return 最早入队时间，没有排队请求时返回-1
+	 */
+	public long oldestEnqueuedNanos(RequestPriority priority) {
+		long oldest = -1;
+		for (int lane = 0; lane <= priority.ordinal(); lane++) {
+			Entry<E> head = lanes[lane].peekFirst();
+			if (head != null && (oldest < 0 || head.enqueuedNanos - oldest < 0)) {
+				oldest = head.enqueuedNanos;
+			}
+		}
+		return oldest;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int size(RequestPriority priority) {
+		return lanes[priority.ordinal()].size();
+	}
+
+	private record Entry<E>(E element, double finish, long enqueuedNanos) {
+	}
+
+}
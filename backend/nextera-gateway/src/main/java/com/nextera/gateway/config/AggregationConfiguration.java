@@ -0,0 +1,41 @@
+package com.nextera.gateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.gateway.filter.NexteraAggregateGatewayFilterFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * 网关聚合接口配置类
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraAggregationProperties.class)
+@ConditionalOnProperty(value = "nextera.gateway.aggregation.enabled", havingValue = "true", matchIfMissing = true)
+public class AggregationConfiguration {
+
+	/**
+	 * 创建聚合接口路由过滤器工厂，路由中以 {@code NexteraAggregate} 引用
+	 * @param properties 聚合接口配置
+	 * @param webClientBuilder WebClient构建器
+	 * @param loadBalancerFunction 负载均衡交换函数，解析分支地址中的服务名
+	 * @param objectMapper 对象映射器
+	 * @param meterRegistry 指标注册表
+	 * @return 聚合接口路由过滤器工厂
+	 */
+	@Bean
+	public NexteraAggregateGatewayFilterFactory nexteraAggregateGatewayFilterFactory(
+			NexteraAggregationProperties properties, WebClient.Builder webClientBuilder,
+			LoadBalancedExchangeFilterFunction loadBalancerFunction, ObjectMapper objectMapper,
+			MeterRegistry meterRegistry) {
+		return new NexteraAggregateGatewayFilterFactory(properties, webClientBuilder, loadBalancerFunction,
+				objectMapper, meterRegistry);
+	}
+
+}
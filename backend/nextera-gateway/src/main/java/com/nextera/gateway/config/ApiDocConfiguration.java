@@ -0,0 +1,67 @@
+package com.nextera.gateway.config;
+
+import com.alibaba.cloud.nacos.NacosDiscoveryProperties;
+import com.alibaba.cloud.nacos.NacosServiceManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.gateway.apidoc.ApiDocCache;
+import com.nextera.gateway.apidoc.ApiDocWebFilter;
+import com.nextera.gateway.ipfilter.IpAccessRules;
+import com.nextera.gateway.ratelimit.HierarchicalRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * OpenAPI文档缓存配置类
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraApiDocProperties.class)
+@ConditionalOnProperty(value = "nextera.gateway.api-docs.enabled", havingValue = "true", matchIfMissing = true)
+public class ApiDocConfiguration {
+
+	/**
+	 * 创建OpenAPI文档缓存
+	 * @param properties 文档缓存配置
+	 * @param webClientBuilder WebClient构建器
+	 * @param loadBalancerFunction 负载均衡交换函数，解析服务名
+	 * @param discoveryClient 服务发现客户端，列出需要缓存文档的服务
+	 * @param nacosServiceManager Nacos服务管理器，订阅实例变化
+	 * @param nacosProperties Nacos服务发现配置
+	 * @param objectMapper 对象映射器
+	 * @param meterRegistry 指标注册表
+	 * @return OpenAPI文档缓存
+	 */
+	@Bean
+	public ApiDocCache apiDocCache(NexteraApiDocProperties properties, WebClient.Builder webClientBuilder,
+			LoadBalancedExchangeFilterFunction loadBalancerFunction, ReactiveDiscoveryClient discoveryClient,
+			ObjectProvider<NacosServiceManager> nacosServiceManager,
+			ObjectProvider<NacosDiscoveryProperties> nacosProperties, ObjectMapper objectMapper,
+			MeterRegistry meterRegistry) {
+		return new ApiDocCache(properties, webClientBuilder, loadBalancerFunction, discoveryClient,
+				nacosServiceManager.getIfAvailable(), nacosProperties.getIfAvailable(), objectMapper, meterRegistry);
+	}
+
+	/**
+	 * 创建文档缓存Web过滤器
+	 * @param cache OpenAPI文档缓存
+	 * @param properties 文档缓存配置
+	 * @param ipRules 客户端地址规则，未启用地址过滤时为空
+	 * @param rateLimiter 分层限流器，按IP限制文档请求
+	 * @param objectMapper 对象映射器
+	 * @return 文档缓存Web过滤器
+	 */
+	@Bean
+	public ApiDocWebFilter apiDocWebFilter(ApiDocCache cache, NexteraApiDocProperties properties,
+			ObjectProvider<IpAccessRules> ipRules, HierarchicalRateLimiter rateLimiter, ObjectMapper objectMapper) {
+		return new ApiDocWebFilter(cache, properties, ipRules.getIfAvailable(), rateLimiter, objectMapper);
+	}
+
+}
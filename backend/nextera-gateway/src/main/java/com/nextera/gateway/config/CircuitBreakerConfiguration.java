@@ -0,0 +1,78 @@
+package com.nextera.gateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.gateway.circuitbreaker.InstanceCircuitBreakerRegistry;
+import com.nextera.gateway.filter.NexteraCircuitBreakerGlobalFilter;
+import com.nextera.gateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.nextera.gateway.filter.NexteraHedgeGatewayFilterFactory;
+import com.nextera.gateway.loadbalancer.InstanceLoadStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * 网关实例熔断与对冲请求配置类
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraCircuitBreakerProperties.class)
+public class CircuitBreakerConfiguration {
+
+	/**
+	 * 创建路由级实例熔断器注册表
+	 * @param properties 熔断配置
+	 * @param meterRegistry 指标注册表
+	 * @return 实例熔断器注册表
+	 */
+	@Bean
+	@ConditionalOnProperty(value = "nextera.gateway.circuit-breaker.enabled", havingValue = "true",
+			matchIfMissing = true)
+	public InstanceCircuitBreakerRegistry instanceCircuitBreakerRegistry(NexteraCircuitBreakerProperties properties,
+			MeterRegistry meterRegistry) {
+		return new InstanceCircuitBreakerRegistry(properties, meterRegistry);
+	}
+
+	/**
+	 * 创建实例熔断全局过滤器
+	 * @param registry 实例熔断器注册表
+	 * @param objectMapper 对象映射器
+	 * @return 实例熔断全局过滤器
+	 */
+	@Bean
+	@ConditionalOnProperty(value = "nextera.gateway.circuit-breaker.enabled", havingValue = "true",
+			matchIfMissing = true)
+	public NexteraCircuitBreakerGlobalFilter nexteraCircuitBreakerGlobalFilter(InstanceCircuitBreakerRegistry registry,
+			ObjectMapper objectMapper) {
+		return new NexteraCircuitBreakerGlobalFilter(registry, objectMapper);
+	}
+
+	/**
+	 * 创建对冲请求路由过滤器工厂，路由中以 {@code NexteraHedge} 引用
+	 * @param httpClient 网关下游HTTP客户端
+	 * @param headersFilters 请求头/响应头过滤器
+	 * @param clientFactory 负载均衡客户端工厂，用于选择对冲实例
+	 * @param loadStats 下游实例负载统计
+	 * @param breakers 实例熔断器注册表，未开启熔断时为空
+	 * @param limiters 自适应并发限制器，未开启并发限制时为空
+	 * @param meterRegistry 指标注册表
+	 * @return 对冲请求路由过滤器工厂
+	 */
+	@Bean
+	public NexteraHedgeGatewayFilterFactory nexteraHedgeGatewayFilterFactory(HttpClient httpClient,
+			ObjectProvider<List<HttpHeadersFilter>> headersFilters, LoadBalancerClientFactory clientFactory,
+			InstanceLoadStats loadStats, ObjectProvider<InstanceCircuitBreakerRegistry> breakers,
+			ObjectProvider<AdaptiveConcurrencyLimiter> limiters, MeterRegistry meterRegistry) {
+		return new NexteraHedgeGatewayFilterFactory(httpClient, headersFilters, clientFactory, loadStats, breakers,
+				limiters, meterRegistry);
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.nextera.gateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.gateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.nextera.gateway.concurrency.RequestPriorityClassifier;
+import com.nextera.gateway.filter.NexteraConcurrencyLimitGlobalFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 自适应并发限制配置类
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraConcurrencyLimitProperties.class)
+@ConditionalOnProperty(value = "nextera.gateway.concurrency-limit.enabled", havingValue = "true",
+		matchIfMissing = true)
+public class ConcurrencyLimitConfiguration {
+
+	/**
+	 * 创建按服务维护的自适应并发限制器
+	 * @param properties 并发限制配置
+	 * @param meterRegistry 指标注册表
+	 * @return 自适应并发限制器
+	 */
+	@Bean
+	public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(NexteraConcurrencyLimitProperties properties,
+			MeterRegistry meterRegistry) {
+		return new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+	}
+
+	/**
+	 * 创建请求优先级分类器
+	 * @param properties 并发限制配置
+	 * @return 请求优先级分类器
+	 */
+	@Bean
+	public RequestPriorityClassifier requestPriorityClassifier(NexteraConcurrencyLimitProperties properties) {
+		return new RequestPriorityClassifier(properties.getPriority());
+	}
+
+	/**
+	 * 创建自适应并发限制全局过滤器
+	 * @param limiter 自适应并发限制器
+	 * @param classifier 请求优先级分类器
+	 * @param objectMapper 对象映射器
+	 * @param properties 并发限制配置
+	 * @return 自适应并发限制全局过滤器
+	 */
+	@Bean
+	public NexteraConcurrencyLimitGlobalFilter nexteraConcurrencyLimitGlobalFilter(AdaptiveConcurrencyLimiter limiter,
+			RequestPriorityClassifier classifier, ObjectMapper objectMapper,
+			NexteraConcurrencyLimitProperties properties) {
+		return new NexteraConcurrencyLimitGlobalFilter(limiter, classifier, objectMapper, properties.getRetryAfter());
+	}
+
+}
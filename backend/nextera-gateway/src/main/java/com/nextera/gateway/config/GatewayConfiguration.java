@@ -1,10 +1,23 @@
 package com.nextera.gateway.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.json.JsonCodec;
+import com.nextera.common.util.JwtUtil;
+import com.nextera.gateway.filter.NexteraAuthGlobalFilter;
+import com.nextera.gateway.filter.NexteraCompressionGatewayFilterFactory;
+import com.nextera.gateway.filter.NexteraRequestCoalescingGatewayFilterFactory;
 import com.nextera.gateway.filter.NexteraRequestGlobalFilter;
+import com.nextera.gateway.filter.NexteraRequestIdGlobalFilter;
+import com.nextera.gateway.filter.NexteraResponseHookGlobalFilter;
 import com.nextera.gateway.handler.NexteraGlobalExceptionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 
 /**
  * 网关配置类
@@ -12,25 +25,82 @@ import org.springframework.context.annotation.Configuration;
  * @author Nextera
  */
 @Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraAuthProperties.class)
 public class GatewayConfiguration {
 
 	/**
 	 * 创建PigRequest全局过滤器
+	 * @param httpClientProperties 网关HTTP客户端配置，路由未配置 {@code response-timeout} 时按其全局响应超时写入截止时间
 	 * @return PigRequest全局过滤器
 	 */
 	@Bean
-	public NexteraRequestGlobalFilter nexteraRequestGlobalFilter() {
-		return new NexteraRequestGlobalFilter();
+	public NexteraRequestGlobalFilter nexteraRequestGlobalFilter(
+			ObjectProvider<HttpClientProperties> httpClientProperties) {
+		HttpClientProperties properties = httpClientProperties.getIfAvailable();
+		return new NexteraRequestGlobalFilter(properties != null ? properties.getResponseTimeout() : null);
 	}
 
 	/**
-	 * 创建全局异常处理程序
+	 * 创建请求ID全局过滤器
+	 * @return 请求ID全局过滤器
+	 */
+	@Bean
+	public NexteraRequestIdGlobalFilter nexteraRequestIdGlobalFilter() {
+		return new NexteraRequestIdGlobalFilter();
+	}
+
+	/**
+	 * 创建响应挂点全局过滤器，供缓存、合并等路由过滤器装饰下游响应
+	 * @return 响应挂点全局过滤器
+	 */
+	@Bean
+	public NexteraResponseHookGlobalFilter nexteraResponseHookGlobalFilter() {
+		return new NexteraResponseHookGlobalFilter();
+	}
+
+	/**
+	 * 创建网关认证全局过滤器
+	 * @param jwtUtil JWT工具类
+	 * @param redisTemplate 响应式Redis模板，用于登录态校验
 	 * @param objectMapper 对象映射器
+	 * @param properties 认证配置
+	 * @return 网关认证全局过滤器
+	 */
+	@Bean
+	@ConditionalOnProperty(value = "nextera.gateway.auth.enabled", havingValue = "true", matchIfMissing = true)
+	public NexteraAuthGlobalFilter nexteraAuthGlobalFilter(JwtUtil jwtUtil, ReactiveStringRedisTemplate redisTemplate,
+			ObjectMapper objectMapper, NexteraAuthProperties properties) {
+		return new NexteraAuthGlobalFilter(jwtUtil, redisTemplate, objectMapper, properties);
+	}
+
+	/**
+	 * 创建请求合并路由过滤器工厂，路由中以 {@code NexteraRequestCoalescing} 引用
+	 * @param meterRegistry 指标注册表
+	 * @return 请求合并路由过滤器工厂
+	 */
+	@Bean
+	public NexteraRequestCoalescingGatewayFilterFactory nexteraRequestCoalescingGatewayFilterFactory(
+			MeterRegistry meterRegistry) {
+		return new NexteraRequestCoalescingGatewayFilterFactory(meterRegistry);
+	}
+
+	/**
+	 * 创建响应压缩路由过滤器工厂，路由中以 {@code NexteraCompression} 引用
+	 * @return 响应压缩路由过滤器工厂
+	 */
+	@Bean
+	public NexteraCompressionGatewayFilterFactory nexteraCompressionGatewayFilterFactory() {
+		return new NexteraCompressionGatewayFilterFactory();
+	}
+
+	/**
+	 * 创建全局异常处理程序
+	 * @param jsonCodec JSON编解码器
 	 * @return 全局异常处理程序
 	 */
 	@Bean
-	public NexteraGlobalExceptionHandler globalExceptionHandler(ObjectMapper objectMapper) {
-		return new NexteraGlobalExceptionHandler(objectMapper);
+	public NexteraGlobalExceptionHandler globalExceptionHandler(JsonCodec jsonCodec) {
+		return new NexteraGlobalExceptionHandler(jsonCodec);
 	}
 
 }
@@ -0,0 +1,49 @@
+package com.nextera.gateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.gateway.filter.NexteraIpFilterGlobalFilter;
+import com.nextera.gateway.ipfilter.IpAccessRules;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+/**
+ * 网关客户端地址过滤配置类
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraIpFilterProperties.class)
+@ConditionalOnProperty(value = "nextera.gateway.ip-filter.enabled", havingValue = "true")
+public class IpFilterConfiguration {
+
+	/**
+	 * 创建客户端地址规则
+	 * @param redisTemplate 响应式Redis模板
+	 * @param properties 地址过滤配置
+	 * @param meterRegistry 指标注册表
+	 * @return 客户端地址规则
+	 */
+	@Bean
+	public IpAccessRules ipAccessRules(ReactiveStringRedisTemplate redisTemplate,
+			NexteraIpFilterProperties properties, MeterRegistry meterRegistry) {
+		return new IpAccessRules(redisTemplate, properties, meterRegistry);
+	}
+
+	/**
+	 * 创建客户端地址过滤全局过滤器
+	 * @param rules 客户端地址规则
+	 * @param objectMapper 对象映射器
+	 * @param meterRegistry 指标注册表
+	 * @return 客户端地址过滤全局过滤器
+	 */
+	@Bean
+	public NexteraIpFilterGlobalFilter nexteraIpFilterGlobalFilter(IpAccessRules rules, ObjectMapper objectMapper,
+			MeterRegistry meterRegistry) {
+		return new NexteraIpFilterGlobalFilter(rules, objectMapper, meterRegistry);
+	}
+
+}
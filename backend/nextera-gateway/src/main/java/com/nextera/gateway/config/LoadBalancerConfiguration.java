@@ -0,0 +1,41 @@
+package com.nextera.gateway.config;
+
+import com.nextera.gateway.filter.NexteraLoadStatsGlobalFilter;
+import com.nextera.gateway.loadbalancer.InstanceLoadStats;
+import com.nextera.gateway.loadbalancer.NexteraLoadBalancerClientConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网关负载均衡配置类
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraLoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = NexteraLoadBalancerClientConfiguration.class)
+public class LoadBalancerConfiguration {
+
+	/**
+	 * 创建下游实例负载统计，各服务的负载均衡子上下文共享
+	 * @param properties 负载均衡配置
+	 * @return 下游实例负载统计
+	 */
+	@Bean
+	public InstanceLoadStats instanceLoadStats(NexteraLoadBalancerProperties properties) {
+		return new InstanceLoadStats(properties.getDecayTime(), properties.getErrorPenalty());
+	}
+
+	/**
+	 * 创建下游实例负载采集全局过滤器
+	 * @param loadStats 下游实例负载统计
+	 * @return 下游实例负载采集全局过滤器
+	 */
+	@Bean
+	public NexteraLoadStatsGlobalFilter nexteraLoadStatsGlobalFilter(InstanceLoadStats loadStats) {
+		return new NexteraLoadStatsGlobalFilter(loadStats);
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.nextera.gateway.config;
+
+import com.nextera.gateway.filter.NexteraMetricsGlobalFilter;
+import com.nextera.gateway.metrics.GatewayRequestMetrics;
+import com.nextera.gateway.metrics.RequestExemplarContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.prometheus.metrics.tracer.common.SpanContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网关请求指标配置类，指标通过 {@code /actuator/prometheus} 导出
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraMetricsProperties.class)
+@ConditionalOnProperty(value = "nextera.gateway.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfiguration {
+
+	/**
+	 * 创建网关请求RED指标
+	 * @param meterRegistry 指标注册表
+	 * @param routeLocator 路由定位器，用于预注册路由指标
+	 * @param properties 指标配置
+	 * @return 网关请求RED指标
+	 */
+	@Bean
+	public GatewayRequestMetrics gatewayRequestMetrics(MeterRegistry meterRegistry, RouteLocator routeLocator,
+			NexteraMetricsProperties properties) {
+		return new GatewayRequestMetrics(meterRegistry, routeLocator, properties);
+	}
+
+	/**
+	 * 创建网关请求指标全局过滤器
+	 * @param metrics 网关请求RED指标
+	 * @return 网关请求指标全局过滤器
+	 */
+	@Bean
+	public NexteraMetricsGlobalFilter nexteraMetricsGlobalFilter(GatewayRequestMetrics metrics) {
+		return new NexteraMetricsGlobalFilter(metrics);
+	}
+
+	/**
+	 * 创建exemplar上下文，Prometheus导出自动配置会将其用于直方图的exemplar采样
+	 * @return exemplar上下文
+	 */
+	@Bean
+	@ConditionalOnMissingBean(SpanContext.class)
+	@ConditionalOnProperty(value = "nextera.gateway.metrics.exemplars-enabled", havingValue = "true",
+			matchIfMissing = true)
+	public RequestExemplarContext requestExemplarContext() {
+		return new RequestExemplarContext();
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.nextera.gateway.config;
+
+import com.nextera.gateway.filter.NexteraMirrorGatewayFilterFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * 流量镜像配置类
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(value = "nextera.gateway.mirror.enabled", havingValue = "true", matchIfMissing = true)
+public class MirrorConfiguration {
+
+	/**
+	 * 创建流量镜像路由过滤器工厂，路由中以 {@code NexteraMirror} 引用
+	 * @param webClientBuilder WebClient构建器
+	 * @param loadBalancerFunction 负载均衡交换函数，解析影子服务名
+	 * @param meterRegistry 指标注册表
+	 * @return 流量镜像路由过滤器工厂
+	 */
+	@Bean
+	public NexteraMirrorGatewayFilterFactory nexteraMirrorGatewayFilterFactory(WebClient.Builder webClientBuilder,
+			LoadBalancedExchangeFilterFunction loadBalancerFunction, MeterRegistry meterRegistry) {
+		return new NexteraMirrorGatewayFilterFactory(webClientBuilder, loadBalancerFunction, meterRegistry);
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.nextera.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关聚合接口配置，路由通过 {@code NexteraAggregate=<endpoint>} 引用其中的聚合端点
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.aggregation")
+public class NexteraAggregationProperties {
+
+	/**
+	 * 是否启用聚合接口
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * 分支未配置超时时间时使用的超时时间
+	 */
+	private Duration defaultTimeout = Duration.ofSeconds(1);
+
+	/**
+	 * 单个分支响应体的最大长度
+	 */
+	private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+	/**
+	 * 转发给各分支的请求头
+	 */
+	private List<String> forwardHeaders = new ArrayList<>(
+			List.of("Authorization", "X-User-Id", "X-User-Name", "Accept-Language"));
+
+	/**
+	 * 聚合端点，key为端点名称
+	 */
+	private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+	/**
+	 * 聚合端点
+	 */
+	@Data
+	public static class Endpoint {
+
+		/**
+		 * 分支，key为分支名称，即合并结果中的字段名，按配置顺序输出
+		 */
+		private Map<String, Branch> branches = new LinkedHashMap<>();
+
+	}
+
+	/**
+	 * 聚合分支
+	 */
+	@Data
+	public static class Branch {
+
+		/**
+		 * 下游地址模板，如 {@code lb://nextera-user/user/{userId}}；变量取自路由Path变量、查询参数及已认证的
+		 * {@code userId}。{@code principal:} 表示直接返回网关已校验的登录状态，不访问下游
+		 */
+		private String uri;
+
+		/**
+		 * 超时时间，为空时使用 {@code default-timeout}
+		 */
+		private Duration timeout;
+
+		/**
+		 * 是否为必需分支，必需分支失败时整个请求失败，其余分支失败时返回部分结果
+		 */
+		private boolean required = false;
+
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.nextera.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关OpenAPI文档缓存配置
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.api-docs")
+public class NexteraApiDocProperties {
+
+	/**
+	 * 是否启用文档缓存
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * 下游服务的文档路径
+	 */
+	private String docPath = "/v3/api-docs";
+
+	/**
+	 * 网关提供的合并文档路径
+	 */
+	private String mergedPath = "/v3/api-docs/merged";
+
+	/**
+	 * 合并文档的标题
+	 */
+	private String title = "Nextera API";
+
+	/**
+	 * 不缓存文档的服务
+	 */
+	private List<String> excludedServices = new ArrayList<>(List.of("nextera-gateway"));
+
+	/**
+	 * 拉取单个文档的超时
+	 */
+	private Duration fetchTimeout = Duration.ofSeconds(5);
+
+	/**
+	 * 实例变化后延迟刷新的时间，等待新实例完成启动，期间的多次变化合并为一次刷新
+	 */
+	private Duration refreshDelay = Duration.ofSeconds(10);
+
+	/**
+	 * 全量刷新间隔，兜底实例变化通知丢失的情况
+	 */
+	private Duration refreshInterval = Duration.ofMinutes(10);
+
+	/**
+	 * 单个文档的最大大小
+	 */
+	private DataSize maxBodySize = DataSize.ofMegabytes(4);
+
+	/**
+	 * 拉取失败且没有旧内容的文档路径的负缓存时间，期间的请求直接返回503
+	 */
+	private Duration missingTtl = Duration.ofSeconds(30);
+
+	/**
+	 * 单IP每秒文档请求数，为0时不限流
+	 */
+	private double ipRate = 5;
+
+	/**
+	 * 单IP文档请求的令牌桶容量，为0时取速率值
+	 */
+	private long ipBurst = 20;
+
+}
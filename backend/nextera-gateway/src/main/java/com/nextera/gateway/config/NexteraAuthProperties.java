@@ -0,0 +1,40 @@
+package com.nextera.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关认证配置
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.auth")
+public class NexteraAuthProperties {
+
+	/**
+	 * 是否启用网关侧Token校验
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * 是否校验Redis中的登录态（与认证服务的validateToken语义一致，用于支持登出失效）
+	 */
+	private boolean checkSession = true;
+
+	/**
+	 * Token无效时是否直接返回401，关闭后按匿名请求转发
+	 */
+	private boolean rejectInvalidToken = true;
+
+	/**
+	 * 不做Token校验的路径（PathPattern语法）
+	 */
+	private List<String> ignorePaths = new ArrayList<>(List.of("/api/auth/login", "/api/auth/register",
+			"/api/auth/refresh", "/api/auth/captcha/**", "/auth/login", "/auth/register", "/auth/refresh",
+			"/auth/captcha/**"));
+
+}
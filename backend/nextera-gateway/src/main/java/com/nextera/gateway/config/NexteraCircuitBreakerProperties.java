@@ -0,0 +1,52 @@
+package com.nextera.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 网关熔断配置，按路由 + 下游实例分别熔断
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.circuit-breaker")
+public class NexteraCircuitBreakerProperties {
+
+	/**
+	 * 是否启用熔断
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * 统计失败率的滑动窗口大小（最近N次调用）
+	 */
+	private int windowSize = 20;
+
+	/**
+	 * 窗口内至少达到该调用次数才计算失败率
+	 */
+	private int minimumCalls = 10;
+
+	/**
+	 * 失败率阈值（百分比），达到后熔断
+	 */
+	private int failureRateThreshold = 50;
+
+	/**
+	 * 超过该耗时的调用按失败计入，用于识别卡住的实例
+	 */
+	private Duration slowCallDuration = Duration.ofSeconds(2);
+
+	/**
+	 * 熔断持续时间，之后进入半开状态
+	 */
+	private Duration openDuration = Duration.ofSeconds(10);
+
+	/**
+	 * 半开状态允许的探测请求数，全部成功后恢复
+	 */
+	private int halfOpenPermits = 3;
+
+}
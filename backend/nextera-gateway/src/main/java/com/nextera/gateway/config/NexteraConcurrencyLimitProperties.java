@@ -0,0 +1,174 @@
+package com.nextera.gateway.config;
+
+import com.nextera.gateway.concurrency.RequestPriority;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 网关自适应并发限制配置，按lb://路由的下游服务ID分别限制
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.concurrency-limit")
+public class NexteraConcurrencyLimitProperties {
+
+	/**
+	 * 是否启用自适应并发限制
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * 拒绝请求时返回的Retry-After
+	 */
+	private Duration retryAfter = Duration.ofSeconds(1);
+
+	/**
+	 * 默认的并发上限参数
+	 */
+	private Limit defaults = new Limit();
+
+	/**
+	 * 按服务ID覆盖的并发上限参数
+	 */
+	private Map<String, Limit> services = new LinkedHashMap<>();
+
+	/**
+	 * 超过并发上限时的排队参数
+	 */
+	private Queue queue = new Queue();
+
+	/**
+	 * 请求优先级分类
+	 */
+	private Priority priority = new Priority();
+
+	public Limit settingsFor(String serviceId) {
+		return services.getOrDefault(serviceId, defaults);
+	}
+
+	/**
+	 * 并发上限参数
+	 */
+	@Data
+	public static class Limit {
+
+		/**
+		 * 初始并发上限
+		 */
+		private int initialLimit = 20;
+
+		/**
+		 * 并发上限的下限
+		 */
+		private int minLimit = 4;
+
+		/**
+		 * 并发上限的上限
+		 */
+		private int maxLimit = 500;
+
+		/**
+		 * 平滑系数，越小调整越平缓
+		 */
+		private double smoothing = 0.2;
+
+		/**
+		 * RTT容忍度，本次RTT不超过长期RTT的该倍数时不收缩
+		 */
+		private double rttTolerance = 1.5;
+
+		/**
+		 * 每次调整允许的排队余量
+		 */
+		private int queueSize = 4;
+
+		/**
+		 * 长期RTT均值的样本窗口
+		 */
+		private int longWindow = 600;
+
+	}
+
+	/**
+	 * 排队参数，每个下游服务一个加权公平队列
+	 */
+	@Data
+	public static class Queue {
+
+		/**
+		 * 每个服务的排队容量，为0时超过上限直接拒绝
+		 */
+		private int capacity = 100;
+
+		/**
+		 * 目标排队延迟：LOW优先级最多排队该时长，每高一级翻倍，预计排队时间超过时直接拒绝
+		 */
+		private Duration targetDelay = Duration.ofMillis(50);
+
+		/**
+		 * 各优先级的出队权重，未配置的使用默认权重（8/4/2/1）
+		 */
+		private Map<RequestPriority, Integer> weights = new EnumMap<>(RequestPriority.class);
+
+	}
+
+	/**
+	 * 优先级分类：依次匹配规则，其次取路由元数据 {@code nextera-priority}，最后使用默认优先级
+	 */
+	@Data
+	public static class Priority {
+
+		/**
+		 * 默认优先级
+		 */
+		private RequestPriority defaultPriority = RequestPriority.NORMAL;
+
+		/**
+		 * 分类规则，按顺序匹配第一条
+		 */
+		private List<Rule> rules = new ArrayList<>();
+
+	}
+
+	/**
+	 * 分类规则，所有已配置的条件都满足时命中
+	 */
+	@Data
+	public static class Rule {
+
+		/**
+		 * 路由ID，为空时匹配所有路由
+		 */
+		private String route;
+
+		/**
+		 * 请求头名称
+		 */
+		private String header;
+
+		/**
+		 * 请求头的值，为空时只要求请求头存在
+		 */
+		private String value;
+
+		/**
+		 * 是否要求已登录，为空时不限
+		 */
+		private Boolean authenticated;
+
+		/**
+		 * 命中时的优先级
+		 */
+		private RequestPriority priority = RequestPriority.NORMAL;
+
+	}
+
+}
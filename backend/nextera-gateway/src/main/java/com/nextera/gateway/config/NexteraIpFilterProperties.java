@@ -0,0 +1,71 @@
+package com.nextera.gateway.config;
+
+import com.nextera.gateway.ipfilter.IpAction;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 网关客户端地址过滤配置
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.ip-filter")
+public class NexteraIpFilterProperties {
+
+	/**
+	 * 规则来源
+	 */
+	public enum Source {
+
+		/**
+		 * 本地文件，每行 {@code allow|deny <CIDR>}，只写CIDR时视为deny，{@code #} 开头为注释
+		 */
+		FILE,
+
+		/**
+		 * Redis集合 {@code <key-prefix>allow} 与 {@code <key-prefix>deny}，成员为CIDR；
+		 * 修改后对 {@code <key-prefix>version} 执行INCR，定时加载在版本未变时跳过
+		 */
+		REDIS
+
+	}
+
+	/**
+	 * 是否启用地址过滤
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 没有匹配任何前缀时的动作，设为deny即为白名单模式
+	 */
+	private IpAction defaultAction = IpAction.ALLOW;
+
+	/**
+	 * 规则来源
+	 */
+	private Source source = Source.FILE;
+
+	/**
+	 * 规则文件路径，source为file时使用
+	 */
+	private String file = "config/ip-filter.txt";
+
+	/**
+	 * Redis key前缀，source为redis时使用
+	 */
+	private String redisKeyPrefix = "nextera:gateway:ip-filter:";
+
+	/**
+	 * 规则变更后发布消息通知所有网关实例立即重新加载的频道
+	 */
+	private String reloadChannel = "nextera:gateway:ip-filter:reload";
+
+	/**
+	 * 定时重新加载间隔，文件未修改或Redis版本未变时跳过
+	 */
+	private Duration refreshInterval = Duration.ofSeconds(30);
+
+}
@@ -0,0 +1,142 @@
+package com.nextera.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 网关负载均衡配置，按服务ID选择负载均衡策略
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.load-balancer")
+public class NexteraLoadBalancerProperties {
+
+	/**
+	 * 未单独配置的服务使用的策略
+	 */
+	private Strategy defaultStrategy = Strategy.ROUND_ROBIN;
+
+	/**
+	 * 按服务ID指定的策略
+	 */
+	private Map<String, Strategy> services = new LinkedHashMap<>();
+
+	/**
+	 * 峰值EWMA的衰减时间，越小越快忘记历史峰值
+	 */
+	private Duration decayTime = Duration.ofSeconds(10);
+
+	/**
+	 * 失败请求计入EWMA的最小耗时
+	 */
+	private Duration errorPenalty = Duration.ofSeconds(1);
+
+	/**
+	 * 一致性哈希策略的参数
+	 */
+	private Hash hash = new Hash();
+
+	public Strategy strategyFor(String serviceId) {
+		return services.getOrDefault(serviceId, defaultStrategy);
+	}
+
+	/**
+	 * 负载均衡策略
+	 */
+	public enum Strategy {
+
+		/**
+		 * 轮询（Spring Cloud LoadBalancer默认）
+		 */
+		ROUND_ROBIN,
+
+		/**
+		 * 两次随机选择 + 峰值EWMA
+		 */
+		PEAK_EWMA,
+
+		/**
+		 * 有界负载的一致性哈希，同一个key固定访问同一实例，提高实例本地缓存命中率
+		 */
+		CONSISTENT_HASH
+
+	}
+
+	/**
+	 * 一致性哈希参数
+	 */
+	@Data
+	public static class Hash {
+
+		/**
+		 * 每个实例在哈希环上的虚拟节点数
+		 */
+		private int virtualNodes = 160;
+
+		/**
+		 * 负载上限系数：实例并发数超过 {@code 平均并发数 × load-factor} 时顺延到环上的下一个实例
+		 */
+		private double loadFactor = 1.25;
+
+		/**
+		 * 未单独配置的服务使用的哈希key
+		 */
+		private HashKey defaultKey = new HashKey();
+
+		/**
+		 * 按服务ID指定的哈希key
+		 */
+		private Map<String, HashKey> keys = new LinkedHashMap<>();
+
+		public HashKey keyFor(String serviceId) {
+			return keys.getOrDefault(serviceId, defaultKey);
+		}
+
+	}
+
+	/**
+	 * 哈希key来源，请求中取不到key时按轮询选择实例
+	 */
+	@Data
+	public static class HashKey {
+
+		/**
+		 * key来源
+		 */
+		private KeySource source = KeySource.USER_ID;
+
+		/**
+		 * 请求头名称或路由Path变量名，source为user-id时不需要
+		 */
+		private String name;
+
+	}
+
+	/**
+	 * 哈希key来源
+	 */
+	public enum KeySource {
+
+		/**
+		 * 网关认证过滤器校验通过的用户ID
+		 */
+		USER_ID,
+
+		/**
+		 * 请求头
+		 */
+		HEADER,
+
+		/**
+		 * 路由Path断言中的变量
+		 */
+		PATH_VARIABLE
+
+	}
+
+}
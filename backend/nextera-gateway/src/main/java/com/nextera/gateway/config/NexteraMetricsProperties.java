@@ -0,0 +1,36 @@
+package com.nextera.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关请求指标（RED：请求率、错误率、耗时）配置
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.metrics")
+public class NexteraMetricsProperties {
+
+	/**
+	 * 是否记录网关请求指标
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * 耗时直方图的SLO分桶边界
+	 */
+	private List<Duration> sloBoundaries = new ArrayList<>(List.of(Duration.ofMillis(25), Duration.ofMillis(50),
+			Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+			Duration.ofMillis(2500), Duration.ofSeconds(5)));
+
+	/**
+	 * 是否为直方图附加exemplar（以X-Request-ID作为trace_id）
+	 */
+	private boolean exemplarsEnabled = true;
+
+}
@@ -0,0 +1,47 @@
+package com.nextera.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 网关分层限流全局配置，各路由的速率在路由过滤器参数中配置
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.rate-limit")
+public class NexteraRateLimitProperties {
+
+	/**
+	 * 每次从Redis租借的最大令牌数，实际租借数不超过桶容量
+	 */
+	private int leaseSize = 10;
+
+	/**
+	 * 租借到的令牌在本地的有效期
+	 */
+	private Duration leaseTtl = Duration.ofSeconds(1);
+
+	/**
+	 * 租借Redis超时时间，超时按放行处理
+	 */
+	private Duration leaseTimeout = Duration.ofMillis(200);
+
+	/**
+	 * 本地令牌桶的最大数量（IP、用户维度的key数量不可控，需要限制）
+	 */
+	private long maxLocalBuckets = 100000;
+
+	/**
+	 * 本地令牌桶的空闲淘汰时间
+	 */
+	private Duration bucketIdleTimeout = Duration.ofMinutes(5);
+
+	/**
+	 * Redis key前缀
+	 */
+	private String keyPrefix = "nextera:ratelimit:";
+
+}
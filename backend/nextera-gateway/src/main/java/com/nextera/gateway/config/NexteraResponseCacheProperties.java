@@ -0,0 +1,36 @@
+package com.nextera.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 网关响应缓存全局配置，缓存时间等按路由在过滤器参数中配置
+ *
+ * @author Nextera
+ */
+@Data
+@ConfigurationProperties(prefix = "nextera.gateway.response-cache")
+public class NexteraResponseCacheProperties {
+
+	/**
+	 * 本地L1缓存的最大容量（按响应体字节数计算）
+	 */
+	private DataSize l1MaximumSize = DataSize.ofMegabytes(64);
+
+	/**
+	 * 是否启用Redis L2缓存
+	 */
+	private boolean l2Enabled = true;
+
+	/**
+	 * Redis key前缀
+	 */
+	private String keyPrefix = "nextera:gateway:cache:";
+
+	/**
+	 * 按前缀清除缓存时，用于通知其他网关实例清除L1的频道
+	 */
+	private String purgeChannel = "nextera:gateway:cache:purge";
+
+}
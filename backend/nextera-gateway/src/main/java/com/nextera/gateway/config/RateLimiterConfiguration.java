@@ -1,8 +1,16 @@
 package com.nextera.gateway.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.gateway.filter.NexteraRateLimiterGatewayFilterFactory;
+import com.nextera.gateway.ratelimit.HierarchicalRateLimiter;
+import com.nextera.gateway.ratelimit.RedisTokenLeaser;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import reactor.core.publisher.Mono;
 
 import java.util.Objects;
@@ -13,6 +21,7 @@ import java.util.Objects;
  * @author Nextera
  */
 @Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraRateLimitProperties.class)
 public class RateLimiterConfiguration {
 
 	/**
@@ -30,4 +39,43 @@ public class RateLimiterConfiguration {
 				.getHostAddress());
 	}
 
+	/**
+	 * 创建Redis令牌租借器
+	 * @param redisTemplate 响应式Redis模板
+	 * @param properties 限流配置
+	 * @return Redis令牌租借器
+	 */
+	@Bean
+	public RedisTokenLeaser redisTokenLeaser(ReactiveStringRedisTemplate redisTemplate,
+			NexteraRateLimitProperties properties) {
+		return new RedisTokenLeaser(redisTemplate, properties.getKeyPrefix(), properties.getLeaseTimeout());
+	}
+
+	/**
+	 * 创建分层限流器
+	 * @param leaser Redis令牌租借器
+	 * @param properties 限流配置
+	 * @param meterRegistry 指标注册表
+	 * @return 分层限流器
+	 */
+	@Bean
+	public HierarchicalRateLimiter hierarchicalRateLimiter(RedisTokenLeaser leaser,
+			NexteraRateLimitProperties properties, MeterRegistry meterRegistry) {
+		return new HierarchicalRateLimiter(leaser, properties, meterRegistry);
+	}
+
+	/**
+	 * 创建分层限流路由过滤器工厂，路由中以 {@code NexteraRateLimiter} 引用
+	 * @param rateLimiter 分层限流器
+	 * @param ipKeyResolver IP维度的KeyResolver
+	 * @param objectMapper 对象映射器
+	 * @return 分层限流路由过滤器工厂
+	 */
+	@Bean
+	public NexteraRateLimiterGatewayFilterFactory nexteraRateLimiterGatewayFilterFactory(
+			HierarchicalRateLimiter rateLimiter, @Qualifier("remoteAddrKeyResolver") KeyResolver ipKeyResolver,
+			ObjectMapper objectMapper) {
+		return new NexteraRateLimiterGatewayFilterFactory(rateLimiter, ipKeyResolver, objectMapper);
+	}
+
 }
@@ -0,0 +1,57 @@
+package com.nextera.gateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.gateway.cache.ResponseCacheEndpoint;
+import com.nextera.gateway.cache.ResponseCacheManager;
+import com.nextera.gateway.filter.NexteraResponseCacheGatewayFilterFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+/**
+ * 网关响应缓存配置类
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(NexteraResponseCacheProperties.class)
+public class ResponseCacheConfiguration {
+
+	/**
+	 * 创建两级响应缓存
+	 * @param redisTemplate 响应式Redis模板
+	 * @param objectMapper 对象映射器
+	 * @param properties 响应缓存配置
+	 * @param meterRegistry 指标注册表
+	 * @return 两级响应缓存
+	 */
+	@Bean
+	public ResponseCacheManager responseCacheManager(ReactiveStringRedisTemplate redisTemplate,
+			ObjectMapper objectMapper, NexteraResponseCacheProperties properties, MeterRegistry meterRegistry) {
+		return new ResponseCacheManager(redisTemplate, objectMapper, properties, meterRegistry);
+	}
+
+	/**
+	 * 创建响应缓存路由过滤器工厂，路由中以 {@code NexteraResponseCache} 引用
+	 * @param cacheManager 两级响应缓存
+	 * @return 响应缓存路由过滤器工厂
+	 */
+	@Bean
+	public NexteraResponseCacheGatewayFilterFactory nexteraResponseCacheGatewayFilterFactory(
+			ResponseCacheManager cacheManager) {
+		return new NexteraResponseCacheGatewayFilterFactory(cacheManager);
+	}
+
+	/**
+	 * 创建响应缓存管理端点
+	 * @param cacheManager 两级响应缓存
+	 * @return 响应缓存管理端点
+	 */
+	@Bean
+	public ResponseCacheEndpoint responseCacheEndpoint(ResponseCacheManager cacheManager) {
+		return new ResponseCacheEndpoint(cacheManager);
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.nextera.gateway.config;
+
+import com.nextera.gateway.route.IndexedRoutePredicateHandlerMapping;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 路由匹配索引配置类，替换Spring Cloud Gateway默认的逐个路由匹配
+ *
+ * @author Nextera
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(value = "nextera.gateway.route-index.enabled", havingValue = "true", matchIfMissing = true)
+public class RouteIndexConfiguration {
+
+	/**
+	 * 创建基于前缀树索引的路由处理器映射
+	 * @param webHandler 过滤器链处理器
+	 * @param routeLocator 路由定位器
+	 * @param routeDefinitionLocator 路由定义定位器，用于读取Path断言
+	 * @param globalCorsProperties 全局跨域配置
+	 * @param environment 环境
+	 * @return 路由处理器映射
+	 */
+	@Bean
+	public IndexedRoutePredicateHandlerMapping indexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler,
+			RouteLocator routeLocator, RouteDefinitionLocator routeDefinitionLocator,
+			GlobalCorsProperties globalCorsProperties, Environment environment) {
+		return new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, routeDefinitionLocator,
+				globalCorsProperties, environment);
+	}
+
+}
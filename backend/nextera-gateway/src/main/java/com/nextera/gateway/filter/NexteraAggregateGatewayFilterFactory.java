@@ -0,0 +1,316 @@
+package com.nextera.gateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.common.core.Result;
+import com.nextera.common.core.ResultCode;
+import com.nextera.gateway.aggregation.AggregationResult;
+import com.nextera.gateway.aggregation.AggregationResult.BranchFailure;
+import com.nextera.gateway.auth.VerifiedPrincipal;
+import com.nextera.gateway.config.NexteraAggregationProperties;
+import com.nextera.gateway.utils.ResponseUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * 聚合接口路由过滤器（BFF）
+ * <p>
+ * 按 {@code nextera.gateway.aggregation.endpoints} 中的配置并发请求各分支，合并为一个Result返回，
+ * 客户端一次往返即可拿到页面所需的数据。每个分支单独超时；非必需分支失败时返回部分结果，
+ * 失败原因列在 {@code failures} 中；必需分支失败时返回该分支的错误。
+ * <p>
+ * 本过滤器在 {@link NexteraRequestGlobalFilter} 之前应答，分支请求与普通路由一样清洗from参数、
+ * 写入请求开始时间、截止时间并透传请求ID，截止时间取本分支的超时。
+ * <p>
+ * 路由使用 {@code no://op} 作为目标地址，示例：
+ *
+ * <pre>
+ * - id: nextera-bff-article-page
+ *   uri: no://op
+ *   predicates:
+ *     - Path=/api/bff/article-page/{articleId}
+ *   filters:
+ *     - NexteraAggregate=article-page
+ * </pre>
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class NexteraAggregateGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<NexteraAggregateGatewayFilterFactory.Config> {
+
+	/**
+	 * 已认证用户ID的模板变量名
+	 */
+	public static final String CURRENT_USER_ID = "currentUserId";
+
+	private static final String METRIC_BRANCHES = "nextera.gateway.aggregation.branches";
+
+	private static final String PRINCIPAL_SCHEME = "principal";
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private final Map<String, UriTemplate> templates = new ConcurrentHashMap<>();
+
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+	private final NexteraAggregationProperties properties;
+
+	private final WebClient webClient;
+
+	private final ObjectMapper objectMapper;
+
+	private final MeterRegistry meterRegistry;
+
+	public NexteraAggregateGatewayFilterFactory(NexteraAggregationProperties properties,
+			WebClient.Builder webClientBuilder, LoadBalancedExchangeFilterFunction loadBalancerFunction,
+			ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.properties = properties;
+		this.webClient = webClientBuilder.filter(loadBalancerFunction)
+			.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) properties.getMaxBodySize().toBytes()))
+			.build();
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("endpoint");
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		return (exchange, chain) -> {
+			// 每次请求读取配置，Nacos刷新后立即生效
+			NexteraAggregationProperties.Endpoint endpoint = properties.getEndpoints().get(config.getEndpoint());
+			if (endpoint == null) {
+				log.warn("Aggregation endpoint {} is not configured", config.getEndpoint());
+				return ResponseUtil.writeResult(exchange, HttpStatus.NOT_FOUND, Result.error(ResultCode.NOT_FOUND),
+						objectMapper);
+			}
+			setAlreadyRouted(exchange);
+			Map<String, String> variables = variables(exchange);
+			return Flux.fromIterable(endpoint.getBranches().entrySet())
+				.flatMap(entry -> branch(config.getEndpoint(), entry.getKey(), entry.getValue(), exchange, variables))
+				.collectMap(BranchOutcome::name)
+				.flatMap(outcomes -> write(exchange, endpoint, outcomes));
+		};
+	}
+
+	/**
+	 * 模板变量：查询参数、路由Path变量（同名时优先）及已认证用户ID
+	 */
+	private static Map<String, String> variables(ServerWebExchange exchange) {
+		Map<String, String> variables = new HashMap<>();
+		exchange.getRequest().getQueryParams().forEach((name, values) -> {
+			if (!values.isEmpty()) {
+				variables.put(name, values.get(0));
+			}
+		});
+		variables.putAll(ServerWebExchangeUtils.getUriTemplateVariables(exchange));
+		VerifiedPrincipal principal = exchange.getAttribute(NexteraAuthGlobalFilter.VERIFIED_PRINCIPAL_ATTR);
+		if (principal != null) {
+			variables.put(CURRENT_USER_ID, String.valueOf(principal.userId()));
+		}
+		return variables;
+	}
+
+	private Mono<BranchOutcome> branch(String endpointName, String name, NexteraAggregationProperties.Branch branch,
+			ServerWebExchange exchange, Map<String, String> variables) {
+		long start = System.nanoTime();
+		return fetch(name, branch, exchange, variables)
+			.doOnNext(outcome -> timer(endpointName, name, outcome.outcome()).record(System.nanoTime() - start,
+					TimeUnit.NANOSECONDS));
+	}
+
+	private Mono<BranchOutcome> fetch(String name, NexteraAggregationProperties.Branch branch,
+			ServerWebExchange exchange, Map<String, String> variables) {
+		if (branch.getUri().startsWith(PRINCIPAL_SCHEME + ":")) {
+			return Mono.just(BranchOutcome.success(name, authStatus(exchange)));
+		}
+		UriTemplate template = templates.computeIfAbsent(branch.getUri(), UriTemplate::new);
+		for (String variable : template.getVariableNames()) {
+			if (!variables.containsKey(variable)) {
+				return Mono.just(BranchOutcome.failure(name, "skipped", HttpStatus.BAD_REQUEST,
+						new BranchFailure(ResultCode.PARAM_ERROR.getCode(), "缺少参数: " + variable)));
+			}
+		}
+		URI uri = UriComponentsBuilder.fromUri(template.expand(variables)).scheme("http").build(true).toUri();
+		Duration timeout = branch.getTimeout() != null ? branch.getTimeout() : properties.getDefaultTimeout();
+		return webClient.get()
+			.uri(uri)
+			.headers(headers -> {
+				forwardHeaders(exchange, headers);
+				// 分支的截止时间为本分支超时，下游按剩余时间缩短其调用超时
+				NexteraRequestGlobalFilter.stamp(headers, NexteraRequestGlobalFilter.startTime(exchange),
+						System.currentTimeMillis() + timeout.toMillis());
+			})
+			.exchangeToMono(response -> response.bodyToMono(byte[].class)
+				.defaultIfEmpty(EMPTY)
+				.map(body -> decode(name, response.statusCode(), body)))
+			.timeout(timeout)
+			.onErrorResume(e -> {
+				log.debug("Aggregation branch {} failed: {}", name, e.toString());
+				if (e instanceof TimeoutException) {
+					return Mono.just(BranchOutcome.failure(name, "timeout", HttpStatus.GATEWAY_TIMEOUT,
+							new BranchFailure(HttpStatus.GATEWAY_TIMEOUT.value(), "请求超时")));
+				}
+				return Mono.just(BranchOutcome.failure(name, "error", HttpStatus.BAD_GATEWAY,
+						new BranchFailure(ResultCode.SERVICE_UNAVAILABLE.getCode(),
+								ResultCode.SERVICE_UNAVAILABLE.getMessage())));
+			});
+	}
+
+	private void forwardHeaders(ServerWebExchange exchange, HttpHeaders headers) {
+		HttpHeaders incoming = exchange.getRequest().getHeaders();
+		for (String name : properties.getForwardHeaders()) {
+			List<String> values = incoming.get(name);
+			if (values != null) {
+				headers.put(name, values);
+			}
+		}
+		String requestId = incoming.getFirst(CommonConstants.Header.REQUEST_ID);
+		if (requestId != null) {
+			headers.set(CommonConstants.Header.REQUEST_ID, requestId);
+		}
+	}
+
+	/**
+	 * 下游返回Result时取其data，code非成功时作为失败；其他JSON原样合并
+	 */
+	private BranchOutcome decode(String name, HttpStatusCode status, byte[] body) {
+		JsonNode node;
+		try {
+			node = body.length == 0 ? NullNode.getInstance() : objectMapper.readTree(body);
+		}
+		catch (IOException e) {
+			return BranchOutcome.failure(name, "error", HttpStatus.BAD_GATEWAY,
+					new BranchFailure(HttpStatus.BAD_GATEWAY.value(), "响应不是有效的JSON"));
+		}
+		if (node.isObject() && node.has("code") && node.has("message")) {
+			int code = node.path("code").asInt();
+			if (status.is2xxSuccessful() && code == ResultCode.SUCCESS.getCode()) {
+				return BranchOutcome.success(name, node.get("data"));
+			}
+			return BranchOutcome.failure(name, "failure", status,
+					new BranchFailure(code, node.path("message").asText()));
+		}
+		if (status.is2xxSuccessful()) {
+			return BranchOutcome.success(name, node);
+		}
+		return BranchOutcome.failure(name, "failure", status,
+				new BranchFailure(status.value(), "下游返回" + status.value()));
+	}
+
+	/**
+	 * 网关已校验Token和登录态，登录状态直接由网关返回
+	 */
+	private static Map<String, Object> authStatus(ServerWebExchange exchange) {
+		VerifiedPrincipal principal = exchange.getAttribute(NexteraAuthGlobalFilter.VERIFIED_PRINCIPAL_ATTR);
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("authenticated", principal != null);
+		if (principal != null) {
+			status.put("userId", principal.userId());
+			status.put("username", principal.username());
+			status.put("expiresAt", principal.expiresAt());
+		}
+		return status;
+	}
+
+	private Mono<Void> write(ServerWebExchange exchange, NexteraAggregationProperties.Endpoint endpoint,
+			Map<String, BranchOutcome> outcomes) {
+		Map<String, Object> results = new LinkedHashMap<>();
+		Map<String, BranchFailure> failures = new LinkedHashMap<>();
+		for (Map.Entry<String, NexteraAggregationProperties.Branch> entry : endpoint.getBranches().entrySet()) {
+			BranchOutcome outcome = outcomes.get(entry.getKey());
+			if (outcome.failure() == null) {
+				results.put(entry.getKey(), outcome.data());
+				continue;
+			}
+			if (entry.getValue().isRequired()) {
+				HttpStatus status = HttpStatus.resolve(outcome.status().value());
+				return ResponseUtil.writeResult(exchange, status != null ? status : HttpStatus.BAD_GATEWAY,
+						Result.error(outcome.failure().code(), outcome.failure().message()), objectMapper);
+			}
+			results.put(entry.getKey(), null);
+			failures.put(entry.getKey(), outcome.failure());
+		}
+		return ResponseUtil.writeResult(exchange, HttpStatus.OK,
+				Result.success(new AggregationResult(results, failures)), objectMapper);
+	}
+
+	private Timer timer(String endpoint, String branch, String outcome) {
+		return timers.computeIfAbsent(endpoint + '|' + branch + '|' + outcome, key -> Timer.builder(METRIC_BRANCHES)
+			.tag("endpoint", endpoint)
+			.tag("branch", branch)
+			.tag("outcome", outcome)
+			.register(meterRegistry));
+	}
+
+	/**
+	 * 单个分支的结果
+	 *
+	 * @param name 分支名称
+	 * @param outcome 指标中的结果标签
+	 * @param status HTTP状态，必需分支失败时作为响应状态
+	 * @param data 分支数据
+	 * @param failure 失败原因，成功时为null
+	 */
+	private record BranchOutcome(String name, String outcome, HttpStatusCode status, Object data,
+			BranchFailure failure) {
+
+		static BranchOutcome success(String name, Object data) {
+			return new BranchOutcome(name, "success", HttpStatus.OK, data, null);
+		}
+
+		static BranchOutcome failure(String name, String outcome, HttpStatusCode status, BranchFailure failure) {
+			return new BranchOutcome(name, outcome, status, null, failure);
+		}
+
+	}
+
+	/**
+	 * 路由级参数
+	 */
+	@Data
+	public static class Config {
+
+		/**
+		 * 聚合端点名称，对应 {@code nextera.gateway.aggregation.endpoints} 的key
+		 */
+		private String endpoint;
+
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.nextera.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.common.core.Result;
+import com.nextera.common.core.ResultCode;
+import com.nextera.common.util.JwtPrincipal;
+import com.nextera.common.util.JwtUtil;
+import com.nextera.gateway.auth.VerifiedPrincipal;
+import com.nextera.gateway.config.NexteraAuthProperties;
+import com.nextera.gateway.utils.ResponseUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 网关认证过滤器
+ * <p>
+ * 每个请求只校验一次Token；签名校验结果由 {@link JwtUtil} 的已校验Token缓存按摘要缓存
+ * （{@code nextera.jwt.cache-size}、{@code nextera.jwt.cache-ttl}），登录态每次请求都查询Redis，登出后立即失效。
+ * 校验通过后以可信请求头 {@link CommonConstants.Header#USER_ID} 和 {@link CommonConstants.Header#USERNAME}
+ * 转发给下游服务，客户端自行携带的同名请求头一律清除。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class NexteraAuthGlobalFilter implements GlobalFilter, Ordered {
+
+	/**
+	 * 交换对象中保存校验结果的属性名
+	 */
+	public static final String VERIFIED_PRINCIPAL_ATTR = NexteraAuthGlobalFilter.class.getName() + ".principal";
+
+	private final JwtUtil jwtUtil;
+
+	private final ReactiveStringRedisTemplate redisTemplate;
+
+	private final ObjectMapper objectMapper;
+
+	private final NexteraAuthProperties properties;
+
+	private final List<PathPattern> ignorePatterns;
+
+	public NexteraAuthGlobalFilter(JwtUtil jwtUtil, ReactiveStringRedisTemplate redisTemplate,
+			ObjectMapper objectMapper, NexteraAuthProperties properties) {
+		this.jwtUtil = jwtUtil;
+		this.redisTemplate = redisTemplate;
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+		this.ignorePatterns = properties.getIgnorePaths()
+			.stream()
+			.map(PathPatternParser.defaultInstance::parse)
+			.toList();
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		String token = resolveToken(request);
+
+		// 1. 无Token或白名单路径，清除可信头后按匿名请求转发
+		if (token == null || isIgnored(request.getPath().pathWithinApplication())) {
+			return chain.filter(forward(exchange, null));
+		}
+
+		// 2. 校验Token与登录态
+		return verify(token).map(Optional::of)
+			.defaultIfEmpty(Optional.empty())
+			.flatMap(principal -> {
+				if (principal.isPresent()) {
+					return chain.filter(forward(exchange, principal.get()));
+				}
+				if (properties.isRejectInvalidToken()) {
+					return ResponseUtil.writeResult(exchange, HttpStatus.UNAUTHORIZED,
+							Result.error(ResultCode.TOKEN_INVALID), objectMapper);
+				}
+				return chain.filter(forward(exchange, null));
+			});
+	}
+
+	/**
+	 * 校验Token签名、类型及登录态
+	 * @param token 访问Token
+	 * @return 校验通过时返回主体信息，否则为空
+	 */
+	private Mono<VerifiedPrincipal> verify(String token) {
+		VerifiedPrincipal principal;
+		try {
+			JwtPrincipal parsed = jwtUtil.parse(token);
+			// 刷新Token不能作为访问Token使用；缓存条目按过期时间失效，这里再确认一次
+			if (parsed.isRefreshToken() || parsed.isExpired(System.currentTimeMillis())) {
+				return Mono.empty();
+			}
+			principal = new VerifiedPrincipal(parsed.userId(), parsed.username(), parsed.expiresAt());
+		}
+		catch (Exception e) {
+			log.debug("Gateway token verification failed: {}", e.getMessage());
+			return Mono.empty();
+		}
+
+		if (principal.userId() == null) {
+			return Mono.empty();
+		}
+		if (!properties.isCheckSession()) {
+			return Mono.just(principal);
+		}
+		return redisTemplate.opsForValue()
+			.get(CommonConstants.CachePrefix.LOGIN_TOKEN + principal.userId())
+			.filter(token::equals)
+			.map(stored -> principal)
+			.onErrorResume(e -> {
+				log.warn("Gateway token session check failed: {}", e.getMessage());
+				return Mono.empty();
+			});
+	}
+
+	/**
+	 * 重建可信请求头，principal为空时仅清除
+	 */
+	private ServerWebExchange forward(ServerWebExchange exchange, VerifiedPrincipal principal) {
+		if (principal != null) {
+			exchange.getAttributes().put(VERIFIED_PRINCIPAL_ATTR, principal);
+		}
+		ServerHttpRequest request = exchange.getRequest().mutate().headers(httpHeaders -> {
+			httpHeaders.remove(CommonConstants.Header.USER_ID);
+			httpHeaders.remove(CommonConstants.Header.USERNAME);
+			if (principal != null) {
+				httpHeaders.set(CommonConstants.Header.USER_ID, String.valueOf(principal.userId()));
+				if (principal.username() != null) {
+					httpHeaders.set(CommonConstants.Header.USERNAME,
+							URLEncoder.encode(principal.username(), StandardCharsets.UTF_8));
+				}
+			}
+		}).build();
+		return exchange.mutate().request(request).build();
+	}
+
+	private String resolveToken(ServerHttpRequest request) {
+		String authorization = request.getHeaders().getFirst(CommonConstants.Header.AUTHORIZATION);
+		if (authorization == null || !authorization.startsWith(CommonConstants.Header.BEARER_PREFIX)) {
+			return null;
+		}
+		String token = authorization.substring(CommonConstants.Header.BEARER_PREFIX.length()).trim();
+		return token.isEmpty() ? null : token;
+	}
+
+	private boolean isIgnored(PathContainer path) {
+		for (PathPattern pattern : ignorePatterns) {
+			if (pattern.matches(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 在路径重写过滤器之前执行，保证后续过滤器可以读取校验结果
+	 */
+	@Override
+	public int getOrder() {
+		return 0;
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.nextera.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.core.Result;
+import com.nextera.common.core.ResultCode;
+import com.nextera.gateway.circuitbreaker.InstanceCircuitBreaker;
+import com.nextera.gateway.circuitbreaker.InstanceCircuitBreakerRegistry;
+import com.nextera.gateway.utils.ResponseUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 熔断全局过滤器
+ * <p>
+ * 紧跟负载均衡过滤器之后，按路由 + 选中的实例获取调用许可并记录结果。负载均衡已排除熔断的实例，
+ * 此处拒绝的只是半开探测名额被并发请求抢完的情况，返回503和Retry-After。
+ *
+ * @author Nextera
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class NexteraCircuitBreakerGlobalFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+	private final InstanceCircuitBreakerRegistry registry;
+
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		Response<ServiceInstance> response = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		if (response == null || !response.hasServer() || route == null) {
+			return chain.filter(exchange);
+		}
+		ServiceInstance instance = response.getServer();
+		InstanceCircuitBreaker breaker = registry.tryAcquire(route.getId(), instance);
+		if (breaker == null) {
+			log.debug("Circuit open for route {} instance {}:{}", route.getId(), instance.getHost(),
+					instance.getPort());
+			long retryAfter = Math.max(1, TimeUnit.NANOSECONDS
+				.toSeconds(registry.get(route.getId(), instance).remainingOpenNanos()));
+			exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+			return ResponseUtil.writeResult(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+					Result.error(ResultCode.SERVICE_UNAVAILABLE), objectMapper);
+		}
+		long start = System.nanoTime();
+		return chain.filter(exchange)
+			.doOnSuccess(v -> breaker.onResult(System.nanoTime() - start,
+					isFailure(exchange.getResponse().getStatusCode())))
+			.doOnError(e -> breaker.onResult(System.nanoTime() - start, true))
+			.doOnCancel(breaker::onIgnored);
+	}
+
+	static boolean isFailure(HttpStatusCode status) {
+		return status != null && status.is5xxServerError();
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
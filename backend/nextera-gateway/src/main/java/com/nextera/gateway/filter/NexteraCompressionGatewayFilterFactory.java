@@ -0,0 +1,230 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.gateway.compression.ContentCoding;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 响应压缩路由过滤器
+ * <p>
+ * 按Accept-Encoding协商gzip或deflate，逐块压缩下游响应的Netty ByteBuf，不缓冲完整响应体；
+ * 需要逐条刷新的流式响应（如SSE）不压缩。
+ * 以下响应不压缩：HEAD请求、204/206/304、已带Content-Encoding、Cache-Control含no-transform、
+ * Content-Type不在白名单内、Content-Length小于 {@code min-size}（未知长度的分块响应总是压缩）。
+ * 与 {@code NexteraResponseCache} 同时使用时配置在其之后，缓存保存压缩后的字节。
+ * 下游响应通过 {@link NexteraResponseHookGlobalFilter} 压缩，网关自身写出的响应（如限流拒绝、缓存命中）不经过压缩。
+ * <p>
+ * 使用示例：
+ *
+ * <pre>
+ * filters:
+ *   - name: NexteraCompression
+ *     args:
+ *       min-size: 1KB
+ *       mime-types: application/json,text/plain
+ *       encodings: gzip,deflate
+ * </pre>
+ *
+ * @author Nextera
+ */
+public class NexteraCompressionGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<NexteraCompressionGatewayFilterFactory.Config> {
+
+	public NexteraCompressionGatewayFilterFactory() {
+		super(Config.class);
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		List<MediaType> mimeTypes = MediaType.parseMediaTypes(config.getMimeTypes());
+		List<ContentCoding> encodings = config.getEncodings()
+			.stream()
+			.map(encoding -> ContentCoding.valueOf(encoding.trim().toUpperCase(Locale.ROOT)))
+			.toList();
+		return (exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+			if (HttpMethod.HEAD.equals(request.getMethod())) {
+				return chain.filter(exchange);
+			}
+			ContentCoding coding = ContentCoding.negotiate(request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING),
+					encodings);
+			if (coding == null) {
+				return chain.filter(exchange);
+			}
+			if (NexteraResponseHookGlobalFilter.decorate(exchange,
+					response -> new CompressingResponse(response, coding, mimeTypes, config))) {
+				return chain.filter(exchange);
+			}
+			ServerHttpResponse response = new CompressingResponse(exchange.getResponse(), coding, mimeTypes, config);
+			return chain.filter(exchange.mutate().response(response).build());
+		};
+	}
+
+	/**
+	 * 逐块压缩响应体的装饰器
+	 */
+	private static class CompressingResponse extends ServerHttpResponseDecorator {
+
+		private final ContentCoding coding;
+
+		private final List<MediaType> mimeTypes;
+
+		private final Config config;
+
+		CompressingResponse(ServerHttpResponse delegate, ContentCoding coding, List<MediaType> mimeTypes,
+				Config config) {
+			super(delegate);
+			this.coding = coding;
+			this.mimeTypes = mimeTypes;
+			this.config = config;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			HttpHeaders headers = getHeaders();
+			if (!shouldCompress(headers)) {
+				return super.writeWith(body);
+			}
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			headers.set(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+			List<String> vary = headers.getVary();
+			if (vary.stream().noneMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase)) {
+				headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			}
+			// 压缩改变了字节，下游的强ETag降为弱ETag
+			String etag = headers.getETag();
+			if (etag != null && !etag.startsWith("W/")) {
+				headers.setETag("W/" + etag);
+			}
+
+			StreamingEncoder encoder = new StreamingEncoder(coding, config.getLevel());
+			Flux<DataBuffer> compressed = Flux.from(body)
+				.concatMapIterable(encoder::encode)
+				.concatWith(Flux.defer(() -> Flux.fromIterable(encoder.finish())))
+				.doFinally(signal -> encoder.release())
+				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+			return super.writeWith(compressed);
+		}
+
+		private boolean shouldCompress(HttpHeaders headers) {
+			HttpStatusCode status = getStatusCode();
+			if (status != null && (status.value() == 204 || status.value() == 206 || status.value() == 304)) {
+				return false;
+			}
+			if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+				return false;
+			}
+			String cacheControl = headers.getCacheControl();
+			if (cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-transform")) {
+				return false;
+			}
+			MediaType contentType = headers.getContentType();
+			if (contentType == null || mimeTypes.stream().noneMatch(type -> type.includes(contentType))) {
+				return false;
+			}
+			long contentLength = headers.getContentLength();
+			return contentLength < 0 || contentLength >= config.getMinSize().toBytes();
+		}
+
+		/**
+		 * 基于Netty zlib编码器的增量压缩，输入的ByteBuf由编码器释放
+		 */
+		private class StreamingEncoder {
+
+			private final EmbeddedChannel channel;
+
+			StreamingEncoder(ContentCoding coding, int level) {
+				this.channel = new EmbeddedChannel(ZlibCodecFactory.newZlibEncoder(coding.getWrapper(), level));
+			}
+
+			synchronized List<DataBuffer> encode(DataBuffer buffer) {
+				channel.writeOutbound(NettyDataBufferFactory.toByteBuf(buffer));
+				return drain();
+			}
+
+			synchronized List<DataBuffer> finish() {
+				channel.finish();
+				return drain();
+			}
+
+			synchronized void release() {
+				channel.finishAndReleaseAll();
+			}
+
+			private List<DataBuffer> drain() {
+				List<DataBuffer> out = new ArrayList<>(2);
+				ByteBuf buf;
+				while ((buf = channel.readOutbound()) != null) {
+					if (!buf.isReadable()) {
+						buf.release();
+					}
+					else if (bufferFactory() instanceof NettyDataBufferFactory factory) {
+						out.add(factory.wrap(buf));
+					}
+					else {
+						byte[] bytes = new byte[buf.readableBytes()];
+						buf.readBytes(bytes);
+						buf.release();
+						out.add(bufferFactory().wrap(bytes));
+					}
+				}
+				return out;
+			}
+
+		}
+
+	}
+
+	/**
+	 * 路由级压缩参数
+	 */
+	@Data
+	public static class Config {
+
+		/**
+		 * 压缩的最小响应体，Content-Length小于该值时不压缩
+		 */
+		private DataSize minSize = DataSize.ofKilobytes(1);
+
+		/**
+		 * 允许压缩的Content-Type，支持通配符，例如 {@code text/*}、{@code application/*+json}
+		 */
+		private List<String> mimeTypes = new ArrayList<>(List.of(MediaType.APPLICATION_JSON_VALUE, "application/*+json",
+				MediaType.APPLICATION_XML_VALUE, "application/javascript", "text/*"));
+
+		/**
+		 * 允许使用的压缩编码，取值 gzip、deflate
+		 */
+		private List<String> encodings = new ArrayList<>(List.of("gzip", "deflate"));
+
+		/**
+		 * 压缩级别（1-9），越大压缩率越高、CPU消耗越大
+		 */
+		private int level = 6;
+
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.nextera.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.core.Result;
+import com.nextera.common.core.ResultCode;
+import com.nextera.gateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.nextera.gateway.concurrency.RequestPriority;
+import com.nextera.gateway.concurrency.RequestPriorityClassifier;
+import com.nextera.gateway.utils.ResponseUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 自适应并发限制全局过滤器
+ * <p>
+ * 对 {@code lb://} 路由按下游服务ID限制并发，超过当前上限时按 {@link RequestPriorityClassifier} 计算的优先级排队，
+ * 被丢弃的请求返回503和Retry-After。位于负载均衡过滤器之前、路由过滤器之后，缓存命中或被限流的请求不占用名额。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class NexteraConcurrencyLimitGlobalFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+
+	private static final String LB_SCHEME = "lb";
+
+	private final AdaptiveConcurrencyLimiter limiter;
+
+	private final RequestPriorityClassifier classifier;
+
+	private final ObjectMapper objectMapper;
+
+	private final String retryAfter;
+
+	public NexteraConcurrencyLimitGlobalFilter(AdaptiveConcurrencyLimiter limiter, RequestPriorityClassifier classifier,
+			ObjectMapper objectMapper, Duration retryAfter) {
+		this.limiter = limiter;
+		this.classifier = classifier;
+		this.objectMapper = objectMapper;
+		this.retryAfter = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		URI uri = route != null ? route.getUri() : null;
+		if (uri == null || !LB_SCHEME.equals(uri.getScheme()) || uri.getHost() == null) {
+			return chain.filter(exchange);
+		}
+		String serviceId = uri.getHost();
+		RequestPriority priority = classifier.classify(exchange, route);
+		return limiter.acquire(serviceId, priority).flatMap(inFlight -> {
+			if (inFlight == AdaptiveConcurrencyLimiter.SHED) {
+				log.debug("Concurrency limit reached for service {}, shed {} request", serviceId, priority);
+				exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+				return ResponseUtil.writeResult(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+						Result.error(ResultCode.SERVICE_UNAVAILABLE), objectMapper);
+			}
+			long start = System.nanoTime();
+			return chain.filter(exchange)
+				.doOnSuccess(v -> limiter.release(serviceId, System.nanoTime() - start, inFlight,
+						isOverload(exchange.getResponse().getStatusCode())))
+				.doOnError(e -> limiter.release(serviceId, System.nanoTime() - start, inFlight, isOverload(e)))
+				.doOnCancel(() -> limiter.releaseIgnored(serviceId));
+		});
+	}
+
+	/**
+	 * 下游返回的网关类错误与限流视为过载
+	 */
+	private static boolean isOverload(HttpStatusCode status) {
+		if (status == null) {
+			return false;
+		}
+		int code = status.value();
+		return code == 429 || code == 502 || code == 503 || code == 504;
+	}
+
+	private static boolean isOverload(Throwable e) {
+		if (e instanceof ResponseStatusException rse) {
+			return isOverload(rse.getStatusCode());
+		}
+		return e instanceof TimeoutException || e.getCause() instanceof TimeoutException;
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
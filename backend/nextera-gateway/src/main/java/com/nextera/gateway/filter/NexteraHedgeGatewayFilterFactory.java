@@ -0,0 +1,458 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.gateway.circuitbreaker.InstanceCircuitBreaker;
+import com.nextera.gateway.circuitbreaker.InstanceCircuitBreakerRegistry;
+import com.nextera.gateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.nextera.gateway.concurrency.RequestPriority;
+import com.nextera.gateway.hedge.LatencyTracker;
+import com.nextera.gateway.hedge.RetryBudget;
+import com.nextera.gateway.loadbalancer.InstanceLoadStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ALREADY_ROUTED_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * 对冲请求路由过滤器，仅用于幂等的GET请求
+ * <p>
+ * 代替NettyRoutingFilter访问负载均衡选中的实例；请求超过路由耗时分位数（默认p95，限定在
+ * {@code min-delay} ~ {@code max-delay} 之间）仍未返回时，向另一个实例发出第二次请求，先返回的响应胜出，
+ * 另一个请求被取消。首次请求连接失败或超时时，第二次请求同样可以胜出。
+ * 对冲请求受预算约束（最近10秒内不超过原始请求的 {@code budget-ratio}），遵守实例熔断状态，
+ * 并以 {@link RequestPriority#LOW} 优先级占用下游服务的自适应并发名额，名额不足时不发出。
+ * 为在两次请求之间选择胜者，响应体会被完整读取后再写出：带请求体的请求不对冲；响应体超过 {@code max-body-size}
+ * 时放弃缓冲的结果，改由NettyRoutingFilter按正常路由重新请求。不适用于流式响应。
+ * <p>
+ * 使用示例：
+ *
+ * <pre>
+ * filters:
+ *   - name: NexteraHedge
+ *     args:
+ *       percentile: 0.95
+ *       min-delay: 20ms
+ *       max-delay: 500ms
+ *       budget-ratio: 0.1
+ *       max-body-size: 256KB
+ * </pre>
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class NexteraHedgeGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<NexteraHedgeGatewayFilterFactory.Config> {
+
+	/**
+	 * 位于负载均衡、熔断与实例负载采集之后
+	 */
+	public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 3;
+
+	private static final String METRIC_REQUESTS = "nextera.gateway.hedge.requests";
+
+	private static final String RESPONSE_TIMEOUT = "response-timeout";
+
+	private static final byte[] EMPTY = new byte[0];
+
+	/**
+	 * 响应体超过上限时的结果，收到后改走正常路由
+	 */
+	private static final Attempt TOO_LARGE = new Attempt(0, HttpHeaders.EMPTY, EMPTY, false);
+
+	private final Map<String, RouteHedge> routeHedges = new ConcurrentHashMap<>();
+
+	private final HttpClient httpClient;
+
+	private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+
+	private final LoadBalancerClientFactory clientFactory;
+
+	private final InstanceLoadStats loadStats;
+
+	private final ObjectProvider<InstanceCircuitBreakerRegistry> breakers;
+
+	private final ObjectProvider<AdaptiveConcurrencyLimiter> limiters;
+
+	private final MeterRegistry meterRegistry;
+
+	public NexteraHedgeGatewayFilterFactory(HttpClient httpClient, ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+			LoadBalancerClientFactory clientFactory, InstanceLoadStats loadStats,
+			ObjectProvider<InstanceCircuitBreakerRegistry> breakers, ObjectProvider<AdaptiveConcurrencyLimiter> limiters,
+			MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.httpClient = httpClient;
+		this.headersFilters = headersFilters;
+		this.clientFactory = clientFactory;
+		this.loadStats = loadStats;
+		this.breakers = breakers;
+		this.limiters = limiters;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+			Response<ServiceInstance> selected = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+			URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+			if (!HttpMethod.GET.equals(exchange.getRequest().getMethod()) || isAlreadyRouted(exchange) || route == null
+					|| selected == null || !selected.hasServer() || url == null || !url.getScheme().startsWith("http")
+					|| hasBody(exchange.getRequest())) {
+				return chain.filter(exchange);
+			}
+			setAlreadyRouted(exchange);
+			RouteHedge hedge = routeHedges.computeIfAbsent(route.getId(), id -> new RouteHedge(id, config));
+			hedge.budget.recordRequest();
+
+			HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange);
+			Duration timeout = timeout(route, config);
+			ServiceInstance primary = selected.getServer();
+			AtomicReference<Throwable> primaryError = new AtomicReference<>();
+
+			Mono<Attempt> first = send(exchange, url, headers, timeout, hedge, false, config)
+				.doOnError(primaryError::set);
+			Mono<Attempt> second = Mono.delay(hedge.delay(config))
+				.then(Mono.defer(() -> hedgeAttempt(exchange, route, primary, url, headers, timeout, hedge, config)));
+			return Mono.firstWithValue(first, second)
+				.onErrorMap(e -> mapError(primaryError.get() != null ? primaryError.get() : e))
+				.flatMap(attempt -> {
+					if (attempt == TOO_LARGE) {
+						// 大响应不缓冲，交给NettyRoutingFilter流式转发
+						hedge.tooLarge.increment();
+						exchange.getAttributes().remove(GATEWAY_ALREADY_ROUTED_ATTR);
+						return chain.filter(exchange);
+					}
+					(attempt.hedge() ? hedge.hedgeWon : hedge.primaryWon).increment();
+					return write(exchange, attempt);
+				});
+		}, ORDER);
+	}
+
+	/**
+	 * 选择与首次请求不同的实例发出对冲请求，预算不足、没有其他可用实例、并发名额不足或实例熔断时不发出
+	 */
+	private Mono<Attempt> hedgeAttempt(ServerWebExchange exchange, Route route, ServiceInstance primary, URI url,
+			HttpHeaders headers, Duration timeout, RouteHedge hedge, Config config) {
+		String serviceId = route.getUri().getHost();
+		ReactorServiceInstanceLoadBalancer loadBalancer = clientFactory.getInstance(serviceId,
+				ReactorServiceInstanceLoadBalancer.class);
+		if (loadBalancer == null) {
+			return Mono.empty();
+		}
+		DefaultRequest<RequestDataContext> request = new DefaultRequest<>(
+				new RequestDataContext(new RequestData(exchange.getRequest(), exchange.getAttributes())));
+		return loadBalancer.choose(request)
+			.repeat(2)
+			.filter(response -> response.hasServer() && !sameAddress(response.getServer(), primary))
+			.next()
+			.flatMap(response -> {
+				ServiceInstance instance = response.getServer();
+				if (!hedge.budget.tryAcquire()) {
+					hedge.budgetExhausted.increment();
+					return Mono.empty();
+				}
+				AdaptiveConcurrencyLimiter limiter = limiters.getIfAvailable();
+				Mono<Integer> permit = limiter != null ? limiter.acquire(serviceId, RequestPriority.LOW) : Mono.just(0);
+				return permit.flatMap(inFlight -> {
+					if (inFlight == AdaptiveConcurrencyLimiter.SHED) {
+						hedge.shed.increment();
+						return Mono.empty();
+					}
+					InstanceCircuitBreakerRegistry registry = breakers.getIfAvailable();
+					InstanceCircuitBreaker breaker = registry != null ? registry.tryAcquire(route.getId(), instance)
+							: null;
+					if (registry != null && breaker == null) {
+						if (limiter != null) {
+							limiter.releaseIgnored(serviceId);
+						}
+						return Mono.empty();
+					}
+					hedge.hedged.increment();
+					URI hedgeUrl = UriComponentsBuilder.fromUri(url)
+						.scheme(instance.isSecure() ? "https" : "http")
+						.host(instance.getHost())
+						.port(instance.getPort())
+						.build(true)
+						.toUri();
+					InstanceLoadStats.InstanceLoad load = loadStats.get(serviceId, instance);
+					long start = load.start();
+					return send(exchange, hedgeUrl, headers, timeout, hedge, true, config).doOnSuccess(attempt -> {
+						boolean failed = attempt != null && attempt.status() >= 500;
+						long rtt = System.nanoTime() - start;
+						load.complete(start, failed);
+						if (breaker != null) {
+							breaker.onResult(rtt, failed);
+						}
+						if (limiter != null) {
+							limiter.release(serviceId, rtt, inFlight, attempt != null && isOverload(attempt.status()));
+						}
+					}).doOnError(e -> {
+						long rtt = System.nanoTime() - start;
+						load.complete(start, true);
+						if (breaker != null) {
+							breaker.onResult(rtt, true);
+						}
+						if (limiter != null) {
+							limiter.release(serviceId, rtt, inFlight, e instanceof TimeoutException);
+						}
+					}).doOnCancel(() -> {
+						load.cancel();
+						if (breaker != null) {
+							breaker.onIgnored();
+						}
+						if (limiter != null) {
+							limiter.releaseIgnored(serviceId);
+						}
+					});
+				});
+			});
+	}
+
+	private Mono<Attempt> send(ServerWebExchange exchange, URI url, HttpHeaders headers, Duration timeout,
+			RouteHedge hedge, boolean hedged, Config config) {
+		DefaultHttpHeaders httpHeaders = new DefaultHttpHeaders();
+		headers.forEach(httpHeaders::set);
+		httpHeaders.remove(HttpHeaders.HOST);
+		if (Boolean.TRUE.equals(exchange.getAttribute(PRESERVE_HOST_HEADER_ATTRIBUTE))) {
+			String host = exchange.getRequest().getHeaders().getFirst(HttpHeaders.HOST);
+			if (host != null) {
+				httpHeaders.set(HttpHeaders.HOST, host);
+			}
+		}
+		long maxBytes = config.getMaxBodySize().toBytes();
+		long start = System.nanoTime();
+		Mono<Attempt> attempt = httpClient.headers(h -> h.set(httpHeaders))
+			.get()
+			.uri(url)
+			.response((response, body) -> {
+				HttpHeaders responseHeaders = new HttpHeaders();
+				response.responseHeaders().forEach(e -> responseHeaders.add(e.getKey(), e.getValue()));
+				if (responseHeaders.getContentLength() > maxBytes) {
+					return Mono.just(TOO_LARGE);
+				}
+				// 分块响应边读边计数，超过上限时取消读取
+				AtomicLong received = new AtomicLong();
+				return body.asByteArray()
+					.handle((byte[] chunk, SynchronousSink<byte[]> sink) -> {
+						if (received.addAndGet(chunk.length) > maxBytes) {
+							sink.error(new BodyTooLargeException());
+						}
+						else {
+							sink.next(chunk);
+						}
+					})
+					.collect(ByteArrayOutputStream::new, ByteArrayOutputStream::writeBytes)
+					.map(buffer -> new Attempt(response.status().code(), responseHeaders,
+							buffer.size() == 0 ? EMPTY : buffer.toByteArray(), hedged))
+					.onErrorResume(BodyTooLargeException.class, e -> Mono.just(TOO_LARGE));
+			})
+			.next()
+			.doOnNext(result -> {
+				if (result != TOO_LARGE) {
+					hedge.latency.record(System.nanoTime() - start);
+				}
+			});
+		return timeout != null ? attempt.timeout(timeout) : attempt;
+	}
+
+	private static boolean hasBody(ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+	}
+
+	/**
+	 * 下游返回的网关类错误与限流视为过载，与并发限制过滤器一致
+	 */
+	private static boolean isOverload(int status) {
+		return status == 429 || status == 502 || status == 503 || status == 504;
+	}
+
+	private Mono<Void> write(ServerWebExchange exchange, Attempt attempt) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatusCode.valueOf(attempt.status()));
+		HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters.getIfAvailable(), attempt.headers(), exchange,
+				HttpHeadersFilter.Type.RESPONSE);
+		filtered.remove(HttpHeaders.TRANSFER_ENCODING);
+		filtered.remove(HttpHeaders.CONTENT_LENGTH);
+		response.getHeaders().putAll(filtered);
+		response.getHeaders().setContentLength(attempt.body().length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(attempt.body())));
+	}
+
+	private static Throwable mapError(Throwable e) {
+		if (e instanceof TimeoutException) {
+			return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e);
+		}
+		return e;
+	}
+
+	/**
+	 * 路由元数据 {@code response-timeout}（毫秒）优先，与NettyRoutingFilter一致
+	 */
+	private static Duration timeout(Route route, Config config) {
+		Object timeout = route.getMetadata().get(RESPONSE_TIMEOUT);
+		if (timeout instanceof Number number) {
+			return number.longValue() < 0 ? null : Duration.ofMillis(number.longValue());
+		}
+		if (timeout != null) {
+			return Duration.ofMillis(Long.parseLong(timeout.toString()));
+		}
+		return config.getTimeout();
+	}
+
+	private static boolean sameAddress(ServiceInstance a, ServiceInstance b) {
+		return a.getPort() == b.getPort() && a.getHost().equals(b.getHost());
+	}
+
+	/**
+	 * 一次下游请求的完整响应
+	 */
+	private record Attempt(int status, HttpHeaders headers, byte[] body, boolean hedge) {
+
+	}
+
+	/**
+	 * 分块响应读取中超过上限
+	 */
+	private static final class BodyTooLargeException extends RuntimeException {
+
+		BodyTooLargeException() {
+			super(null, null, false, false);
+		}
+
+	}
+
+	private final class RouteHedge {
+
+		private final LatencyTracker latency;
+
+		private final RetryBudget budget;
+
+		private final Counter primaryWon;
+
+		private final Counter hedgeWon;
+
+		private final Counter hedged;
+
+		private final Counter budgetExhausted;
+
+		private final Counter shed;
+
+		private final Counter tooLarge;
+
+		RouteHedge(String routeId, Config config) {
+			this.latency = new LatencyTracker(config.getPercentile());
+			this.budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMinPerSecond());
+			this.primaryWon = counter(routeId, "primary_won");
+			this.hedgeWon = counter(routeId, "hedge_won");
+			this.hedged = counter(routeId, "hedged");
+			this.budgetExhausted = counter(routeId, "budget_exhausted");
+			this.shed = counter(routeId, "shed");
+			this.tooLarge = counter(routeId, "too_large");
+		}
+
+		Duration delay(Config config) {
+			long nanos = latency.percentileNanos();
+			if (nanos < 0) {
+				return config.getMaxDelay();
+			}
+			long min = config.getMinDelay().toNanos();
+			long max = config.getMaxDelay().toNanos();
+			return Duration.ofNanos(Math.max(min, Math.min(max, nanos)));
+		}
+
+		private Counter counter(String routeId, String outcome) {
+			return Counter.builder(METRIC_REQUESTS).tag("route", routeId).tag("outcome", outcome).register(meterRegistry);
+		}
+
+	}
+
+	/**
+	 * 路由级对冲参数
+	 */
+	@Data
+	public static class Config {
+
+		/**
+		 * 触发对冲的耗时分位数
+		 */
+		private double percentile = 0.95;
+
+		/**
+		 * 对冲延迟下限
+		 */
+		private Duration minDelay = Duration.ofMillis(20);
+
+		/**
+		 * 对冲延迟上限，样本不足时使用该值
+		 */
+		private Duration maxDelay = Duration.ofMillis(500);
+
+		/**
+		 * 对冲请求占原始请求的最大比例
+		 */
+		private double budgetRatio = 0.1;
+
+		/**
+		 * 流量较低时每秒至少允许的对冲请求数
+		 */
+		private int budgetMinPerSecond = 1;
+
+		/**
+		 * 单次请求超时，路由元数据 response-timeout 优先
+		 */
+		private Duration timeout = Duration.ofSeconds(10);
+
+		/**
+		 * 可缓冲的最大响应体，超过时改走正常路由
+		 */
+		private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.nextera.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.core.Result;
+import com.nextera.common.core.ResultCode;
+import com.nextera.gateway.ipfilter.IpAccessRules;
+import com.nextera.gateway.ipfilter.IpAction;
+import com.nextera.gateway.utils.ResponseUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 客户端地址过滤全局过滤器
+ * <p>
+ * 紧跟指标过滤器之后，按 {@link IpAccessRules} 对客户端地址做最长前缀匹配，命中拒绝规则时返回403。
+ * 客户端地址与限流使用的 {@code remoteAddrKeyResolver} 一致，取连接的远端地址。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class NexteraIpFilterGlobalFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = NexteraMetricsGlobalFilter.ORDER + 50;
+
+	private static final String METRIC_DENIED = "nextera.gateway.ip-filter.denied";
+
+	private final IpAccessRules rules;
+
+	private final ObjectMapper objectMapper;
+
+	private final Counter denied;
+
+	public NexteraIpFilterGlobalFilter(IpAccessRules rules, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		this.rules = rules;
+		this.objectMapper = objectMapper;
+		this.denied = Counter.builder(METRIC_DENIED).register(meterRegistry);
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+		if (remoteAddress == null || remoteAddress.getAddress() == null
+				|| rules.decide(remoteAddress.getAddress()) == IpAction.ALLOW) {
+			return chain.filter(exchange);
+		}
+		denied.increment();
+		log.debug("Rejected request from {}", remoteAddress.getAddress().getHostAddress());
+		return ResponseUtil.writeResult(exchange, HttpStatus.FORBIDDEN, Result.error(ResultCode.FORBIDDEN),
+				objectMapper);
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
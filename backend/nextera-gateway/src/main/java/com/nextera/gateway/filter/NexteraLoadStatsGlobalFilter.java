@@ -0,0 +1,59 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.gateway.loadbalancer.InstanceLoadStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 下游实例负载采集全局过滤器
+ * <p>
+ * 位于负载均衡与熔断过滤器之后，按选中的实例记录并发数与耗时，5xx和异常按失败计入。
+ *
+ * @author Nextera
+ */
+@RequiredArgsConstructor
+public class NexteraLoadStatsGlobalFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 2;
+
+	private final InstanceLoadStats loadStats;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		Response<ServiceInstance> response = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+		if (response == null || !response.hasServer()) {
+			return chain.filter(exchange);
+		}
+		// 与负载均衡器使用相同的服务ID（路由URI的host）
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		String serviceId = route != null ? route.getUri().getHost() : response.getServer().getServiceId();
+		InstanceLoadStats.InstanceLoad load = loadStats.get(serviceId, response.getServer());
+		long start = load.start();
+		return chain.filter(exchange)
+			.doOnSuccess(v -> load.complete(start, isFailure(exchange.getResponse().getStatusCode())))
+			.doOnError(e -> load.complete(start, true))
+			.doOnCancel(load::cancel);
+	}
+
+	private static boolean isFailure(HttpStatusCode status) {
+		return status != null && status.is5xxServerError();
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.gateway.metrics.GatewayRequestMetrics;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 网关请求指标全局过滤器
+ * <p>
+ * 位于过滤器链最外层，记录请求开始时间（同时写入交换属性
+ * {@link CommonConstants#REQUEST_START_TIME}，供 {@link NexteraRequestGlobalFilter} 透传给下游），
+ * 请求完成、出错或被客户端取消时按路由与下游实例记录耗时和结果。
+ *
+ * @author Nextera
+ */
+@RequiredArgsConstructor
+public class NexteraMetricsGlobalFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+	private final GatewayRequestMetrics metrics;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		long startNanos = System.nanoTime();
+		exchange.getAttributes().put(CommonConstants.REQUEST_START_TIME, System.currentTimeMillis());
+		return chain.filter(exchange)
+			.doOnSuccess(v -> record(exchange, startNanos, outcomeOf(exchange.getResponse().getStatusCode())))
+			.doOnError(e -> record(exchange, startNanos, outcomeOf(e)))
+			.doOnCancel(() -> record(exchange, startNanos, Outcome.UNKNOWN));
+	}
+
+	private void record(ServerWebExchange exchange, long startNanos, Outcome outcome) {
+		long duration = System.nanoTime() - startNanos;
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		String requestId = exchange.getRequest().getHeaders().getFirst(CommonConstants.Header.REQUEST_ID);
+		String spanId = exchange.getRequest().getId();
+		metrics.record(route != null ? route.getId() : "unknown", instanceOf(exchange), outcome, duration,
+				requestId != null ? requestId : spanId, spanId);
+	}
+
+	private static String instanceOf(ServerWebExchange exchange) {
+		Response<ServiceInstance> response = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+		if (response == null || !response.hasServer()) {
+			return GatewayRequestMetrics.NO_INSTANCE;
+		}
+		ServiceInstance instance = response.getServer();
+		return instance.getHost() + ":" + instance.getPort();
+	}
+
+	private static Outcome outcomeOf(HttpStatusCode status) {
+		return status != null ? Outcome.forStatus(status.value()) : Outcome.UNKNOWN;
+	}
+
+	/**
+	 * 异常由全局异常处理器在过滤器链之外写回，此处按异常推断最终状态
+	 */
+	private static Outcome outcomeOf(Throwable e) {
+		if (e instanceof ResponseStatusException rse) {
+			return Outcome.forStatus(rse.getStatusCode().value());
+		}
+		return Outcome.SERVER_ERROR;
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
@@ -0,0 +1,253 @@
+package com.nextera.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 流量镜像路由过滤器
+ * <p>
+ * 按比例抽样，把请求异步复制一份发往影子服务（如新版本的 nextera-article），影子响应直接丢弃，不影响主请求。
+ * 实际发出影子请求的请求分别记录主、影子两侧的耗时与状态码，用于在真实流量下比较新旧版本的性能。
+ * 只对配置了该过滤器的路由生效，默认只镜像GET请求；影子请求数超过 {@code max-concurrent} 时跳过镜像，
+ * 跳过的请求只计入 {@code nextera.gateway.mirror.skipped}，不计入主请求耗时，保证两侧样本一一对应。
+ * <p>
+ * 过滤器排在负载均衡之前，此时请求路径已完成StripPrefix等重写，缓存命中的请求不会被镜像。
+ * 影子请求带有 {@link #MIRROR_HEADER} 请求头，影子服务可据此跳过写操作和消息发送。
+ * <p>
+ * 使用示例：
+ *
+ * <pre>
+ * filters:
+ *   - name: NexteraMirror
+ *     args:
+ *       shadow-service: nextera-article-canary
+ *       percentage: 5
+ *       methods: GET
+ * </pre>
+ *
+ * 指标 {@code nextera.gateway.mirror.requests{route,target=primary|shadow,status}} 为耗时直方图，
+ * 按target对比即可得到两侧的耗时分位数与状态码分布。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class NexteraMirrorGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<NexteraMirrorGatewayFilterFactory.Config> {
+
+	public static final int ORDER = NexteraConcurrencyLimitGlobalFilter.ORDER - 1;
+
+	/**
+	 * 影子请求的标记请求头
+	 */
+	public static final String MIRROR_HEADER = "X-Nextera-Mirror";
+
+	private static final String METRIC_REQUESTS = "nextera.gateway.mirror.requests";
+
+	private static final String METRIC_SKIPPED = "nextera.gateway.mirror.skipped";
+
+	/**
+	 * 不复制到影子请求的请求头，由WebClient重新生成
+	 */
+	private static final Set<String> EXCLUDED_HEADERS = Set.of(HttpHeaders.HOST.toLowerCase(),
+			HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+			HttpHeaders.CONNECTION.toLowerCase(), HttpHeaders.EXPECT.toLowerCase());
+
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+	private final Map<String, Counter> skipped = new ConcurrentHashMap<>();
+
+	private final WebClient webClient;
+
+	private final MeterRegistry meterRegistry;
+
+	public NexteraMirrorGatewayFilterFactory(WebClient.Builder webClientBuilder,
+			LoadBalancedExchangeFilterFunction loadBalancerFunction, MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.webClient = webClientBuilder.filter(loadBalancerFunction).build();
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return List.of("shadowService", "percentage");
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		AtomicInteger inFlight = new AtomicInteger();
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+			if (!config.getMethods().contains(request.getMethod())
+					|| ThreadLocalRandom.current().nextDouble(100) >= config.getPercentage()) {
+				return chain.filter(exchange);
+			}
+			Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+			String routeId = route != null ? route.getId() : "unknown";
+			if (inFlight.get() >= config.getMaxConcurrent()) {
+				skipped.computeIfAbsent(routeId, id -> Counter.builder(METRIC_SKIPPED)
+					.tag("route", id)
+					.register(meterRegistry)).increment();
+				return chain.filter(exchange);
+			}
+			if (!hasBody(request)) {
+				return mirror(exchange, config, routeId, inFlight, null) ? primary(exchange, chain, routeId)
+						: chain.filter(exchange);
+			}
+			return ServerWebExchangeUtils.cacheRequestBody(exchange, cached -> {
+				DataBuffer body = exchange.getAttribute(CACHED_REQUEST_BODY_ATTR);
+				byte[] bytes = null;
+				if (body != null) {
+					// 读取后恢复读位置，主请求仍使用同一个缓冲区
+					int position = body.readPosition();
+					bytes = new byte[body.readableByteCount()];
+					body.read(bytes);
+					body.readPosition(position);
+				}
+				ServerWebExchange mutated = exchange.mutate().request(cached).build();
+				return mirror(mutated, config, routeId, inFlight, bytes) ? primary(mutated, chain, routeId)
+						: chain.filter(mutated);
+			});
+		}, ORDER);
+	}
+
+	private static boolean hasBody(ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+	}
+
+	/**
+	 * 执行主请求并记录耗时与状态码
+	 */
+	private Mono<Void> primary(ServerWebExchange exchange, GatewayFilterChain chain, String routeId) {
+		long start = System.nanoTime();
+		return chain.filter(exchange)
+			.doOnSuccess(v -> record(routeId, "primary", status(exchange.getResponse().getStatusCode()), start))
+			.doOnError(e -> record(routeId, "primary", "error", start));
+	}
+
+	/**
+	 * 异步发出影子请求，响应体直接丢弃
+	 * @return 是否发出了影子请求
+	 */
+	private boolean mirror(ServerWebExchange exchange, Config config, String routeId, AtomicInteger inFlight,
+			byte[] body) {
+		URI uri = shadowUri(exchange, config.getShadowService());
+		if (uri == null) {
+			return false;
+		}
+		ServerHttpRequest request = exchange.getRequest();
+		WebClient.RequestBodySpec spec = webClient.method(request.getMethod()).uri(uri).headers(headers -> {
+			request.getHeaders().forEach((name, values) -> {
+				if (!EXCLUDED_HEADERS.contains(name.toLowerCase())) {
+					headers.put(name, values);
+				}
+			});
+			headers.set(MIRROR_HEADER, "true");
+		});
+		WebClient.RequestHeadersSpec<?> requestSpec = body != null ? spec.bodyValue(body) : spec;
+		inFlight.incrementAndGet();
+		long start = System.nanoTime();
+		requestSpec.exchangeToMono(response -> response.releaseBody().thenReturn(status(response.statusCode())))
+			.timeout(config.getTimeout())
+			.onErrorResume(e -> {
+				log.debug("Mirror request to {} failed: {}", uri, e.toString());
+				return Mono.just(e instanceof TimeoutException ? "timeout" : "error");
+			})
+			.doFinally(signal -> inFlight.decrementAndGet())
+			.subscribe(status -> record(routeId, "shadow", status, start));
+		return true;
+	}
+
+	/**
+	 * 取重写后的请求地址，替换为影子服务
+	 */
+	private static URI shadowUri(ServerWebExchange exchange, String shadowService) {
+		URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+		if (requestUrl == null || shadowService == null) {
+			return null;
+		}
+		return UriComponentsBuilder.fromUri(requestUrl).scheme("http").host(shadowService).port(-1).build(true).toUri();
+	}
+
+	private static String status(HttpStatusCode status) {
+		return status != null ? String.valueOf(status.value()) : "unknown";
+	}
+
+	private void record(String routeId, String target, String status, long start) {
+		timers.computeIfAbsent(routeId + ':' + target + ':' + status, key -> Timer.builder(METRIC_REQUESTS)
+			.tag("route", routeId)
+			.tag("target", target)
+			.tag("status", status)
+			.publishPercentileHistogram()
+			.register(meterRegistry)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 路由级镜像参数
+	 */
+	@Data
+	public static class Config {
+
+		/**
+		 * 影子服务ID，通过负载均衡访问
+		 */
+		private String shadowService;
+
+		/**
+		 * 镜像的请求比例（0~100）
+		 */
+		private double percentage = 1;
+
+		/**
+		 * 镜像的请求方法，默认只镜像GET
+		 */
+		private List<HttpMethod> methods = new ArrayList<>(List.of(HttpMethod.GET));
+
+		/**
+		 * 影子请求超时
+		 */
+		private Duration timeout = Duration.ofSeconds(5);
+
+		/**
+		 * 同时进行的影子请求上限，超过时跳过镜像，避免影子服务变慢拖累网关
+		 */
+		private int maxConcurrent = 100;
+
+	}
+
+}
@@ -0,0 +1,167 @@
+package com.nextera.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.core.Result;
+import com.nextera.common.core.ResultCode;
+import com.nextera.gateway.auth.VerifiedPrincipal;
+import com.nextera.gateway.ratelimit.HierarchicalRateLimiter;
+import com.nextera.gateway.ratelimit.RateLimitTier;
+import com.nextera.gateway.utils.ResponseUtil;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 分层限流路由过滤器，依次检查用户、IP、路由三个层级，任一层级无令牌即返回429
+ * <p>
+ * 使用示例：
+ *
+ * <pre>
+ * filters:
+ *   - name: NexteraRateLimiter
+ *     args:
+ *       user-rate: 20
+ *       ip-rate: 50
+ *       route-rate: 2000
+ *       route-burst: 4000
+ * </pre>
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class NexteraRateLimiterGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<NexteraRateLimiterGatewayFilterFactory.Config> {
+
+	private final HierarchicalRateLimiter rateLimiter;
+
+	private final KeyResolver ipKeyResolver;
+
+	private final ObjectMapper objectMapper;
+
+	public NexteraRateLimiterGatewayFilterFactory(HierarchicalRateLimiter rateLimiter, KeyResolver ipKeyResolver,
+			ObjectMapper objectMapper) {
+		super(Config.class);
+		this.rateLimiter = rateLimiter;
+		this.ipKeyResolver = ipKeyResolver;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		return (exchange, chain) -> {
+			Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+			String routeId = route != null ? route.getId() : "unknown";
+			VerifiedPrincipal principal = exchange.getAttribute(NexteraAuthGlobalFilter.VERIFIED_PRINCIPAL_ATTR);
+
+			return ipKeyResolver.resolve(exchange)
+				.onErrorReturn("unknown")
+				.defaultIfEmpty("unknown")
+				.flatMap(ip -> firstRejectedTier(routeId, ip, principal, config))
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.flatMap(rejected -> {
+					if (rejected.isEmpty()) {
+						return chain.filter(exchange);
+					}
+					log.debug("Rate limited route {} at tier {}", routeId, rejected.get().getTag());
+					return reject(exchange);
+				});
+		};
+	}
+
+	/**
+	 * 按从细到粗的顺序检查各层级，返回第一个拒绝的层级，全部放行时为空
+	 */
+	private Mono<RateLimitTier> firstRejectedTier(String routeId, String ip, VerifiedPrincipal principal,
+			Config config) {
+		return Flux.fromArray(RateLimitTier.values())
+			.concatMap(tier -> acquire(tier, routeId, ip, principal, config).filter(allowed -> !allowed)
+				.map(allowed -> tier))
+			.next();
+	}
+
+	private Mono<Boolean> acquire(RateLimitTier tier, String routeId, String ip, VerifiedPrincipal principal,
+			Config config) {
+		switch (tier) {
+			case USER:
+				if (principal == null || config.getUserRate() <= 0) {
+					return Mono.just(Boolean.TRUE);
+				}
+				return rateLimiter.tryAcquire(routeId, tier, String.valueOf(principal.userId()), config.getUserRate(),
+						burst(config.getUserRate(), config.getUserBurst()));
+			case IP:
+				if (config.getIpRate() <= 0) {
+					return Mono.just(Boolean.TRUE);
+				}
+				return rateLimiter.tryAcquire(routeId, tier, ip, config.getIpRate(),
+						burst(config.getIpRate(), config.getIpBurst()));
+			default:
+				if (config.getRouteRate() <= 0) {
+					return Mono.just(Boolean.TRUE);
+				}
+				return rateLimiter.tryAcquire(routeId, tier, routeId, config.getRouteRate(),
+						burst(config.getRouteRate(), config.getRouteBurst()));
+		}
+	}
+
+	private static long burst(double rate, long burst) {
+		return burst > 0 ? burst : (long) Math.ceil(rate);
+	}
+
+	private Mono<Void> reject(ServerWebExchange exchange) {
+		exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+		return ResponseUtil.writeResult(exchange, HttpStatus.TOO_MANY_REQUESTS,
+				Result.error(ResultCode.TOO_MANY_REQUESTS), objectMapper);
+	}
+
+	/**
+	 * 路由级限流参数，速率为0表示不启用该层级，容量为0时取速率值
+	 */
+	@Data
+	public static class Config {
+
+		/**
+		 * 单用户每秒请求数
+		 */
+		private double userRate;
+
+		/**
+		 * 单用户令牌桶容量
+		 */
+		private long userBurst;
+
+		/**
+		 * 单IP每秒请求数
+		 */
+		private double ipRate;
+
+		/**
+		 * 单IP令牌桶容量
+		 */
+		private long ipBurst;
+
+		/**
+		 * 路由整体每秒请求数
+		 */
+		private double routeRate;
+
+		/**
+		 * 路由整体令牌桶容量
+		 */
+		private long routeBurst;
+
+	}
+
+}
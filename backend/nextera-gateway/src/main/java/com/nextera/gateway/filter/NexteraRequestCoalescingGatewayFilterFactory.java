@@ -0,0 +1,255 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.gateway.cache.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 请求合并（single-flight）路由过滤器
+ * <p>
+ * 路由、路径、查询参数及指定请求头都相同的并发GET请求只有第一个（leader）访问下游服务，其余请求（follower）
+ * 等待leader的响应并回放。只共享2xx响应，leader返回其他状态码（5xx、429等）、响应体超过 {@code max-body-size}
+ * 或follower等待超过 {@code timeout} 时，follower各自访问下游服务，避免一次偶发失败扩散给所有合并的请求。
+ * 带有 {@code If-None-Match}、{@code If-Modified-Since} 的条件请求不参与合并，304响应不会回放给没有带校验值的请求。
+ * <p>
+ * 应配置在 {@code StripPrefix} 与 {@code NexteraRateLimiter} 之后：合并key使用重写后的路径，follower同样受限流约束。
+ * leader的响应通过 {@link NexteraResponseHookGlobalFilter} 捕获。
+ * <p>
+ * 使用示例：
+ *
+ * <pre>
+ * filters:
+ *   - name: NexteraRequestCoalescing
+ *     args:
+ *       timeout: 3s
+ *       max-body-size: 512KB
+ *       vary-headers: Authorization,Accept,Accept-Encoding
+ * </pre>
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class NexteraRequestCoalescingGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<NexteraRequestCoalescingGatewayFilterFactory.Config> {
+
+	private static final String METRIC_REQUESTS = "nextera.gateway.coalescing.requests";
+
+	private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+	private final Map<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+
+	private final MeterRegistry meterRegistry;
+
+	public NexteraRequestCoalescingGatewayFilterFactory(MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		return (exchange, chain) -> {
+			if (!HttpMethod.GET.equals(exchange.getRequest().getMethod()) || isConditional(exchange.getRequest())) {
+				return chain.filter(exchange);
+			}
+			Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+			String routeId = route != null ? route.getId() : "unknown";
+			RouteMeters meters = routeMeters.computeIfAbsent(routeId, RouteMeters::new);
+			String key = flightKey(exchange.getRequest(), routeId, config);
+
+			Sinks.One<CachedResponse> flight = Sinks.one();
+			Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, flight);
+
+			// follower：等待leader的响应，不可共享或超时则自行访问下游
+			if (existing != null) {
+				meters.follower.increment();
+				return existing.asMono()
+					.timeout(config.getTimeout())
+					.map(shared -> replay(exchange, shared))
+					.onErrorResume(e -> Mono.empty())
+					.defaultIfEmpty(Mono.defer(() -> {
+						meters.fallback.increment();
+						return chain.filter(exchange);
+					}))
+					.flatMap(mono -> mono);
+			}
+
+			// leader：访问下游并发布缓冲后的响应
+			meters.leader.increment();
+			ServerWebExchange leader = exchange;
+			if (!NexteraResponseHookGlobalFilter.decorate(exchange,
+					response -> new SharingResponse(response, key, flight, config))) {
+				ServerHttpResponse response = new SharingResponse(exchange.getResponse(), key, flight, config);
+				leader = exchange.mutate().response(response).build();
+			}
+			return chain.filter(leader).doFinally(signal -> complete(key, flight, null));
+		};
+	}
+
+	/**
+	 * 发布leader的结果并结束本次合并，shared为空时follower各自访问下游
+	 */
+	private void complete(String key, Sinks.One<CachedResponse> flight, CachedResponse shared) {
+		inFlight.remove(key, flight);
+		if (shared != null) {
+			flight.tryEmitValue(shared);
+		}
+		else {
+			flight.tryEmitEmpty();
+		}
+	}
+
+	private static boolean isConditional(ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		return headers.containsKey(HttpHeaders.IF_NONE_MATCH) || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+	}
+
+	static String flightKey(ServerHttpRequest request, String routeId, Config config) {
+		StringBuilder key = new StringBuilder(64).append(routeId).append(':').append(request.getURI().getRawPath());
+		String query = request.getURI().getRawQuery();
+		if (query != null) {
+			key.append('?').append(query);
+		}
+		HttpHeaders headers = request.getHeaders();
+		for (String name : config.getVaryHeaders()) {
+			List<String> values = headers.get(name);
+			key.append('|').append(name).append('=');
+			if (values != null) {
+				key.append(String.join(",", values));
+			}
+		}
+		return key.toString();
+	}
+
+	private Mono<Void> replay(ServerWebExchange exchange, CachedResponse shared) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatusCode.valueOf(shared.status()));
+		response.getHeaders().putAll(shared.headers());
+		response.getHeaders().setContentLength(shared.body().length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+	}
+
+	/**
+	 * 缓冲leader的响应体，2xx响应发布给follower
+	 */
+	private class SharingResponse extends ServerHttpResponseDecorator {
+
+		private final String key;
+
+		private final Sinks.One<CachedResponse> flight;
+
+		private final Config config;
+
+		SharingResponse(ServerHttpResponse delegate, String key, Sinks.One<CachedResponse> flight, Config config) {
+			super(delegate);
+			this.key = key;
+			this.flight = flight;
+			this.config = config;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			long maxBytes = config.getMaxBodySize().toBytes();
+			if (getHeaders().getContentLength() > maxBytes) {
+				complete(key, flight, null);
+				return super.writeWith(body);
+			}
+			return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+				byte[] bytes = new byte[joined.readableByteCount()];
+				joined.read(bytes);
+				DataBufferUtils.release(joined);
+				HttpStatusCode status = getStatusCode();
+				if (status != null && status.is2xxSuccessful() && bytes.length <= maxBytes) {
+					long now = System.currentTimeMillis();
+					complete(key, flight, new CachedResponse(status.value(),
+							CachedResponse.replayableHeaders(getHeaders()), bytes, null, now, now));
+				}
+				else {
+					complete(key, flight, null);
+				}
+				return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+			});
+		}
+
+		/**
+		 * 流式响应不做合并
+		 */
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			complete(key, flight, null);
+			return super.writeAndFlushWith(body);
+		}
+
+	}
+
+	private final class RouteMeters {
+
+		private final Counter leader;
+
+		private final Counter follower;
+
+		private final Counter fallback;
+
+		RouteMeters(String routeId) {
+			this.leader = counter(routeId, "leader");
+			this.follower = counter(routeId, "follower");
+			this.fallback = counter(routeId, "fallback");
+		}
+
+		private Counter counter(String routeId, String role) {
+			return Counter.builder(METRIC_REQUESTS).tag("route", routeId).tag("role", role).register(meterRegistry);
+		}
+
+	}
+
+	/**
+	 * 路由级合并参数
+	 */
+	@Data
+	public static class Config {
+
+		/**
+		 * follower等待leader响应的最长时间
+		 */
+		private Duration timeout = Duration.ofSeconds(3);
+
+		/**
+		 * 可共享的最大响应体
+		 */
+		private DataSize maxBodySize = DataSize.ofKilobytes(512);
+
+		/**
+		 * 参与合并key计算的请求头，默认区分认证信息与内容协商
+		 */
+		private List<String> varyHeaders = new ArrayList<>(
+				List.of(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+
+	}
+
+}
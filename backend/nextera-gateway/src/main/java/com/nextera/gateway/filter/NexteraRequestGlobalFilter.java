@@ -1,32 +1,61 @@
 package com.nextera.gateway.filter;
 
 import com.nextera.common.constant.CommonConstants;
-import com.nextera.gateway.utils.Knife4jUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.context.ApplicationListener;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.addOriginalRequestUrl;
 
 /**
  * 全局拦截器，作用于所有微服务
  * <p>
- * 1. 清洗请求头中的from参数 2. 重写StripPrefix = 1，支持全局路由
+ * 1. 清洗请求头中的from参数 2. 重写StripPrefix，剥离段数由路由元数据
+ * {@link RequestRewritePlan#STRIP_PREFIX_METADATA} 指定，默认不剥离 3. 写入请求截止时间
+ * {@link CommonConstants.Header#DEADLINE}，为请求开始时间加上路由元数据 {@code response-timeout}（毫秒），
+ * 未配置时使用全局 {@code httpclient.response-timeout}，两者都未配置或路由配置为负数时不写入截止时间，
+ * 客户端传入的截止时间总会被清除
+ * <p>
+ * 重写计划按路由预编译并缓存，路由刷新时清空；请求头与路径在一次mutate中完成。
+ * 聚合接口在本过滤器之前直接应答，其分支请求通过 {@link #stamp} 写入同样的请求头。
  *
  * @author Nextera
  */
 @Slf4j
-public class NexteraRequestGlobalFilter implements GlobalFilter, Ordered {
+public class NexteraRequestGlobalFilter implements GlobalFilter, Ordered, ApplicationListener<RefreshRoutesEvent> {
+
+	private final Map<String, RequestRewritePlan> plans = new ConcurrentHashMap<>();
+
+	private final Map<String, Long> timeouts = new ConcurrentHashMap<>();
+
+	/**
+	 * 不写入截止时间
+	 */
+	static final long NO_DEADLINE = -1;
+
+	private final long defaultTimeoutMillis;
+
+	/**
+	 * @param defaultTimeout 全局 {@code httpclient.response-timeout}，未配置时为null
+	 */
+	public NexteraRequestGlobalFilter(Duration defaultTimeout) {
+		this.defaultTimeoutMillis = defaultTimeout != null ? defaultTimeout.toMillis() : NO_DEADLINE;
+	}
 
 	/**
 	 * 处理Web请求并（可选地）通过给定的网关过滤器链委托给下一个过滤器
@@ -36,31 +65,89 @@ public class NexteraRequestGlobalFilter implements GlobalFilter, Ordered {
 	 */
 	@Override
 	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-
-		// 1. 清洗请求头中from 参数
-		ServerHttpRequest request = exchange.getRequest().mutate().headers(httpHeaders -> {
-			httpHeaders.remove(CommonConstants.FROM);
-			// 设置请求时间
-			httpHeaders.put(CommonConstants.REQUEST_START_TIME,
-					Collections.singletonList(String.valueOf(System.currentTimeMillis())));
-		}).build();
-
-		// 2. 重写StripPrefix
+		ServerHttpRequest request = exchange.getRequest();
 		addOriginalRequestUrl(exchange, request.getURI());
+
+		// 1. 计算重写后的路径，knife4j 文档不处理
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
 		String rawPath = request.getURI().getRawPath();
-		log.debug("Processing requestFilter rawPath: {}", rawPath);
-		String newPath = rawPath;
-		// 3. 对knife4j 文档不处理.
-		if(!Knife4jUtil.isKnife4jResource(rawPath)) {
-			 newPath = "/" + Arrays.stream(StringUtils.tokenizeToStringArray(rawPath, "/"))
-//					.skip(1L)
-					.collect(Collectors.joining("/"));
+		String newPath = planFor(route).rewrite(rawPath);
+		if (log.isDebugEnabled()) {
+			log.debug("Processing requestFilter rawPath: {}, newPath: {}", rawPath, newPath);
+		}
+
+		// 2. 清洗请求头中from参数、设置请求时间与截止时间并重写路径
+		long start = startTime(exchange);
+		long timeout = timeoutFor(route);
+		long deadline = timeout > 0 ? start + timeout : NO_DEADLINE;
+		ServerHttpRequest.Builder builder = request.mutate()
+			.headers(httpHeaders -> stamp(httpHeaders, start, deadline));
+		if (!newPath.equals(rawPath)) {
+			builder.path(newPath);
 		}
-		log.debug("Processing requestFilter newPath: {}", newPath);
-		ServerHttpRequest newRequest = request.mutate().path(newPath).build();
+		ServerHttpRequest newRequest = builder.build();
 		exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, newRequest.getURI());
 
-		return chain.filter(exchange.mutate().request(newRequest.mutate().build()).build());
+		return chain.filter(exchange.mutate().request(newRequest).build());
+	}
+
+	/**
+	 * 请求开始时间，优先取指标过滤器记录的开始时间
+	 */
+	static long startTime(ServerWebExchange exchange) {
+		Long startTime = exchange.getAttribute(CommonConstants.REQUEST_START_TIME);
+		return startTime != null ? startTime : System.currentTimeMillis();
+	}
+
+	/**
+	 * 写入发往下游的内部请求头：清洗from参数，写入请求开始时间与截止时间
+	 * @param headers 发往下游的请求头
+	 * @param start 请求开始时间（毫秒）
+	 * @param deadline 请求截止时间（毫秒），{@link #NO_DEADLINE} 时只清除客户端传入的值
+	 */
+	static void stamp(HttpHeaders headers, long start, long deadline) {
+		headers.remove(CommonConstants.FROM);
+		headers.set(CommonConstants.REQUEST_START_TIME, String.valueOf(start));
+		if (deadline > 0) {
+			headers.set(CommonConstants.Header.DEADLINE, String.valueOf(deadline));
+		}
+		else {
+			headers.remove(CommonConstants.Header.DEADLINE);
+		}
+	}
+
+	private RequestRewritePlan planFor(Route route) {
+		if (route == null) {
+			return RequestRewritePlan.IDENTITY;
+		}
+		return plans.computeIfAbsent(route.getId(), id -> RequestRewritePlan.compile(route));
+	}
+
+	/**
+	 * 路由元数据 {@code response-timeout}（毫秒）优先，负数表示不限时，与NettyRoutingFilter一致
+	 */
+	private long timeoutFor(Route route) {
+		if (route == null) {
+			return defaultTimeoutMillis;
+		}
+		return timeouts.computeIfAbsent(route.getId(), id -> {
+			Object value = route.getMetadata().get(RESPONSE_TIMEOUT_ATTR);
+			if (value == null) {
+				return defaultTimeoutMillis;
+			}
+			long millis = value instanceof Number ? ((Number) value).longValue()
+					: Long.parseLong(value.toString().trim());
+			return millis >= 0 ? millis : NO_DEADLINE;
+		});
+	}
+
+	/**
+	 * 路由刷新后元数据可能变化，清空已编译的计划
+	 */
+	@Override
+	public void onApplicationEvent(RefreshRoutesEvent event) {
+		plans.clear();
+		timeouts.clear();
 	}
 
 	@Override
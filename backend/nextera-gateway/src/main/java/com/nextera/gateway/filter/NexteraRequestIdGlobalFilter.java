@@ -0,0 +1,45 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.common.trace.RequestIdContext;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 请求ID全局过滤器
+ * <p>
+ * 排在 {@link NexteraMetricsGlobalFilter} 之前：客户端传入的 {@link CommonConstants.Header#REQUEST_ID}
+ * 合法时沿用，否则重新生成，写回请求头透传给下游并回写到响应头，网关指标的exemplar与下游各跳使用同一个请求ID。
+ * 响应式线程上不使用MDC，网关这一跳的耗时由指标过滤器记录。
+ *
+ * @author Nextera
+ */
+public class NexteraRequestIdGlobalFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = NexteraMetricsGlobalFilter.ORDER - 10;
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		String candidate = request.getHeaders().getFirst(CommonConstants.Header.REQUEST_ID);
+		String requestId = RequestIdContext.accept(candidate);
+		exchange.getResponse().getHeaders().set(CommonConstants.Header.REQUEST_ID, requestId);
+		if (requestId.equals(candidate)) {
+			return chain.filter(exchange);
+		}
+		ServerHttpRequest mutated = request.mutate()
+			.headers(headers -> headers.set(CommonConstants.Header.REQUEST_ID, requestId))
+			.build();
+		return chain.filter(exchange.mutate().request(mutated).build());
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
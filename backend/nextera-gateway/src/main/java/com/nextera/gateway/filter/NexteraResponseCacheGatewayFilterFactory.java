@@ -0,0 +1,305 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.gateway.auth.VerifiedPrincipal;
+import com.nextera.gateway.cache.CachedResponse;
+import com.nextera.gateway.cache.ResponseCacheManager;
+import com.nextera.gateway.compression.ContentCoding;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 响应缓存路由过滤器
+ * <p>
+ * 仅缓存GET请求的2xx响应，缓存命中时不再访问下游服务；响应携带强ETag，If-None-Match命中时直接返回304。
+ * 遵循请求和响应中的Cache-Control：请求 no-store 时跳过缓存，no-cache 时跳过查找但刷新缓存；
+ * 响应 no-store、no-cache、private 或携带Set-Cookie时不缓存，max-age/s-maxage 小于配置的ttl时以其为准。
+ * 同一路径上的写请求成功后自动清除该路径及其子路径下的缓存，也可以通过 {@code /actuator/responsecache} 按前缀清除。
+ * 与 {@code NexteraCompression} 同时使用时应配置在其之前，缓存保存压缩后的响应，命中时不再重复压缩。
+ * <p>
+ * 应配置在 {@code StripPrefix} 与 {@code NexteraRateLimiter} 之后：缓存key使用重写后的路径，缓存命中的请求同样受限流约束。
+ * 下游响应通过 {@link NexteraResponseHookGlobalFilter} 捕获。
+ * <p>
+ * 使用示例：
+ *
+ * <pre>
+ * filters:
+ *   - name: NexteraResponseCache
+ *     args:
+ *       ttl: 60s
+ *       max-body-size: 256KB
+ *       vary-by-user: false
+ *       purge-on-write: true
+ * </pre>
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class NexteraResponseCacheGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<NexteraResponseCacheGatewayFilterFactory.Config> {
+
+	/**
+	 * 标识缓存命中情况的响应头
+	 */
+	public static final String X_CACHE = "X-Cache";
+
+	private final ResponseCacheManager cacheManager;
+
+	public NexteraResponseCacheGatewayFilterFactory(ResponseCacheManager cacheManager) {
+		super(Config.class);
+		this.cacheManager = cacheManager;
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		return (exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+			Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+			String routeId = route != null ? route.getId() : "unknown";
+			String requestCacheControl = lower(request.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL));
+
+			if (!HttpMethod.GET.equals(request.getMethod())) {
+				cacheManager.record(routeId, ResponseCacheManager.Outcome.BYPASS);
+				if (!config.isPurgeOnWrite() || HttpMethod.HEAD.equals(request.getMethod())
+						|| HttpMethod.OPTIONS.equals(request.getMethod())) {
+					return chain.filter(exchange);
+				}
+				// 写请求成功后清除同一资源路径及其子路径下的缓存
+				String prefix = routeId + ':' + request.getURI().getRawPath();
+				return chain.filter(exchange).then(Mono.defer(() -> {
+					HttpStatusCode status = exchange.getResponse().getStatusCode();
+					if (status == null || !status.is2xxSuccessful()) {
+						return Mono.empty();
+					}
+					return cacheManager.purge(prefix).onErrorResume(e -> {
+						log.warn("Response cache purge failed for {}: {}", prefix, e.getMessage());
+						return Mono.empty();
+					}).then();
+				}));
+			}
+			if (requestCacheControl.contains("no-store")) {
+				cacheManager.record(routeId, ResponseCacheManager.Outcome.BYPASS);
+				return chain.filter(exchange);
+			}
+
+			String key = cacheKey(exchange, routeId, config);
+			// no-cache 要求回源校验，跳过查找但仍刷新缓存
+			if (requestCacheControl.contains("no-cache")) {
+				cacheManager.record(routeId, ResponseCacheManager.Outcome.BYPASS);
+				return filterAndCache(exchange, chain, key, config);
+			}
+
+			return cacheManager.get(routeId, key)
+				.map(cached -> writeCached(exchange, cached))
+				.defaultIfEmpty(Mono.defer(() -> filterAndCache(exchange, chain, key, config)))
+				.flatMap(mono -> mono);
+		};
+	}
+
+	/**
+	 * 访问下游并缓存响应
+	 */
+	private Mono<Void> filterAndCache(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+			Config config) {
+		if (NexteraResponseHookGlobalFilter.decorate(exchange,
+				response -> new CachingResponse(response, exchange, key, config))) {
+			return chain.filter(exchange);
+		}
+		CachingResponse response = new CachingResponse(exchange.getResponse(), exchange, key, config);
+		return chain.filter(exchange.mutate().response(response).build());
+	}
+
+	/**
+	 * 缓存key：路由ID:路径?查询参数，按用户区分时追加 |u=用户ID；
+	 * 客户端可接受压缩时追加 |e=可接受的编码，同一路由上的压缩过滤器按此缓存压缩后的响应
+	 */
+	static String cacheKey(ServerWebExchange exchange, String routeId, Config config) {
+		ServerHttpRequest request = exchange.getRequest();
+		StringBuilder key = new StringBuilder(64).append(routeId).append(':').append(request.getURI().getRawPath());
+		String query = request.getURI().getRawQuery();
+		if (query != null) {
+			key.append('?').append(query);
+		}
+		if (config.isVaryByUser()) {
+			VerifiedPrincipal principal = exchange.getAttribute(NexteraAuthGlobalFilter.VERIFIED_PRINCIPAL_ATTR);
+			if (principal != null) {
+				key.append("|u=").append(principal.userId());
+			}
+		}
+		String codings = ContentCoding.varyKey(request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+		if (!codings.isEmpty()) {
+			key.append("|e=").append(codings);
+		}
+		return key.toString();
+	}
+
+	private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+		ServerHttpResponse response = exchange.getResponse();
+		HttpHeaders headers = response.getHeaders();
+		headers.putAll(cached.headers());
+		headers.setETag(cached.etag());
+		headers.set(HttpHeaders.AGE,
+				String.valueOf(Math.max(0, (System.currentTimeMillis() - cached.createdAt()) / 1000)));
+		headers.set(X_CACHE, "HIT");
+		if (CachedResponse.matches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH),
+				cached.etag())) {
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			headers.remove(HttpHeaders.CONTENT_TYPE);
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			return response.setComplete();
+		}
+		response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+		headers.setContentLength(cached.body().length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+	}
+
+	private static String lower(String value) {
+		return value == null ? "" : value.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * 计算响应可缓存的时间，不可缓存时返回null
+	 */
+	private static Duration cacheableFor(HttpStatusCode status, HttpHeaders headers, Config config) {
+		if (status == null || !status.is2xxSuccessful() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+			return null;
+		}
+		String cacheControl = lower(headers.getFirst(HttpHeaders.CACHE_CONTROL));
+		if (cacheControl.contains("no-store") || cacheControl.contains("no-cache")
+				|| cacheControl.contains("private")) {
+			return null;
+		}
+		Duration ttl = config.getTtl();
+		long maxAge = maxAge(cacheControl);
+		if (maxAge >= 0 && maxAge < ttl.getSeconds()) {
+			ttl = Duration.ofSeconds(maxAge);
+		}
+		return ttl.isZero() || ttl.isNegative() ? null : ttl;
+	}
+
+	/**
+	 * 解析 s-maxage（优先）或 max-age，不存在时返回-1
+	 */
+	private static long maxAge(String cacheControl) {
+		long maxAge = -1;
+		for (String directive : cacheControl.split(",")) {
+			String value = directive.trim();
+			try {
+				if (value.startsWith("s-maxage=")) {
+					return Long.parseLong(value.substring("s-maxage=".length()));
+				}
+				if (value.startsWith("max-age=")) {
+					maxAge = Long.parseLong(value.substring("max-age=".length()));
+				}
+			}
+			catch (NumberFormatException e) {
+				return 0;
+			}
+		}
+		return maxAge;
+	}
+
+	/**
+	 * 缓存未命中时捕获下游响应，写入缓存并补充ETag
+	 */
+	private class CachingResponse extends ServerHttpResponseDecorator {
+
+		private final ServerWebExchange exchange;
+
+		private final String key;
+
+		private final Config config;
+
+		CachingResponse(ServerHttpResponse delegate, ServerWebExchange exchange, String key, Config config) {
+			super(delegate);
+			this.exchange = exchange;
+			this.key = key;
+			this.config = config;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			HttpHeaders headers = getHeaders();
+			Duration ttl = cacheableFor(getStatusCode(), headers, config);
+			long contentLength = headers.getContentLength();
+			if (ttl == null || contentLength > config.getMaxBodySize().toBytes()) {
+				return super.writeWith(body);
+			}
+			return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+				byte[] bytes = new byte[joined.readableByteCount()];
+				joined.read(bytes);
+				DataBufferUtils.release(joined);
+
+				String etag = CachedResponse.strongETag(bytes);
+				if (bytes.length <= config.getMaxBodySize().toBytes()) {
+					long now = System.currentTimeMillis();
+					cacheManager.put(key, new CachedResponse(getStatusCode().value(),
+							CachedResponse.replayableHeaders(headers), bytes, etag, now, now + ttl.toMillis()));
+				}
+				headers.setETag(etag);
+				headers.set(X_CACHE, "MISS");
+
+				if (CachedResponse.matches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH),
+						etag)) {
+					setStatusCode(HttpStatus.NOT_MODIFIED);
+					headers.remove(HttpHeaders.CONTENT_TYPE);
+					headers.remove(HttpHeaders.CONTENT_LENGTH);
+					return super.writeWith(Flux.empty());
+				}
+				return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+			});
+		}
+
+	}
+
+	/**
+	 * 路由级缓存参数
+	 */
+	@Data
+	public static class Config {
+
+		/**
+		 * 缓存时间，下游响应的 max-age 更短时以下游为准
+		 */
+		private Duration ttl = Duration.ofSeconds(60);
+
+		/**
+		 * 可缓存的最大响应体
+		 */
+		private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+		/**
+		 * 是否按网关校验后的用户区分缓存
+		 */
+		private boolean varyByUser = true;
+
+		/**
+		 * 写请求（POST/PUT/DELETE等）成功后是否清除同一路径及其子路径下的缓存
+		 */
+		private boolean purgeOnWrite = true;
+
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.nextera.gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * 响应挂点全局过滤器
+ * <p>
+ * {@link NettyWriteResponseFilter} 把下游响应写入它收到的exchange中的响应对象，排在它之后的过滤器替换响应对象不起作用。
+ * 本过滤器排在其之前放入一个可追加装饰的响应对象，缓存、合并等路由过滤器可以保持在路由中配置的位置
+ * （{@code StripPrefix}、限流之后）执行，再通过 {@link #decorate} 挂上各自的响应装饰。
+ *
+ * @author Nextera
+ */
+public class NexteraResponseHookGlobalFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+	private static final String HOOK_ATTR = NexteraResponseHookGlobalFilter.class.getName() + ".hook";
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		HookResponse hook = new HookResponse(exchange.getResponse());
+		exchange.getAttributes().put(HOOK_ATTR, hook);
+		return chain.filter(exchange.mutate().response(hook).build());
+	}
+
+	/**
+	 * 为下游响应追加装饰，先追加的装饰更靠近原始响应
+	 * @param exchange 当前请求
+	 * @param decorator 以上一层响应为参数创建装饰后的响应
+	 * @return 是否追加成功，未经过本过滤器（例如路由未匹配）时为false
+	 */
+	public static boolean decorate(ServerWebExchange exchange, UnaryOperator<ServerHttpResponse> decorator) {
+		HookResponse hook = exchange.getAttribute(HOOK_ATTR);
+		if (hook == null) {
+			return false;
+		}
+		hook.target = decorator.apply(hook.target);
+		return true;
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	/**
+	 * 写响应时转给最后追加的装饰，响应头与状态码仍由被装饰的原始响应保存
+	 */
+	private static final class HookResponse extends ServerHttpResponseDecorator {
+
+		private volatile ServerHttpResponse target;
+
+		HookResponse(ServerHttpResponse delegate) {
+			super(delegate);
+			this.target = delegate;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			return target.writeWith(body);
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return target.writeAndFlushWith(body);
+		}
+
+		@Override
+		public Mono<Void> setComplete() {
+			return target.setComplete();
+		}
+
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.gateway.utils.Knife4jUtil;
+import org.springframework.cloud.gateway.route.Route;
+
+/**
+ * 按路由预编译的请求路径重写计划
+ * <p>
+ * 重写结果与 {@code "/" + String.join("/", tokenizeToStringArray(rawPath, "/"))} 跳过前
+ * {@code stripSegments} 段一致：合并连续的 '/'、去掉结尾的 '/'。已规范化的路径通过下标运算直接截取，
+ * 不剥离前缀时原样返回，不产生分配。
+ *
+ * @author Nextera
+ */
+public final class RequestRewritePlan {
+
+	/**
+	 * 路由元数据中配置剥离段数的key
+	 */
+	public static final String STRIP_PREFIX_METADATA = "nextera-strip-prefix";
+
+	/**
+	 * 不剥离前缀的计划
+	 */
+	public static final RequestRewritePlan IDENTITY = new RequestRewritePlan(0);
+
+	private final int stripSegments;
+
+	private RequestRewritePlan(int stripSegments) {
+		this.stripSegments = stripSegments;
+	}
+
+	/**
+	 * 根据路由元数据编译重写计划
+	 * @param route 路由，可为空
+	 * @return 重写计划
+	 */
+	public static RequestRewritePlan compile(Route route) {
+		if (route == null) {
+			return IDENTITY;
+		}
+		Object value = route.getMetadata().get(STRIP_PREFIX_METADATA);
+		if (value == null) {
+			return IDENTITY;
+		}
+		int strip = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+		return strip <= 0 ? IDENTITY : new RequestRewritePlan(strip);
+	}
+
+	public static RequestRewritePlan of(int stripSegments) {
+		return stripSegments <= 0 ? IDENTITY : new RequestRewritePlan(stripSegments);
+	}
+
+	/**
+	 * 计算重写后的路径，knife4j 文档资源不做处理
+	 * @param rawPath 原始路径
+	 * @return 重写后的路径，未发生变化时返回同一个实例
+	 */
+	public String rewrite(String rawPath) {
+		if (Knife4jUtil.isKnife4jResource(rawPath)) {
+			return rawPath;
+		}
+		if (isNormalized(rawPath)) {
+			return strip(rawPath);
+		}
+		return normalizeAndStrip(rawPath);
+	}
+
+	/**
+	 * 已规范化路径：定位第 stripSegments+1 个 '/' 直接截取
+	 */
+	private String strip(String path) {
+		if (stripSegments == 0) {
+			return path;
+		}
+		int index = 0;
+		for (int i = 0; i < stripSegments; i++) {
+			index = path.indexOf('/', index + 1);
+			if (index < 0) {
+				return "/";
+			}
+		}
+		return path.substring(index);
+	}
+
+	private String normalizeAndStrip(String path) {
+		int len = path.length();
+		StringBuilder builder = new StringBuilder(len + 1);
+		int segment = 0;
+		int i = 0;
+		while (i < len) {
+			while (i < len && path.charAt(i) == '/') {
+				i++;
+			}
+			if (i >= len) {
+				break;
+			}
+			int end = path.indexOf('/', i);
+			if (end < 0) {
+				end = len;
+			}
+			if (segment++ >= stripSegments) {
+				builder.append('/').append(path, i, end);
+			}
+			i = end;
+		}
+		return builder.length() == 0 ? "/" : builder.toString();
+	}
+
+	/**
+	 * 以 '/' 开头、不含连续的 '/'、除根路径外不以 '/' 结尾
+	 */
+	private static boolean isNormalized(String path) {
+		int len = path.length();
+		if (len == 0 || path.charAt(0) != '/') {
+			return false;
+		}
+		if (len == 1) {
+			return true;
+		}
+		if (path.charAt(len - 1) == '/') {
+			return false;
+		}
+		for (int i = 1; i < len; i++) {
+			if (path.charAt(i) == '/' && path.charAt(i - 1) == '/') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
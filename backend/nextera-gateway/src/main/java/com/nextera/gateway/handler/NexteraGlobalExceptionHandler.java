@@ -1,8 +1,7 @@
 package com.nextera.gateway.handler;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nextera.common.core.Result;
+import com.nextera.common.json.JsonCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
@@ -14,6 +13,8 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.io.UncheckedIOException;
+
 /**
  * 网关异常通用处理器，作用于WebFlux环境，优先级低于ResponseStatusExceptionHandler
  *
@@ -25,9 +26,9 @@ import reactor.core.publisher.Mono;
 public class NexteraGlobalExceptionHandler implements ErrorWebExceptionHandler {
 
 	/**
-	 * 对象映射器，用于JSON序列化与反序列化
+	 * JSON编解码器，复用缓存的Result序列化器
 	 */
-	private final ObjectMapper objectMapper;
+	private final JsonCodec jsonCodec;
 
 	/**
 	 * @param exchange 服务器网络交换对象
@@ -52,9 +53,9 @@ public class NexteraGlobalExceptionHandler implements ErrorWebExceptionHandler {
 			DataBufferFactory bufferFactory = response.bufferFactory();
 			try {
 				log.debug("Error Spring Cloud Gateway : {} {}", exchange.getRequest().getPath(), ex.getMessage());
-				return bufferFactory.wrap(objectMapper.writeValueAsBytes(Result.error((ex.getMessage()))));
+				return bufferFactory.wrap(jsonCodec.toJsonBytes(Result.error((ex.getMessage()))));
 			}
-			catch (JsonProcessingException e) {
+			catch (UncheckedIOException e) {
 				log.error("Error writing response", ex);
 				return bufferFactory.wrap(new byte[0]);
 			}
@@ -0,0 +1,61 @@
+package com.nextera.gateway.hedge;
+
+import java.util.Arrays;
+
+/**
+ * 最近N次请求耗时的分位数估计
+ * <p>
+ * 耗时写入环形缓冲区，每累计 {@value #RECOMPUTE_INTERVAL} 个样本排序一次缓冲区副本并缓存分位数，
+ * 读取分位数无需加锁。
+ *
+ * @author Nextera
+ */
+public class LatencyTracker {
+
+	private static final int CAPACITY = 512;
+
+	private static final int RECOMPUTE_INTERVAL = 64;
+
+	private final long[] samples = new long[CAPACITY];
+
+	private final double percentile;
+
+	private int index;
+
+	private int count;
+
+	private int sinceRecompute;
+
+	private volatile long cachedNanos = -1;
+
+	public LatencyTracker(double percentile) {
+		this.percentile = percentile;
+	}
+
+	/**
+	 * 记录一次耗时
+	 * @param nanos 耗时（纳秒）
+	 */
+	public synchronized void record(long nanos) {
+		samples[index] = nanos;
+		index = (index + 1) % CAPACITY;
+		if (count < CAPACITY) {
+			count++;
+		}
+		if (++sinceRecompute >= RECOMPUTE_INTERVAL) {
+			sinceRecompute = 0;
+			long[] sorted = Arrays.copyOf(samples, count);
+			Arrays.sort(sorted);
+			cachedNanos = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+		}
+	}
+
+	/**
+	 * 分位数耗时
+	 * @return 纳秒，样本不足 {@value #RECOMPUTE_INTERVAL} 个时返回-1
+	 */
+	public long percentileNanos() {
+		return cachedNanos;
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.nextera.gateway.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 重试/对冲预算
+ * <p>
+ * 最近 {@value #WINDOW_SECONDS} 秒内额外请求数不超过 {@code 原始请求数 × ratio + minPerSecond × 窗口秒数}，
+ * 下游过载导致大量请求变慢时，对冲与重试最多放大 {@code ratio} 倍流量。
+ *
+ * @author Nextera
+ */
+public class RetryBudget {
+
+	private static final int WINDOW_SECONDS = 10;
+
+	private final double ratio;
+
+	private final long reserve;
+
+	private final LongSupplier nanoClock;
+
+	private final long[] requests = new long[WINDOW_SECONDS];
+
+	private final long[] retries = new long[WINDOW_SECONDS];
+
+	private long currentSecond;
+
+	public RetryBudget(double ratio, int minPerSecond) {
+		this(ratio, minPerSecond, System::nanoTime);
+	}
+
+	RetryBudget(double ratio, int minPerSecond, LongSupplier nanoClock) {
+		this.ratio = ratio;
+		this.reserve = (long) minPerSecond * WINDOW_SECONDS;
+		this.nanoClock = nanoClock;
+		this.currentSecond = second();
+	}
+
+	/**
+	 * 记录一次原始请求
+	 */
+	public synchronized void recordRequest() {
+		requests[slot()]++;
+	}
+
+	/**
+	 * 尝试占用一次额外请求的预算
+	 * @return 是否允许
+	 */
+	public synchronized boolean tryAcquire() {
+		int slot = slot();
+		long totalRequests = 0;
+		long totalRetries = 0;
+		for (int i = 0; i < WINDOW_SECONDS; i++) {
+			totalRequests += requests[i];
+			totalRetries += retries[i];
+		}
+		if (totalRetries + 1 > totalRequests * ratio + reserve) {
+			return false;
+		}
+		retries[slot]++;
+		return true;
+	}
+
+	/**
+	 * 推进窗口并返回当前秒所在的槽位，过期的槽位清零
+	 */
+	private int slot() {
+		long now = second();
+		if (now - currentSecond >= WINDOW_SECONDS) {
+			Arrays.fill(requests, 0);
+			Arrays.fill(retries, 0);
+		}
+		else {
+			for (long s = currentSecond + 1; s <= now; s++) {
+				int expired = (int) (s % WINDOW_SECONDS);
+				requests[expired] = 0;
+				retries[expired] = 0;
+			}
+		}
+		currentSecond = Math.max(currentSecond, now);
+		return (int) (currentSecond % WINDOW_SECONDS);
+	}
+
+	private long second() {
+		return TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong());
+	}
+
+}
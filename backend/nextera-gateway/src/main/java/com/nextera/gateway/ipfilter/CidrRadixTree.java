@@ -0,0 +1,325 @@
+package com.nextera.gateway.ipfilter;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.function.BinaryOperator;
+
+/**
+ * IPv4/IPv6 前缀的压缩二叉基数树（Patricia树），按最长前缀匹配查找
+ * <p>
+ * 只有分叉点和存有值的前缀才会成为节点，查找沿地址位向下，最多比较地址前缀长度的位数，
+ * 与条目数量无关。树构建完成后不再修改，可在多线程间共享，规则变化时整体替换。
+ *
+ * @param <V> 前缀对应的值类型
+ * @author Nextera
+ */
+public final class CidrRadixTree<V> {
+
+	private static final CidrRadixTree<?> EMPTY = new CidrRadixTree<>(null, null, 0);
+
+	private final Node<V> ipv4;
+
+	private final Node<V> ipv6;
+
+	private final int size;
+
+	private CidrRadixTree(Node<V> ipv4, Node<V> ipv6, int size) {
+		this.ipv4 = ipv4;
+		this.ipv6 = ipv6;
+		this.size = size;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <V> CidrRadixTree<V> empty() {
+		return (CidrRadixTree<V>) EMPTY;
+	}
+
+	/**
+	 * 创建构建器，同一前缀重复出现时保留后出现的值
+	 * @return 构建器
+	 */
+	public static <V> Builder<V> builder() {
+		return new Builder<>((previous, current) -> current);
+	}
+
+	/**
+	 * 创建构建器
+	 * @param merge 同一前缀重复出现时合并两个值
+	 * @return 构建器
+	 */
+	public static <V> Builder<V> builder(BinaryOperator<V> merge) {
+		return new Builder<>(merge);
+	}
+
+	/**
+	 * 最长前缀匹配
+	 * @param address 客户端地址
+	 * @return 包含该地址的最长前缀对应的值，没有匹配时为null
+	 */
+	public V lookup(InetAddress address) {
+		byte[] bytes = address.getAddress();
+		return lookup(bytes.length == 4 ? ipv4 : ipv6, bytes);
+	}
+
+	/**
+	 * 前缀条目数（去重后）
+	 * @return 条目数
+	 */
+	public int size() {
+		return size;
+	}
+
+	private static <V> V lookup(Node<V> root, byte[] address) {
+		int bits = address.length * 8;
+		V best = null;
+		int matched = 0;
+		Node<V> node = root;
+		while (node != null && node.length <= bits && matches(node.prefix, address, matched, node.length)) {
+			if (node.value != null) {
+				best = node.value;
+			}
+			if (node.length == bits) {
+				break;
+			}
+			matched = node.length;
+			node = node.child(bit(address, matched));
+		}
+		return best;
+	}
+
+	/**
+	 * 解析CIDR，不带前缀长度时视为单个地址
+	 * @param cidr 如 {@code 10.0.0.0/8}、{@code 2001:db8::/32}、{@code 192.168.1.10}
+	 * @return 主机位已清零的地址及前缀长度
+	 * @throws IllegalArgumentException CIDR格式错误
+	 */
+	public static Cidr parse(String cidr) {
+		String text = cidr.trim();
+		int slash = text.indexOf('/');
+		String host = slash < 0 ? text : text.substring(0, slash);
+		byte[] address = parseLiteral(host);
+		int bits = address.length * 8;
+		int length;
+		try {
+			length = slash < 0 ? bits : Integer.parseInt(text.substring(slash + 1));
+		}
+		catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid prefix length: " + cidr);
+		}
+		if (slash >= 0 && address.length == 4 && host.indexOf(':') >= 0) {
+			// IPv4映射的IPv6前缀（::ffff:a.b.c.d/n）按IPv4前缀存储
+			length -= 96;
+		}
+		if (length < 0 || length > bits) {
+			throw new IllegalArgumentException("Invalid prefix length: " + cidr);
+		}
+		return new Cidr(mask(address, length), length);
+	}
+
+	/**
+	 * 只接受IP字面量，避免把主机名交给InetAddress做DNS解析
+	 */
+	private static byte[] parseLiteral(String host) {
+		boolean ipv6 = host.indexOf(':') >= 0;
+		for (int i = 0; i < host.length(); i++) {
+			char c = host.charAt(i);
+			boolean valid = c == '.' || (c >= '0' && c <= '9')
+					|| (ipv6 && (c == ':' || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')));
+			if (!valid) {
+				throw new IllegalArgumentException("Invalid IP address: " + host);
+			}
+		}
+		if (host.isEmpty() || (!ipv6 && host.chars().filter(c -> c == '.').count() != 3)) {
+			throw new IllegalArgumentException("Invalid IP address: " + host);
+		}
+		try {
+			return InetAddress.getByName(host).getAddress();
+		}
+		catch (UnknownHostException e) {
+			throw new IllegalArgumentException("Invalid IP address: " + host, e);
+		}
+	}
+
+	private static byte[] mask(byte[] address, int length) {
+		byte[] masked = address.clone();
+		for (int i = 0; i < masked.length; i++) {
+			int keep = Math.min(8, Math.max(0, length - i * 8));
+			masked[i] &= (byte) (0xFF << (8 - keep));
+		}
+		return masked;
+	}
+
+	private static int bit(byte[] address, int index) {
+		return (address[index >>> 3] >>> (7 - (index & 7))) & 1;
+	}
+
+	/**
+	 * 比较两个地址 [from, to) 范围内的位
+	 */
+	private static boolean matches(byte[] a, byte[] b, int from, int to) {
+		for (int i = from; i < to;) {
+			int byteIndex = i >>> 3;
+			int start = i & 7;
+			int end = Math.min(8, start + (to - i));
+			int byteMask = (0xFF >>> start) & (0xFF << (8 - end));
+			if (((a[byteIndex] ^ b[byteIndex]) & byteMask) != 0) {
+				return false;
+			}
+			i += end - start;
+		}
+		return true;
+	}
+
+	/**
+	 * 两个地址前 limit 位中相同前缀的长度
+	 */
+	private static int commonPrefix(byte[] a, byte[] b, int limit) {
+		for (int i = 0; i < limit; i += 8) {
+			int diff = (a[i >>> 3] ^ b[i >>> 3]) & 0xFF;
+			if (diff != 0) {
+				return Math.min(limit, i + Integer.numberOfLeadingZeros(diff) - 24);
+			}
+		}
+		return limit;
+	}
+
+	/**
+	 * 解析后的CIDR
+	 *
+	 * @param address 主机位已清零的地址
+	 * @param prefixLength 前缀长度
+	 */
+	public record Cidr(byte[] address, int prefixLength) {
+
+	}
+
+	private static final class Node<V> {
+
+		private final byte[] prefix;
+
+		private final int length;
+
+		private Node<V> zero;
+
+		private Node<V> one;
+
+		private V value;
+
+		Node(byte[] prefix, int length, V value) {
+			this.prefix = prefix;
+			this.length = length;
+			this.value = value;
+		}
+
+		Node<V> child(int bit) {
+			return bit == 0 ? zero : one;
+		}
+
+		void setChild(int bit, Node<V> child) {
+			if (bit == 0) {
+				zero = child;
+			}
+			else {
+				one = child;
+			}
+		}
+
+	}
+
+	/**
+	 * 基数树构建器，非线程安全
+	 *
+	 * @param <V> 前缀对应的值类型
+	 */
+	public static final class Builder<V> {
+
+		private final BinaryOperator<V> merge;
+
+		private Node<V> ipv4;
+
+		private Node<V> ipv6;
+
+		private int size;
+
+		private Builder(BinaryOperator<V> merge) {
+			this.merge = merge;
+		}
+
+		/**
+		 * 添加前缀
+		 * @param cidr CIDR或单个地址
+		 * @param value 前缀对应的值
+		 * @return 当前构建器
+		 * @throws IllegalArgumentException CIDR格式错误
+		 */
+		public Builder<V> put(String cidr, V value) {
+			Cidr parsed = parse(cidr);
+			if (parsed.address().length == 4) {
+				ipv4 = insert(ipv4, parsed.address(), parsed.prefixLength(), value);
+			}
+			else {
+				ipv6 = insert(ipv6, parsed.address(), parsed.prefixLength(), value);
+			}
+			return this;
+		}
+
+		public CidrRadixTree<V> build() {
+			return new CidrRadixTree<>(ipv4, ipv6, size);
+		}
+
+		private Node<V> insert(Node<V> root, byte[] address, int length, V value) {
+			if (root == null) {
+				size++;
+				return new Node<>(address, length, value);
+			}
+			Node<V> parent = null;
+			Node<V> node = root;
+			while (true) {
+				int common = commonPrefix(node.prefix, address, Math.min(node.length, length));
+				if (common == node.length && common == length) {
+					if (node.value == null) {
+						size++;
+						node.value = value;
+					}
+					else {
+						node.value = merge.apply(node.value, value);
+					}
+					return root;
+				}
+				if (common == node.length) {
+					// 当前节点是新前缀的祖先，继续向下
+					int bit = bit(address, node.length);
+					Node<V> child = node.child(bit);
+					if (child == null) {
+						size++;
+						node.setChild(bit, new Node<>(address, length, value));
+						return root;
+					}
+					parent = node;
+					node = child;
+					continue;
+				}
+				size++;
+				Node<V> replacement;
+				if (common == length) {
+					// 新前缀是当前节点的祖先
+					replacement = new Node<>(address, length, value);
+					replacement.setChild(bit(node.prefix, length), node);
+				}
+				else {
+					// 在第一个不同的位处分叉
+					replacement = new Node<>(mask(address, common), common, null);
+					replacement.setChild(bit(node.prefix, common), node);
+					replacement.setChild(bit(address, common), new Node<>(address, length, value));
+				}
+				if (parent == null) {
+					return replacement;
+				}
+				parent.setChild(bit(address, parent.length), replacement);
+				return root;
+			}
+		}
+
+	}
+
+}
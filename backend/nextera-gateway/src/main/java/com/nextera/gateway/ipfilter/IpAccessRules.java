@@ -0,0 +1,203 @@
+package com.nextera.gateway.ipfilter;
+
+import com.nextera.gateway.config.NexteraIpFilterProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 客户端地址规则，从本地文件或Redis加载为 {@link CidrRadixTree}
+ * <p>
+ * 每次加载构建一棵新树后整体替换引用，查找无锁且不会看到加载到一半的规则；加载失败时保留上一次的规则。
+ * 文件按修改时间定时检查，Redis在定时加载之外还可以通过发布订阅通知立即重新加载。
+ * Redis定时加载先读取版本key {@code <key-prefix>version}（由修改规则的一方INCR），版本未变时不再读取集合；
+ * 没有维护版本key时读取集合后与上一次比较，规则未变化时不重建也不输出日志。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class IpAccessRules implements InitializingBean, DisposableBean {
+
+	private static final String METRIC_ENTRIES = "nextera.gateway.ip-filter.entries";
+
+	private static final Duration INITIAL_LOAD_TIMEOUT = Duration.ofSeconds(10);
+
+	private final ReactiveStringRedisTemplate redisTemplate;
+
+	private final NexteraIpFilterProperties properties;
+
+	private volatile CidrRadixTree<IpAction> tree = CidrRadixTree.empty();
+
+	private volatile long fileModified = -1;
+
+	private volatile String redisVersion;
+
+	private volatile Set<String> redisAllow;
+
+	private volatile Set<String> redisDeny;
+
+	private Disposable refreshSubscription;
+
+	private Disposable reloadSubscription;
+
+	public IpAccessRules(ReactiveStringRedisTemplate redisTemplate, NexteraIpFilterProperties properties,
+			MeterRegistry meterRegistry) {
+		this.redisTemplate = redisTemplate;
+		this.properties = properties;
+		Gauge.builder(METRIC_ENTRIES, this, rules -> rules.tree.size()).register(meterRegistry);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		try {
+			reload(true).block(INITIAL_LOAD_TIMEOUT);
+		}
+		catch (RuntimeException e) {
+			log.warn("Initial IP filter rules load failed: {}", e.getMessage());
+		}
+		Duration interval = properties.getRefreshInterval();
+		refreshSubscription = Flux.interval(interval, interval).concatMap(tick -> reload(false)).subscribe();
+		if (properties.getSource() == NexteraIpFilterProperties.Source.REDIS) {
+			reloadSubscription = redisTemplate.listenToChannel(properties.getReloadChannel())
+				.concatMap(message -> reload(true))
+				.subscribe(null, e -> log.warn("IP filter reload subscription terminated: {}", e.getMessage()));
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (refreshSubscription != null) {
+			refreshSubscription.dispose();
+		}
+		if (reloadSubscription != null) {
+			reloadSubscription.dispose();
+		}
+	}
+
+	/**
+	 * 判断客户端地址的动作
+	 * @param address 客户端地址
+	 * @return 最长前缀匹配的动作，没有匹配时为默认动作
+	 */
+	public IpAction decide(InetAddress address) {
+		IpAction action = tree.lookup(address);
+		return action != null ? action : properties.getDefaultAction();
+	}
+
+	/**
+	 * 重新加载规则
+	 * @param force 为false时文件未修改或Redis版本未变则跳过
+	 * @return 加载后的条目数，规则未变化、跳过或失败时为空
+	 */
+	public Mono<Integer> reload(boolean force) {
+		Mono<CidrRadixTree<IpAction>> loaded = properties.getSource() == NexteraIpFilterProperties.Source.REDIS
+				? loadRedis(force) : Mono.fromCallable(() -> loadFile(force)).subscribeOn(Schedulers.boundedElastic());
+		return loaded.map(rules -> {
+			tree = rules;
+			log.info("Loaded {} IP filter rules from {}", rules.size(), properties.getSource());
+			return rules.size();
+		}).onErrorResume(e -> {
+			log.warn("IP filter rules reload failed, keeping previous rules: {}", e.getMessage());
+			return Mono.empty();
+		});
+	}
+
+	private CidrRadixTree<IpAction> loadFile(boolean force) throws IOException {
+		Path path = Path.of(properties.getFile());
+		long modified = Files.getLastModifiedTime(path).toMillis();
+		if (!force && modified == fileModified) {
+			return null;
+		}
+		CidrRadixTree.Builder<IpAction> builder = CidrRadixTree.builder(IpAction::merge);
+		try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
+			lines.forEach(line -> parseLine(builder, line));
+		}
+		fileModified = modified;
+		return builder.build();
+	}
+
+	private Mono<CidrRadixTree<IpAction>> loadRedis(boolean force) {
+		String prefix = properties.getRedisKeyPrefix();
+		return redisTemplate.opsForValue().get(prefix + "version").defaultIfEmpty("").flatMap(version -> {
+			if (!force && !version.isEmpty() && version.equals(redisVersion)) {
+				return Mono.empty();
+			}
+			return Mono
+				.zip(redisTemplate.opsForSet().members(prefix + "allow").collect(Collectors.toSet()),
+						redisTemplate.opsForSet().members(prefix + "deny").collect(Collectors.toSet()))
+				.flatMap(members -> {
+					redisVersion = version;
+					if (members.getT1().equals(redisAllow) && members.getT2().equals(redisDeny)) {
+						return Mono.empty();
+					}
+					CidrRadixTree.Builder<IpAction> builder = CidrRadixTree.builder(IpAction::merge);
+					put(builder, members.getT1(), IpAction.ALLOW);
+					put(builder, members.getT2(), IpAction.DENY);
+					CidrRadixTree<IpAction> rules = builder.build();
+					redisAllow = members.getT1();
+					redisDeny = members.getT2();
+					return Mono.just(rules);
+				});
+		});
+	}
+
+	private static void put(CidrRadixTree.Builder<IpAction> builder, Collection<String> cidrs, IpAction action) {
+		for (String cidr : cidrs) {
+			put(builder, cidr, action);
+		}
+	}
+
+	/**
+	 * 解析一行规则：{@code allow|deny <CIDR>}，只写CIDR时视为deny
+	 */
+	static void parseLine(CidrRadixTree.Builder<IpAction> builder, String line) {
+		String text = line.trim();
+		if (text.isEmpty() || text.startsWith("#")) {
+			return;
+		}
+		int space = text.indexOf(' ');
+		if (space < 0) {
+			put(builder, text, IpAction.DENY);
+			return;
+		}
+		String action = text.substring(0, space);
+		String cidr = text.substring(space + 1).trim();
+		if ("allow".equalsIgnoreCase(action)) {
+			put(builder, cidr, IpAction.ALLOW);
+		}
+		else if ("deny".equalsIgnoreCase(action)) {
+			put(builder, cidr, IpAction.DENY);
+		}
+		else {
+			log.warn("Ignoring invalid IP filter rule: {}", line);
+		}
+	}
+
+	private static void put(CidrRadixTree.Builder<IpAction> builder, String cidr, IpAction action) {
+		try {
+			builder.put(cidr, action);
+		}
+		catch (IllegalArgumentException e) {
+			log.warn("Ignoring invalid IP filter rule: {}", e.getMessage());
+		}
+	}
+
+}
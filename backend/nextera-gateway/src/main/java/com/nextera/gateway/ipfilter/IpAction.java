@@ -0,0 +1,19 @@
+package com.nextera.gateway.ipfilter;
+
+/**
+ * 客户端地址规则的动作
+ *
+ * @author Nextera
+ */
+public enum IpAction {
+
+	ALLOW, DENY;
+
+	/**
+	 * 同一前缀同时出现在允许和拒绝列表时，拒绝优先
+	 */
+	static IpAction merge(IpAction previous, IpAction current) {
+		return previous == DENY || current == DENY ? DENY : ALLOW;
+	}
+
+}
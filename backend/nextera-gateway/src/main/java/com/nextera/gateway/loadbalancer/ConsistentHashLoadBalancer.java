@@ -0,0 +1,335 @@
+package com.nextera.gateway.loadbalancer;
+
+import cn.hutool.core.lang.hash.MurmurHash;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nextera.gateway.auth.VerifiedPrincipal;
+import com.nextera.gateway.config.NexteraLoadBalancerProperties;
+import com.nextera.gateway.filter.NexteraAuthGlobalFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.URI_TEMPLATE_VARIABLES_ATTRIBUTE;
+
+/**
+ * 有界负载的一致性哈希负载均衡器
+ * <p>
+ * 每个实例在哈希环上放置若干虚拟节点，请求按哈希key落到环上顺时针第一个实例，实例增减时只有相邻区间的key
+ * 会迁移。为避免热点key压垮单个实例，实例并发数不能超过 {@code ceil(load-factor × (总并发数 + 1) / 实例数)}，
+ * 超过时顺延到环上的下一个实例。请求中取不到key时按轮询选择。
+ * <p>
+ * 指标 {@code nextera.gateway.loadbalancer.hash.requests} 按实例和落点（owner：key所属实例，
+ * overflow：负载超限后顺延，unkeyed：无key轮询）统计请求数，{@code nextera.gateway.loadbalancer.hash.ring.share}
+ * 为各实例在环上占有的key空间比例。
+ *
+ * @author Nextera
+ */
+public class ConsistentHashLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+	private static final String METRIC_REQUESTS = "nextera.gateway.loadbalancer.hash.requests";
+
+	private static final String METRIC_SHARE = "nextera.gateway.loadbalancer.hash.ring.share";
+
+	/**
+	 * 缓存的哈希环数量，熔断排除实例后的实例列表也会生成单独的环
+	 */
+	private static final int MAX_RINGS = 8;
+
+	private static final double RING_SPACE = Math.pow(2, 64);
+
+	private final Cache<String, RingEntry> rings = Caffeine.newBuilder().maximumSize(MAX_RINGS).build();
+
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	private final AtomicInteger position = new AtomicInteger();
+
+	private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+
+	private final String serviceId;
+
+	private final InstanceLoadStats loadStats;
+
+	private final NexteraLoadBalancerProperties.HashKey hashKey;
+
+	private final int virtualNodes;
+
+	private final double loadFactor;
+
+	private final MeterRegistry meterRegistry;
+
+	private final MultiGauge ringShare;
+
+	/**
+	 * 当前使用的环，实例列表未变化时直接复用，不再排序和计算签名
+	 */
+	private volatile ActiveRing active;
+
+	public ConsistentHashLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+			InstanceLoadStats loadStats, NexteraLoadBalancerProperties.Hash hash, MeterRegistry meterRegistry) {
+		this.supplierProvider = supplierProvider;
+		this.serviceId = serviceId;
+		this.loadStats = loadStats;
+		this.hashKey = hash.keyFor(serviceId);
+		this.virtualNodes = hash.getVirtualNodes();
+		this.loadFactor = hash.getLoadFactor();
+		this.meterRegistry = meterRegistry;
+		this.ringShare = MultiGauge.builder(METRIC_SHARE).tag("service", serviceId).register(meterRegistry);
+	}
+
+	@Override
+	public Mono<Response<ServiceInstance>> choose(Request request) {
+		ServiceInstanceListSupplier supplier = supplierProvider
+			.getIfAvailable(NoopServiceInstanceListSupplier::new);
+		String key = hashKey(request);
+		return supplier.get(request).next().map(instances -> select(instances, key));
+	}
+
+	Response<ServiceInstance> select(List<ServiceInstance> instances, String key) {
+		int size = instances.size();
+		if (size == 0) {
+			return new EmptyResponse();
+		}
+		if (key == null) {
+			ServiceInstance instance = instances.get(Math.floorMod(position.getAndIncrement(), size));
+			record(instance, "unkeyed");
+			return new DefaultResponse(instance);
+		}
+		RingEntry entry = ring(instances);
+		List<ServiceInstance> sorted = entry.sorted();
+		Ring ring = entry.ring();
+		int[] inFlight = new int[size];
+		long total = 0;
+		for (int i = 0; i < size; i++) {
+			inFlight[i] = loadStats.get(serviceId, sorted.get(i)).getInFlight();
+			total += inFlight[i];
+		}
+		long capacity = (long) Math.ceil(loadFactor * (total + 1) / size);
+		boolean[] visited = new boolean[size];
+		int start = ring.start(MurmurHash.hash64(key));
+		int owner = ring.owners[start];
+		for (int i = 0, seen = 0; i < ring.hashes.length && seen < size; i++) {
+			int candidate = ring.owners[(start + i) % ring.hashes.length];
+			if (visited[candidate]) {
+				continue;
+			}
+			visited[candidate] = true;
+			seen++;
+			if (inFlight[candidate] < capacity) {
+				ServiceInstance instance = sorted.get(candidate);
+				record(instance, candidate == owner ? "owner" : "overflow");
+				return new DefaultResponse(instance);
+			}
+		}
+		// 平均并发数低于上限，总能找到未超限的实例；并发数在统计期间变化时退回key所属实例
+		ServiceInstance instance = sorted.get(owner);
+		record(instance, "owner");
+		return new DefaultResponse(instance);
+	}
+
+	private String hashKey(Request<?> request) {
+		if (!(request.getContext() instanceof RequestDataContext context) || context.getClientRequest() == null) {
+			return null;
+		}
+		RequestData data = context.getClientRequest();
+		Map<String, Object> attributes = data.getAttributes();
+		return switch (hashKey.getSource()) {
+			case USER_ID -> attributes != null
+					&& attributes.get(NexteraAuthGlobalFilter.VERIFIED_PRINCIPAL_ATTR) instanceof VerifiedPrincipal p
+					&& p.userId() != null ? String.valueOf(p.userId()) : null;
+			case HEADER -> data.getHeaders() != null ? data.getHeaders().getFirst(hashKey.getName()) : null;
+			case PATH_VARIABLE -> attributes != null
+					&& attributes.get(URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+					&& variables.get(hashKey.getName()) instanceof String value ? value : null;
+		};
+	}
+
+	/**
+	 * 取得实例集合对应的哈希环
+	 * <p>
+	 * 实例列表与当前环为同一个对象（列表提供者缓存的列表）或包含相同实例时直接复用；否则按排序后的实例地址从缓存中
+	 * 取出或新建，切换到不同的环时重新登记各实例的key空间比例，切换回已缓存的环同样会更新。
+	 */
+	private RingEntry ring(List<ServiceInstance> instances) {
+		ActiveRing current = active;
+		if (current != null && (current.source() == instances || current.entry().matches(instances))) {
+			return current.entry();
+		}
+		List<ServiceInstance> sorted = new ArrayList<>(instances);
+		sorted.sort(Comparator.comparing(ConsistentHashLoadBalancer::instanceKey));
+		StringBuilder signature = new StringBuilder(sorted.size() * 24);
+		for (ServiceInstance instance : sorted) {
+			signature.append(instanceKey(instance)).append(',');
+		}
+		RingEntry entry = rings.get(signature.toString(), key -> RingEntry.build(sorted, virtualNodes));
+		synchronized (this) {
+			current = active;
+			if (current == null || current.entry() != entry) {
+				ringShare.register(entry.rows(), true);
+			}
+			active = new ActiveRing(instances, entry);
+		}
+		return entry;
+	}
+
+	private void record(ServiceInstance instance, String placement) {
+		String instanceKey = instanceKey(instance);
+		counters.computeIfAbsent(instanceKey + '|' + placement, key -> Counter.builder(METRIC_REQUESTS)
+			.tag("service", serviceId)
+			.tag("instance", instanceKey)
+			.tag("placement", placement)
+			.register(meterRegistry)).increment();
+	}
+
+	static String instanceKey(ServiceInstance instance) {
+		return instance.getHost() + ':' + instance.getPort();
+	}
+
+	/**
+	 * 当前使用的环及其来源实例列表
+	 */
+	private record ActiveRing(List<ServiceInstance> source, RingEntry entry) {
+
+	}
+
+	/**
+	 * 缓存的哈希环
+	 *
+	 * @param sorted 按地址排序的实例列表，环上的实例下标与其一致
+	 * @param keys 实例地址集合
+	 * @param ring 哈希环
+	 * @param rows 各实例的key空间比例
+	 */
+	private record RingEntry(List<ServiceInstance> sorted, Set<String> keys, Ring ring,
+			List<MultiGauge.Row<?>> rows) {
+
+		static RingEntry build(List<ServiceInstance> sorted, int virtualNodes) {
+			Ring ring = Ring.build(sorted.size(), index -> instanceKey(sorted.get(index)), virtualNodes);
+			Set<String> keys = new HashSet<>(sorted.size() * 2);
+			List<MultiGauge.Row<?>> rows = new ArrayList<>(sorted.size());
+			double[] shares = ring.shares();
+			for (int i = 0; i < sorted.size(); i++) {
+				String instanceKey = instanceKey(sorted.get(i));
+				keys.add(instanceKey);
+				rows.add(MultiGauge.Row.of(Tags.of("instance", instanceKey), shares[i]));
+			}
+			return new RingEntry(List.copyOf(sorted), keys, ring, rows);
+		}
+
+		/**
+		 * 实例列表是否与本环的实例集合相同
+		 */
+		boolean matches(List<ServiceInstance> instances) {
+			if (instances.size() != sorted.size()) {
+				return false;
+			}
+			for (ServiceInstance instance : instances) {
+				if (!keys.contains(instanceKey(instance))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	/**
+	 * 不可变的哈希环，虚拟节点的值为实例下标
+	 */
+	static final class Ring {
+
+		private final int size;
+
+		private final long[] hashes;
+
+		private final int[] owners;
+
+		private Ring(int size, long[] hashes, int[] owners) {
+			this.size = size;
+			this.hashes = hashes;
+			this.owners = owners;
+		}
+
+		/**
+		 * 构建哈希环，虚拟节点位置只取决于实例地址
+		 * @param size 实例数
+		 * @param instanceKeys 实例下标到实例地址
+		 * @param virtualNodes 每个实例的虚拟节点数
+		 * @return 哈希环
+		 */
+		static Ring build(int size, IntFunction<String> instanceKeys, int virtualNodes) {
+			int points = size * virtualNodes;
+			long[][] nodes = new long[points][];
+			for (int i = 0; i < size; i++) {
+				String instanceKey = instanceKeys.apply(i);
+				for (int v = 0; v < virtualNodes; v++) {
+					nodes[i * virtualNodes + v] = new long[] { MurmurHash.hash64(instanceKey + '#' + v), i };
+				}
+			}
+			Arrays.sort(nodes, Comparator.comparingLong(node -> node[0]));
+			long[] hashes = new long[points];
+			int[] owners = new int[points];
+			for (int i = 0; i < points; i++) {
+				hashes[i] = nodes[i][0];
+				owners[i] = (int) nodes[i][1];
+			}
+			return new Ring(size, hashes, owners);
+		}
+
+		/**
+		 * 环上顺时针第一个不小于hash的虚拟节点下标
+		 */
+		int start(long hash) {
+			int index = Arrays.binarySearch(hashes, hash);
+			if (index < 0) {
+				index = -index - 1;
+			}
+			return index == hashes.length ? 0 : index;
+		}
+
+		/**
+		 * 各实例占有的key空间比例
+		 */
+		double[] shares() {
+			double[] shares = new double[size];
+			for (int i = 0; i < hashes.length; i++) {
+				// 虚拟节点占有从前一个节点（不含）到自身的区间，按无符号数计算跨越环起点的区间
+				long arc = hashes[i] - hashes[i == 0 ? hashes.length - 1 : i - 1];
+				double length = arc == 0 && hashes.length == 1 ? RING_SPACE : unsigned(arc);
+				shares[owners[i]] += length / RING_SPACE;
+			}
+			return shares;
+		}
+
+		private static double unsigned(long value) {
+			double result = (double) (value >>> 1) * 2;
+			return result + (value & 1);
+		}
+
+	}
+
+}
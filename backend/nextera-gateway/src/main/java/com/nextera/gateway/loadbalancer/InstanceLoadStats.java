@@ -0,0 +1,131 @@
+package com.nextera.gateway.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * 下游实例负载统计：并发数与峰值EWMA耗时
+ * <p>
+ * 由网关过滤器链在请求开始和结束时更新，供 {@link PeakEwmaLoadBalancer} 计算实例代价。
+ * 长时间没有请求的实例统计会被淘汰。
+ *
+ * @author Nextera
+ */
+public class InstanceLoadStats {
+
+	private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+	private final Cache<String, InstanceLoad> loads = Caffeine.newBuilder().expireAfterAccess(IDLE_TIMEOUT).build();
+
+	private final double decayNanos;
+
+	private final long errorPenaltyNanos;
+
+	private final LongSupplier nanoClock;
+
+	public InstanceLoadStats(Duration decayTime, Duration errorPenalty) {
+		this(decayTime, errorPenalty, System::nanoTime);
+	}
+
+	InstanceLoadStats(Duration decayTime, Duration errorPenalty, LongSupplier nanoClock) {
+		this.decayNanos = decayTime.toNanos();
+		this.errorPenaltyNanos = errorPenalty.toNanos();
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * 获取实例的负载统计
+	 * @param serviceId 服务ID
+	 * @param instance 服务实例
+	 * @return 负载统计
+	 */
+	public InstanceLoad get(String serviceId, ServiceInstance instance) {
+		return loads.get(serviceId + '@' + instance.getHost() + ':' + instance.getPort(), key -> new InstanceLoad());
+	}
+
+	/**
+	 * 单个实例的负载
+	 */
+	public final class InstanceLoad {
+
+		/**
+		 * 有并发请求但尚无耗时样本的实例的代价，使新实例不会在第一个请求返回前被打满
+		 */
+		private static final double UNSAMPLED_PENALTY = Long.MAX_VALUE >> 16;
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private double ewmaNanos;
+
+		private long stamp;
+
+		private boolean sampled;
+
+		/**
+		 * 请求开始
+		 * @return 开始时间（纳秒），作为 {@link #complete(long, boolean)} 的参数
+		 */
+		public long start() {
+			inFlight.incrementAndGet();
+			return nanoClock.getAsLong();
+		}
+
+		/**
+		 * 请求结束，失败请求的耗时至少按错误惩罚值计算
+		 * @param startNanos {@link #start()} 的返回值
+		 * @param failed 是否失败
+		 */
+		public void complete(long startNanos, boolean failed) {
+			inFlight.decrementAndGet();
+			long now = nanoClock.getAsLong();
+			long rtt = now - startNanos;
+			observe(now, failed ? Math.max(rtt, errorPenaltyNanos) : rtt);
+		}
+
+		/**
+		 * 请求被取消，只减少并发数
+		 */
+		public void cancel() {
+			inFlight.decrementAndGet();
+		}
+
+		/**
+		 * 峰值EWMA：耗时高于均值时直接取峰值，否则按距上次样本的时间指数衰减
+		 */
+		private synchronized void observe(long now, double rtt) {
+			if (rtt > ewmaNanos) {
+				ewmaNanos = rtt;
+			}
+			else {
+				double weight = Math.exp(-(now - stamp) / decayNanos);
+				ewmaNanos = ewmaNanos * weight + rtt * (1 - weight);
+			}
+			stamp = now;
+			sampled = true;
+		}
+
+		/**
+		 * 实例代价 = 衰减后的EWMA耗时 × (并发数 + 1)
+		 * @return 实例代价，越小越优先
+		 */
+		public synchronized double cost() {
+			int active = inFlight.get();
+			if (!sampled) {
+				return active == 0 ? 0 : UNSAMPLED_PENALTY + active;
+			}
+			double decayed = ewmaNanos * Math.exp(-(nanoClock.getAsLong() - stamp) / decayNanos);
+			return decayed * (active + 1);
+		}
+
+		public int getInFlight() {
+			return inFlight.get();
+		}
+
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.nextera.gateway.loadbalancer;
+
+import com.nextera.gateway.circuitbreaker.CircuitBreakerServiceInstanceListSupplier;
+import com.nextera.gateway.circuitbreaker.InstanceCircuitBreakerRegistry;
+import com.nextera.gateway.config.NexteraLoadBalancerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplierBuilder;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 负载均衡客户端配置，在每个服务的子上下文中创建，按 {@code nextera.gateway.load-balancer.services} 选择策略
+ * <p>
+ * 该类通过 {@code @LoadBalancerClients(defaultConfiguration = ...)} 引用，不能标注 {@code @Configuration}，
+ * 否则会被组件扫描注册到主上下文。
+ *
+ * @author Nextera
+ */
+public class NexteraLoadBalancerClientConfiguration {
+
+	@Bean
+	public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+			ObjectProvider<ServiceInstanceListSupplier> supplierProvider, NexteraLoadBalancerProperties properties,
+			InstanceLoadStats loadStats, MeterRegistry meterRegistry) {
+		String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+		return switch (properties.strategyFor(serviceId)) {
+			case PEAK_EWMA -> new PeakEwmaLoadBalancer(supplierProvider, serviceId, loadStats);
+			case CONSISTENT_HASH -> new ConsistentHashLoadBalancer(supplierProvider, serviceId, loadStats,
+					properties.getHash(), meterRegistry);
+			default -> new RoundRobinLoadBalancer(supplierProvider, serviceId);
+		};
+	}
+
+	/**
+	 * 基于服务发现的实例列表，开启实例熔断时排除当前路由下已熔断的实例
+	 */
+	@Bean
+	public ServiceInstanceListSupplier discoveryClientServiceInstanceListSupplier(
+			ConfigurableApplicationContext context, ObjectProvider<InstanceCircuitBreakerRegistry> breakers) {
+		InstanceCircuitBreakerRegistry registry = breakers.getIfAvailable();
+		ServiceInstanceListSupplierBuilder builder = ServiceInstanceListSupplier.builder()
+			.withDiscoveryClient()
+			.withCaching();
+		if (registry != null) {
+			builder.with((ctx, delegate) -> new CircuitBreakerServiceInstanceListSupplier(delegate, registry));
+		}
+		return builder.build(context);
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.nextera.gateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * 两次随机选择（P2C）+ 峰值EWMA负载均衡器
+ * <p>
+ * 每次随机取两个实例，选择 {@code 峰值EWMA耗时 × (并发数 + 1)} 较小的一个。相比轮询，
+ * 慢实例或GC停顿的实例会迅速被避开，衰减后又会重新获得少量流量用于探测恢复。
+ *
+ * @author Nextera
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+	private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+
+	private final String serviceId;
+
+	private final InstanceLoadStats loadStats;
+
+	/**
+	 * 随机数来源，ThreadLocalRandom只能在调用线程上取得，不能保存到字段中跨reactor线程共享
+	 */
+	private final Supplier<RandomGenerator> random;
+
+	public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+			InstanceLoadStats loadStats) {
+		this(supplierProvider, serviceId, loadStats, ThreadLocalRandom::current);
+	}
+
+	/**
+	 * 使用固定种子的随机数，仅用于仿真测试
+	 */
+	PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+			InstanceLoadStats loadStats, RandomGenerator random) {
+		this(supplierProvider, serviceId, loadStats, () -> random);
+	}
+
+	private PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+			InstanceLoadStats loadStats, Supplier<RandomGenerator> random) {
+		this.supplierProvider = supplierProvider;
+		this.serviceId = serviceId;
+		this.loadStats = loadStats;
+		this.random = random;
+	}
+
+	@Override
+	public Mono<Response<ServiceInstance>> choose(Request request) {
+		ServiceInstanceListSupplier supplier = supplierProvider
+			.getIfAvailable(NoopServiceInstanceListSupplier::new);
+		return supplier.get(request).next().map(this::select);
+	}
+
+	Response<ServiceInstance> select(List<ServiceInstance> instances) {
+		int size = instances.size();
+		if (size == 0) {
+			return new EmptyResponse();
+		}
+		if (size == 1) {
+			return new DefaultResponse(instances.get(0));
+		}
+		RandomGenerator generator = random.get();
+		int first = generator.nextInt(size);
+		int second = generator.nextInt(size - 1);
+		if (second >= first) {
+			second++;
+		}
+		ServiceInstance a = instances.get(first);
+		ServiceInstance b = instances.get(second);
+		double costA = loadStats.get(serviceId, a).cost();
+		double costB = loadStats.get(serviceId, b).cost();
+		return new DefaultResponse(costA <= costB ? a : b);
+	}
+
+}
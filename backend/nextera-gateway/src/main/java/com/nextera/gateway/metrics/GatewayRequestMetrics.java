@@ -0,0 +1,137 @@
+package com.nextera.gateway.metrics;
+
+import com.nextera.gateway.config.NexteraMetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关请求RED指标
+ * <p>
+ * {@code nextera.gateway.requests{route, outcome}} 按路由记录请求数、错误数与耗时分布，
+ * {@code nextera.gateway.upstream.requests{route, instance, outcome}} 按负载均衡选中的下游实例记录。
+ * 路由级Timer在路由刷新时预先注册（各outcome从0开始，rate计算不会缺数据），实例级Timer在首次出现时注册；
+ * 请求路径上只做Map查找，不再构建Meter。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class GatewayRequestMetrics implements ApplicationListener<RefreshRoutesEvent> {
+
+	public static final String METRIC_REQUESTS = "nextera.gateway.requests";
+
+	public static final String METRIC_UPSTREAM_REQUESTS = "nextera.gateway.upstream.requests";
+
+	/**
+	 * 未经过负载均衡（本地短路、缓存命中等）的请求的实例标签
+	 */
+	public static final String NO_INSTANCE = "none";
+
+	private final Map<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+
+	private final MeterRegistry meterRegistry;
+
+	private final RouteLocator routeLocator;
+
+	private final Duration[] sloBoundaries;
+
+	private final boolean exemplarsEnabled;
+
+	public GatewayRequestMetrics(MeterRegistry meterRegistry, RouteLocator routeLocator,
+			NexteraMetricsProperties properties) {
+		this.meterRegistry = meterRegistry;
+		this.routeLocator = routeLocator;
+		this.sloBoundaries = properties.getSloBoundaries().toArray(Duration[]::new);
+		this.exemplarsEnabled = properties.isExemplarsEnabled();
+	}
+
+	/**
+	 * 记录一次请求
+	 * @param routeId 路由ID
+	 * @param instance 下游实例（host:port），未经过负载均衡时为 {@link #NO_INSTANCE}
+	 * @param outcome 请求结果
+	 * @param durationNanos 耗时（纳秒）
+	 * @param traceId exemplar的trace_id
+	 * @param spanId exemplar的span_id
+	 */
+	public void record(String routeId, String instance, Outcome outcome, long durationNanos, String traceId,
+			String spanId) {
+		RouteMeters meters = routeMeters.computeIfAbsent(routeId, RouteMeters::new);
+		if (exemplarsEnabled) {
+			RequestExemplarContext.bind(traceId, spanId);
+		}
+		try {
+			meters.timers.get(outcome).record(durationNanos, TimeUnit.NANOSECONDS);
+			if (!NO_INSTANCE.equals(instance)) {
+				meters.instance(instance).get(outcome).record(durationNanos, TimeUnit.NANOSECONDS);
+			}
+		}
+		finally {
+			if (exemplarsEnabled) {
+				RequestExemplarContext.clear();
+			}
+		}
+	}
+
+	/**
+	 * 路由刷新后预注册新路由的Meter，已下线路由的Meter保留到重启，避免已有时间序列中断
+	 */
+	@Override
+	public void onApplicationEvent(RefreshRoutesEvent event) {
+		routeLocator.getRoutes()
+			.map(Route::getId)
+			.subscribe(routeId -> routeMeters.computeIfAbsent(routeId, RouteMeters::new),
+					e -> log.warn("预注册路由指标失败: {}", e.getMessage()));
+	}
+
+	private Map<Outcome, Timer> timers(String name, String routeId, String instance) {
+		Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+		for (Outcome outcome : Outcome.values()) {
+			Timer.Builder builder = Timer.builder(name)
+				.tag("route", routeId)
+				.tag("outcome", outcome.name())
+				.serviceLevelObjectives(sloBoundaries);
+			if (instance != null) {
+				builder.tag("instance", instance);
+			}
+			timers.put(outcome, builder.register(meterRegistry));
+		}
+		return timers;
+	}
+
+	private final class RouteMeters {
+
+		private final String routeId;
+
+		private final Map<Outcome, Timer> timers;
+
+		private final Map<String, Map<Outcome, Timer>> instances = new ConcurrentHashMap<>();
+
+		RouteMeters(String routeId) {
+			this.routeId = routeId;
+			this.timers = timers(METRIC_REQUESTS, routeId, null);
+		}
+
+		Map<Outcome, Timer> instance(String instance) {
+			Map<Outcome, Timer> instanceTimers = instances.get(instance);
+			if (instanceTimers == null) {
+				instanceTimers = instances.computeIfAbsent(instance,
+						key -> timers(METRIC_UPSTREAM_REQUESTS, routeId, key));
+			}
+			return instanceTimers;
+		}
+
+	}
+
+}
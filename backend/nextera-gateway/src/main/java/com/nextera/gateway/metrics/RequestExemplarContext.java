@@ -0,0 +1,51 @@
+package com.nextera.gateway.metrics;
+
+import io.prometheus.metrics.tracer.common.SpanContext;
+
+/**
+ * 为Prometheus直方图提供exemplar的上下文
+ * <p>
+ * 网关没有接入分布式追踪，记录指标前将请求ID绑定到当前线程，Prometheus采样exemplar时读取；
+ * trace_id 为 {@code X-Request-ID}（缺省时为网关请求ID），span_id 为网关请求ID。
+ *
+ * @author Nextera
+ */
+public class RequestExemplarContext implements SpanContext {
+
+	private static final ThreadLocal<String[]> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * 绑定当前线程的请求ID，必须与 {@link #clear()} 成对调用
+	 * @param traceId 请求链路ID
+	 * @param spanId 网关请求ID
+	 */
+	static void bind(String traceId, String spanId) {
+		CURRENT.set(new String[] { traceId, spanId });
+	}
+
+	static void clear() {
+		CURRENT.remove();
+	}
+
+	@Override
+	public String getCurrentTraceId() {
+		String[] current = CURRENT.get();
+		return current != null ? current[0] : null;
+	}
+
+	@Override
+	public String getCurrentSpanId() {
+		String[] current = CURRENT.get();
+		return current != null ? current[1] : null;
+	}
+
+	@Override
+	public boolean isCurrentSpanSampled() {
+		return CURRENT.get() != null;
+	}
+
+	@Override
+	public void markCurrentSpanAsExemplar() {
+	}
+
+}
@@ -0,0 +1,120 @@
+package com.nextera.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nextera.gateway.config.NexteraRateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分层令牌桶限流器
+ * <p>
+ * 每个 (层级, key) 对应一个本地 {@link LeasedTokenBucket}，令牌按批次从Redis全局桶租借，
+ * 正常情况下每 {@code leaseSize} 个请求才访问一次Redis。
+ *
+ * @author Nextera
+ */
+public class HierarchicalRateLimiter {
+
+	private static final String METRIC_REQUESTS = "nextera.gateway.ratelimit.requests";
+
+	private static final String METRIC_LEASES = "nextera.gateway.ratelimit.leases";
+
+	private static final String METRIC_RETURNED = "nextera.gateway.ratelimit.returned";
+
+	private final RedisTokenLeaser leaser;
+
+	private final NexteraRateLimitProperties properties;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Cache<String, LeasedTokenBucket> buckets;
+
+	private final Map<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+
+	private final Counter leaseCounter;
+
+	private final Counter returnedCounter;
+
+	public HierarchicalRateLimiter(RedisTokenLeaser leaser, NexteraRateLimitProperties properties,
+			MeterRegistry meterRegistry) {
+		this.leaser = leaser;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.buckets = Caffeine.newBuilder()
+			.maximumSize(properties.getMaxLocalBuckets())
+			.expireAfterAccess(properties.getBucketIdleTimeout())
+			.build();
+		this.leaseCounter = Counter.builder(METRIC_LEASES)
+			.description("Token batches leased from the Redis global buckets")
+			.register(meterRegistry);
+		this.returnedCounter = Counter.builder(METRIC_RETURNED)
+			.description("Expired leased tokens returned to the Redis global buckets")
+			.register(meterRegistry);
+		Gauge.builder("nextera.gateway.ratelimit.buckets", buckets, Cache::estimatedSize)
+			.description("Local token buckets currently held by this gateway instance")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 在指定层级获取一个令牌
+	 * @param routeId 路由ID
+	 * @param tier 限流层级
+	 * @param key 层级内的限流key（如IP、用户ID），路由层级传路由ID
+	 * @param rate 每秒填充速率
+	 * @param burst 桶容量
+	 * @return 是否放行
+	 */
+	public Mono<Boolean> tryAcquire(String routeId, RateLimitTier tier, String key, double rate, long burst) {
+		String bucketKey = tier.getTag() + ":" + routeId + ":" + key;
+		long capacity = Math.max(1, burst);
+		LeasedTokenBucket bucket = buckets.get(bucketKey,
+				k -> new LeasedTokenBucket(properties.getLeaseTtl().toNanos()));
+		long leaseSize = Math.min(properties.getLeaseSize(), capacity);
+		RouteMeters meters = routeMeters.computeIfAbsent(routeId, RouteMeters::new);
+		return bucket.acquire((requested, returned) -> {
+			leaseCounter.increment();
+			if (returned > 0) {
+				returnedCounter.increment(returned);
+			}
+			return leaser.lease(bucketKey, rate, capacity, requested, returned);
+		}, leaseSize, capacity, rate).doOnNext(allowed -> meters.record(tier, allowed));
+	}
+
+	/**
+	 * 按路由预注册的计数器，避免每个请求都按标签查找Meter
+	 */
+	private final class RouteMeters {
+
+		private final Map<RateLimitTier, Counter> allowed = new EnumMap<>(RateLimitTier.class);
+
+		private final Map<RateLimitTier, Counter> rejected = new EnumMap<>(RateLimitTier.class);
+
+		RouteMeters(String routeId) {
+			for (RateLimitTier tier : RateLimitTier.values()) {
+				allowed.put(tier, counter(routeId, tier, "allowed"));
+				rejected.put(tier, counter(routeId, tier, "rejected"));
+			}
+		}
+
+		private Counter counter(String routeId, RateLimitTier tier, String outcome) {
+			return Counter.builder(METRIC_REQUESTS)
+				.tag("route", routeId)
+				.tag("tier", tier.getTag())
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+		}
+
+		void record(RateLimitTier tier, boolean ok) {
+			(ok ? allowed : rejected).get(tier).increment();
+		}
+
+	}
+
+}
@@ -0,0 +1,185 @@
+package com.nextera.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地令牌桶，令牌按批次从Redis全局桶租借
+ * <p>
+ * 本地令牌耗尽时同一时刻只发起一次租借，其余请求加入同一次租借。租借数已满足申请、却被先到的等待者用完时，
+ * 说明全局桶仍有余量，未抢到的请求排入下一次租借，下一次按上一轮未满足的请求数放大申请量（不超过桶容量）；
+ * 只有全局桶给出的令牌少于申请数时才拒绝。
+ * <p>
+ * 租借到的令牌只在 {@code leaseTtl} 内有效，避免长时间囤积的令牌在之后形成突发流量；过期未用完的令牌在下一次租借时归还全局桶。
+ * 全局桶耗尽时在按当前速率填充一个令牌的时间内直接本地拒绝，不再访问Redis。
+ *
+ * @author Nextera
+ */
+final class LeasedTokenBucket {
+
+	/**
+	 * 同一请求最多参与的租借轮数，防止全局桶余量恰好被其他实例抢光时无限重试
+	 */
+	private static final int MAX_LEASE_ROUNDS = 3;
+
+	private final AtomicLong tokens = new AtomicLong();
+
+	private final long leaseTtlNanos;
+
+	private volatile long leaseDeadline;
+
+	private volatile long exhaustedUntil;
+
+	/**
+	 * 进行中的租借，受this保护
+	 */
+	private Lease pendingLease;
+
+	/**
+	 * 上一轮租借未满足的请求数，受this保护
+	 */
+	private long carriedDemand;
+
+	LeasedTokenBucket(long leaseTtlNanos) {
+		long now = System.nanoTime();
+		this.leaseTtlNanos = leaseTtlNanos;
+		this.leaseDeadline = now;
+		this.exhaustedUntil = now;
+	}
+
+	/**
+	 * 全局桶租借函数
+	 */
+	@FunctionalInterface
+	interface Leaser {
+
+		/**
+		 * @param requested 申请数量
+		 * @param returned 归还的过期令牌数
+		 * @return 实际租借到的令牌数
+		 */
+		Mono<Long> lease(long requested, long returned);
+
+	}
+
+	/**
+	 * 尝试从本地令牌中扣减一个
+	 * @param now 当前 {@link System#nanoTime()}
+	 * @return 是否扣减成功
+	 */
+	boolean tryAcquire(long now) {
+		if (now - leaseDeadline >= 0) {
+			return false;
+		}
+		long current;
+		do {
+			current = tokens.get();
+			if (current <= 0) {
+				return false;
+			}
+		}
+		while (!tokens.compareAndSet(current, current - 1));
+		return true;
+	}
+
+	/**
+	 * 获取一个令牌，本地不足时向全局桶租借
+	 * @param leaser 租借函数
+	 * @param leaseSize 每次租借的基础数量
+	 * @param capacity 桶容量，单次租借不超过该值
+	 * @param rate 当前每秒填充速率，用于计算全局桶耗尽后的退避时间
+	 * @return 是否获取成功
+	 */
+	Mono<Boolean> acquire(Leaser leaser, long leaseSize, long capacity, double rate) {
+		return acquire(leaser, leaseSize, capacity, rate, 1);
+	}
+
+	private Mono<Boolean> acquire(Leaser leaser, long leaseSize, long capacity, double rate, int round) {
+		long now = System.nanoTime();
+		if (tryAcquire(now)) {
+			return Mono.just(Boolean.TRUE);
+		}
+		if (now - exhaustedUntil < 0) {
+			return Mono.just(Boolean.FALSE);
+		}
+		Lease lease;
+		synchronized (this) {
+			if (pendingLease == null) {
+				long requested = Math.min(capacity, Math.max(leaseSize, carriedDemand));
+				carriedDemand = 0;
+				Lease created = new Lease(requested);
+				created.result = leaser.lease(requested, drainExpired(now))
+					.doOnNext(granted -> onLease(created, granted, rate))
+					.doFinally(signal -> clearPending(created))
+					.cache();
+				pendingLease = created;
+			}
+			lease = pendingLease;
+			lease.demand++;
+		}
+		return lease.result.flatMap(granted -> {
+			if (tryAcquire(System.nanoTime())) {
+				return Mono.just(Boolean.TRUE);
+			}
+			if (granted >= lease.requested && round < MAX_LEASE_ROUNDS) {
+				return acquire(leaser, leaseSize, capacity, rate, round + 1);
+			}
+			return Mono.just(Boolean.FALSE);
+		});
+	}
+
+	/**
+	 * 取出已过期的剩余令牌，随下一次租借归还，受this保护
+	 */
+	private long drainExpired(long now) {
+		return now - leaseDeadline >= 0 ? Math.max(0, tokens.getAndSet(0)) : 0;
+	}
+
+	/**
+	 * 在结果传给等待者之前结束本轮租借，未抢到令牌的等待者重新进入时发起新一轮租借
+	 */
+	private void onLease(Lease lease, long granted, double rate) {
+		long now = System.nanoTime();
+		synchronized (this) {
+			if (pendingLease == lease) {
+				pendingLease = null;
+			}
+			carriedDemand = Math.max(0, lease.demand - granted);
+			tokens.set(granted);
+			leaseDeadline = now + leaseTtlNanos;
+		}
+		if (granted <= 0) {
+			exhaustedUntil = now + (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+		}
+	}
+
+	private synchronized void clearPending(Lease lease) {
+		if (pendingLease == lease) {
+			pendingLease = null;
+		}
+	}
+
+	long availableTokens() {
+		return System.nanoTime() - leaseDeadline >= 0 ? 0 : Math.max(0, tokens.get());
+	}
+
+	/**
+	 * 一次租借及加入它的请求数
+	 */
+	private static final class Lease {
+
+		private final long requested;
+
+		private Mono<Long> result;
+
+		private long demand;
+
+		Lease(long requested) {
+			this.requested = requested;
+		}
+
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.nextera.gateway.ratelimit;
+
+/**
+ * 限流层级，按从细到粗的顺序依次检查
+ *
+ * @author Nextera
+ */
+public enum RateLimitTier {
+
+	/**
+	 * 按网关校验后的用户ID限流，匿名请求跳过
+	 */
+	USER("user"),
+
+	/**
+	 * 按客户端IP限流
+	 */
+	IP("ip"),
+
+	/**
+	 * 按路由整体限流
+	 */
+	ROUTE("route");
+
+	private final String tag;
+
+	RateLimitTier(String tag) {
+		this.tag = tag;
+	}
+
+	public String getTag() {
+		return tag;
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.nextera.gateway.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 从Redis全局令牌桶批量租借令牌
+ * <p>
+ * Redis不可用或超时时按申请数量放行（fail-open），与Spring Cloud Gateway自带的RedisRateLimiter行为一致。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class RedisTokenLeaser {
+
+	private static final RedisScript<Long> LEASE_SCRIPT = RedisScript
+		.of(new ClassPathResource("META-INF/scripts/nextera_token_lease.lua"), Long.class);
+
+	private final ReactiveStringRedisTemplate redisTemplate;
+
+	private final String keyPrefix;
+
+	private final Duration timeout;
+
+	public RedisTokenLeaser(ReactiveStringRedisTemplate redisTemplate, String keyPrefix, Duration timeout) {
+		this.redisTemplate = redisTemplate;
+		this.keyPrefix = keyPrefix;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * 租借令牌
+	 * @param key 限流key
+	 * @param rate 每秒填充速率
+	 * @param capacity 桶容量
+	 * @param requested 申请数量
+	 * @param returned 归还的过期未用令牌数，不超过桶容量
+	 * @return 实际租借到的令牌数
+	 */
+	public Mono<Long> lease(String key, double rate, long capacity, long requested, long returned) {
+		// 使用hash tag保证两个key落在同一个slot
+		String prefix = keyPrefix + "{" + key + "}";
+		List<String> keys = List.of(prefix + ".tokens", prefix + ".timestamp");
+		return redisTemplate
+			.execute(LEASE_SCRIPT, keys, List.of(String.valueOf(rate), String.valueOf(capacity), String.valueOf(requested),
+					String.valueOf(returned)))
+			.next()
+			.timeout(timeout)
+			.defaultIfEmpty(requested)
+			.onErrorResume(e -> {
+				log.warn("Rate limit lease failed, fail open for key {}: {}", key, e.getMessage());
+				return Mono.just(requested);
+			});
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.nextera.gateway.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * 基于 {@link RouteIndex} 查找路由的处理器映射
+ * <p>
+ * 路由（gateway.yml静态路由与 {@code NexteraDiscoveryClientRouteDefinitionLocator} 发现的服务路由）
+ * 刷新完成后重建索引并原子替换；索引构建完成前以及构建失败时退回逐个路由匹配。
+ *
+ * @author Nextera
+ */
+@Slf4j
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+		implements ApplicationListener<RefreshRoutesResultEvent> {
+
+	private final RouteLocator routeLocator;
+
+	private final RouteDefinitionLocator routeDefinitionLocator;
+
+	private volatile RouteIndex index;
+
+	public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+			RouteDefinitionLocator routeDefinitionLocator, GlobalCorsProperties globalCorsProperties,
+			Environment environment) {
+		super(webHandler, routeLocator, globalCorsProperties, environment);
+		this.routeLocator = routeLocator;
+		this.routeDefinitionLocator = routeDefinitionLocator;
+	}
+
+	@Override
+	protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+		RouteIndex current = index;
+		if (current == null) {
+			return super.lookupRoute(exchange);
+		}
+		return current.candidates(exchange.getRequest().getPath().pathWithinApplication())
+			.concatMap(route -> Mono.just(route).filterWhen(r -> {
+				exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+				return r.getPredicate().apply(exchange);
+			}).doOnError(e -> log.error("Error applying predicate for route: " + route.getId(), e))
+				.onErrorResume(e -> Mono.empty()))
+			.next()
+			.map(route -> {
+				validateRoute(route, exchange);
+				return route;
+			});
+	}
+
+	/**
+	 * 路由缓存刷新完成后重建索引，刷新失败时保留原索引
+	 */
+	@Override
+	public void onApplicationEvent(RefreshRoutesResultEvent event) {
+		if (!event.isSuccess()) {
+			return;
+		}
+		Mono.zip(routeLocator.getRoutes().collectList(),
+				routeDefinitionLocator.getRouteDefinitions().collectMap(RouteDefinition::getId))
+			.map(tuple -> RouteIndex.build(tuple.getT1(), tuple.getT2()))
+			.subscribe(built -> {
+				index = built;
+				log.debug("Route index rebuilt with {} routes", built.size());
+			}, e -> {
+				index = null;
+				log.warn("Failed to build route index, falling back to sequential matching: {}", e.getMessage());
+			});
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.nextera.gateway.route;
+
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.http.server.PathContainer;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路由匹配索引：按Path断言的字面量前缀构建的前缀树
+ * <p>
+ * 每个Path模式取第一个含通配符或路径变量的段之前的字面量段作为前缀插入前缀树，
+ * 没有Path断言或模式无法解析的路由作为“总是候选”。每个节点预先合并自身、祖先节点与“总是候选”的路由下标，
+ * 查找时沿请求路径走到最深的节点即得到有序候选列表，耗时只与路径段数有关。
+ * 候选路由仍需完整执行断言，索引只负责剪枝，不改变路由的匹配顺序与语义。
+ * <p>
+ * 实例不可变，路由刷新时整体重建后替换。
+ *
+ * @author Nextera
+ */
+public final class RouteIndex {
+
+	static final String PATH_PREDICATE = "Path";
+
+	private final List<Route> routes;
+
+	private final Node root;
+
+	private RouteIndex(List<Route> routes, Node root) {
+		this.routes = routes;
+		this.root = root;
+	}
+
+	/**
+	 * 构建索引
+	 * @param routes 按顺序排列的路由
+	 * @param definitions 路由定义，按路由ID查找Path断言；找不到定义的路由（如Java DSL路由）作为总是候选
+	 * @return 路由索引
+	 */
+	public static RouteIndex build(List<Route> routes, Map<String, RouteDefinition> definitions) {
+		Node root = new Node();
+		BitSet always = new BitSet(routes.size());
+		for (int i = 0; i < routes.size(); i++) {
+			List<String[]> prefixes = literalPrefixes(definitions.get(routes.get(i).getId()));
+			if (prefixes == null) {
+				always.set(i);
+				continue;
+			}
+			for (String[] prefix : prefixes) {
+				Node node = root;
+				for (String segment : prefix) {
+					node = node.children.computeIfAbsent(segment, key -> new Node());
+				}
+				node.own.set(i);
+			}
+		}
+		root.seal(always);
+		return new RouteIndex(List.copyOf(routes), root);
+	}
+
+	/**
+	 * 按请求路径返回候选路由，顺序与路由顺序一致
+	 * @param path 应用内请求路径
+	 * @return 候选路由
+	 */
+	public Flux<Route> candidates(PathContainer path) {
+		int[] positions = lookup(path);
+		return Flux.range(0, positions.length).map(i -> routes.get(positions[i]));
+	}
+
+	int[] lookup(PathContainer path) {
+		Node node = root;
+		for (PathContainer.Element element : path.elements()) {
+			if (element instanceof PathContainer.PathSegment segment) {
+				Node child = node.children.get(segment.valueToMatch());
+				if (child == null) {
+					break;
+				}
+				node = child;
+			}
+		}
+		return node.candidates;
+	}
+
+	public int size() {
+		return routes.size();
+	}
+
+	/**
+	 * 提取路由第一个Path断言中各模式的字面量前缀段
+	 * @return 字面量前缀段列表，路由不可索引时返回null
+	 */
+	static List<String[]> literalPrefixes(RouteDefinition definition) {
+		if (definition == null) {
+			return null;
+		}
+		for (PredicateDefinition predicate : definition.getPredicates()) {
+			if (!PATH_PREDICATE.equals(predicate.getName())) {
+				continue;
+			}
+			List<String[]> prefixes = new ArrayList<>();
+			for (Map.Entry<String, String> arg : predicate.getArgs().entrySet()) {
+				if (arg.getKey().startsWith("match")) {
+					continue;
+				}
+				if (arg.getValue() == null) {
+					return null;
+				}
+				// 完整写法 patterns: /a/**,/b/** 的多个模式以逗号分隔
+				for (String value : arg.getValue().split(",")) {
+					String pattern = value.trim();
+					if (!pattern.startsWith("/")) {
+						return null;
+					}
+					prefixes.add(literalPrefix(pattern));
+				}
+			}
+			return prefixes.isEmpty() ? null : prefixes;
+		}
+		return null;
+	}
+
+	private static String[] literalPrefix(String pattern) {
+		List<String> segments = new ArrayList<>();
+		for (String segment : pattern.split("/")) {
+			if (segment.isEmpty()) {
+				continue;
+			}
+			if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0) {
+				break;
+			}
+			segments.add(segment);
+		}
+		return segments.toArray(String[]::new);
+	}
+
+	private static final class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+
+		private final BitSet own = new BitSet();
+
+		private int[] candidates;
+
+		/**
+		 * 自顶向下合并祖先节点的路由下标，得到每个节点的有序候选列表
+		 */
+		private void seal(BitSet inherited) {
+			BitSet merged = (BitSet) inherited.clone();
+			merged.or(own);
+			candidates = merged.stream().toArray();
+			for (Node child : children.values()) {
+				child.seal(merged);
+			}
+		}
+
+	}
+
+}
@@ -1,5 +1,7 @@
 package com.nextera.gateway.utils;
 
+import java.util.Arrays;
+
 /**
  * @author Scout
  * @date 2025-06-16 17:40
@@ -7,14 +9,54 @@ package com.nextera.gateway.utils;
  */
 public final class Knife4jUtil {
 
+    /**
+     * knife4j 资源标记，路径中任意位置出现即视为文档资源
+     */
+    private static final String[] MARKERS = {"/doc.html", "/v3/api-docs", "/webjars/", "/swagger-resources", "/swagger-ui"};
+
+    private static final String FAVICON = "/favicon.ico";
+
+    /**
+     * 按 '/' 之后的首字符预先分组的标记，匹配时只需在每个 '/' 处比较首字符相同的标记
+     */
+    private static final String[][] MARKERS_BY_CHAR = new String[128][];
+
+    static {
+        for (String marker : MARKERS) {
+            char c = marker.charAt(1);
+            String[] current = MARKERS_BY_CHAR[c];
+            String[] next = current == null ? new String[1] : Arrays.copyOf(current, current.length + 1);
+            next[next.length - 1] = marker;
+            MARKERS_BY_CHAR[c] = next;
+        }
+    }
+
+    private Knife4jUtil() {
+    }
+
+    /**
+     * 判断是否为 knife4j 文档资源，语义等同于对每个标记做 {@code path.contains(marker)}，但不产生任何分配
+     */
     public static boolean isKnife4jResource(String path) {
-        return path != null && (
-                path.contains("/doc.html") ||
-                        path.contains("/v3/api-docs") ||
-                        path.contains("/webjars/") ||
-                        path.contains("/swagger-resources") ||
-                        path.contains("/swagger-ui") ||
-                        path.equals("/favicon.ico")
-        );
+        if (path == null) {
+            return false;
+        }
+        if (path.equals(FAVICON)) {
+            return true;
+        }
+        int len = path.length();
+        for (int i = path.indexOf('/'); i >= 0 && i + 1 < len; i = path.indexOf('/', i + 1)) {
+            char c = path.charAt(i + 1);
+            String[] candidates = c < 128 ? MARKERS_BY_CHAR[c] : null;
+            if (candidates == null) {
+                continue;
+            }
+            for (String marker : candidates) {
+                if (path.startsWith(marker, i)) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.nextera.gateway.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.core.Result;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 网关直接响应工具类，用于在过滤器中短路返回统一的Result结构
+ *
+ * @author Nextera
+ */
+@Slf4j
+public final class ResponseUtil {
+
+	private ResponseUtil() {
+	}
+
+	/**
+	 * 写出JSON格式的Result响应
+	 * @param exchange 当前服务器交换对象
+	 * @param status HTTP状态码
+	 * @param result 响应体
+	 * @param objectMapper 对象映射器
+	 * @return {@code Mono<Void>} 表示响应写出完成
+	 */
+	public static Mono<Void> writeResult(ServerWebExchange exchange, HttpStatus status, Result<?> result,
+			ObjectMapper objectMapper) {
+		ServerHttpResponse response = exchange.getResponse();
+		if (response.isCommitted()) {
+			return Mono.empty();
+		}
+		response.setStatusCode(status);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		byte[] body;
+		try {
+			body = objectMapper.writeValueAsBytes(result);
+		}
+		catch (JsonProcessingException e) {
+			log.error("Error writing response", e);
+			body = new byte[0];
+		}
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+	}
+
+}
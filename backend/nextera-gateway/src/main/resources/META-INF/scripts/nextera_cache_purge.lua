@@ -0,0 +1,29 @@
+-- 响应缓存按路径前缀清除脚本，前缀只在路径段边界上匹配：清除 /article/1 时保留 /article/10
+-- KEYS[1] 路由缓存索引（有序集合，分数为过期时间）
+-- ARGV[1] 路由缓存key前缀  ARGV[2] 索引成员前缀，为空时清除整个路由  ARGV[3] 清除通知频道  ARGV[4] 清除通知内容
+-- 返回清除的缓存key数量
+local index_key = KEYS[1]
+local key_prefix = ARGV[1]
+local prefix = ARGV[2]
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+redis.call('zremrangebyscore', index_key, '-inf', now)
+
+local plen = string.len(prefix)
+local last = string.sub(prefix, plen, plen)
+local removed = 0
+for _, member in ipairs(redis.call('zrange', index_key, 0, -1)) do
+  local matched = plen == 0
+  if not matched and string.sub(member, 1, plen) == prefix then
+    local next_char = string.sub(member, plen + 1, plen + 1)
+    matched = next_char == '' or next_char == '/' or next_char == '?' or next_char == '|' or last == '/'
+  end
+  if matched then
+    removed = removed + redis.call('del', key_prefix .. member)
+    redis.call('zrem', index_key, member)
+  end
+end
+
+redis.call('publish', ARGV[3], ARGV[4])
+return removed
@@ -0,0 +1,20 @@
+-- 响应缓存写入脚本，同时登记到路由的缓存索引，按前缀清除时只遍历索引而不扫描整个keyspace
+-- KEYS[1] 缓存key  KEYS[2] 路由缓存索引（有序集合，分数为过期时间）
+-- ARGV[1] 缓存内容  ARGV[2] 缓存毫秒数  ARGV[3] 索引成员（缓存key去掉路由部分）
+local cache_key = KEYS[1]
+local index_key = KEYS[2]
+
+local ttl = tonumber(ARGV[2])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+redis.call('set', cache_key, ARGV[1], 'PX', ttl)
+redis.call('zadd', index_key, now + ttl, ARGV[3])
+-- 顺带清理已过期的索引成员，索引的生存时间不短于其中最晚过期的缓存
+redis.call('zremrangebyscore', index_key, '-inf', now)
+if redis.call('pttl', index_key) < ttl then
+  redis.call('pexpire', index_key, ttl)
+end
+
+return 1
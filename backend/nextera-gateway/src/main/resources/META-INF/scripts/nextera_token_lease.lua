@@ -0,0 +1,37 @@
+-- 令牌桶批量租借脚本
+-- KEYS[1] 剩余令牌数  KEYS[2] 上次填充时间
+-- ARGV[1] 每秒填充速率  ARGV[2] 桶容量  ARGV[3] 本次申请租借的令牌数  ARGV[4] 归还的过期未用令牌数
+-- 返回实际租借到的令牌数
+local tokens_key = KEYS[1]
+local timestamp_key = KEYS[2]
+
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+local returned = tonumber(ARGV[4]) or 0
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) + tonumber(time[2]) / 1000000
+
+local fill_time = capacity / rate
+local ttl = math.max(1, math.ceil(fill_time * 2))
+
+local last_tokens = tonumber(redis.call('get', tokens_key))
+if last_tokens == nil then
+  last_tokens = capacity
+end
+
+local last_refreshed = tonumber(redis.call('get', timestamp_key))
+if last_refreshed == nil then
+  last_refreshed = 0
+end
+
+local delta = math.max(0, now - last_refreshed)
+local filled_tokens = math.min(capacity, last_tokens + (delta * rate) + returned)
+local granted = math.min(requested, math.floor(filled_tokens))
+local new_tokens = filled_tokens - granted
+
+redis.call('setex', tokens_key, ttl, tostring(new_tokens))
+redis.call('setex', timestamp_key, ttl, tostring(now))
+
+return granted
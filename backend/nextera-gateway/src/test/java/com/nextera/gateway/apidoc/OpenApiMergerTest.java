@@ -0,0 +1,73 @@
+package com.nextera.gateway.apidoc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OpenAPI文档合并测试
+ *
+ * @author Nextera
+ */
+@DisplayName("OpenAPI文档合并测试")
+public class OpenApiMergerTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	@DisplayName("路径加服务名前缀，同名模型按服务区分并改写引用")
+	void shouldPrefixPathsAndComponents() throws Exception {
+		Map<String, JsonNode> docs = new LinkedHashMap<>();
+		docs.put("nextera-user", objectMapper.readTree("""
+				{"paths":{"/user/{id}":{"get":{"responses":{"200":{"content":{"application/json":
+				{"schema":{"$ref":"#/components/schemas/Result"}}}}}}}},
+				"components":{"schemas":{"Result":{"type":"object"}}},
+				"tags":[{"name":"用户"}]}
+				"""));
+		docs.put("nextera-article", objectMapper.readTree("""
+				{"paths":{"/article/list":{"get":{"responses":{"200":{"content":{"application/json":
+				{"schema":{"type":"array","items":{"$ref":"#/components/schemas/Result"}}}}}}}}},
+				"components":{"schemas":{"Result":{"type":"object","title":"article"}}},
+				"tags":[{"name":"文章"},{"name":"用户"}]}
+				"""));
+
+		JsonNode merged = OpenApiMerger.merge("Nextera API", docs, objectMapper);
+
+		assertEquals("Nextera API", merged.at("/info/title").asText());
+		assertEquals("#/components/schemas/nextera-user.Result", merged.path("paths")
+			.path("/nextera-user/user/{id}")
+			.at("/get/responses/200/content/application~1json/schema/$ref")
+			.asText());
+		assertEquals("#/components/schemas/nextera-article.Result", merged.path("paths")
+			.path("/nextera-article/article/list")
+			.at("/get/responses/200/content/application~1json/schema/items/$ref")
+			.asText());
+		assertEquals("article", merged.at("/components/schemas/nextera-article.Result/title").asText());
+		assertTrue(merged.at("/components/schemas/nextera-user.Result").isObject());
+		assertEquals(2, merged.path("tags").size());
+	}
+
+	@Test
+	@DisplayName("ETag由内容决定，支持多个值与弱校验")
+	void shouldMatchEtag() {
+		ApiDocument document = ApiDocument.of("{}".getBytes(StandardCharsets.UTF_8));
+		assertEquals(document.etag(), ApiDocument.of("{}".getBytes(StandardCharsets.UTF_8)).etag());
+		assertNotEquals(document.etag(), ApiDocument.of("{ }".getBytes(StandardCharsets.UTF_8)).etag());
+
+		assertTrue(document.matches(document.etag()));
+		assertTrue(document.matches("\"other\", W/" + document.etag()));
+		assertTrue(document.matches("*"));
+		assertFalse(document.matches("\"other\""));
+		assertFalse(document.matches(null));
+		assertTrue(document.markStale().stale());
+		assertEquals(document.etag(), document.markStale().etag());
+	}
+
+}
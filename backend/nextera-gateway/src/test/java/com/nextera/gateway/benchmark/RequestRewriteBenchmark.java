@@ -0,0 +1,116 @@
+package com.nextera.gateway.benchmark;
+
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.gateway.filter.RequestRewritePlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * NexteraRequestGlobalFilter 路径重写基准测试
+ * <p>
+ * legacy* 为重写前的实现（tokenizeToStringArray + Stream拼接 + 三次mutate），plan* 为预编译计划实现。
+ * 运行 {@link #main(String[])} 并查看 {@code gc.alloc.rate.norm}（B/op）即每个请求的分配字节数。
+ *
+ * @author Nextera
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestRewriteBenchmark {
+
+	@Param({ "/api/article/detail/1024", "/api//user/profile/", "/nextera-article/v3/api-docs" })
+	public String path;
+
+	private ServerHttpRequest request;
+
+	private final RequestRewritePlan plan = RequestRewritePlan.IDENTITY;
+
+	@Setup
+	public void setUp() {
+		request = MockServerHttpRequest.get("http://localhost:7000" + path).header(CommonConstants.FROM, "Y").build();
+	}
+
+	@Benchmark
+	public String legacyPath() {
+		if (legacyIsKnife4jResource(path)) {
+			return path;
+		}
+		return "/" + Arrays.stream(StringUtils.tokenizeToStringArray(path, "/")).collect(Collectors.joining("/"));
+	}
+
+	@Benchmark
+	public String planPath() {
+		return plan.rewrite(path);
+	}
+
+	@Benchmark
+	public ServerHttpRequest legacyRequest() {
+		ServerHttpRequest mutated = request.mutate().headers(httpHeaders -> {
+			httpHeaders.remove(CommonConstants.FROM);
+			httpHeaders.put(CommonConstants.REQUEST_START_TIME,
+					Collections.singletonList(String.valueOf(System.currentTimeMillis())));
+		}).build();
+		String rawPath = mutated.getURI().getRawPath();
+		String newPath = rawPath;
+		if (!legacyIsKnife4jResource(rawPath)) {
+			newPath = "/" + Arrays.stream(StringUtils.tokenizeToStringArray(rawPath, "/"))
+				.collect(Collectors.joining("/"));
+		}
+		ServerHttpRequest newRequest = mutated.mutate().path(newPath).build();
+		newRequest.getURI();
+		return newRequest.mutate().build();
+	}
+
+	@Benchmark
+	public ServerHttpRequest planRequest() {
+		String rawPath = request.getURI().getRawPath();
+		String newPath = plan.rewrite(rawPath);
+		ServerHttpRequest.Builder builder = request.mutate().headers(httpHeaders -> {
+			httpHeaders.remove(CommonConstants.FROM);
+			httpHeaders.set(CommonConstants.REQUEST_START_TIME, String.valueOf(System.currentTimeMillis()));
+		});
+		if (!newPath.equals(rawPath)) {
+			builder.path(newPath);
+		}
+		ServerHttpRequest newRequest = builder.build();
+		newRequest.getURI();
+		return newRequest;
+	}
+
+	private static boolean legacyIsKnife4jResource(String path) {
+		return path != null && (path.contains("/doc.html") || path.contains("/v3/api-docs")
+				|| path.contains("/webjars/") || path.contains("/swagger-resources") || path.contains("/swagger-ui")
+				|| path.equals("/favicon.ico"));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RequestRewriteBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.build()).run();
+	}
+
+}
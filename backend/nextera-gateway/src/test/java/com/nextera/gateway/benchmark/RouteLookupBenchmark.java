@@ -0,0 +1,141 @@
+package com.nextera.gateway.benchmark;
+
+import com.nextera.gateway.route.RouteIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路由查找基准测试
+ * <p>
+ * sequential* 为Spring Cloud Gateway默认的逐个路由执行断言，indexed* 为 {@link RouteIndex} 剪枝后执行断言。
+ * 路由模式为 {@code /api/svc{i}/**}，first/last分别请求第一个和最后一个路由，miss请求不存在的路由。
+ *
+ * @author Nextera
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteLookupBenchmark {
+
+	@Param({ "100", "1000", "5000" })
+	public int routeCount;
+
+	private List<Route> routes;
+
+	private RouteIndex index;
+
+	private ServerWebExchange first;
+
+	private ServerWebExchange last;
+
+	private ServerWebExchange miss;
+
+	@Setup
+	public void setUp() {
+		PathRoutePredicateFactory factory = new PathRoutePredicateFactory();
+		routes = new ArrayList<>(routeCount);
+		Map<String, RouteDefinition> definitions = new HashMap<>();
+		for (int i = 0; i < routeCount; i++) {
+			String id = "svc" + i;
+			String pattern = "/api/" + id + "/**";
+			PathRoutePredicateFactory.Config config = new PathRoutePredicateFactory.Config();
+			config.setPatterns(List.of(pattern));
+			routes.add(Route.async()
+				.id(id)
+				.uri(URI.create("lb://" + id))
+				.order(i)
+				.asyncPredicate(factory.applyAsync(config))
+				.build());
+			RouteDefinition definition = new RouteDefinition();
+			definition.setId(id);
+			definition.setPredicates(List.of(new PredicateDefinition("Path=" + pattern)));
+			definitions.put(id, definition);
+		}
+		index = RouteIndex.build(routes, definitions);
+		first = exchange("/api/svc0/articles/42");
+		last = exchange("/api/svc" + (routeCount - 1) + "/articles/42");
+		miss = exchange("/api/unknown/articles/42");
+	}
+
+	@Benchmark
+	public Route sequentialFirst() {
+		return lookup(Flux.fromIterable(routes), first);
+	}
+
+	@Benchmark
+	public Route sequentialLast() {
+		return lookup(Flux.fromIterable(routes), last);
+	}
+
+	@Benchmark
+	public Route sequentialMiss() {
+		return lookup(Flux.fromIterable(routes), miss);
+	}
+
+	@Benchmark
+	public Route indexedFirst() {
+		return lookup(index.candidates(first.getRequest().getPath().pathWithinApplication()), first);
+	}
+
+	@Benchmark
+	public Route indexedLast() {
+		return lookup(index.candidates(last.getRequest().getPath().pathWithinApplication()), last);
+	}
+
+	@Benchmark
+	public Route indexedMiss() {
+		return lookup(index.candidates(miss.getRequest().getPath().pathWithinApplication()), miss);
+	}
+
+	/**
+	 * 与RoutePredicateHandlerMapping#lookupRoute相同的断言执行方式
+	 */
+	private static Route lookup(Flux<Route> candidates, ServerWebExchange exchange) {
+		return candidates.concatMap(route -> Mono.just(route).filterWhen(r -> r.getPredicate().apply(exchange)))
+			.next()
+			.block();
+	}
+
+	private static ServerWebExchange exchange(String path) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost:7000" + path));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RouteLookupBenchmark.class.getSimpleName())
+			.addProfiler(GCProfiler.class)
+			.build()).run();
+	}
+
+}
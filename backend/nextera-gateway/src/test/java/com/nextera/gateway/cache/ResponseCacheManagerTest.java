@@ -0,0 +1,45 @@
+package com.nextera.gateway.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 响应缓存前缀清除测试
+ *
+ * @author Nextera
+ */
+@DisplayName("响应缓存前缀清除测试")
+public class ResponseCacheManagerTest {
+
+	@Test
+	@DisplayName("前缀只在路径段边界上匹配")
+	void shouldMatchOnSegmentBoundary() {
+		String prefix = "nextera-article:/1";
+
+		assertTrue(ResponseCacheManager.matchesPrefix("nextera-article:/1", prefix));
+		assertTrue(ResponseCacheManager.matchesPrefix("nextera-article:/1?page=2", prefix));
+		assertTrue(ResponseCacheManager.matchesPrefix("nextera-article:/1|e=gzip", prefix));
+		assertTrue(ResponseCacheManager.matchesPrefix("nextera-article:/1/comments", prefix));
+		assertFalse(ResponseCacheManager.matchesPrefix("nextera-article:/10", prefix));
+		assertFalse(ResponseCacheManager.matchesPrefix("nextera-article:/10/comments", prefix));
+		assertFalse(ResponseCacheManager.matchesPrefix("nextera-user:/1", prefix));
+	}
+
+	@Test
+	@DisplayName("以斜杠结尾的前缀匹配其下所有路径")
+	void shouldMatchChildrenOfTrailingSlash() {
+		assertTrue(ResponseCacheManager.matchesPrefix("nextera-article:/list/hot", "nextera-article:/list/"));
+		assertFalse(ResponseCacheManager.matchesPrefix("nextera-article:/listing", "nextera-article:/list/"));
+	}
+
+	@Test
+	@DisplayName("只有路由ID的前缀匹配整个路由")
+	void shouldMatchWholeRoute() {
+		assertTrue(ResponseCacheManager.matchesPrefix("nextera-article:/1", "nextera-article"));
+		assertTrue(ResponseCacheManager.matchesPrefix("nextera-article:/1", "nextera-article:"));
+		assertFalse(ResponseCacheManager.matchesPrefix("nextera-article-v2:/1", "nextera-article"));
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.nextera.gateway.circuitbreaker;
+
+import com.nextera.gateway.config.NexteraCircuitBreakerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实例熔断器注册表测试
+ *
+ * @author Nextera
+ */
+@DisplayName("实例熔断器注册表测试")
+public class InstanceCircuitBreakerRegistryTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final InstanceCircuitBreakerRegistry registry = new InstanceCircuitBreakerRegistry(
+			new NexteraCircuitBreakerProperties(), meterRegistry);
+
+	@Test
+	@DisplayName("按路由与实例地址区分熔断器，同一地址的不同实例对象共用熔断器")
+	void shouldKeyByRouteAndAddress() {
+		InstanceCircuitBreaker breaker = registry.get("article", instance("a1", "10.0.0.1", 8080));
+
+		assertSame(breaker, registry.get("article", instance("a1-restarted", "10.0.0.1", 8080)));
+		assertNotSame(breaker, registry.get("article", instance("a2", "10.0.0.2", 8080)));
+		assertNotSame(breaker, registry.get("user", instance("a1", "10.0.0.1", 8080)));
+	}
+
+	@Test
+	@DisplayName("熔断打开后拒绝调用并计入指标，状态指标为2")
+	void shouldRejectWhenOpen() {
+		ServiceInstance instance = instance("a1", "10.0.0.1", 8080);
+		InstanceCircuitBreaker breaker = registry.tryAcquire("article", instance);
+		assertNotNull(breaker);
+		assertEquals(0.0, gauge());
+
+		for (int i = 0; i < 10; i++) {
+			breaker.onResult(0, true);
+		}
+
+		assertNull(registry.tryAcquire("article", instance));
+		assertNull(registry.tryAcquire("article", instance));
+		assertEquals(2.0, meterRegistry
+			.counter("nextera.gateway.circuitbreaker.rejected", "route", "article", "instance", "10.0.0.1:8080")
+			.count());
+		assertEquals(2.0, gauge());
+	}
+
+	private double gauge() {
+		return meterRegistry.get("nextera.gateway.circuitbreaker.state")
+			.tags("route", "article", "instance", "10.0.0.1:8080")
+			.gauge()
+			.value();
+	}
+
+	private static ServiceInstance instance(String id, String host, int port) {
+		return new DefaultServiceInstance(id, "nextera-article", host, port, false);
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.nextera.gateway.circuitbreaker;
+
+import com.nextera.gateway.config.NexteraCircuitBreakerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实例熔断器测试
+ *
+ * @author Nextera
+ */
+@DisplayName("实例熔断器测试")
+public class InstanceCircuitBreakerTest {
+
+	private static final long FAST = Duration.ofMillis(10).toNanos();
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private InstanceCircuitBreaker breaker;
+
+	@BeforeEach
+	void setUp() {
+		NexteraCircuitBreakerProperties properties = new NexteraCircuitBreakerProperties();
+		properties.setWindowSize(4);
+		properties.setMinimumCalls(4);
+		properties.setFailureRateThreshold(50);
+		properties.setSlowCallDuration(Duration.ofSeconds(1));
+		properties.setOpenDuration(Duration.ofSeconds(10));
+		properties.setHalfOpenPermits(2);
+		breaker = new InstanceCircuitBreaker(properties, clock::get);
+	}
+
+	@Test
+	@DisplayName("调用数达到minimum-calls且失败率达到阈值时打开")
+	void shouldOpenWhenFailureRateReached() {
+		breaker.onResult(FAST, false);
+		breaker.onResult(FAST, false);
+		breaker.onResult(FAST, true);
+		assertEquals(InstanceCircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker.onResult(FAST, true);
+
+		assertEquals(InstanceCircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.isAvailable());
+		assertFalse(breaker.tryAcquirePermission());
+		assertEquals(Duration.ofSeconds(10).toNanos(), breaker.remainingOpenNanos());
+	}
+
+	@Test
+	@DisplayName("慢调用计为失败，窗口外的旧失败不再计入")
+	void shouldCountSlowCallsInSlidingWindow() {
+		breaker.onResult(FAST, true);
+		for (int i = 0; i < 4; i++) {
+			breaker.onResult(FAST, false);
+		}
+		// 最早的失败已滑出窗口，慢调用计为失败：1/4
+		breaker.onResult(Duration.ofSeconds(1).toNanos(), false);
+		assertEquals(InstanceCircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker.onResult(Duration.ofSeconds(2).toNanos(), false);
+		assertEquals(InstanceCircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	@DisplayName("打开到期后转为半开，只放行half-open-permits个探测请求，全部成功后关闭")
+	void shouldCloseAfterSuccessfulProbes() {
+		open();
+		clock.addAndGet(Duration.ofSeconds(9).toNanos());
+		assertFalse(breaker.isAvailable());
+		assertFalse(breaker.tryAcquirePermission());
+
+		clock.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertTrue(breaker.isAvailable());
+		assertTrue(breaker.tryAcquirePermission());
+		assertEquals(InstanceCircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquirePermission());
+		assertFalse(breaker.tryAcquirePermission());
+		assertFalse(breaker.isAvailable());
+
+		breaker.onResult(FAST, false);
+		assertEquals(InstanceCircuitBreaker.State.HALF_OPEN, breaker.getState());
+		breaker.onResult(FAST, false);
+
+		assertEquals(InstanceCircuitBreaker.State.CLOSED, breaker.getState());
+		assertTrue(breaker.tryAcquirePermission());
+		// 关闭后重新开始统计，一次失败不会立即打开
+		breaker.onResult(FAST, true);
+		assertEquals(InstanceCircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	@DisplayName("探测请求失败时重新打开")
+	void shouldReopenWhenProbeFails() {
+		open();
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertTrue(breaker.tryAcquirePermission());
+
+		breaker.onResult(FAST, true);
+
+		assertEquals(InstanceCircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquirePermission());
+		assertEquals(Duration.ofSeconds(10).toNanos(), breaker.remainingOpenNanos());
+	}
+
+	@Test
+	@DisplayName("被取消的探测请求归还名额")
+	void shouldReturnPermitWhenProbeIgnored() {
+		open();
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertTrue(breaker.tryAcquirePermission());
+		assertTrue(breaker.tryAcquirePermission());
+		assertFalse(breaker.tryAcquirePermission());
+
+		breaker.onIgnored();
+
+		assertTrue(breaker.tryAcquirePermission());
+		breaker.onIgnored();
+		breaker.onIgnored();
+		breaker.onIgnored();
+		// 归还的名额不超过half-open-permits
+		assertTrue(breaker.tryAcquirePermission());
+		assertTrue(breaker.tryAcquirePermission());
+		assertFalse(breaker.tryAcquirePermission());
+	}
+
+	private void open() {
+		for (int i = 0; i < 4; i++) {
+			breaker.onResult(FAST, true);
+		}
+		assertEquals(InstanceCircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.nextera.gateway.compression;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 响应压缩编码协商测试
+ *
+ * @author Nextera
+ */
+@DisplayName("响应压缩编码协商测试")
+public class ContentCodingTest {
+
+	private static final List<ContentCoding> ALL = List.of(ContentCoding.GZIP, ContentCoding.DEFLATE);
+
+	@Test
+	@DisplayName("按q值从高到低排列，q值相同时gzip优先")
+	void shouldOrderByQuality() {
+		assertEquals(ALL, ContentCoding.acceptable("deflate, gzip"));
+		assertEquals(List.of(ContentCoding.DEFLATE, ContentCoding.GZIP),
+				ContentCoding.acceptable("gzip;q=0.5, deflate"));
+		assertEquals(ALL, ContentCoding.acceptable(" GZIP ; q=0.9 , Deflate;q=0.8"));
+	}
+
+	@Test
+	@DisplayName("q=0表示不接受该编码")
+	void shouldExcludeZeroQuality() {
+		assertEquals(List.of(ContentCoding.DEFLATE), ContentCoding.acceptable("gzip;q=0, deflate"));
+		assertEquals(List.of(), ContentCoding.acceptable("gzip;q=0, deflate;q=0.0"));
+		assertEquals(List.of(ContentCoding.DEFLATE), ContentCoding.acceptable("gzip;q=abc, deflate"));
+	}
+
+	@Test
+	@DisplayName("通配符只作用于未显式声明的编码")
+	void shouldApplyWildcardToUnlistedCodings() {
+		assertEquals(ALL, ContentCoding.acceptable("*"));
+		assertEquals(List.of(), ContentCoding.acceptable("*;q=0"));
+		assertEquals(List.of(ContentCoding.GZIP), ContentCoding.acceptable("deflate;q=0, *"));
+		assertEquals(List.of(ContentCoding.DEFLATE), ContentCoding.acceptable("deflate, *;q=0"));
+		assertEquals(ALL, ContentCoding.acceptable("deflate;q=0.5, *;q=0.8"));
+	}
+
+	@Test
+	@DisplayName("缺少Accept-Encoding或只接受不支持的编码时不压缩")
+	void shouldNotCompressWithoutAcceptableCoding() {
+		assertEquals(List.of(), ContentCoding.acceptable(null));
+		assertEquals(List.of(), ContentCoding.acceptable(" "));
+		assertEquals(List.of(), ContentCoding.acceptable("identity, br"));
+		assertNull(ContentCoding.negotiate("br", ALL));
+	}
+
+	@Test
+	@DisplayName("协商结果限定在路由允许的编码内")
+	void shouldNegotiateWithinEnabledCodings() {
+		assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip, deflate", ALL));
+		assertEquals(ContentCoding.DEFLATE,
+				ContentCoding.negotiate("gzip, deflate;q=0.1", List.of(ContentCoding.DEFLATE)));
+		assertNull(ContentCoding.negotiate("gzip", List.of(ContentCoding.DEFLATE)));
+	}
+
+	@Test
+	@DisplayName("等价的Accept-Encoding得到相同的缓存变体key")
+	void shouldNormalizeVaryKey() {
+		assertEquals("gzip,deflate", ContentCoding.varyKey("deflate, gzip, br"));
+		assertEquals("gzip,deflate", ContentCoding.varyKey("*"));
+		assertEquals("deflate,gzip", ContentCoding.varyKey("gzip;q=0.5, deflate"));
+		assertEquals("", ContentCoding.varyKey("gzip;q=0"));
+	}
+
+}
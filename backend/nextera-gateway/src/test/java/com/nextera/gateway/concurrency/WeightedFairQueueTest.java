@@ -0,0 +1,106 @@
+package com.nextera.gateway.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 加权公平队列测试
+ *
+ * @author Nextera
+ */
+@DisplayName("加权公平队列测试")
+public class WeightedFairQueueTest {
+
+	@Test
+	@DisplayName("持续排队时各优先级按权重比例出队，低优先级不会饿死")
+	void shouldDequeueInProportionToWeights() {
+		WeightedFairQueue<RequestPriority> queue = new WeightedFairQueue<>(10_000, Map.of());
+		for (int i = 0; i < 1000; i++) {
+			for (RequestPriority priority : RequestPriority.values()) {
+				queue.offer(priority, priority, i);
+			}
+		}
+
+		// 前150次出队中权重8/4/2/1各占 80/40/20/10
+		Map<RequestPriority, Integer> counts = new EnumMap<>(RequestPriority.class);
+		for (int i = 0; i < 150; i++) {
+			counts.merge(queue.poll(), 1, Integer::sum);
+		}
+		assertEquals(80, counts.get(RequestPriority.CRITICAL));
+		assertEquals(40, counts.get(RequestPriority.HIGH));
+		assertEquals(20, counts.get(RequestPriority.NORMAL));
+		assertEquals(10, counts.get(RequestPriority.LOW));
+	}
+
+	@Test
+	@DisplayName("同一优先级内先进先出，空闲的通道不积累额度")
+	void shouldKeepFifoWithinPriority() {
+		WeightedFairQueue<String> queue = new WeightedFairQueue<>(100, Map.of());
+		queue.offer("low-1", RequestPriority.LOW, 0);
+		queue.offer("low-2", RequestPriority.LOW, 1);
+		assertEquals("low-1", queue.poll());
+		assertEquals("low-2", queue.poll());
+		assertNull(queue.poll());
+
+		// CRITICAL持续出队期间LOW通道空闲，重新排队时从当前虚拟时间开始，不能连续插到CRITICAL前面
+		for (int i = 0; i < 50; i++) {
+			queue.offer("critical", RequestPriority.CRITICAL, i);
+			queue.poll();
+		}
+		queue.offer("low-3", RequestPriority.LOW, 100);
+		queue.offer("critical-1", RequestPriority.CRITICAL, 101);
+		queue.offer("critical-2", RequestPriority.CRITICAL, 102);
+		assertEquals("critical-1", queue.poll());
+		assertEquals("critical-2", queue.poll());
+		assertEquals("low-3", queue.poll());
+	}
+
+	@Test
+	@DisplayName("队列已满时只能挤出更低优先级中最后入队的请求")
+	void shouldEvictNewestLowerPriority() {
+		WeightedFairQueue<String> queue = new WeightedFairQueue<>(3, Map.of());
+		assertTrue(queue.offer("low-1", RequestPriority.LOW, 0));
+		assertTrue(queue.offer("low-2", RequestPriority.LOW, 1));
+		assertTrue(queue.offer("normal", RequestPriority.NORMAL, 2));
+		assertFalse(queue.offer("high", RequestPriority.HIGH, 3));
+
+		assertEquals("low-2", queue.evictLowerThan(RequestPriority.HIGH));
+		assertTrue(queue.offer("high", RequestPriority.HIGH, 3));
+		assertNull(queue.evictLowerThan(RequestPriority.LOW));
+		assertEquals(3, queue.size());
+		assertEquals(1, queue.size(RequestPriority.LOW));
+	}
+
+	@Test
+	@DisplayName("排队时间只统计不低于指定优先级的请求，移除后不再计入")
+	void shouldTrackOldestByPriority() {
+		WeightedFairQueue<String> queue = new WeightedFairQueue<>(10, Map.of());
+		assertEquals(-1, queue.oldestEnqueuedNanos(RequestPriority.LOW));
+		queue.offer("low", RequestPriority.LOW, 10);
+		queue.offer("high", RequestPriority.HIGH, 20);
+
+		assertEquals(10, queue.oldestEnqueuedNanos(RequestPriority.LOW));
+		assertEquals(20, queue.oldestEnqueuedNanos(RequestPriority.NORMAL));
+		assertEquals(-1, queue.oldestEnqueuedNanos(RequestPriority.CRITICAL));
+
+		assertTrue(queue.remove("high", RequestPriority.HIGH));
+		assertFalse(queue.remove("high", RequestPriority.HIGH));
+		assertEquals(-1, queue.oldestEnqueuedNanos(RequestPriority.NORMAL));
+	}
+
+	@Test
+	@DisplayName("LOW可排队目标延迟，每高一级翻倍")
+	void shouldDoubleDelayBudgetPerPriority() {
+		assertEquals(1, RequestPriority.LOW.delayMultiplier());
+		assertEquals(2, RequestPriority.NORMAL.delayMultiplier());
+		assertEquals(4, RequestPriority.HIGH.delayMultiplier());
+		assertEquals(8, RequestPriority.CRITICAL.delayMultiplier());
+		assertEquals(RequestPriority.HIGH, RequestPriority.parse(" high "));
+	}
+
+}
@@ -0,0 +1,240 @@
+package com.nextera.gateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.common.core.ResultCode;
+import com.nextera.gateway.auth.VerifiedPrincipal;
+import com.nextera.gateway.config.NexteraAggregationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 聚合接口过滤器测试
+ *
+ * @author Nextera
+ */
+@DisplayName("聚合接口过滤器测试")
+public class NexteraAggregateGatewayFilterFactoryTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	/**
+	 * 按下游服务ID（URI的host）模拟的响应
+	 */
+	private final Map<String, Function<ClientRequest, Mono<ClientResponse>>> downstream = new ConcurrentHashMap<>();
+
+	private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+	private NexteraAggregationProperties properties;
+
+	private GatewayFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		properties = new NexteraAggregationProperties();
+		WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+			requests.add(request);
+			return downstream.get(request.url().getHost()).apply(request);
+		});
+		LoadBalancedExchangeFilterFunction loadBalancer = (request, next) -> next.exchange(request);
+		NexteraAggregateGatewayFilterFactory factory = new NexteraAggregateGatewayFilterFactory(properties, builder,
+				loadBalancer, objectMapper, meterRegistry);
+		NexteraAggregateGatewayFilterFactory.Config config = new NexteraAggregateGatewayFilterFactory.Config();
+		config.setEndpoint("article-page");
+		filter = factory.apply(config);
+	}
+
+	@Test
+	@DisplayName("并发请求各分支并合并结果，Result取data，其他JSON原样合并")
+	void shouldFanOutAndMerge() throws Exception {
+		branch("article", "lb://nextera-article/api/article/{articleId}", true);
+		branch("comments", "lb://nextera-comment/api/comment?articleId={articleId}&size={size}", false);
+		branch("auth", "principal:", false);
+		// 两个分支都发出后才响应，分支串行执行时会超时
+		Sinks.Empty<Void> bothSent = Sinks.empty();
+		downstream.put("nextera-article", request -> afterBoth(bothSent, json(HttpStatus.OK,
+				"{\"code\":200,\"message\":\"ok\",\"data\":{\"id\":7,\"title\":\"t\"}}", Duration.ZERO)));
+		downstream.put("nextera-comment",
+				request -> afterBoth(bothSent, json(HttpStatus.OK, "[{\"id\":1},{\"id\":2}]", Duration.ZERO)));
+		MockServerWebExchange exchange = exchange("/api/bff/article-page/7?size=2");
+		exchange.getAttributes()
+			.put(NexteraAuthGlobalFilter.VERIFIED_PRINCIPAL_ATTR, new VerifiedPrincipal(42L, "alice", 1_000L));
+
+		filter.filter(exchange, e -> Mono.error(new IllegalStateException("不应继续路由"))).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+		JsonNode data = body(exchange).get("data");
+		assertEquals("t", data.at("/results/article/title").asText());
+		assertEquals(2, data.at("/results/comments").size());
+		assertTrue(data.at("/results/auth/authenticated").asBoolean());
+		assertEquals(42, data.at("/results/auth/userId").asLong());
+		assertFalse(data.has("failures"));
+		List<String> order = new ArrayList<>();
+		data.get("results").fieldNames().forEachRemaining(order::add);
+		assertEquals(List.of("article", "comments", "auth"), order);
+
+		assertEquals(2, requests.size());
+		ClientRequest comments = requests.stream()
+			.filter(r -> "nextera-comment".equals(r.url().getHost()))
+			.findFirst()
+			.orElseThrow();
+		assertEquals("http", comments.url().getScheme());
+		assertEquals("articleId=7&size=2", comments.url().getRawQuery());
+		assertEquals("req-1", comments.headers().getFirst(CommonConstants.Header.REQUEST_ID));
+		assertEquals("Bearer t", comments.headers().getFirst(HttpHeaders.AUTHORIZATION));
+		assertNotNull(comments.headers().getFirst(CommonConstants.Header.DEADLINE));
+	}
+
+	@Test
+	@DisplayName("非必需分支失败、超时或缺少参数时返回部分结果，失败原因列在failures中")
+	void shouldReturnPartialResultWhenOptionalBranchFails() throws Exception {
+		branch("article", "lb://nextera-article/api/article/{articleId}", true);
+		branch("comments", "lb://nextera-comment/api/comment?articleId={articleId}", false);
+		branch("related", "lb://nextera-search/api/related/{articleId}", false).setTimeout(Duration.ofMillis(50));
+		branch("favorites", "lb://nextera-user/api/favorite/{currentUserId}", false);
+		branch("stats", "lb://nextera-stats/api/stats/{articleId}", false);
+		downstream.put("nextera-article",
+				request -> json(HttpStatus.OK, "{\"code\":200,\"message\":\"ok\",\"data\":{\"id\":7}}", Duration.ZERO));
+		downstream.put("nextera-comment", request -> json(HttpStatus.OK,
+				"{\"code\":503,\"message\":\"服务繁忙\",\"data\":null}", Duration.ZERO));
+		downstream.put("nextera-search", request -> json(HttpStatus.OK, "[]", Duration.ofSeconds(2)));
+		downstream.put("nextera-stats", request -> json(HttpStatus.INTERNAL_SERVER_ERROR, "oops", Duration.ZERO));
+		MockServerWebExchange exchange = exchange("/api/bff/article-page/7");
+
+		filter.filter(exchange, e -> Mono.empty()).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+		JsonNode data = body(exchange).get("data");
+		assertEquals(7, data.at("/results/article/id").asInt());
+		for (String branch : List.of("comments", "related", "favorites", "stats")) {
+			assertTrue(data.get("results").get(branch).isNull(), branch);
+		}
+		assertEquals(503, data.at("/failures/comments/code").asInt());
+		assertEquals("服务繁忙", data.at("/failures/comments/message").asText());
+		assertEquals(HttpStatus.GATEWAY_TIMEOUT.value(), data.at("/failures/related/code").asInt());
+		assertEquals(ResultCode.PARAM_ERROR.getCode(), data.at("/failures/favorites/code").asInt());
+		assertEquals(HttpStatus.BAD_GATEWAY.value(), data.at("/failures/stats/code").asInt());
+		assertTrue(requests.stream().noneMatch(r -> "nextera-user".equals(r.url().getHost())));
+		assertEquals(1, meterRegistry.get("nextera.gateway.aggregation.branches")
+			.tags("endpoint", "article-page", "branch", "related", "outcome", "timeout")
+			.timer()
+			.count());
+		assertEquals(1, meterRegistry.get("nextera.gateway.aggregation.branches")
+			.tags("endpoint", "article-page", "branch", "favorites", "outcome", "skipped")
+			.timer()
+			.count());
+	}
+
+	@Test
+	@DisplayName("必需分支失败时返回该分支的错误")
+	void shouldFailWhenRequiredBranchFails() throws Exception {
+		branch("article", "lb://nextera-article/api/article/{articleId}", true);
+		branch("comments", "lb://nextera-comment/api/comment?articleId={articleId}", false);
+		downstream.put("nextera-article", request -> json(HttpStatus.NOT_FOUND,
+				"{\"code\":30001,\"message\":\"文章不存在\",\"data\":null}", Duration.ZERO));
+		downstream.put("nextera-comment", request -> json(HttpStatus.OK, "[]", Duration.ZERO));
+		MockServerWebExchange exchange = exchange("/api/bff/article-page/7");
+
+		filter.filter(exchange, e -> Mono.empty()).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+		JsonNode body = body(exchange);
+		assertEquals(ResultCode.ARTICLE_NOT_FOUND.getCode(), body.get("code").asInt());
+		assertEquals("文章不存在", body.get("message").asText());
+	}
+
+	@Test
+	@DisplayName("必需分支连接失败时返回502")
+	void shouldReturnBadGatewayWhenRequiredBranchUnreachable() throws Exception {
+		branch("article", "lb://nextera-article/api/article/{articleId}", true);
+		downstream.put("nextera-article", request -> Mono.error(new IllegalStateException("connection refused")));
+		MockServerWebExchange exchange = exchange("/api/bff/article-page/7");
+
+		filter.filter(exchange, e -> Mono.empty()).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.BAD_GATEWAY, exchange.getResponse().getStatusCode());
+		assertEquals(ResultCode.SERVICE_UNAVAILABLE.getCode(), body(exchange).get("code").asInt());
+	}
+
+	@Test
+	@DisplayName("未配置的聚合端点返回404")
+	void shouldReturnNotFoundForUnknownEndpoint() throws Exception {
+		MockServerWebExchange exchange = exchange("/api/bff/article-page/7");
+
+		filter.filter(exchange, e -> Mono.empty()).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+		assertEquals(ResultCode.NOT_FOUND.getCode(), body(exchange).get("code").asInt());
+		assertTrue(requests.isEmpty());
+	}
+
+	private NexteraAggregationProperties.Branch branch(String name, String uri, boolean required) {
+		NexteraAggregationProperties.Branch branch = new NexteraAggregationProperties.Branch();
+		branch.setUri(uri);
+		branch.setRequired(required);
+		properties.getEndpoints()
+			.computeIfAbsent("article-page", key -> new NexteraAggregationProperties.Endpoint())
+			.getBranches()
+			.put(name, branch);
+		return branch;
+	}
+
+	private Mono<ClientResponse> afterBoth(Sinks.Empty<Void> bothSent, Mono<ClientResponse> response) {
+		if (requests.size() == 2) {
+			bothSent.tryEmitEmpty();
+		}
+		return bothSent.asMono().then(response);
+	}
+
+	private static Mono<ClientResponse> json(HttpStatus status, String body, Duration delay) {
+		return Mono.delay(delay)
+			.thenReturn(ClientResponse.create(status)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(body)
+				.build());
+	}
+
+	/**
+	 * 模拟路由 {@code Path=/api/bff/article-page/{articleId}} 匹配后的请求
+	 */
+	private static MockServerWebExchange exchange(String path) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost" + path)
+			.header(CommonConstants.Header.REQUEST_ID, "req-1")
+			.header(HttpHeaders.AUTHORIZATION, "Bearer t"));
+		ServerWebExchangeUtils.putUriTemplateVariables(exchange, Map.of("articleId", "7"));
+		return exchange;
+	}
+
+	private JsonNode body(MockServerWebExchange exchange) throws Exception {
+		return objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+	}
+
+}
@@ -0,0 +1,177 @@
+package com.nextera.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.common.util.JwtUtil;
+import com.nextera.gateway.auth.VerifiedPrincipal;
+import com.nextera.gateway.config.NexteraAuthProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 网关认证过滤器测试
+ *
+ * @author Nextera
+ */
+@DisplayName("网关认证过滤器测试")
+public class NexteraAuthGlobalFilterTest {
+
+	private static final String SECRET = "nextera-framework-jwt-secret-key-2024";
+
+	private static final String SESSION_KEY = CommonConstants.CachePrefix.LOGIN_TOKEN + 42;
+
+	private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+	private final GatewayFilterChain chain = exchange -> {
+		forwarded.set(exchange);
+		return Mono.empty();
+	};
+
+	private JwtUtil jwtUtil;
+
+	private ReactiveValueOperations<String, String> valueOperations;
+
+	private NexteraAuthGlobalFilter filter;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+		ReflectionTestUtils.setField(jwtUtil, "expiration", 24);
+		ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 7);
+		ReflectionTestUtils.setField(jwtUtil, "cacheSize", 16);
+		jwtUtil.init();
+
+		ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+		valueOperations = mock(ReactiveValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+		filter = new NexteraAuthGlobalFilter(jwtUtil, redisTemplate, new ObjectMapper(), new NexteraAuthProperties());
+	}
+
+	@Test
+	@DisplayName("缺少Token时按匿名请求转发，并清除客户端伪造的用户头")
+	void shouldForwardAnonymousWithoutToken() {
+		MockServerWebExchange exchange = exchange("/api/article/1", null);
+
+		filter.filter(exchange, chain).block();
+
+		HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+		assertNull(headers.getFirst(CommonConstants.Header.USER_ID));
+		assertNull(headers.getFirst(CommonConstants.Header.USERNAME));
+		assertNull(forwarded.get().getAttribute(NexteraAuthGlobalFilter.VERIFIED_PRINCIPAL_ATTR));
+	}
+
+	@Test
+	@DisplayName("Token签名无效或为刷新Token时返回401，不转发")
+	void shouldRejectInvalidToken() {
+		String token = jwtUtil.generateToken(42L, "alice");
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+		for (String invalid : new String[] { tampered, "not-a-token", jwtUtil.generateRefreshToken(42L, "alice") }) {
+			MockServerWebExchange exchange = exchange("/api/article/1", invalid);
+			filter.filter(exchange, chain).block();
+
+			assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+			assertTrue(exchange.getResponse().getBodyAsString().block().contains("20002"));
+		}
+		assertNull(forwarded.get());
+	}
+
+	@Test
+	@DisplayName("白名单路径不校验Token，直接转发")
+	void shouldPassWhitelistedPath() {
+		MockServerWebExchange exchange = exchange("/api/auth/login", "not-a-token");
+
+		filter.filter(exchange, chain).block();
+
+		assertNotNull(forwarded.get());
+		assertNull(forwarded.get().getRequest().getHeaders().getFirst(CommonConstants.Header.USER_ID));
+		assertNull(exchange.getResponse().getStatusCode());
+		verifyNoInteractions(valueOperations);
+	}
+
+	@Test
+	@DisplayName("有效Token以可信请求头转发用户ID与用户名，并保存校验结果")
+	void shouldForwardUserHeaders() {
+		String token = jwtUtil.generateToken(42L, "张三");
+		when(valueOperations.get(SESSION_KEY)).thenReturn(Mono.just(token));
+
+		filter.filter(exchange("/api/article/1", token), chain).block();
+
+		HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+		assertEquals("42", headers.getFirst(CommonConstants.Header.USER_ID));
+		assertEquals("%E5%BC%A0%E4%B8%89", headers.getFirst(CommonConstants.Header.USERNAME));
+		VerifiedPrincipal principal = forwarded.get().getAttribute(NexteraAuthGlobalFilter.VERIFIED_PRINCIPAL_ATTR);
+		assertEquals(42L, principal.userId());
+	}
+
+	@Test
+	@DisplayName("登出后Token立即失效，不从缓存中放行")
+	void shouldNotServeRevokedToken() {
+		String token = jwtUtil.generateToken(42L, "alice");
+		when(valueOperations.get(SESSION_KEY)).thenReturn(Mono.just(token), Mono.empty());
+
+		filter.filter(exchange("/api/article/1", token), chain).block();
+		assertNotNull(forwarded.getAndSet(null));
+
+		MockServerWebExchange revoked = exchange("/api/article/1", token);
+		filter.filter(revoked, chain).block();
+		assertEquals(HttpStatus.UNAUTHORIZED, revoked.getResponse().getStatusCode());
+		assertNull(forwarded.get());
+	}
+
+	@Test
+	@DisplayName("Token过期后不从缓存中放行")
+	void shouldNotServeExpiredToken() throws InterruptedException {
+		String token = Jwts.builder()
+			.setSubject("alice")
+			.claim("userId", 42L)
+			.claim("username", "alice")
+			.setExpiration(new Date(System.currentTimeMillis() + 1500))
+			.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+			.compact();
+		when(valueOperations.get(SESSION_KEY)).thenReturn(Mono.just(token));
+
+		filter.filter(exchange("/api/article/1", token), chain).block();
+		assertNotNull(forwarded.getAndSet(null));
+
+		Thread.sleep(1600);
+		MockServerWebExchange expired = exchange("/api/article/1", token);
+		filter.filter(expired, chain).block();
+		assertEquals(HttpStatus.UNAUTHORIZED, expired.getResponse().getStatusCode());
+		assertNull(forwarded.get());
+	}
+
+	private static MockServerWebExchange exchange(String path, String token) {
+		MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path)
+			.header(CommonConstants.Header.USER_ID, "1")
+			.header(CommonConstants.Header.USERNAME, "admin");
+		if (token != null) {
+			request.header(CommonConstants.Header.AUTHORIZATION, CommonConstants.Header.BEARER_PREFIX + token);
+		}
+		return MockServerWebExchange.from(request);
+	}
+
+}
@@ -0,0 +1,192 @@
+package com.nextera.gateway.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 响应压缩过滤器测试
+ *
+ * @author Nextera
+ */
+@DisplayName("响应压缩过滤器测试")
+public class NexteraCompressionGatewayFilterFactoryTest {
+
+	private static final String BODY = "{\"data\":\"" + "nextera".repeat(300) + "\"}";
+
+	private final GatewayFilter filter = new NexteraCompressionGatewayFilterFactory()
+		.apply(new NexteraCompressionGatewayFilterFactory.Config());
+
+	@Test
+	@DisplayName("按协商结果逐块gzip压缩，去掉Content-Length并追加Vary")
+	void shouldGzipResponse() throws IOException {
+		MockServerWebExchange exchange = exchange("gzip, deflate");
+
+		filter.filter(exchange, respond(headers -> headers.setContentLength(BODY.length()))).block();
+
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+		assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), headers.getVary());
+		assertEquals(BODY, new String(decode(new GZIPInputStream(body(exchange))), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	@DisplayName("客户端优先deflate时使用zlib格式压缩")
+	void shouldDeflateResponse() throws IOException {
+		MockServerWebExchange exchange = exchange("gzip;q=0.5, deflate");
+
+		filter.filter(exchange, respond(headers -> {
+		})).block();
+
+		assertEquals("deflate", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(BODY, new String(decode(new InflaterInputStream(body(exchange))), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	@DisplayName("保留已有的Vary且不重复追加Accept-Encoding，强ETag降为弱ETag")
+	void shouldKeepVaryAndWeakenETag() {
+		MockServerWebExchange exchange = exchange("gzip");
+
+		filter.filter(exchange, respond(headers -> {
+			headers.setVary(List.of(HttpHeaders.ORIGIN, "accept-encoding"));
+			headers.setETag("\"v1\"");
+		})).block();
+
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(List.of(HttpHeaders.ORIGIN, "accept-encoding"), headers.getVary());
+		assertEquals("W/\"v1\"", headers.getETag());
+	}
+
+	@Test
+	@DisplayName("q=0或不支持的编码不压缩")
+	void shouldSkipWhenNoCodingAccepted() throws IOException {
+		for (String acceptEncoding : new String[] { "gzip;q=0, deflate;q=0", "br", "*;q=0" }) {
+			MockServerWebExchange exchange = exchange(acceptEncoding);
+
+			filter.filter(exchange, respond(headers -> headers.setContentLength(BODY.length()))).block();
+
+			assertUncompressed(exchange);
+			assertEquals(BODY.length(), exchange.getResponse().getHeaders().getContentLength());
+		}
+	}
+
+	@Test
+	@DisplayName("响应已带Content-Encoding时不重复压缩")
+	void shouldSkipAlreadyEncoded() throws IOException {
+		MockServerWebExchange exchange = exchange("gzip");
+
+		filter.filter(exchange, respond(headers -> headers.set(HttpHeaders.CONTENT_ENCODING, "br"))).block();
+
+		assertEquals("br", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(BODY, new String(body(exchange).readAllBytes(), StandardCharsets.UTF_8));
+		assertTrue(exchange.getResponse().getHeaders().getVary().isEmpty());
+	}
+
+	@Test
+	@DisplayName("Content-Length小于min-size时不压缩，未知长度时压缩")
+	void shouldSkipSmallBody() throws IOException {
+		NexteraCompressionGatewayFilterFactory.Config config = new NexteraCompressionGatewayFilterFactory.Config();
+		config.setMinSize(DataSize.ofBytes(BODY.length() + 1));
+		GatewayFilter smallFilter = new NexteraCompressionGatewayFilterFactory().apply(config);
+
+		MockServerWebExchange small = exchange("gzip");
+		smallFilter.filter(small, respond(headers -> headers.setContentLength(BODY.length()))).block();
+		assertUncompressed(small);
+		assertEquals(BODY.length(), small.getResponse().getHeaders().getContentLength());
+
+		MockServerWebExchange chunked = exchange("gzip");
+		smallFilter.filter(chunked, respond(headers -> {
+		})).block();
+		assertEquals("gzip", chunked.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Test
+	@DisplayName("304、no-transform及不在白名单内的Content-Type不压缩")
+	void shouldSkipIneligibleResponses() throws IOException {
+		MockServerWebExchange notModified = exchange("gzip");
+		filter.filter(notModified, ex -> {
+			ex.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+			return write(ex.getResponse());
+		}).block();
+		assertUncompressed(notModified);
+
+		MockServerWebExchange noTransform = exchange("gzip");
+		filter.filter(noTransform, respond(headers -> headers.setCacheControl("private, no-transform"))).block();
+		assertUncompressed(noTransform);
+
+		MockServerWebExchange image = exchange("gzip");
+		filter.filter(image, respond(headers -> headers.setContentType(MediaType.IMAGE_PNG))).block();
+		assertUncompressed(image);
+	}
+
+	private static MockServerWebExchange exchange(String acceptEncoding) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/api/article/1")
+			.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+	}
+
+	/**
+	 * 模拟下游分两块写出JSON响应体
+	 */
+	private static GatewayFilterChain respond(Consumer<HttpHeaders> headers) {
+		return exchange -> {
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			headers.accept(response.getHeaders());
+			return write(response);
+		};
+	}
+
+	private static Mono<Void> write(ServerHttpResponse response) {
+		byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+		int half = bytes.length / 2;
+		return response.writeWith(Flux.just(response.bufferFactory().wrap(Arrays.copyOfRange(bytes, 0, half)),
+				response.bufferFactory().wrap(Arrays.copyOfRange(bytes, half, bytes.length))));
+	}
+
+	private static void assertUncompressed(MockServerWebExchange exchange) throws IOException {
+		assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(BODY, new String(body(exchange).readAllBytes(), StandardCharsets.UTF_8));
+	}
+
+	private static InputStream body(MockServerWebExchange exchange) {
+		return DataBufferUtils.join(exchange.getResponse().getBody()).map(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			return (InputStream) new ByteArrayInputStream(bytes);
+		}).block();
+	}
+
+	private static byte[] decode(InputStream in) throws IOException {
+		try (in) {
+			return in.readAllBytes();
+		}
+	}
+
+}
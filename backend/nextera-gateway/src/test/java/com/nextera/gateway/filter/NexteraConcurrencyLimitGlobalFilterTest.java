@@ -0,0 +1,159 @@
+package com.nextera.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.gateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.nextera.gateway.concurrency.GradientConcurrencyLimit;
+import com.nextera.gateway.concurrency.RequestPriorityClassifier;
+import com.nextera.gateway.config.NexteraConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 自适应并发限制全局过滤器测试
+ *
+ * @author Nextera
+ */
+@DisplayName("自适应并发限制全局过滤器测试")
+public class NexteraConcurrencyLimitGlobalFilterTest {
+
+	private static final String SERVICE_ID = "nextera-article";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AtomicInteger downstreamCalls = new AtomicInteger();
+
+	private NexteraConcurrencyLimitProperties properties;
+
+	private AdaptiveConcurrencyLimiter limiter;
+
+	private NexteraConcurrencyLimitGlobalFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		properties = new NexteraConcurrencyLimitProperties();
+		properties.getDefaults().setInitialLimit(1);
+		properties.getDefaults().setMinLimit(1);
+		// 不排队，超过上限立即丢弃
+		properties.getQueue().setCapacity(0);
+		limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+		filter = new NexteraConcurrencyLimitGlobalFilter(limiter,
+				new RequestPriorityClassifier(properties.getPriority()), new ObjectMapper(), Duration.ofSeconds(2));
+	}
+
+	@Test
+	@DisplayName("超过并发上限时返回503和Retry-After，不访问下游，名额在请求结束后归还")
+	void shouldShedOverLimit() throws Exception {
+		Sinks.Empty<Void> gate = Sinks.empty();
+		CompletableFuture<Void> first = filter.filter(exchange("lb://" + SERVICE_ID), chain(gate.asMono()))
+			.toFuture();
+		assertEquals(1, limit().getInFlight());
+
+		MockServerWebExchange shed = exchange("lb://" + SERVICE_ID);
+		filter.filter(shed, chain(Mono.empty())).block();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+		assertEquals("2", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		assertEquals(1, downstreamCalls.get());
+		assertEquals(1.0, meterRegistry.counter("nextera.gateway.concurrency.shed", "service", SERVICE_ID).count());
+		assertEquals(1, limit().getInFlight());
+
+		gate.tryEmitEmpty();
+		first.get(5, TimeUnit.SECONDS);
+		assertEquals(0, limit().getInFlight());
+	}
+
+	@Test
+	@DisplayName("下游出错或请求被取消时同样归还名额")
+	void shouldReleaseOnErrorAndCancel() {
+		assertThrows(IllegalStateException.class, () -> filter
+			.filter(exchange("lb://" + SERVICE_ID), chain(Mono.error(new IllegalStateException("boom"))))
+			.block());
+		assertEquals(0, limit().getInFlight());
+
+		Sinks.Empty<Void> never = Sinks.empty();
+		filter.filter(exchange("lb://" + SERVICE_ID), chain(never.asMono())).subscribe().dispose();
+		assertEquals(0, limit().getInFlight());
+	}
+
+	@Test
+	@DisplayName("下游返回过载类状态码或超时时收缩上限，正常响应不收缩")
+	void shouldShrinkLimitOnOverload() {
+		properties.getDefaults().setInitialLimit(10);
+		properties.getDefaults().setQueueSize(0);
+
+		respond(HttpStatus.OK);
+		assertEquals(10, limit().getLimit());
+
+		respond(HttpStatus.SERVICE_UNAVAILABLE);
+		int afterUnavailable = limit().getLimit();
+		assertTrue(afterUnavailable < 10);
+
+		assertThrows(RuntimeException.class, () -> filter
+			.filter(exchange("lb://" + SERVICE_ID), chain(Mono.error(new TimeoutException())))
+			.block());
+		assertTrue(limit().getLimit() < afterUnavailable);
+		assertEquals(0, limit().getInFlight());
+	}
+
+	@Test
+	@DisplayName("非lb路由不受并发限制")
+	void shouldSkipNonLoadBalancedRoute() {
+		Sinks.Empty<Void> gate = Sinks.empty();
+		filter.filter(exchange("http://localhost:8080"), chain(gate.asMono())).subscribe();
+
+		MockServerWebExchange second = exchange("http://localhost:8080");
+		filter.filter(second, chain(Mono.empty())).block();
+
+		assertNull(second.getResponse().getStatusCode());
+		assertEquals(2, downstreamCalls.get());
+		assertNull(meterRegistry.find("nextera.gateway.concurrency.shed").counter());
+	}
+
+	private void respond(HttpStatus status) {
+		filter.filter(exchange("lb://" + SERVICE_ID), exchange -> {
+			downstreamCalls.incrementAndGet();
+			exchange.getResponse().setStatusCode(status);
+			return Mono.empty();
+		}).block();
+	}
+
+	private GatewayFilterChain chain(Mono<Void> downstream) {
+		return exchange -> {
+			downstreamCalls.incrementAndGet();
+			return downstream;
+		};
+	}
+
+	private GradientConcurrencyLimit limit() {
+		return limiter.limitFor(SERVICE_ID);
+	}
+
+	private static MockServerWebExchange exchange(String routeUri) {
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("http://localhost/api/article/1"));
+		exchange.getAttributes()
+			.put(GATEWAY_ROUTE_ATTR, Route.async().id("article").uri(URI.create(routeUri)).predicate(e -> true).build());
+		return exchange;
+	}
+
+}
@@ -0,0 +1,325 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.gateway.circuitbreaker.InstanceCircuitBreaker;
+import com.nextera.gateway.circuitbreaker.InstanceCircuitBreakerRegistry;
+import com.nextera.gateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.nextera.gateway.concurrency.RequestPriority;
+import com.nextera.gateway.config.NexteraCircuitBreakerProperties;
+import com.nextera.gateway.loadbalancer.InstanceLoadStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientResponse;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+
+/**
+ * 对冲请求过滤器测试
+ * <p>
+ * HttpClient按目标端口返回模拟的下游实例响应，对冲延迟在样本不足时固定为 {@code max-delay}（100ms）。
+ *
+ * @author Nextera
+ */
+@DisplayName("对冲请求过滤器测试")
+public class NexteraHedgeGatewayFilterFactoryTest {
+
+	private static final String SERVICE_ID = "nextera-article";
+
+	private static final ServiceInstance PRIMARY = new DefaultServiceInstance("a1", SERVICE_ID, "10.0.0.1", 8081,
+			false);
+
+	private static final ServiceInstance SECONDARY = new DefaultServiceInstance("a2", SERVICE_ID, "10.0.0.2", 8082,
+			false);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final Map<Integer, Backend> backends = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean routedByChain = new AtomicBoolean();
+
+	private final GatewayFilterChain chain = exchange -> {
+		assertFalse(isAlreadyRouted(exchange));
+		routedByChain.set(true);
+		return Mono.empty();
+	};
+
+	private ObjectProvider<InstanceCircuitBreakerRegistry> breakers;
+
+	private ObjectProvider<AdaptiveConcurrencyLimiter> limiters;
+
+	private NexteraHedgeGatewayFilterFactory factory;
+
+	private NexteraHedgeGatewayFilterFactory.Config config;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		HttpClient httpClient = mock(HttpClient.class);
+		HttpClient.RequestSender sender = mock(HttpClient.RequestSender.class);
+		when(httpClient.headers(any())).thenReturn(httpClient);
+		when(httpClient.get()).thenReturn(sender);
+		when(sender.uri(any(URI.class)))
+			.thenAnswer(invocation -> backends.get(invocation.<URI>getArgument(0).getPort()).sender);
+
+		ReactorServiceInstanceLoadBalancer loadBalancer = request -> Mono.just(new DefaultResponse(SECONDARY));
+		LoadBalancerClientFactory clientFactory = mock(LoadBalancerClientFactory.class);
+		when(clientFactory.getInstance(SERVICE_ID, ReactorServiceInstanceLoadBalancer.class)).thenReturn(loadBalancer);
+
+		ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+		breakers = mock(ObjectProvider.class);
+		limiters = mock(ObjectProvider.class);
+		factory = new NexteraHedgeGatewayFilterFactory(httpClient, headersFilters, clientFactory,
+				new InstanceLoadStats(Duration.ofSeconds(10), Duration.ofSeconds(1)), breakers, limiters,
+				meterRegistry);
+		config = new NexteraHedgeGatewayFilterFactory.Config();
+		config.setMinDelay(Duration.ofMillis(10));
+		config.setMaxDelay(Duration.ofMillis(100));
+	}
+
+	@Test
+	@DisplayName("首次请求在对冲延迟内返回时不发出对冲请求")
+	void shouldNotHedgeWhenPrimaryIsFast() throws InterruptedException {
+		Backend primary = backend(PRIMARY, Duration.ZERO, "primary");
+		Backend secondary = backend(SECONDARY, Duration.ZERO, "secondary");
+		MockServerWebExchange exchange = exchange();
+
+		filter().filter(exchange, chain).block(Duration.ofSeconds(5));
+		Thread.sleep(200);
+
+		assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+		assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+		assertEquals(1, primary.calls.get());
+		assertEquals(0, secondary.calls.get());
+		assertEquals(1.0, count("primary_won"));
+		assertEquals(0.0, count("hedged"));
+	}
+
+	@Test
+	@DisplayName("首次请求超过对冲延迟时向另一实例发出对冲请求，对冲先返回则取消首次请求")
+	void shouldCancelPrimaryWhenHedgeWins() {
+		Backend primary = backend(PRIMARY, Duration.ofSeconds(5), "primary");
+		Backend secondary = backend(SECONDARY, Duration.ZERO, "secondary");
+		MockServerWebExchange exchange = exchange();
+
+		filter().filter(exchange, chain).block(Duration.ofSeconds(3));
+
+		assertEquals("secondary", exchange.getResponse().getBodyAsString().block());
+		assertEquals(1, secondary.calls.get());
+		assertTrue(primary.cancelled.get());
+		assertEquals(1.0, count("hedged"));
+		assertEquals(1.0, count("hedge_won"));
+		assertEquals(0.0, count("primary_won"));
+	}
+
+	@Test
+	@DisplayName("首次请求连接失败时对冲请求仍可胜出")
+	void shouldLetHedgeWinAfterPrimaryConnectFailure() {
+		backend(PRIMARY, Duration.ZERO, "primary").refused = true;
+		backend(SECONDARY, Duration.ZERO, "secondary");
+		MockServerWebExchange exchange = exchange();
+
+		filter().filter(exchange, chain).block(Duration.ofSeconds(3));
+
+		assertEquals("secondary", exchange.getResponse().getBodyAsString().block());
+		assertEquals(1.0, count("hedge_won"));
+	}
+
+	@Test
+	@DisplayName("对冲预算耗尽时不发出对冲请求")
+	void shouldNotHedgeWhenBudgetExhausted() {
+		config.setBudgetRatio(0);
+		config.setBudgetMinPerSecond(0);
+		Backend secondary = slowPrimary();
+		MockServerWebExchange exchange = exchange();
+
+		filter().filter(exchange, chain).block(Duration.ofSeconds(3));
+
+		assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+		assertEquals(0, secondary.calls.get());
+		assertEquals(1.0, count("budget_exhausted"));
+		assertEquals(0.0, count("hedged"));
+	}
+
+	@Test
+	@DisplayName("对冲实例熔断打开时不发出对冲请求")
+	void shouldNotHedgeToOpenInstance() {
+		InstanceCircuitBreakerRegistry registry = new InstanceCircuitBreakerRegistry(
+				new NexteraCircuitBreakerProperties(), meterRegistry);
+		InstanceCircuitBreaker breaker = registry.get("article", SECONDARY);
+		for (int i = 0; i < 10; i++) {
+			breaker.onResult(0, true);
+		}
+		when(breakers.getIfAvailable()).thenReturn(registry);
+		Backend secondary = slowPrimary();
+		MockServerWebExchange exchange = exchange();
+
+		filter().filter(exchange, chain).block(Duration.ofSeconds(3));
+
+		assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+		assertEquals(0, secondary.calls.get());
+		assertEquals(1.0, meterRegistry
+			.counter("nextera.gateway.circuitbreaker.rejected", "route", "article", "instance", "10.0.0.2:8082")
+			.count());
+	}
+
+	@Test
+	@DisplayName("下游服务并发名额不足时不发出对冲请求")
+	void shouldNotHedgeWhenLimiterSheds() {
+		AdaptiveConcurrencyLimiter limiter = mock(AdaptiveConcurrencyLimiter.class);
+		when(limiter.acquire(SERVICE_ID, RequestPriority.LOW)).thenReturn(Mono.just(AdaptiveConcurrencyLimiter.SHED));
+		when(limiters.getIfAvailable()).thenReturn(limiter);
+		Backend secondary = slowPrimary();
+		MockServerWebExchange exchange = exchange();
+
+		filter().filter(exchange, chain).block(Duration.ofSeconds(3));
+
+		assertEquals("primary", exchange.getResponse().getBodyAsString().block());
+		assertEquals(0, secondary.calls.get());
+		assertEquals(1.0, count("shed"));
+		verify(limiter, never()).releaseIgnored(SERVICE_ID);
+	}
+
+	@Test
+	@DisplayName("响应体超过max-body-size时放弃缓冲，交给NettyRoutingFilter重新路由")
+	void shouldFallBackToRoutingFilterWhenTooLarge() {
+		config.setMaxBodySize(DataSize.ofBytes(4));
+		backend(PRIMARY, Duration.ZERO, "hello world").contentLength = true;
+		backend(SECONDARY, Duration.ZERO, "secondary");
+		MockServerWebExchange declared = exchange();
+
+		GatewayFilter filter = filter();
+		filter.filter(declared, chain).block(Duration.ofSeconds(3));
+
+		assertTrue(routedByChain.getAndSet(false));
+		assertNull(declared.getResponse().getStatusCode());
+
+		// 未声明Content-Length的分块响应在读取中超过上限
+		backends.get(PRIMARY.getPort()).contentLength = false;
+		MockServerWebExchange chunked = exchange();
+		filter.filter(chunked, chain).block(Duration.ofSeconds(3));
+
+		assertTrue(routedByChain.get());
+		assertEquals(2.0, count("too_large"));
+	}
+
+	private GatewayFilter filter() {
+		return factory.apply(config);
+	}
+
+	/**
+	 * 首次请求300ms后返回，足以触发对冲延迟
+	 */
+	private Backend slowPrimary() {
+		backend(PRIMARY, Duration.ofMillis(300), "primary");
+		return backend(SECONDARY, Duration.ZERO, "secondary");
+	}
+
+	private Backend backend(ServiceInstance instance, Duration delay, String body) {
+		Backend backend = new Backend(delay, body);
+		backends.put(instance.getPort(), backend);
+		return backend;
+	}
+
+	private double count(String outcome) {
+		return meterRegistry.counter("nextera.gateway.hedge.requests", "route", "article", "outcome", outcome).count();
+	}
+
+	private static MockServerWebExchange exchange() {
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("http://localhost/api/article/1"));
+		exchange.getAttributes()
+			.put(GATEWAY_ROUTE_ATTR,
+					Route.async().id("article").uri(URI.create("lb://" + SERVICE_ID)).predicate(e -> true).build());
+		exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(PRIMARY));
+		exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("http://10.0.0.1:8081/article/1"));
+		return exchange;
+	}
+
+	/**
+	 * 模拟的下游实例
+	 */
+	private static final class Backend {
+
+		private final HttpClient.RequestSender sender = mock(HttpClient.RequestSender.class);
+
+		private final HttpClientResponse response = mock(HttpClientResponse.class);
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private final AtomicBoolean cancelled = new AtomicBoolean();
+
+		private final Duration delay;
+
+		private final String body;
+
+		private volatile boolean refused;
+
+		private volatile boolean contentLength;
+
+		Backend(Duration delay, String body) {
+			this.delay = delay;
+			this.body = body;
+			when(response.status()).thenReturn(HttpResponseStatus.OK);
+			when(response.responseHeaders()).thenAnswer(invocation -> {
+				DefaultHttpHeaders headers = new DefaultHttpHeaders();
+				headers.set(HttpHeaders.CONTENT_TYPE, "text/plain");
+				if (contentLength) {
+					headers.set(HttpHeaders.CONTENT_LENGTH, body.length());
+				}
+				return headers;
+			});
+			when(sender.response(any())).thenAnswer(invocation -> respond(invocation.getArgument(0)));
+		}
+
+		private Flux<Object> respond(BiFunction<HttpClientResponse, ByteBufFlux, Publisher<Object>> receiver) {
+			calls.incrementAndGet();
+			if (refused) {
+				return Flux.error(new ConnectException("Connection refused"));
+			}
+			return Mono.delay(delay)
+				.thenMany(Flux.defer(() -> receiver.apply(response, ByteBufFlux.fromString(Mono.just(body)))))
+				.doOnCancel(() -> cancelled.set(true));
+		}
+
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.nextera.gateway.filter;
+
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.gateway.metrics.GatewayRequestMetrics;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * 网关请求指标全局过滤器测试
+ *
+ * @author Nextera
+ */
+@DisplayName("网关请求指标全局过滤器测试")
+public class NexteraMetricsGlobalFilterTest {
+
+	private final GatewayRequestMetrics metrics = mock(GatewayRequestMetrics.class);
+
+	private final NexteraMetricsGlobalFilter filter = new NexteraMetricsGlobalFilter(metrics);
+
+	@Test
+	@DisplayName("以X-Request-ID作为exemplar的trace_id，网关请求ID作为span_id，并记录下游实例")
+	void shouldUseRequestIdAsTraceId() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest
+			.get("http://localhost/api/article/1")
+			.header(CommonConstants.Header.REQUEST_ID, "req-1"));
+		exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(
+				new DefaultServiceInstance("a1", "nextera-article", "10.0.0.1", 8080, false)));
+		GatewayFilterChain chain = ex -> {
+			ex.getResponse().setStatusCode(HttpStatus.OK);
+			return Mono.empty();
+		};
+
+		filter.filter(exchange, chain).block();
+
+		verify(metrics).record(eq("unknown"), eq("10.0.0.1:8080"), eq(Outcome.SUCCESS), anyLong(), eq("req-1"),
+				eq(exchange.getRequest().getId()));
+		assertNotNull(exchange.getAttribute(CommonConstants.REQUEST_START_TIME));
+	}
+
+	@Test
+	@DisplayName("缺少X-Request-ID时trace_id回退为网关请求ID，未经过负载均衡时实例为none")
+	void shouldFallBackToGatewayRequestId() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/"));
+		String spanId = exchange.getRequest().getId();
+
+		filter.filter(exchange, ex -> Mono.empty()).block();
+
+		verify(metrics).record(eq("unknown"), eq(GatewayRequestMetrics.NO_INSTANCE), eq(Outcome.SUCCESS), anyLong(),
+				eq(spanId), eq(spanId));
+	}
+
+	@Test
+	@DisplayName("过滤器链抛出异常时按异常状态码记录结果")
+	void shouldRecordOutcomeOfError() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/"));
+		GatewayFilterChain chain = ex -> Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+		assertThrows(ResponseStatusException.class, () -> filter.filter(exchange, chain).block());
+		verify(metrics).record(anyString(), anyString(), eq(Outcome.CLIENT_ERROR), anyLong(), anyString(),
+				anyString());
+
+		MockServerWebExchange failed = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/"));
+		assertThrows(IllegalStateException.class,
+				() -> filter.filter(failed, ex -> Mono.error(new IllegalStateException("boom"))).block());
+		verify(metrics).record(anyString(), anyString(), eq(Outcome.SERVER_ERROR), anyLong(), anyString(),
+				anyString());
+	}
+
+	@Test
+	@DisplayName("客户端取消请求时记录UNKNOWN结果")
+	void shouldRecordCancellation() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/"));
+		Sinks.Empty<Void> never = Sinks.empty();
+
+		filter.filter(exchange, ex -> never.asMono()).subscribe().dispose();
+
+		verify(metrics).record(anyString(), anyString(), eq(Outcome.UNKNOWN), anyLong(), anyString(), anyString());
+	}
+
+}
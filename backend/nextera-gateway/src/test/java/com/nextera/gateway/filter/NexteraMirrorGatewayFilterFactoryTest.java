@@ -0,0 +1,218 @@
+package com.nextera.gateway.filter;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * 流量镜像过滤器测试
+ *
+ * @author Nextera
+ */
+@DisplayName("流量镜像过滤器测试")
+public class NexteraMirrorGatewayFilterFactoryTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final List<ClientRequest> shadowRequests = new CopyOnWriteArrayList<>();
+
+	/**
+	 * 影子服务的响应
+	 */
+	private volatile Function<ClientRequest, Mono<ClientResponse>> shadow = request -> Mono
+		.just(ClientResponse.create(HttpStatus.OK).build());
+
+	private final GatewayFilterChain chain = exchange -> {
+		exchange.getResponse().setStatusCode(HttpStatus.OK);
+		return Mono.empty();
+	};
+
+	private NexteraMirrorGatewayFilterFactory factory;
+
+	private NexteraMirrorGatewayFilterFactory.Config config;
+
+	@BeforeEach
+	void setUp() {
+		WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+			shadowRequests.add(request);
+			return shadow.apply(request);
+		});
+		LoadBalancedExchangeFilterFunction loadBalancer = (request, next) -> next.exchange(request);
+		factory = new NexteraMirrorGatewayFilterFactory(builder, loadBalancer, meterRegistry);
+		config = new NexteraMirrorGatewayFilterFactory.Config();
+		config.setShadowService("nextera-article-canary");
+		config.setPercentage(100);
+	}
+
+	@Test
+	@DisplayName("影子请求发往影子服务，保留重写后的路径与查询参数并带镜像标记")
+	void shouldSendShadowRequest() {
+		filter().filter(exchange(MockServerHttpRequest.get("http://gateway/api/article/1?x=1")
+			.header(HttpHeaders.HOST, "gateway")
+			.header(HttpHeaders.AUTHORIZATION, "Bearer t")
+			.build()), chain).block();
+
+		assertEquals(1, shadowRequests.size());
+		ClientRequest request = shadowRequests.get(0);
+		assertEquals(URI.create("http://nextera-article-canary/article/1?x=1"), request.url());
+		assertEquals("true", request.headers().getFirst(NexteraMirrorGatewayFilterFactory.MIRROR_HEADER));
+		assertEquals("Bearer t", request.headers().getFirst(HttpHeaders.AUTHORIZATION));
+		assertNull(request.headers().getFirst(HttpHeaders.HOST));
+		assertEquals(1, timer("primary", "200").count());
+		assertEquals(1, timer("shadow", "200").count());
+	}
+
+	@Test
+	@DisplayName("按percentage抽样，0%不镜像，未配置的请求方法不镜像")
+	void shouldSampleByPercentage() {
+		config.setPercentage(30);
+		GatewayFilter filter = filter();
+		for (int i = 0; i < 2000; i++) {
+			filter.filter(exchange(MockServerHttpRequest.get("http://gateway/api/article/1").build()), chain).block();
+		}
+		int sampled = shadowRequests.size();
+		assertTrue(sampled > 450 && sampled < 750, "sampled " + sampled);
+		// 只有镜像的请求记录主请求耗时，两侧样本一一对应
+		assertEquals(sampled, timer("primary", "200").count());
+		assertEquals(sampled, timer("shadow", "200").count());
+
+		shadowRequests.clear();
+		config.setPercentage(0);
+		GatewayFilter disabled = filter();
+		for (int i = 0; i < 100; i++) {
+			disabled.filter(exchange(MockServerHttpRequest.get("http://gateway/api/article/1").build()), chain).block();
+		}
+		config.setPercentage(100);
+		filter().filter(exchange(MockServerHttpRequest.delete("http://gateway/api/article/1").build()), chain).block();
+		assertTrue(shadowRequests.isEmpty());
+	}
+
+	@Test
+	@DisplayName("影子请求不返回、超时或失败都不影响主请求")
+	void shouldIsolatePrimaryFromShadow() {
+		config.setTimeout(Duration.ofMillis(50));
+		shadow = request -> Mono.never();
+		MockServerWebExchange hanging = exchange(MockServerHttpRequest.get("http://gateway/api/article/1").build());
+
+		filter().filter(hanging, chain).block(Duration.ofSeconds(1));
+
+		assertEquals(HttpStatus.OK, hanging.getResponse().getStatusCode());
+		assertEquals(1, timer("primary", "200").count());
+		awaitCount("timeout");
+
+		shadow = request -> Mono.error(new IllegalStateException("connection refused"));
+		MockServerWebExchange failing = exchange(MockServerHttpRequest.get("http://gateway/api/article/1").build());
+
+		filter().filter(failing, chain).block(Duration.ofSeconds(1));
+
+		assertEquals(HttpStatus.OK, failing.getResponse().getStatusCode());
+		assertEquals(1, timer("shadow", "error").count());
+	}
+
+	@Test
+	@DisplayName("影子请求数达到max-concurrent时跳过镜像且不记录主请求耗时")
+	void shouldSkipWhenTooManyShadowRequests() {
+		config.setMaxConcurrent(1);
+		shadow = request -> Mono.never();
+		GatewayFilter filter = filter();
+
+		filter.filter(exchange(MockServerHttpRequest.get("http://gateway/api/article/1").build()), chain).block();
+		MockServerWebExchange skipped = exchange(MockServerHttpRequest.get("http://gateway/api/article/2").build());
+		filter.filter(skipped, chain).block();
+
+		assertEquals(HttpStatus.OK, skipped.getResponse().getStatusCode());
+		assertEquals(1, shadowRequests.size());
+		assertEquals(1.0, meterRegistry.counter("nextera.gateway.mirror.skipped", "route", "article").count());
+		assertEquals(1, timer("primary", "200").count());
+	}
+
+	@Test
+	@DisplayName("带请求体的请求复制请求体，主请求仍可读取完整请求体")
+	void shouldCopyRequestBody() {
+		config.setMethods(List.of(HttpMethod.POST));
+		String body = "{\"title\":\"nextera\"}";
+		AtomicReference<String> primaryBody = new AtomicReference<>();
+		GatewayFilterChain readingChain = exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+			.map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+			.doOnNext(primaryBody::set)
+			.then();
+
+		filter().filter(exchange(MockServerHttpRequest.post("http://gateway/api/article")
+			.contentLength(body.length())
+			.body(body)), readingChain).block();
+
+		assertEquals(body, primaryBody.get());
+		assertEquals(1, shadowRequests.size());
+		ClientRequest request = shadowRequests.get(0);
+		MockClientHttpRequest written = new MockClientHttpRequest(request.method(), request.url());
+		request.writeTo(written, ExchangeStrategies.withDefaults()).block();
+		assertEquals(body, written.getBodyAsString().block());
+	}
+
+	private GatewayFilter filter() {
+		return factory.apply(config);
+	}
+
+	/**
+	 * 模拟 {@code StripPrefix=1} 之后的请求，路由目标为 {@code lb://nextera-article}
+	 */
+	private static MockServerWebExchange exchange(MockServerHttpRequest request) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		URI uri = exchange.getRequest().getURI();
+		String path = uri.getRawPath().substring("/api".length());
+		String query = uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "";
+		exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("lb://nextera-article" + path + query));
+		exchange.getAttributes()
+			.put(GATEWAY_ROUTE_ATTR,
+					Route.async().id("article").uri(URI.create("lb://nextera-article")).predicate(e -> true).build());
+		return exchange;
+	}
+
+	private Timer timer(String target, String status) {
+		Timer timer = meterRegistry.find("nextera.gateway.mirror.requests")
+			.tags("route", "article", "target", target, "status", status)
+			.timer();
+		assertNotNull(timer, target + " " + status);
+		return timer;
+	}
+
+	private void awaitCount(String status) {
+		long deadline = System.currentTimeMillis() + 2000;
+		while (meterRegistry.find("nextera.gateway.mirror.requests").tags("target", "shadow", "status", status)
+			.timer() == null && System.currentTimeMillis() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertEquals(1, timer("shadow", status).count());
+	}
+
+}
@@ -0,0 +1,190 @@
+package com.nextera.gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 请求合并过滤器测试
+ *
+ * @author Nextera
+ */
+@DisplayName("请求合并过滤器测试")
+public class NexteraRequestCoalescingGatewayFilterFactoryTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final AtomicInteger downstreamCalls = new AtomicInteger();
+
+	/**
+	 * leader的下游调用等待该信号后才写响应，保证follower在leader完成前到达
+	 */
+	private final Sinks.Empty<Void> leaderGate = Sinks.empty();
+
+	private NexteraRequestCoalescingGatewayFilterFactory factory;
+
+	private NexteraRequestCoalescingGatewayFilterFactory.Config config;
+
+	@BeforeEach
+	void setUp() {
+		factory = new NexteraRequestCoalescingGatewayFilterFactory(meterRegistry);
+		config = new NexteraRequestCoalescingGatewayFilterFactory.Config();
+	}
+
+	@Test
+	@DisplayName("并发的相同请求只有leader访问下游，follower回放leader的2xx响应")
+	void shouldReplayLeaderResponseToFollower() throws Exception {
+		GatewayFilter filter = factory.apply(config);
+		GatewayFilterChain chain = chain(HttpStatus.OK, "leader-body", "own-body");
+		MockServerWebExchange leader = exchange("/article/1");
+		MockServerWebExchange follower = exchange("/article/1");
+
+		CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+		CompletableFuture<Void> followerDone = filter.filter(follower, chain).toFuture();
+		assertFalse(followerDone.isDone());
+		leaderGate.tryEmitEmpty();
+		leaderDone.get(5, TimeUnit.SECONDS);
+		followerDone.get(5, TimeUnit.SECONDS);
+
+		assertEquals(1, downstreamCalls.get());
+		assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+		assertEquals("leader-body", follower.getResponse().getBodyAsString().block());
+		assertEquals("leader-body", leader.getResponse().getBodyAsString().block());
+		assertEquals(1.0, count("leader"));
+		assertEquals(1.0, count("follower"));
+		assertEquals(0.0, count("fallback"));
+	}
+
+	@Test
+	@DisplayName("leader返回非2xx时不共享，follower自行访问下游")
+	void shouldNotShareErrorResponse() throws Exception {
+		GatewayFilter filter = factory.apply(config);
+		GatewayFilterChain chain = chain(HttpStatus.SERVICE_UNAVAILABLE, "busy", "own-body");
+		MockServerWebExchange leader = exchange("/article/1");
+		MockServerWebExchange follower = exchange("/article/1");
+
+		CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+		CompletableFuture<Void> followerDone = filter.filter(follower, chain).toFuture();
+		leaderGate.tryEmitEmpty();
+		leaderDone.get(5, TimeUnit.SECONDS);
+		followerDone.get(5, TimeUnit.SECONDS);
+
+		assertEquals(2, downstreamCalls.get());
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, leader.getResponse().getStatusCode());
+		assertEquals(HttpStatus.OK, follower.getResponse().getStatusCode());
+		assertEquals("own-body", follower.getResponse().getBodyAsString().block());
+		assertEquals(1.0, count("fallback"));
+	}
+
+	@Test
+	@DisplayName("follower等待超时后自行访问下游")
+	void shouldFallBackWhenFollowerTimesOut() throws Exception {
+		config.setTimeout(Duration.ofMillis(50));
+		GatewayFilter filter = factory.apply(config);
+		GatewayFilterChain chain = chain(HttpStatus.OK, "leader-body", "own-body");
+		MockServerWebExchange leader = exchange("/article/1");
+		MockServerWebExchange follower = exchange("/article/1");
+
+		CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+		filter.filter(follower, chain).block(Duration.ofSeconds(5));
+
+		assertFalse(leaderDone.isDone());
+		assertEquals("own-body", follower.getResponse().getBodyAsString().block());
+		assertEquals(1.0, count("fallback"));
+
+		leaderGate.tryEmitEmpty();
+		leaderDone.get(5, TimeUnit.SECONDS);
+		assertEquals("leader-body", leader.getResponse().getBodyAsString().block());
+		assertEquals(2, downstreamCalls.get());
+	}
+
+	@Test
+	@DisplayName("响应体超过max-body-size时不共享，follower自行访问下游")
+	void shouldNotShareOversizedBody() throws Exception {
+		config.setMaxBodySize(DataSize.ofBytes(4));
+		GatewayFilter filter = factory.apply(config);
+		GatewayFilterChain chain = chain(HttpStatus.OK, "leader-body", "own-body");
+		MockServerWebExchange leader = exchange("/article/1");
+		MockServerWebExchange follower = exchange("/article/1");
+
+		CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+		CompletableFuture<Void> followerDone = filter.filter(follower, chain).toFuture();
+		leaderGate.tryEmitEmpty();
+		leaderDone.get(5, TimeUnit.SECONDS);
+		followerDone.get(5, TimeUnit.SECONDS);
+
+		assertEquals(2, downstreamCalls.get());
+		assertEquals("leader-body", leader.getResponse().getBodyAsString().block());
+		assertEquals("own-body", follower.getResponse().getBodyAsString().block());
+		assertEquals(1.0, count("fallback"));
+	}
+
+	@Test
+	@DisplayName("条件请求不参与合并")
+	void shouldBypassConditionalRequest() throws Exception {
+		GatewayFilter filter = factory.apply(config);
+		GatewayFilterChain chain = chain(HttpStatus.OK, "leader-body", "own-body");
+		MockServerWebExchange leader = exchange("/article/1");
+		MockServerWebExchange conditional = MockServerWebExchange
+			.from(MockServerHttpRequest.get("http://localhost/article/1").header(HttpHeaders.IF_NONE_MATCH, "\"v1\""));
+
+		CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+		filter.filter(conditional, chain).block(Duration.ofSeconds(5));
+
+		assertEquals("own-body", conditional.getResponse().getBodyAsString().block());
+		assertEquals(0.0, count("follower"));
+
+		leaderGate.tryEmitEmpty();
+		leaderDone.get(5, TimeUnit.SECONDS);
+		assertEquals(2, downstreamCalls.get());
+	}
+
+	/**
+	 * 第一次下游调用（leader）等待 {@link #leaderGate} 后返回leaderStatus，之后的调用立即返回200
+	 */
+	private GatewayFilterChain chain(HttpStatus leaderStatus, String leaderBody, String ownBody) {
+		return exchange -> {
+			if (downstreamCalls.incrementAndGet() == 1) {
+				return leaderGate.asMono().then(Mono.defer(() -> respond(exchange, leaderStatus, leaderBody)));
+			}
+			return respond(exchange, HttpStatus.OK, ownBody);
+		};
+	}
+
+	private static Mono<Void> respond(ServerWebExchange exchange, HttpStatus status, String body) {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(status);
+		response.getHeaders().setContentLength(bytes.length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+	}
+
+	private static MockServerWebExchange exchange(String path) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost" + path));
+	}
+
+	private double count(String role) {
+		return meterRegistry.counter("nextera.gateway.coalescing.requests", "route", "unknown", "role", role).count();
+	}
+
+}
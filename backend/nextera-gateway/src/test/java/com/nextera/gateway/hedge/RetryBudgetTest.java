@@ -0,0 +1,80 @@
+package com.nextera.gateway.hedge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 重试/对冲预算测试
+ *
+ * @author Nextera
+ */
+@DisplayName("重试/对冲预算测试")
+public class RetryBudgetTest {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	@DisplayName("额外请求数不超过原始请求数×ratio")
+	void shouldLimitByRatio() {
+		RetryBudget budget = new RetryBudget(0.1, 0, clock::get);
+		for (int i = 0; i < 100; i++) {
+			budget.recordRequest();
+		}
+
+		assertEquals(10, drain(budget));
+		assertFalse(budget.tryAcquire());
+
+		for (int i = 0; i < 10; i++) {
+			budget.recordRequest();
+		}
+		assertTrue(budget.tryAcquire());
+		assertFalse(budget.tryAcquire());
+	}
+
+	@Test
+	@DisplayName("没有流量时仍按min-per-second保留预算")
+	void shouldReserveMinPerSecond() {
+		RetryBudget budget = new RetryBudget(0.1, 2, clock::get);
+
+		// 10秒窗口 × 每秒2次
+		assertEquals(20, drain(budget));
+	}
+
+	@Test
+	@DisplayName("min-per-second为0且没有原始请求时不允许额外请求")
+	void shouldDenyWithoutReserve() {
+		RetryBudget budget = new RetryBudget(0.5, 0, clock::get);
+
+		assertFalse(budget.tryAcquire());
+	}
+
+	@Test
+	@DisplayName("额外请求滑出10秒窗口后预算逐秒恢复")
+	void shouldRecoverAsWindowSlides() {
+		RetryBudget budget = new RetryBudget(0, 1, clock::get);
+		assertEquals(10, drain(budget));
+
+		clock.addAndGet(Duration.ofSeconds(9).toNanos());
+		assertFalse(budget.tryAcquire());
+
+		clock.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertEquals(10, drain(budget));
+
+		clock.addAndGet(Duration.ofSeconds(30).toNanos());
+		assertEquals(10, drain(budget));
+	}
+
+	private static int drain(RetryBudget budget) {
+		int granted = 0;
+		while (budget.tryAcquire()) {
+			granted++;
+		}
+		return granted;
+	}
+
+}
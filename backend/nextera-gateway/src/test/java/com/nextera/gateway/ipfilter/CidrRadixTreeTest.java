@@ -0,0 +1,141 @@
+package com.nextera.gateway.ipfilter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CIDR基数树测试
+ *
+ * @author Nextera
+ */
+@DisplayName("CIDR基数树测试")
+public class CidrRadixTreeTest {
+
+	@Test
+	@DisplayName("按最长前缀匹配，区分IPv4与IPv6")
+	void shouldMatchLongestPrefix() throws UnknownHostException {
+		CidrRadixTree<String> tree = CidrRadixTree.<String>builder()
+			.put("10.0.0.0/8", "a")
+			.put("10.1.0.0/16", "b")
+			.put("10.1.2.3", "c")
+			.put("2001:db8::/32", "v6")
+			.put("2001:db8:1::/48", "v6-48")
+			.build();
+
+		assertEquals("a", tree.lookup(address("10.200.0.1")));
+		assertEquals("b", tree.lookup(address("10.1.9.9")));
+		assertEquals("c", tree.lookup(address("10.1.2.3")));
+		assertNull(tree.lookup(address("11.0.0.1")));
+		assertEquals("v6", tree.lookup(address("2001:db8:2::1")));
+		assertEquals("v6-48", tree.lookup(address("2001:db8:1::1")));
+		assertNull(tree.lookup(address("2001:db9::1")));
+		assertEquals(5, tree.size());
+	}
+
+	@Test
+	@DisplayName("0.0.0.0/0匹配所有IPv4地址，IPv4映射的IPv6前缀按IPv4存储")
+	void shouldHandleDefaultRouteAndMappedPrefixes() throws UnknownHostException {
+		CidrRadixTree<String> tree = CidrRadixTree.<String>builder()
+			.put("0.0.0.0/0", "any")
+			.put("::ffff:192.168.0.0/112", "mapped")
+			.build();
+
+		assertEquals("any", tree.lookup(address("8.8.8.8")));
+		assertEquals("mapped", tree.lookup(address("192.168.3.4")));
+		assertNull(tree.lookup(address("::1")));
+	}
+
+	@Test
+	@DisplayName("同一前缀出现在允许和拒绝规则中时拒绝优先")
+	void shouldPreferDenyForDuplicatePrefixes() throws UnknownHostException {
+		CidrRadixTree.Builder<IpAction> builder = CidrRadixTree.builder(IpAction::merge);
+		IpAccessRules.parseLine(builder, "# 注释");
+		IpAccessRules.parseLine(builder, "allow 192.168.0.0/16");
+		IpAccessRules.parseLine(builder, "deny 192.168.0.0/16");
+		IpAccessRules.parseLine(builder, "allow 192.168.1.0/24");
+		IpAccessRules.parseLine(builder, "203.0.113.0/24");
+		IpAccessRules.parseLine(builder, "deny not-an-ip");
+		CidrRadixTree<IpAction> tree = builder.build();
+
+		assertEquals(IpAction.DENY, tree.lookup(address("192.168.2.1")));
+		assertEquals(IpAction.ALLOW, tree.lookup(address("192.168.1.1")));
+		assertEquals(IpAction.DENY, tree.lookup(address("203.0.113.7")));
+		assertEquals(3, tree.size());
+	}
+
+	@Test
+	@DisplayName("拒绝主机名与非法前缀长度")
+	void shouldRejectInvalidCidr() {
+		assertThrows(IllegalArgumentException.class, () -> CidrRadixTree.parse("example.com"));
+		assertThrows(IllegalArgumentException.class, () -> CidrRadixTree.parse("10.0.0.0/33"));
+		assertThrows(IllegalArgumentException.class, () -> CidrRadixTree.parse("10.0.0/8"));
+		assertThrows(IllegalArgumentException.class, () -> CidrRadixTree.parse("2001:db8::/129"));
+		assertThrows(IllegalArgumentException.class, () -> CidrRadixTree.parse("10.0.0.0/x"));
+	}
+
+	@Test
+	@DisplayName("随机前缀的查找结果与逐条比较一致")
+	void shouldAgreeWithLinearScan() throws UnknownHostException {
+		Random random = new Random(7);
+		List<CidrRadixTree.Cidr> prefixes = new ArrayList<>();
+		CidrRadixTree.Builder<Integer> builder = CidrRadixTree.builder();
+		for (int i = 0; i < 5000; i++) {
+			byte[] bytes = new byte[random.nextInt(4) == 0 ? 16 : 4];
+			random.nextBytes(bytes);
+			// 集中在较小的地址空间内，制造大量嵌套前缀
+			bytes[0] = (byte) random.nextInt(4);
+			int length = random.nextInt(bytes.length * 8 + 1);
+			String cidr = InetAddress.getByAddress(bytes).getHostAddress() + "/" + length;
+			builder.put(cidr, i);
+			prefixes.add(CidrRadixTree.parse(cidr));
+		}
+		CidrRadixTree<Integer> tree = builder.build();
+
+		for (int i = 0; i < 5000; i++) {
+			byte[] bytes = new byte[random.nextInt(4) == 0 ? 16 : 4];
+			random.nextBytes(bytes);
+			bytes[0] = (byte) random.nextInt(4);
+			assertEquals(linearScan(prefixes, bytes), tree.lookup(InetAddress.getByAddress(bytes)));
+		}
+	}
+
+	/**
+	 * 逐条比较，相同长度的前缀取后添加的
+	 */
+	private static Integer linearScan(List<CidrRadixTree.Cidr> prefixes, byte[] address) {
+		Integer best = null;
+		int bestLength = -1;
+		for (int i = 0; i < prefixes.size(); i++) {
+			CidrRadixTree.Cidr prefix = prefixes.get(i);
+			if (prefix.address().length == address.length && prefix.prefixLength() >= bestLength
+					&& covers(prefix, address)) {
+				best = i;
+				bestLength = prefix.prefixLength();
+			}
+		}
+		return best;
+	}
+
+	private static boolean covers(CidrRadixTree.Cidr prefix, byte[] address) {
+		for (int bit = 0; bit < prefix.prefixLength(); bit++) {
+			int shift = 7 - (bit & 7);
+			if (((prefix.address()[bit >>> 3] >>> shift) & 1) != ((address[bit >>> 3] >>> shift) & 1)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static InetAddress address(String literal) throws UnknownHostException {
+		return InetAddress.getByName(literal);
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.nextera.gateway.loadbalancer;
+
+import com.nextera.gateway.config.NexteraLoadBalancerProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 有界负载一致性哈希负载均衡测试
+ *
+ * @author Nextera
+ */
+@DisplayName("有界负载一致性哈希负载均衡测试")
+public class ConsistentHashLoadBalancerTest {
+
+	private static final String SERVICE_ID = "nextera-user";
+
+	private static final int KEYS = 10_000;
+
+	private final InstanceLoadStats stats = new InstanceLoadStats(Duration.ofSeconds(10), Duration.ofSeconds(1));
+
+	@Test
+	@DisplayName("相同key固定落到同一实例，key在实例间分布均匀")
+	void shouldSpreadKeysEvenly() {
+		List<ServiceInstance> instances = instances(5);
+		ConsistentHashLoadBalancer loadBalancer = loadBalancer();
+
+		Map<ServiceInstance, Integer> counts = new HashMap<>();
+		for (int key = 0; key < KEYS; key++) {
+			ServiceInstance chosen = loadBalancer.select(instances, "user-" + key).getServer();
+			assertSame(chosen, loadBalancer.select(instances, "user-" + key).getServer());
+			counts.merge(chosen, 1, Integer::sum);
+		}
+		for (ServiceInstance instance : instances) {
+			int count = counts.getOrDefault(instance, 0);
+			assertTrue(count > KEYS / 5 * 0.75 && count < KEYS / 5 * 1.25, instance.getHost() + ": " + count);
+		}
+	}
+
+	@Test
+	@DisplayName("新增实例时只迁移约1/n的key，且只迁移到新实例")
+	void shouldRebalanceMinimally() {
+		List<ServiceInstance> before = instances(5);
+		List<ServiceInstance> after = instances(6);
+		ConsistentHashLoadBalancer loadBalancer = loadBalancer();
+
+		int moved = 0;
+		for (int key = 0; key < KEYS; key++) {
+			ServiceInstance previous = loadBalancer.select(before, "user-" + key).getServer();
+			ServiceInstance current = loadBalancer.select(after, "user-" + key).getServer();
+			if (!ConsistentHashLoadBalancer.instanceKey(previous)
+				.equals(ConsistentHashLoadBalancer.instanceKey(current))) {
+				moved++;
+				assertEquals(after.get(5).getHost(), current.getHost());
+			}
+		}
+		assertTrue(moved > KEYS / 6 * 0.7 && moved < KEYS / 6 * 1.3, "moved keys: " + moved);
+	}
+
+	@Test
+	@DisplayName("实例并发数超过上限时顺延到环上的下一个实例")
+	void shouldSpillOverWhenOwnerIsOverloaded() {
+		List<ServiceInstance> instances = instances(3);
+		ConsistentHashLoadBalancer loadBalancer = loadBalancer();
+		ServiceInstance owner = loadBalancer.select(instances, "hot-key").getServer();
+
+		// 平均并发数为 10/3，上限为 ceil(1.25 × 11 / 3) = 5
+		IntStream.range(0, 10).forEach(i -> stats.get(SERVICE_ID, owner).start());
+		ServiceInstance spilled = loadBalancer.select(instances, "hot-key").getServer();
+		assertNotEquals(owner.getHost(), spilled.getHost());
+
+		IntStream.range(0, 10).forEach(i -> stats.get(SERVICE_ID, owner).cancel());
+		assertEquals(owner.getHost(), loadBalancer.select(instances, "hot-key").getServer().getHost());
+	}
+
+	@Test
+	@DisplayName("没有key时轮询，空实例列表返回空响应")
+	void shouldRoundRobinWithoutKey() {
+		List<ServiceInstance> instances = instances(3);
+		ConsistentHashLoadBalancer loadBalancer = loadBalancer();
+
+		List<String> hosts = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			hosts.add(loadBalancer.select(instances, null).getServer().getHost());
+		}
+		assertEquals(3, hosts.stream().distinct().count());
+		assertFalse(loadBalancer.select(List.of(), "user-1").hasServer());
+	}
+
+	@Test
+	@DisplayName("实例集合切换回已缓存的环时重新登记key空间比例")
+	void shouldReRegisterRingShareWhenSwitchingBack() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		ConsistentHashLoadBalancer loadBalancer = loadBalancer(registry);
+		List<ServiceInstance> all = instances(5);
+		List<ServiceInstance> degraded = new ArrayList<>(all.subList(0, 4));
+
+		loadBalancer.select(all, "user-1");
+		assertEquals(5, ringShares(registry).size());
+		loadBalancer.select(degraded, "user-1");
+		assertEquals(4, ringShares(registry).size());
+		// 内容相同的新列表复用当前环
+		loadBalancer.select(new ArrayList<>(degraded), "user-1");
+		assertEquals(4, ringShares(registry).size());
+		loadBalancer.select(all, "user-1");
+		Collection<Gauge> shares = ringShares(registry);
+		assertEquals(5, shares.size());
+		assertEquals(1.0, shares.stream().mapToDouble(Gauge::value).sum(), 1e-9);
+	}
+
+	private static Collection<Gauge> ringShares(SimpleMeterRegistry registry) {
+		return registry.find("nextera.gateway.loadbalancer.hash.ring.share").gauges();
+	}
+
+	private ConsistentHashLoadBalancer loadBalancer() {
+		return loadBalancer(new SimpleMeterRegistry());
+	}
+
+	private ConsistentHashLoadBalancer loadBalancer(SimpleMeterRegistry registry) {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		return new ConsistentHashLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+				SERVICE_ID, stats, new NexteraLoadBalancerProperties.Hash(), registry);
+	}
+
+	private static List<ServiceInstance> instances(int count) {
+		List<ServiceInstance> instances = new ArrayList<>(count);
+		for (int i = 1; i <= count; i++) {
+			instances.add(new DefaultServiceInstance(SERVICE_ID + "-" + i, SERVICE_ID, "10.0.0." + i, 8080, false));
+		}
+		return instances;
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.nextera.gateway.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * P2C峰值EWMA负载均衡仿真测试
+ * <p>
+ * 使用虚拟时钟按固定间隔发起请求，桩实例按各自的耗时完成请求，统计各实例分到的请求数。
+ *
+ * @author Nextera
+ */
+@DisplayName("P2C峰值EWMA负载均衡仿真测试")
+public class PeakEwmaLoadBalancerSimulationTest {
+
+	private static final String SERVICE_ID = "nextera-article";
+
+	private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+	private static final int REQUESTS = 10_000;
+
+	private final List<ServiceInstance> instances = List.of(instance(1), instance(2), instance(3));
+
+	@Test
+	@DisplayName("慢实例分到的流量明显少于其他实例")
+	void shouldAvoidSlowInstance() {
+		long[] latencyMillis = { 10, 12, 200 };
+		AtomicLong now = new AtomicLong();
+		InstanceLoadStats stats = new InstanceLoadStats(Duration.ofSeconds(10), Duration.ofSeconds(1), now::get);
+		int[] chosen = run(loadBalancer(stats), stats, now,
+				index -> TimeUnit.MILLISECONDS.toNanos(latencyMillis[index]));
+
+		int[] picks = count(chosen, 0, REQUESTS);
+		assertTrue(picks[2] < REQUESTS * 0.05, "slow instance share too high: " + picks[2]);
+		assertTrue(picks[0] > REQUESTS * 0.35, "fast instance share too low: " + picks[0]);
+		assertTrue(picks[1] > REQUESTS * 0.35, "fast instance share too low: " + picks[1]);
+	}
+
+	@Test
+	@DisplayName("实例出现停顿后流量迅速转移，恢复后重新分到流量")
+	void shouldShiftTrafficAwayFromPausedInstanceAndRecover() {
+		AtomicLong now = new AtomicLong();
+		InstanceLoadStats stats = new InstanceLoadStats(Duration.ofSeconds(1), Duration.ofSeconds(1), now::get);
+		long pauseStart = REQUESTS / 3 * INTERVAL_NANOS;
+		long pauseEnd = 2 * pauseStart;
+		int[] chosen = run(loadBalancer(stats), stats, now, index -> {
+			boolean paused = index == 0 && now.get() >= pauseStart && now.get() < pauseEnd;
+			return TimeUnit.MILLISECONDS.toNanos(paused ? 300 : 10);
+		});
+
+		// 停顿开始后留出少量请求用于发现停顿，恢复后留出衰减时间
+		int[] during = count(chosen, REQUESTS / 3 + REQUESTS / 30, 2 * REQUESTS / 3);
+		int[] after = count(chosen, 2 * REQUESTS / 3 + REQUESTS / 6, REQUESTS);
+		int duringTotal = during[0] + during[1] + during[2];
+		int afterTotal = after[0] + after[1] + after[2];
+		assertTrue(during[0] < duringTotal * 0.05, "paused instance share too high: " + during[0]);
+		assertTrue(after[0] > afterTotal * 0.2, "recovered instance share too low: " + after[0]);
+	}
+
+	@Test
+	@DisplayName("单实例和空实例列表")
+	void shouldHandleTrivialInstanceLists() {
+		InstanceLoadStats stats = new InstanceLoadStats(Duration.ofSeconds(10), Duration.ofSeconds(1));
+		PeakEwmaLoadBalancer loadBalancer = loadBalancer(stats);
+
+		assertFalse(loadBalancer.select(List.of()).hasServer());
+		assertSame(instances.get(0), loadBalancer.select(List.of(instances.get(0))).getServer());
+	}
+
+	/**
+	 * 按虚拟时间推进仿真：每隔 {@link #INTERVAL_NANOS} 发起一个请求，到达完成时间的请求先结束
+	 * @return 每个请求选中的实例下标
+	 */
+	private int[] run(PeakEwmaLoadBalancer loadBalancer, InstanceLoadStats stats, AtomicLong now,
+			IntToLongFunction latency) {
+		int[] chosen = new int[REQUESTS];
+		// {完成时间, 实例下标, 开始时间}
+		PriorityQueue<long[]> pending = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+		for (int i = 0; i < REQUESTS; i++) {
+			long arrival = i * INTERVAL_NANOS;
+			while (!pending.isEmpty() && pending.peek()[0] <= arrival) {
+				complete(stats, now, pending.poll());
+			}
+			now.set(arrival);
+			ServiceInstance instance = loadBalancer.choose().block().getServer();
+			int index = instances.indexOf(instance);
+			long start = stats.get(SERVICE_ID, instance).start();
+			pending.add(new long[] { arrival + latency.applyAsLong(index), index, start });
+			chosen[i] = index;
+		}
+		while (!pending.isEmpty()) {
+			complete(stats, now, pending.poll());
+		}
+		return chosen;
+	}
+
+	private void complete(InstanceLoadStats stats, AtomicLong now, long[] done) {
+		now.set(done[0]);
+		stats.get(SERVICE_ID, instances.get((int) done[1])).complete(done[2], false);
+	}
+
+	private int[] count(int[] chosen, int from, int to) {
+		int[] picks = new int[instances.size()];
+		for (int i = from; i < to; i++) {
+			picks[chosen[i]]++;
+		}
+		return picks;
+	}
+
+	private PeakEwmaLoadBalancer loadBalancer(InstanceLoadStats stats) {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("serviceInstanceListSupplier", new StubSupplier(instances));
+		return new PeakEwmaLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class), SERVICE_ID,
+				stats, new Random(42));
+	}
+
+	private static ServiceInstance instance(int index) {
+		return new DefaultServiceInstance(SERVICE_ID + "-" + index, SERVICE_ID, "10.0.0." + index, 8080, false);
+	}
+
+	private record StubSupplier(List<ServiceInstance> instances) implements ServiceInstanceListSupplier {
+
+		@Override
+		public String getServiceId() {
+			return SERVICE_ID;
+		}
+
+		@Override
+		public Flux<List<ServiceInstance>> get() {
+			return Flux.just(instances);
+		}
+
+	}
+
+}
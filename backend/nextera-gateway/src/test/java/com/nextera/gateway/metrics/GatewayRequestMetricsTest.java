@@ -0,0 +1,134 @@
+package com.nextera.gateway.metrics;
+
+import com.nextera.gateway.config.NexteraMetricsProperties;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import io.micrometer.core.instrument.cumulative.CumulativeTimer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 网关请求RED指标测试
+ *
+ * @author Nextera
+ */
+@DisplayName("网关请求RED指标测试")
+public class GatewayRequestMetricsTest {
+
+	private final RequestExemplarContext exemplarContext = new RequestExemplarContext();
+
+	/**
+	 * 记录耗时时看到的exemplar上下文，格式为 traceId/spanId
+	 */
+	private final List<String> observed = new ArrayList<>();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry() {
+		@Override
+		protected Timer newTimer(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig,
+				PauseDetector pauseDetector) {
+			return new CumulativeTimer(id, Clock.SYSTEM, distributionStatisticConfig, pauseDetector,
+					getBaseTimeUnit(), false) {
+				@Override
+				protected void recordNonNegative(long amount, TimeUnit unit) {
+					observed.add(exemplarContext.isCurrentSpanSampled()
+							? exemplarContext.getCurrentTraceId() + "/" + exemplarContext.getCurrentSpanId() : null);
+					super.recordNonNegative(amount, unit);
+				}
+			};
+		}
+	};
+
+	@Test
+	@DisplayName("记录耗时期间绑定exemplar上下文，记录后清除")
+	void shouldBindExemplarWhileRecording() {
+		GatewayRequestMetrics metrics = metrics(true);
+
+		metrics.record("article", "10.0.0.1:8080", Outcome.SUCCESS, 1_000_000, "req-1", "span-1");
+
+		assertEquals(List.of("req-1/span-1", "req-1/span-1"), observed);
+		assertFalse(exemplarContext.isCurrentSpanSampled());
+		assertNull(exemplarContext.getCurrentTraceId());
+		assertNull(exemplarContext.getCurrentSpanId());
+	}
+
+	@Test
+	@DisplayName("关闭exemplar后不绑定上下文")
+	void shouldNotBindWhenExemplarsDisabled() {
+		GatewayRequestMetrics metrics = metrics(false);
+
+		metrics.record("article", GatewayRequestMetrics.NO_INSTANCE, Outcome.SUCCESS, 1_000_000, "req-1", "span-1");
+
+		assertEquals(1, observed.size());
+		assertNull(observed.get(0));
+	}
+
+	@Test
+	@DisplayName("按路由与下游实例记录，未经过负载均衡的请求不记录实例指标")
+	void shouldRecordRouteAndInstance() {
+		GatewayRequestMetrics metrics = metrics(true);
+
+		metrics.record("article", "10.0.0.1:8080", Outcome.SERVER_ERROR, 2_000_000, "req-1", "span-1");
+		metrics.record("article", GatewayRequestMetrics.NO_INSTANCE, Outcome.SUCCESS, 1_000_000, "req-2", "span-2");
+
+		assertEquals(1, routeTimer("article", Outcome.SERVER_ERROR).count());
+		assertEquals(1, routeTimer("article", Outcome.SUCCESS).count());
+		Timer upstream = meterRegistry.find(GatewayRequestMetrics.METRIC_UPSTREAM_REQUESTS)
+			.tags("route", "article", "instance", "10.0.0.1:8080", "outcome", Outcome.SERVER_ERROR.name())
+			.timer();
+		assertNotNull(upstream);
+		assertEquals(1, upstream.count());
+		assertNull(meterRegistry.find(GatewayRequestMetrics.METRIC_UPSTREAM_REQUESTS)
+			.tag("instance", GatewayRequestMetrics.NO_INSTANCE)
+			.timer());
+	}
+
+	@Test
+	@DisplayName("路由刷新后预注册各outcome的路由指标")
+	void shouldPreRegisterRoutesOnRefresh() {
+		RouteLocator routeLocator = mock(RouteLocator.class);
+		when(routeLocator.getRoutes()).thenReturn(Flux.just(Route.async()
+			.id("user")
+			.uri(URI.create("lb://nextera-user"))
+			.predicate(exchange -> true)
+			.build()));
+		GatewayRequestMetrics metrics = new GatewayRequestMetrics(meterRegistry, routeLocator,
+				new NexteraMetricsProperties());
+
+		metrics.onApplicationEvent(null);
+
+		for (Outcome outcome : Outcome.values()) {
+			assertEquals(0, routeTimer("user", outcome).count());
+		}
+	}
+
+	private GatewayRequestMetrics metrics(boolean exemplarsEnabled) {
+		NexteraMetricsProperties properties = new NexteraMetricsProperties();
+		properties.setExemplarsEnabled(exemplarsEnabled);
+		return new GatewayRequestMetrics(meterRegistry, mock(RouteLocator.class), properties);
+	}
+
+	private Timer routeTimer(String routeId, Outcome outcome) {
+		Timer timer = meterRegistry.find(GatewayRequestMetrics.METRIC_REQUESTS)
+			.tags("route", routeId, "outcome", outcome.name())
+			.timer();
+		assertNotNull(timer);
+		return timer;
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.nextera.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 租借式本地令牌桶测试
+ *
+ * @author Nextera
+ */
+@DisplayName("租借式本地令牌桶测试")
+public class LeasedTokenBucketTest {
+
+	private static final long LEASE_TTL = Duration.ofSeconds(1).toNanos();
+
+	@Test
+	@DisplayName("突发请求超过单次租借量时排入下一次租借，全局桶有余量就不误拒")
+	void shouldQueueLosersForNextLease() {
+		LeasedTokenBucket bucket = new LeasedTokenBucket(LEASE_TTL);
+		PendingLeaser leaser = new PendingLeaser();
+		List<Boolean> results = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			bucket.acquire(leaser, 10, 100, 100).subscribe(results::add);
+		}
+		assertEquals(List.of(10L), leaser.requested);
+
+		leaser.complete(0, 10);
+		assertEquals(10, results.size());
+		// 第二次租借按未满足的20个请求申请
+		assertEquals(List.of(10L, 20L), leaser.requested);
+
+		leaser.complete(1, 20);
+		assertEquals(30, results.size());
+		assertTrue(results.stream().allMatch(Boolean::booleanValue));
+	}
+
+	@Test
+	@DisplayName("全局桶给出的令牌少于申请数时拒绝剩余请求，不再重复租借")
+	void shouldRejectWhenGlobalBucketIsShort() {
+		LeasedTokenBucket bucket = new LeasedTokenBucket(LEASE_TTL);
+		PendingLeaser leaser = new PendingLeaser();
+		List<Boolean> results = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			bucket.acquire(leaser, 10, 100, 100).subscribe(results::add);
+		}
+		leaser.complete(0, 5);
+
+		assertEquals(30, results.size());
+		assertEquals(5, results.stream().filter(Boolean::booleanValue).count());
+		assertEquals(1, leaser.requested.size());
+	}
+
+	@Test
+	@DisplayName("过期未用的令牌随下一次租借归还全局桶")
+	void shouldReturnExpiredTokens() throws InterruptedException {
+		LeasedTokenBucket bucket = new LeasedTokenBucket(Duration.ofMillis(20).toNanos());
+		List<Long> returned = new ArrayList<>();
+		LeasedTokenBucket.Leaser leaser = (requested, back) -> {
+			returned.add(back);
+			return Mono.just(requested);
+		};
+
+		assertTrue(bucket.acquire(leaser, 10, 100, 100).block());
+		assertEquals(9, bucket.availableTokens());
+		Thread.sleep(50);
+		assertEquals(0, bucket.availableTokens());
+		assertTrue(bucket.acquire(leaser, 10, 100, 100).block());
+		assertEquals(List.of(0L, 9L), returned);
+	}
+
+	@Test
+	@DisplayName("全局桶耗尽后的退避时间按当前速率计算")
+	void shouldBackOffByCurrentRate() throws InterruptedException {
+		LeasedTokenBucket bucket = new LeasedTokenBucket(LEASE_TTL);
+		List<Long> calls = new ArrayList<>();
+		LeasedTokenBucket.Leaser empty = (requested, back) -> {
+			calls.add(requested);
+			return Mono.just(0L);
+		};
+
+		// 速率为每秒1个：一秒内不再访问Redis
+		assertFalse(bucket.acquire(empty, 10, 100, 1).block());
+		assertFalse(bucket.acquire(empty, 10, 100, 1000).block());
+		assertEquals(1, calls.size());
+
+		// 速率调高到每秒1000个后，退避缩短到1毫秒
+		LeasedTokenBucket fast = new LeasedTokenBucket(LEASE_TTL);
+		assertFalse(fast.acquire(empty, 10, 100, 1000).block());
+		Thread.sleep(10);
+		assertFalse(fast.acquire(empty, 10, 100, 1000).block());
+		assertEquals(3, calls.size());
+	}
+
+	/**
+	 * 由测试控制完成时机的租借函数
+	 */
+	private static final class PendingLeaser implements LeasedTokenBucket.Leaser {
+
+		private final List<Long> requested = new ArrayList<>();
+
+		private final List<Sinks.One<Long>> sinks = new ArrayList<>();
+
+		@Override
+		public Mono<Long> lease(long requested, long returned) {
+			Sinks.One<Long> sink = Sinks.one();
+			this.requested.add(requested);
+			sinks.add(sink);
+			return sink.asMono();
+		}
+
+		void complete(int call, long granted) {
+			sinks.get(call).tryEmitValue(granted);
+		}
+
+	}
+
+}
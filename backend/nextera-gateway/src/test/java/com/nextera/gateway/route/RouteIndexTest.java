@@ -0,0 +1,93 @@
+package com.nextera.gateway.route;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.http.server.PathContainer;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 路由匹配索引测试
+ *
+ * @author Nextera
+ */
+@DisplayName("路由匹配索引测试")
+public class RouteIndexTest {
+
+	private RouteIndex index;
+
+	@BeforeEach
+	void setUp() {
+		Map<String, RouteDefinition> definitions = new HashMap<>();
+		definitions.put("user", definition("user", "Path=/api/user/**"));
+		definitions.put("variable", definition("variable", "Path=/api/{service}/**"));
+		// "java-dsl" 没有路由定义
+		definitions.put("article", definition("article", "Path=/api/article/**", "Method=GET"));
+		RouteDefinition multi = definition("multi");
+		PredicateDefinition path = new PredicateDefinition();
+		path.setName("Path");
+		path.addArg("patterns", "/a/**, /b/**");
+		path.addArg("matchTrailingSlash", "true");
+		multi.setPredicates(List.of(path));
+		definitions.put("multi", multi);
+		definitions.put("host", definition("host", "Host=**.nextera.com"));
+
+		List<Route> routes = Stream.of("user", "variable", "java-dsl", "article", "multi", "host")
+			.map(id -> Route.async().id(id).uri(URI.create("lb://" + id)).predicate(exchange -> true).build())
+			.toList();
+		index = RouteIndex.build(routes, definitions);
+	}
+
+	@Test
+	@DisplayName("候选路由包含字面量前缀匹配的路由与不可索引的路由，并保持路由顺序")
+	void shouldReturnOrderedCandidates() {
+		assertArrayEquals(new int[] { 0, 1, 2, 5 }, lookup("/api/user/1"));
+		assertArrayEquals(new int[] { 1, 2, 3, 5 }, lookup("/api/article/1"));
+		assertArrayEquals(new int[] { 1, 2, 5 }, lookup("/api/unknown/1"));
+		assertArrayEquals(new int[] { 1, 2, 5 }, lookup("/api"));
+		assertArrayEquals(new int[] { 2, 5 }, lookup("/other"));
+		assertArrayEquals(new int[] { 2, 4, 5 }, lookup("/b/x"));
+		assertArrayEquals(new int[] { 2, 5 }, lookup("/"));
+	}
+
+	@Test
+	@DisplayName("按解码后的路径段匹配并忽略矩阵参数")
+	void shouldMatchDecodedSegments() {
+		assertArrayEquals(new int[] { 0, 1, 2, 5 }, lookup("/api/us%65r;jsessionid=1/1"));
+		assertArrayEquals(new int[] { 0, 1, 2, 5 }, lookup("/api/user/"));
+	}
+
+	@Test
+	@DisplayName("提取Path模式的字面量前缀")
+	void shouldExtractLiteralPrefixes() {
+		assertArrayEquals(new String[] { "api", "user" },
+				RouteIndex.literalPrefixes(definition("r", "Path=/api/user/**")).get(0));
+		assertArrayEquals(new String[] { "api" },
+				RouteIndex.literalPrefixes(definition("r", "Path=/api/user*/**")).get(0));
+		assertArrayEquals(new String[0], RouteIndex.literalPrefixes(definition("r", "Path=/**")).get(0));
+		assertNull(RouteIndex.literalPrefixes(definition("r", "Method=GET")));
+		assertNull(RouteIndex.literalPrefixes(null));
+	}
+
+	private int[] lookup(String path) {
+		return index.lookup(PathContainer.parsePath(path));
+	}
+
+	private static RouteDefinition definition(String id, String... predicates) {
+		RouteDefinition definition = new RouteDefinition();
+		definition.setId(id);
+		definition.setPredicates(Stream.of(predicates).map(PredicateDefinition::new).toList());
+		return definition;
+	}
+
+}
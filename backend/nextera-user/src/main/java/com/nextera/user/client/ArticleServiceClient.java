@@ -3,6 +3,7 @@ package com.nextera.user.client;
 import com.nextera.api.article.dto.ArticleCreateRequest;
 import com.nextera.api.article.dto.ArticleDTO;
 import com.nextera.api.article.service.ArticleService;
+import com.nextera.common.cache.TwoLevelCacheBypass;
 import com.nextera.common.core.Result;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.dubbo.config.annotation.DubboReference;
@@ -122,7 +123,7 @@ public class ArticleServiceClient {
 
     /**
      * 根据ID获取文章详情（TCC专用）
-     * 使用配置了跳过Seata事务传播的Dubbo引用
+     * 使用配置了跳过Seata事务传播的Dubbo引用，并跳过文章服务的二级缓存，快照取数据库当前值
      *
      * @param id 文章ID
      * @return 文章详情
@@ -130,7 +131,7 @@ public class ArticleServiceClient {
     public Result<ArticleDTO> getArticleByIdForTcc(Long id) {
         try {
             log.debug("TCC专用方法：调用文章服务获取文章详情，articleId={}", id);
-            return articleServiceForTcc.getArticleById(id);
+            return TwoLevelCacheBypass.call(() -> articleServiceForTcc.getArticleById(id));
         } catch (Exception e) {
             log.error("TCC专用方法：调用文章服务获取文章详情失败，articleId={}", id, e);
             return Result.error("获取文章详情失败：" + e.getMessage());
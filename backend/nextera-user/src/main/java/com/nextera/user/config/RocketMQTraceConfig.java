@@ -0,0 +1,23 @@
+package com.nextera.user.config;
+
+import com.nextera.common.trace.RequestIdRocketMQHook;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RocketMQ请求ID传递配置
+ * 发送钩子注册到RocketMQTemplate的生产者，消费钩子由各消费者在启动前注册
+ *
+ * @author nextera
+ */
+@Configuration(proxyBeanMethods = false)
+public class RocketMQTraceConfig {
+
+    @Bean
+    public RequestIdRocketMQHook requestIdRocketMQHook(RocketMQTemplate rocketMQTemplate) {
+        RequestIdRocketMQHook hook = new RequestIdRocketMQHook();
+        rocketMQTemplate.getProducer().getDefaultMQProducerImpl().registerSendMessageHook(hook);
+        return hook;
+    }
+}
@@ -94,6 +94,11 @@ public class RocketmqTransactionLog {
      */
     private String errorMessage;
 
+    /**
+     * 最近一次认领补偿的集群租约防护令牌，令牌更小的旧持有者不能再更新该记录
+     */
+    private Long fencingToken;
+
     /**
      * 创建时间
      */
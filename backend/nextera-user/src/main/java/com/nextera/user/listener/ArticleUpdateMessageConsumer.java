@@ -2,6 +2,7 @@ package com.nextera.user.listener;
 
 import com.nextera.api.article.dto.ArticleCreateRequest;
 import com.nextera.common.core.Result;
+import com.nextera.common.trace.RequestIdRocketMQHook;
 import com.nextera.user.client.ArticleServiceClient;
 import com.nextera.user.config.RocketMQConfig;
 import com.nextera.user.dto.ArticleUpdateMessageDTO;
@@ -12,8 +13,10 @@ import com.nextera.user.mapper.UserArticleOperationLogMapper;
 import com.nextera.user.service.UserArticleRocketMQCompensationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.consumer.DefaultMQPushConsumer;
 import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
 import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.apache.rocketmq.spring.core.RocketMQPushConsumerLifecycleListener;
 import org.springframework.stereotype.Component;
 
 /**
@@ -31,12 +34,22 @@ import org.springframework.stereotype.Component;
     selectorExpression = RocketMQConfig.Tags.ARTICLE_UPDATE_TAG,
     consumerGroup = RocketMQConfig.ConsumerGroups.ARTICLE_CONSUMER_GROUP
 )
-public class ArticleUpdateMessageConsumer implements RocketMQListener<ArticleUpdateMessageDTO> {
+public class ArticleUpdateMessageConsumer implements RocketMQListener<ArticleUpdateMessageDTO>,
+        RocketMQPushConsumerLifecycleListener {
 
     private final ArticleServiceClient articleServiceClient;
     private final RocketmqTransactionLogMapper transactionLogMapper;
     private final UserArticleOperationLogMapper operationLogMapper;
     private final UserArticleRocketMQCompensationService compensationService;
+    private final RequestIdRocketMQHook requestIdRocketMQHook;
+
+    /**
+     * 消费前恢复消息中的请求ID并记录消费耗时
+     */
+    @Override
+    public void prepareStart(DefaultMQPushConsumer consumer) {
+        consumer.getDefaultMQPushConsumerImpl().registerConsumeMessageHook(requestIdRocketMQHook);
+    }
 
     @Override
     public void onMessage(ArticleUpdateMessageDTO messageDTO) {
@@ -53,4 +53,27 @@ public interface RocketmqTransactionLogMapper extends BaseMapper<RocketmqTransac
      */
     @Update("UPDATE rocketmq_transaction_log SET error_message = #{errorMessage}, updated_time = NOW() WHERE transaction_id = #{transactionId}")
     int updateErrorMessage(@Param("transactionId") String transactionId, @Param("errorMessage") String errorMessage);
-} 
\ No newline at end of file
+
+    /**
+     * 以防护令牌认领补偿，只有令牌不小于已记录的令牌时才更新；
+     * 在补偿的本地事务中执行，行锁持续到事务结束，新旧租约持有者的补偿不会交错
+     *
+     * @param transactionId 事务ID
+     * @param fencingToken 防护令牌
+     * @return 更新行数，为0时已有令牌更大的持有者认领过
+     */
+    @Update("UPDATE rocketmq_transaction_log SET fencing_token = #{fencingToken}, updated_time = NOW() WHERE transaction_id = #{transactionId} AND (fencing_token IS NULL OR fencing_token <= #{fencingToken})")
+    int claimWithFencingToken(@Param("transactionId") String transactionId, @Param("fencingToken") Long fencingToken);
+
+    /**
+     * 以防护令牌更新错误信息，已有令牌更大的持有者认领过时不更新
+     *
+     * @param transactionId 事务ID
+     * @param errorMessage 错误信息
+     * @param fencingToken 防护令牌
+     * @return 更新行数
+     */
+    @Update("UPDATE rocketmq_transaction_log SET error_message = #{errorMessage}, updated_time = NOW() WHERE transaction_id = #{transactionId} AND (fencing_token IS NULL OR fencing_token <= #{fencingToken})")
+    int updateErrorMessageWithFencingToken(@Param("transactionId") String transactionId, @Param("errorMessage") String errorMessage,
+                                           @Param("fencingToken") Long fencingToken);
+}
\ No newline at end of file
@@ -1,39 +1,53 @@
 package com.nextera.user.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.JavaType;
 import com.nextera.api.article.dto.ArticleCreateRequest;
 import com.nextera.api.article.dto.ArticleDTO;
 import com.nextera.common.core.Result;
-import lombok.RequiredArgsConstructor;
+import com.nextera.common.json.JsonCodec;
+import com.nextera.common.json.WireCodec;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
-
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 /**
  * 文章服务HTTP客户端
  * 用于在TCC Confirm/Cancel阶段调用文章服务，避免Dubbo的Seata上下文传播问题
+ * 响应格式通过Accept协商（优先Smile/CBOR，文章服务未启用时退回JSON），请求体使用JSON；
+ * 关闭 {@code nextera.json.binary.enabled} 时没有WireCodec，只请求并解析JSON
  * 
  * @author nextera
  * @since 2025-06-17
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ArticleHttpClient {
 
-    private final ObjectMapper objectMapper;
+    private final JsonCodec jsonCodec;
+
+    /**
+     * 二进制格式关闭时为null
+     */
+    private final WireCodec wireCodec;
+
+    /**
+     * 泛型响应类型，各格式的Reader按类型缓存在WireCodec中
+     */
+    private final JavaType articleResultType;
+
+    private final JavaType booleanResultType;
     
     @Value("${article.service.url:http://localhost:7082}")
     private String articleServiceUrl;
@@ -42,17 +56,11 @@ public class ArticleHttpClient {
             .connectTimeout(Duration.ofSeconds(10))
             .build();
     
-    // 专门配置的ObjectMapper，确保正确处理泛型类型
-    private ObjectMapper customObjectMapper;
-    
-    @PostConstruct
-    public void initCustomObjectMapper() {
-        this.customObjectMapper = new ObjectMapper();
-        this.customObjectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        this.customObjectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-        this.customObjectMapper.registerModule(new JavaTimeModule());
-        this.customObjectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        log.info("ArticleHttpClient - 自定义ObjectMapper配置完成");
+    public ArticleHttpClient(JsonCodec jsonCodec, ObjectProvider<WireCodec> wireCodec) {
+        this.jsonCodec = jsonCodec;
+        this.wireCodec = wireCodec.getIfAvailable();
+        this.articleResultType = jsonCodec.getObjectMapper().constructType(new TypeReference<Result<ArticleDTO>>() {});
+        this.booleanResultType = jsonCodec.getObjectMapper().constructType(new TypeReference<Result<Boolean>>() {});
     }
 
     /**
@@ -69,19 +77,21 @@ public class ArticleHttpClient {
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
                     .timeout(Duration.ofSeconds(10))
+                    .header(HttpHeaders.ACCEPT, acceptHeader())
                     .GET()
                     .build();
             
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            String contentType = response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null);
             
             if (response.statusCode() == 200) {
                 // 调试：打印原始响应内容
-                String responseBody = response.body();
-                log.info("HTTP调用获取文章详情 - 原始响应: {}", responseBody);
+                if (log.isDebugEnabled()) {
+                    log.debug("HTTP调用获取文章详情 - 原始响应({}): {}", contentType,
+                            toLogString(contentType, response.body()));
+                }
                 
-                // 使用自定义ObjectMapper和TypeReference正确解析泛型类型
-                TypeReference<Result<ArticleDTO>> typeRef = new TypeReference<Result<ArticleDTO>>() {};
-                Result<ArticleDTO> result = customObjectMapper.readValue(responseBody, typeRef);
+                Result<ArticleDTO> result = read(contentType, response.body(), articleResultType);
                 
                 // 调试：检查解析后的数据类型
                 if (result.getData() != null) {
@@ -97,7 +107,8 @@ public class ArticleHttpClient {
                 log.info("HTTP调用获取文章详情成功，文章ID: {}", articleId);
                 return result;
             } else {
-                log.error("HTTP调用获取文章详情失败，状态码: {}, 响应: {}", response.statusCode(), response.body());
+                log.error("HTTP调用获取文章详情失败，状态码: {}, 响应: {}", response.statusCode(),
+                        toLogString(contentType, response.body()));
                 return Result.error("获取文章详情失败");
             }
             
@@ -131,25 +142,26 @@ public class ArticleHttpClient {
             articleRequest.setTags(request.getTags());
             articleRequest.setCoverImage(request.getCoverImage());
 
-            String requestBody = customObjectMapper.writeValueAsString(articleRequest);
+            String requestBody = jsonCodec.toJson(articleRequest);
             
             HttpRequest httpRequest = HttpRequest.newBuilder()
                     .uri(URI.create(url))
                     .timeout(Duration.ofSeconds(10))
                     .header("Content-Type", "application/json")
+                    .header(HttpHeaders.ACCEPT, acceptHeader())
                     .PUT(HttpRequest.BodyPublishers.ofString(requestBody))
                     .build();
             
-            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<byte[]> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofByteArray());
+            String contentType = response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(null);
             
             if (response.statusCode() == 200) {
-                // 使用TypeReference正确解析泛型类型
-                TypeReference<Result<Boolean>> typeRef = new TypeReference<Result<Boolean>>() {};
-                Result<Boolean> result = customObjectMapper.readValue(response.body(), typeRef);
+                Result<Boolean> result = read(contentType, response.body(), booleanResultType);
                 log.info("HTTP调用更新文章成功，文章ID: {}, 标题: {}", articleId, request.getTitle());
                 return result;
             } else {
-                log.error("HTTP调用更新文章失败，状态码: {}, 响应: {}", response.statusCode(), response.body());
+                log.error("HTTP调用更新文章失败，状态码: {}, 响应: {}", response.statusCode(),
+                        toLogString(contentType, response.body()));
                 return Result.error("更新文章失败");
             }
             
@@ -158,4 +170,19 @@ public class ArticleHttpClient {
             return Result.error("更新文章异常: " + e.getMessage());
         }
     }
+
+    private String acceptHeader() {
+        return wireCodec != null ? wireCodec.acceptHeader() : MediaType.APPLICATION_JSON_VALUE;
+    }
+
+    private <T> T read(String contentType, byte[] body, JavaType type) throws IOException {
+        if (wireCodec != null) {
+            return wireCodec.read(contentType, body, type);
+        }
+        return jsonCodec.reader(type).readValue(body);
+    }
+
+    private String toLogString(String contentType, byte[] body) {
+        return wireCodec != null ? wireCodec.toLogString(contentType, body) : new String(body, StandardCharsets.UTF_8);
+    }
 } 
\ No newline at end of file
@@ -2,10 +2,14 @@ package com.nextera.user.service;
 
 import com.nextera.api.article.dto.ArticleCreateRequest;
 import com.nextera.api.article.dto.ArticleDTO;
+import com.nextera.common.cache.TwoLevelCacheManager;
+import com.nextera.common.constant.CommonConstants;
 import com.nextera.common.core.Result;
 import com.nextera.user.client.ArticleServiceClient;
 import com.nextera.user.dto.UserInfoDTO;
 import io.seata.spring.annotation.GlobalTransactional;
+import io.seata.tm.api.transaction.TransactionHookAdapter;
+import io.seata.tm.api.transaction.TransactionHookManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -38,6 +42,7 @@ public class UserArticleBizService {
     private final ArticleServiceClient articleServiceClient;
     private final LocalUserService localUserService;
     private final UserArticleBizTCCService userArticleBizTCCService;
+    private final TwoLevelCacheManager cacheManager;
     /**
      * 用户创建文章业务逻辑
      * 使用Seata分布式事务确保强一致性：要么都成功，要么都失败
@@ -57,7 +62,8 @@ public class UserArticleBizService {
             String ipAddress = getClientIpAddress(httpRequest);
             String userAgent = httpRequest.getHeader("User-Agent");
             
-            // 3. 先更新用户最后活动时间（这是本地事务操作）
+            // 3. 先更新用户最后活动时间（这是本地事务操作），全局事务结束后再失效一次用户缓存
+            evictAfterGlobalTransaction(userId, null);
             boolean updateResult = localUserService.updateLastLoginTime(userId);
             if (!updateResult) {
                 log.error("更新用户最后活动时间失败，用户ID: {}", userId);
@@ -113,7 +119,8 @@ public class UserArticleBizService {
             String ipAddress = getClientIpAddress(httpRequest);
             String userAgent = httpRequest.getHeader("User-Agent");
 
-            // 3. 先更新用户最后活动时间（这是本地事务操作）
+            // 3. 先更新用户最后活动时间（这是本地事务操作），全局事务结束后再失效一次用户与文章缓存
+            evictAfterGlobalTransaction(userId, articleId);
             boolean updateResult = localUserService.updateLastLoginTime(userId);
             if (!updateResult) {
                 log.error("更新用户最后活动时间失败，用户ID: {}", userId);
@@ -140,6 +147,24 @@ public class UserArticleBizService {
     }
 
 
+    /**
+     * 全局事务结束（提交或回滚）后失效本次写过的用户与文章缓存
+     * 分支提交时的失效早于Seata按undo log回滚数据，期间的读取会把回滚前的数据写回缓存，因此在全局事务结束后再失效一次
+     *
+     * @param userId 用户ID
+     * @param articleId 文章ID，没有已缓存的文章时为null
+     */
+    private void evictAfterGlobalTransaction(Long userId, Long articleId) {
+        TransactionHookManager.registerHook(new TransactionHookAdapter() {
+            @Override
+            public void afterCompletion() {
+                cacheManager.getCache(CommonConstants.CachePrefix.USER_INFO).evict(userId);
+                if (articleId != null) {
+                    cacheManager.getCache(CommonConstants.CachePrefix.ARTICLE).evict(articleId);
+                }
+            }
+        });
+    }
 
     /**
      * 获取客户端IP地址
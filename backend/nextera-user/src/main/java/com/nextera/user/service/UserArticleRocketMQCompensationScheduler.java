@@ -1,6 +1,11 @@
 package com.nextera.user.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nextera.common.executor.Bulkhead;
+import com.nextera.common.executor.BulkheadRegistry;
+import com.nextera.common.leader.ClusterSingleton;
+import com.nextera.common.leader.ClusterSingletonContext;
+import com.nextera.common.leader.FencingToken;
 import com.nextera.user.entity.RocketmqTransactionLog;
 import com.nextera.user.mapper.RocketmqTransactionLogMapper;
 import lombok.RequiredArgsConstructor;
@@ -9,11 +14,15 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * RocketMQ事务补偿定时任务
- * 定期检查失败的事务并执行补偿操作
+ * 定期检查失败的事务并执行补偿操作，集群内只在持有租约的实例上执行
+ * 补偿在 {@value #BULKHEAD} 隔离舱中并行执行，隔离舱已满时由调度线程自己执行（CALLER_RUNS）
  *
  * @author nextera
  * @since 2025-06-23
@@ -23,14 +32,21 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserArticleRocketMQCompensationScheduler {
 
+    /**
+     * 补偿任务使用的隔离舱，在 {@code nextera.executor.bulkheads} 中声明
+     */
+    static final String BULKHEAD = "rocketmq-compensation";
+
     private final RocketmqTransactionLogMapper transactionLogMapper;
     private final UserArticleRocketMQCompensationService compensationService;
+    private final BulkheadRegistry bulkheadRegistry;
 
     /**
      * 定时检查需要补偿的事务
      * 每5分钟执行一次
      */
     @Scheduled(fixedRate = 5 * 60 * 1000) // 5分钟
+    @ClusterSingleton
     public void checkAndCompensateFailedTransactions() {
         log.info("开始检查需要补偿的事务");
         
@@ -54,51 +70,90 @@ public class UserArticleRocketMQCompensationScheduler {
             
             log.info("发现{}个需要补偿的事务", needCompensationLogs.size());
             
+            Bulkhead bulkhead = bulkheadRegistry.get(BULKHEAD);
+            List<Future<?>> compensations = new ArrayList<>(needCompensationLogs.size());
             for (RocketmqTransactionLog transactionLog : needCompensationLogs) {
-                executeCompensationForTransaction(transactionLog);
+                compensations.add(bulkhead.submit(ClusterSingletonContext.wrap(
+                        () -> compensateIfLeader(transactionLog))));
             }
+            // 等待本轮补偿全部结束，租约覆盖整轮执行，下一轮不会与本轮重叠
+            awaitAll(compensations);
             
         } catch (Exception e) {
             log.error("检查补偿事务时发生异常", e);
         }
     }
 
+    /**
+     * 失去租约后跳过，剩余的事务由新的持有者处理
+     */
+    private void compensateIfLeader(RocketmqTransactionLog transactionLog) {
+        if (!ClusterSingletonContext.isLeader()) {
+            log.warn("已失去集群租约，跳过补偿: transactionId={}, token={}",
+                    transactionLog.getTransactionId(), ClusterSingletonContext.currentToken());
+            return;
+        }
+        executeCompensationForTransaction(transactionLog);
+    }
+
+    private void awaitAll(List<Future<?>> compensations) {
+        for (Future<?> compensation : compensations) {
+            try {
+                compensation.get();
+            } catch (ExecutionException e) {
+                log.error("补偿任务执行异常", e.getCause());
+            } catch (InterruptedException e) {
+                // 应用关闭，已提交的补偿由隔离舱关闭时等待完成
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
     /**
      * 为单个事务执行补偿
      */
     private void executeCompensationForTransaction(RocketmqTransactionLog transactionLog) {
         String transactionId = transactionLog.getTransactionId();
+        // 租约的防护令牌，补偿与状态更新都以令牌为条件，旧持有者的写入会被拒绝
+        FencingToken fencingToken = ClusterSingletonContext.currentToken();
         
         try {
-            log.info("开始为事务执行补偿: transactionId={}", transactionId);
+            log.info("开始为事务执行补偿: transactionId={}, token={}", transactionId, fencingToken);
             
             // 执行补偿操作
             boolean compensationResult = compensationService.executeCompensation(
-                    transactionId, "定时任务补偿：消费失败");
+                    transactionId, "定时任务补偿：消费失败", fencingToken);
             
             // 更新补偿状态
             if (compensationResult) {
-                updateCompensationStatus(transactionId, "SUCCESS", "补偿成功");
+                updateCompensationStatus(transactionId, "SUCCESS", "补偿成功", fencingToken);
                 log.info("事务补偿执行成功: transactionId={}", transactionId);
             } else {
-                updateCompensationStatus(transactionId, "FAILED", "补偿失败");
+                updateCompensationStatus(transactionId, "FAILED", "补偿失败", fencingToken);
                 log.error("事务补偿执行失败: transactionId={}", transactionId);
             }
             
         } catch (Exception e) {
             log.error("为事务执行补偿时发生异常: transactionId={}", transactionId, e);
-            updateCompensationStatus(transactionId, "ERROR", "补偿异常：" + e.getMessage());
+            updateCompensationStatus(transactionId, "ERROR", "补偿异常：" + e.getMessage(), fencingToken);
         }
     }
 
     /**
      * 更新补偿状态
      */
-    private void updateCompensationStatus(String transactionId, String status, String message) {
+    private void updateCompensationStatus(String transactionId, String status, String message, FencingToken fencingToken) {
         try {
             // 通过errorMessage字段记录补偿状态
             String fullMessage = message + " [补偿状态:" + status + "] [时间:" + LocalDateTime.now() + "]";
-            transactionLogMapper.updateErrorMessage(transactionId, fullMessage);
+            if (fencingToken == null) {
+                transactionLogMapper.updateErrorMessage(transactionId, fullMessage);
+            } else if (transactionLogMapper.updateErrorMessageWithFencingToken(
+                    transactionId, fullMessage, fencingToken.token()) == 0) {
+                log.warn("防护令牌已过期，不再更新补偿状态: transactionId={}, token={}", transactionId, fencingToken);
+                return;
+            }
             
             log.info("更新补偿状态成功: transactionId={}, status={}", transactionId, status);
         } catch (Exception e) {
@@ -111,6 +166,7 @@ public class UserArticleRocketMQCompensationScheduler {
      * 每天凌晨2点执行
      */
     @Scheduled(cron = "0 0 2 * * ?")
+    @ClusterSingleton
     public void cleanupOldTransactionLogs() {
         log.info("开始清理旧的事务日志");
         
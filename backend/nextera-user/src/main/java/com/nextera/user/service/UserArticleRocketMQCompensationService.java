@@ -2,6 +2,9 @@ package com.nextera.user.service;
 
 import cn.hutool.json.JSONUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.nextera.common.cache.TwoLevelCacheManager;
+import com.nextera.common.constant.CommonConstants;
+import com.nextera.common.leader.FencingToken;
 import com.nextera.user.dto.ArticleUpdateMessageDTO;
 import com.nextera.user.entity.RocketmqTransactionLog;
 import com.nextera.user.entity.User;
@@ -30,6 +33,7 @@ import java.util.Map;
 public class UserArticleRocketMQCompensationService {
 
     private final UserMapper userMapper;
+    private final TwoLevelCacheManager cacheManager;
     private final RocketmqTransactionLogMapper transactionLogMapper;
     private final UserArticleOperationLogMapper operationLogMapper;
 
@@ -43,9 +47,30 @@ public class UserArticleRocketMQCompensationService {
      */
     @Transactional(rollbackFor = Exception.class)
     public boolean executeCompensation(String transactionId, String errorMessage) {
+        return executeCompensation(transactionId, errorMessage, null);
+    }
+
+    /**
+     * 以集群租约的防护令牌执行补偿操作
+     * 先在同一本地事务中以令牌认领事务日志，已被令牌更大的新持有者认领时放弃，
+     * 避免租约过期后仍在执行的旧持有者与新持有者重复补偿
+     *
+     * @param transactionId 事务ID
+     * @param errorMessage 错误信息
+     * @param fencingToken 防护令牌，为null时不校验
+     * @return 补偿结果，令牌已过期时返回false
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public boolean executeCompensation(String transactionId, String errorMessage, FencingToken fencingToken) {
         log.info("开始执行补偿操作: transactionId={}", transactionId);
         
         try {
+            if (fencingToken != null
+                    && transactionLogMapper.claimWithFencingToken(transactionId, fencingToken.token()) == 0) {
+                log.warn("防护令牌已过期，放弃补偿: transactionId={}, token={}", transactionId, fencingToken.token());
+                return false;
+            }
+
             // 1. 查询事务日志
             RocketmqTransactionLog transactionLog = transactionLogMapper.selectOne(
                     new LambdaQueryWrapper<RocketmqTransactionLog>()
@@ -147,6 +172,7 @@ public class UserArticleRocketMQCompensationService {
             
             // 更新用户信息
             int updateResult = userMapper.updateById(currentUser);
+            cacheManager.getCache(CommonConstants.CachePrefix.USER_INFO).evict(userId);
             if (updateResult > 0) {
                 log.info("用户lastLoginTime回滚成功: userId={}", userId);
                 return true;
@@ -4,6 +4,8 @@ import cn.hutool.core.util.IdUtil;
 import cn.hutool.json.JSONUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.nextera.api.article.dto.ArticleCreateRequest;
+import com.nextera.common.cache.TwoLevelCacheManager;
+import com.nextera.common.constant.CommonConstants;
 import com.nextera.common.core.Result;
 import com.nextera.common.util.IpUtil;
 import com.nextera.user.config.RocketMQConfig;
@@ -43,6 +45,7 @@ public class UserArticleRocketMQService {
     private final RocketmqTransactionLogMapper transactionLogMapper;
     private final UserArticleOperationLogMapper operationLogMapper;
     private final UserMapper userMapper;
+    private final TwoLevelCacheManager cacheManager;
 
     /**
      * 使用RocketMQ事务消息更新文章
@@ -295,6 +298,7 @@ public class UserArticleRocketMQService {
         user.setUpdateTime(now);
         
         int result = userMapper.updateById(user);
+        cacheManager.getCache(CommonConstants.CachePrefix.USER_INFO).evict(userId);
         if (result <= 0) {
             throw new RuntimeException("更新用户最后登录时间失败: " + userId);
         }
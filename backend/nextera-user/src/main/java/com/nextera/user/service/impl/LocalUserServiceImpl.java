@@ -2,6 +2,9 @@ package com.nextera.user.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.conditions.update.LambdaUpdateChainWrapper;
+import com.nextera.common.cache.TwoLevelCacheEvict;
+import com.nextera.common.cache.TwoLevelCacheable;
+import com.nextera.common.constant.CommonConstants;
 import com.nextera.user.dto.UserInfoDTO;
 import com.nextera.user.entity.User;
 import com.nextera.user.mapper.UserMapper;
@@ -29,8 +32,12 @@ public class LocalUserServiceImpl implements LocalUserService {
     private final UserMapper userMapper;
 
     @Override
+    @TwoLevelCacheable(cache = CommonConstants.CachePrefix.USER_INFO)
     public UserInfoDTO getUserInfo(Long userId) {
         User user = userMapper.selectByUserId(userId);
+        if (user == null) {
+            return null;
+        }
         UserInfoDTO userInfoDTO = new UserInfoDTO();
         BeanUtils.copyProperties(user, userInfoDTO);
         return userInfoDTO;
@@ -38,6 +45,7 @@ public class LocalUserServiceImpl implements LocalUserService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
+    @TwoLevelCacheEvict(cache = CommonConstants.CachePrefix.USER_INFO)
     public boolean updateLastLoginTime(Long userId) {
         try {
             LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
@@ -54,6 +62,7 @@ public class LocalUserServiceImpl implements LocalUserService {
 
     @Override
     @Transactional(rollbackFor = Exception.class)
+    @TwoLevelCacheEvict(cache = CommonConstants.CachePrefix.USER_INFO, key = "#p0")
     public boolean restoreLastLoginTime(Long userId, LocalDateTime lastLoginTime) {
         try {
             LambdaUpdateWrapper<User> updateWrapper = new LambdaUpdateWrapper<>();
@@ -71,6 +80,7 @@ public class LocalUserServiceImpl implements LocalUserService {
 
 
     @Override
+    @TwoLevelCacheEvict(cache = CommonConstants.CachePrefix.USER_INFO)
     public int deleteUser(Long userId) {
         return userMapper.deleteById(userId);
     }
@@ -1,6 +1,6 @@
 package com.nextera.user.service.tcc;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nextera.common.json.JsonCodec;
 import com.nextera.user.config.TccRetryConfiguration;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +25,8 @@ public class TccStateManager {
 
     private final TccRetryConfiguration retryConfiguration;
 
+    private final JsonCodec jsonCodec;
+
     /**
      * 内存状态存储（生产环境建议使用Redis或数据库）
      */
@@ -212,8 +214,7 @@ public class TccStateManager {
                 try {
                     // 解析业务数据，检查是否包含相同的businessId
                     if (candidateState.getBusinessData() != null) {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> businessData = new ObjectMapper().readValue(candidateState.getBusinessData(), Map.class);
+                        Map<String, Object> businessData = jsonCodec.toMap(candidateState.getBusinessData());
                         
                         // 检查userId或其他业务标识
                         Object userIdObj = businessData.get("userId");
@@ -287,8 +288,7 @@ public class TccStateManager {
                 try {
                     // 解析业务数据，检查是否包含相同的businessId
                     if (state.getBusinessData() != null) {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> businessData = new ObjectMapper().readValue(state.getBusinessData(), Map.class);
+                        Map<String, Object> businessData = jsonCodec.toMap(state.getBusinessData());
                         
                         // 检查userId或articleId
                         Object userIdObj = businessData.get("userId");
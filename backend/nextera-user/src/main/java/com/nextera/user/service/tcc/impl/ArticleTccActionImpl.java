@@ -1,10 +1,9 @@
 package com.nextera.user.service.tcc.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.nextera.api.article.dto.ArticleCreateRequest;
 import com.nextera.api.article.dto.ArticleDTO;
 import com.nextera.common.core.Result;
+import com.nextera.common.json.JsonCodec;
 import com.nextera.user.client.ArticleServiceClient;
 import com.nextera.user.service.tcc.ArticleTccAction;
 import com.nextera.user.service.tcc.TccActionState;
@@ -35,21 +34,17 @@ public class ArticleTccActionImpl implements ArticleTccAction {
 
     private final ArticleServiceClient articleServiceClient;
     private final TccStateManager tccStateManager;
-    private final ObjectMapper objectMapper;
+    private final JsonCodec jsonCodec;
     private final UserTccAction userTccAction;
 
     private static final String ACTION_NAME = "articleUpdateTccAction";
 
-    // 构造函数中初始化ObjectMapper
-    public ArticleTccActionImpl(ArticleServiceClient articleServiceClient, TccStateManager tccStateManager, UserTccAction userTccAction) {
+    public ArticleTccActionImpl(ArticleServiceClient articleServiceClient, TccStateManager tccStateManager,
+                                UserTccAction userTccAction, JsonCodec jsonCodec) {
         this.articleServiceClient = articleServiceClient;
         this.tccStateManager = tccStateManager;
         this.userTccAction = userTccAction;
-        
-        // 配置ObjectMapper支持Java 8时间类型
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.jsonCodec = jsonCodec;
     }
 
     @Override
@@ -109,8 +104,8 @@ public class ArticleTccActionImpl implements ArticleTccAction {
             // 关键修复：只有在业务操作成功后才保存状态
             try {
                 // 转换为JSON字符串
-                String originalDataJson = objectMapper.writeValueAsString(originalData);
-                String businessDataJson = objectMapper.writeValueAsString(newData);
+                String originalDataJson = jsonCodec.toJson(originalData);
+                String businessDataJson = jsonCodec.toJson(newData);
                 
                 // 保存状态（使用临时XID，在实际执行时会被覆盖）
                 String tempXid = businessKey + "_" + System.currentTimeMillis();
@@ -161,7 +156,7 @@ public class ArticleTccActionImpl implements ArticleTccAction {
                     if (requestObj instanceof ArticleCreateRequest) {
                         request = (ArticleCreateRequest) requestObj;
                     } else {
-                        request = objectMapper.readValue(requestObj.toString(), ArticleCreateRequest.class);
+                        request = jsonCodec.fromJson(requestObj.toString(), ArticleCreateRequest.class);
                     }
                     log.info("文章TCC Confirm阶段从ActionContext获取request参数成功");
                 } catch (Exception e) {
@@ -341,8 +336,7 @@ public class ArticleTccActionImpl implements ArticleTccAction {
             String originalDataJson = state.getOriginalData();
             if (originalDataJson != null) {
                 try {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> originalData = objectMapper.readValue(originalDataJson, Map.class);
+                    Map<String, Object> originalData = jsonCodec.toMap(originalDataJson);
                     
                     ArticleCreateRequest rollbackRequest = new ArticleCreateRequest();
                     rollbackRequest.setTitle((String) originalData.get("originalTitle"));
@@ -395,15 +389,14 @@ public class ArticleTccActionImpl implements ArticleTccAction {
                     return (ArticleCreateRequest) requestObj;
                 } else {
                     // 尝试从JSON字符串反序列化
-                    return objectMapper.readValue(requestObj.toString(), ArticleCreateRequest.class);
+                    return jsonCodec.fromJson(requestObj.toString(), ArticleCreateRequest.class);
                 }
             }
             
             // 其次从状态管理器获取
             if (state != null && state.getBusinessData() != null) {
                 try {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> businessData = objectMapper.readValue(state.getBusinessData(), Map.class);
+                    Map<String, Object> businessData = jsonCodec.toMap(state.getBusinessData());
                     ArticleCreateRequest request = new ArticleCreateRequest();
                     request.setTitle((String) businessData.get("newTitle"));
                     request.setContent((String) businessData.get("newContent"));
@@ -455,8 +448,7 @@ public class ArticleTccActionImpl implements ArticleTccAction {
                 String businessData = userState.getBusinessData();
                 if (businessData != null) {
                     try {
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> data = objectMapper.readValue(businessData, Map.class);
+                        Map<String, Object> data = jsonCodec.toMap(businessData);
                         Object userIdObj = data.get("userId");
                         if (userIdObj != null) {
                             Long userId = Long.valueOf(userIdObj.toString());
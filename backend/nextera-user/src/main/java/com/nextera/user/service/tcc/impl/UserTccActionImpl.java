@@ -1,7 +1,6 @@
 package com.nextera.user.service.tcc.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.nextera.common.json.JsonCodec;
 import com.nextera.user.entity.User;
 import com.nextera.user.mapper.UserMapper;
 import com.nextera.user.service.LocalUserService;
@@ -37,22 +36,17 @@ public class UserTccActionImpl implements UserTccAction {
     private final UserMapper userMapper;
     private final TccStateManager tccStateManager;
     
-    // 配置ObjectMapper支持Java 8时间类型
-    private final ObjectMapper objectMapper;
+    private final JsonCodec jsonCodec;
     
     private static final String ACTION_NAME = "userLastLoginTimeTccAction";
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    // 构造函数中初始化ObjectMapper
-    public UserTccActionImpl(LocalUserService userService, UserMapper userMapper, TccStateManager tccStateManager) {
+    public UserTccActionImpl(LocalUserService userService, UserMapper userMapper, TccStateManager tccStateManager,
+                             JsonCodec jsonCodec) {
         this.userService = userService;
         this.userMapper = userMapper;
         this.tccStateManager = tccStateManager;
-        
-        // 配置ObjectMapper支持Java 8时间类型
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.jsonCodec = jsonCodec;
     }
 
     @Override
@@ -88,8 +82,8 @@ public class UserTccActionImpl implements UserTccAction {
             // 先使用临时标识，后续在Confirm/Cancel中会用真实XID更新
             String tempKey = "user_tcc_" + userId + "_" + System.currentTimeMillis();
             tccStateManager.saveState(tempKey, 0L, ACTION_NAME, TccActionState.TccStatus.TRIED,
-                    objectMapper.writeValueAsString(businessData),
-                    objectMapper.writeValueAsString(originalData));
+                    jsonCodec.toJson(businessData),
+                    jsonCodec.toJson(originalData));
 
             log.info("用户TCC Try阶段保存状态成功: userId={}, originalTime={}, newTime={}", 
                     userId, originalLastLoginTime, newLastLoginTime);
@@ -168,8 +162,7 @@ public class UserTccActionImpl implements UserTccAction {
                             // 解析原始数据，检查是否真的需要回滚
                             String originalData = state.getOriginalData();
                             if (originalData != null) {
-                                @SuppressWarnings("unchecked")
-                                Map<String, Object> originalMap = objectMapper.readValue(originalData, Map.class);
+                                Map<String, Object> originalMap = jsonCodec.toMap(originalData);
                                 Object originalTimeObj = originalMap.get("originalLastLoginTime");
                                 
                                 // 如果当前时间不等于原始时间，说明已经更新了
@@ -326,8 +319,7 @@ public class UserTccActionImpl implements UserTccAction {
             String originalDataJson = state.getOriginalData();
             if (originalDataJson != null) {
                 try {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> originalData = objectMapper.readValue(originalDataJson, Map.class);
+                    Map<String, Object> originalData = jsonCodec.toMap(originalDataJson);
                     
                     Object originalTimeObj = originalData.get("originalLastLoginTime");
                     LocalDateTime originalLastLoginTime = null;
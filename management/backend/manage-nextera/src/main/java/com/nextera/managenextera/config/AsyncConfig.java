@@ -1,5 +1,7 @@
 package com.nextera.managenextera.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,48 +9,65 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.Future;
 
 /**
  * 异步配置
+ * <p>
+ * lighthouse线程池作为异步任务（操作日志写库等）的隔离舱：线程数与队列都有上限，
+ * 满载时丢弃新任务并计数，不再由调用线程执行，避免异步任务反过来占用请求线程和数据库连接。
+ * 线程池的活跃数、队列长度等指标由Actuator以 {@code executor.*{name=lighthouse}} 暴露，
+ * 丢弃数为 {@code nextera.bulkhead.rejected{bulkhead=lighthouse}}。
  */
 @Slf4j
 @Configuration
 @EnableAsync
 public class AsyncConfig {
-    
+
+    private static final String BULKHEAD_NAME = "lighthouse";
+
     @Bean("lighthouseTaskExecutor")
-    public Executor lighthouseTaskExecutor() {
+    public Executor lighthouseTaskExecutor(MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("nextera.bulkhead.rejected")
+                .tag("bulkhead", BULKHEAD_NAME)
+                .description("隔离舱满载时丢弃的任务数")
+                .register(meterRegistry);
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        
-        // 核心线程数
-        executor.setCorePoolSize(5);
-        
-        // 最大线程数
-        executor.setMaxPoolSize(20);
-        
+
+        // 线程数固定，每个任务占用一个数据库连接，为请求线程保留Hikari连接池（20）的大部分连接
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setAllowCoreThreadTimeOut(true);
+
         // 队列容量
-        executor.setQueueCapacity(100);
-        
+        executor.setQueueCapacity(200);
+
         // 线程空闲时间
         executor.setKeepAliveSeconds(60);
-        
+
         // 线程名前缀
         executor.setThreadNamePrefix("lighthouse-task-async-");
-        
-        // 拒绝策略
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
-        
+
+        // 拒绝策略：丢弃并计数，submit返回的Future同时取消，避免调用方永久等待
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            if (task instanceof Future<?> future) {
+                future.cancel(false);
+            }
+            log.warn("异步任务线程池已满，丢弃任务: active={}, queued={}", pool.getActiveCount(), pool.getQueue().size());
+        });
+
         // 等待所有任务结束后再关闭线程池
         executor.setWaitForTasksToCompleteOnShutdown(true);
-        
+
         // 等待时间
         executor.setAwaitTerminationSeconds(60);
-        
+
         executor.initialize();
-        
+
         log.info("异步任务线程池初始化完成");
-        
+
         return executor;
     }
-} 
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.nextera.managenextera.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nextera.managenextera.filter.HybridEncryptionFilter;
 import com.nextera.managenextera.filter.SignatureVerificationFilter;
 import lombok.extern.slf4j.Slf4j;
@@ -18,10 +19,10 @@ public class FilterConfig {
      * 注册签名验证过滤器
      */
     @Bean
-    public FilterRegistrationBean<SignatureVerificationFilter> signatureVerificationFilter() {
+    public FilterRegistrationBean<SignatureVerificationFilter> signatureVerificationFilter(ObjectMapper objectMapper) {
         FilterRegistrationBean<SignatureVerificationFilter> registrationBean = new FilterRegistrationBean<>();
         
-        registrationBean.setFilter(new SignatureVerificationFilter());
+        registrationBean.setFilter(new SignatureVerificationFilter(objectMapper));
         registrationBean.addUrlPatterns("/system/role", "/api/system/role");
         registrationBean.setOrder(1); // 设置较高优先级
         registrationBean.setName("signatureVerificationFilter");
@@ -36,10 +37,10 @@ public class FilterConfig {
      * 注册混合加密解密过滤器
      */
     @Bean
-    public FilterRegistrationBean<HybridEncryptionFilter> hybridEncryptionFilter() {
+    public FilterRegistrationBean<HybridEncryptionFilter> hybridEncryptionFilter(ObjectMapper objectMapper) {
         FilterRegistrationBean<HybridEncryptionFilter> registrationBean = new FilterRegistrationBean<>();
         
-        registrationBean.setFilter(new HybridEncryptionFilter());
+        registrationBean.setFilter(new HybridEncryptionFilter(objectMapper));
         registrationBean.addUrlPatterns("/system/role", "/api/system/role");
         registrationBean.setOrder(2); // 在签名验证过滤器之后执行
         registrationBean.setName("hybridEncryptionFilter");
@@ -5,11 +5,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import java.time.Duration;
+import java.util.UUID;
+
 /**
  * 定时任务配置
+ * <p>
+ * 多副本部署时每个实例都会触发定时任务，执行前通过Redis租约（SET NX + 过期时间）保证同一轮只有一个实例执行。
+ * 租约不主动释放，由过期时间覆盖各实例触发时间的偏差，避免先执行完的实例释放后被其他实例重复执行。
  */
 @Slf4j
 @Configuration
@@ -17,14 +24,26 @@ import org.springframework.scheduling.annotation.Scheduled;
 @RequiredArgsConstructor
 @ConditionalOnProperty(name = "schedule.enabled", havingValue = "true", matchIfMissing = true)
 public class ScheduleConfig {
-    
+
+    private static final String LEASE_PREFIX = "schedule:lease:";
+
+    /**
+     * 实例标识，记录在租约中便于排查由哪个实例执行
+     */
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
     private final OperationLogService operationLogService;
-    
+
+    private final StringRedisTemplate stringRedisTemplate;
+
     /**
      * 每天凌晨2点清理30天前的操作日志
      */
     @Scheduled(cron = "0 0 2 * * ?")
     public void cleanExpiredOperationLogs() {
+        if (!acquireLease("clean-operation-logs", Duration.ofMinutes(30))) {
+            return;
+        }
         log.info("开始执行定时清理过期操作日志任务");
         try {
             operationLogService.cleanExpiredLogs(30);
@@ -33,4 +52,24 @@ public class ScheduleConfig {
             log.error("定时清理过期操作日志任务执行失败", e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * 获取定时任务租约
+     * @param task 任务名
+     * @param ttl 租约时长，需大于各实例触发时间的偏差
+     * @return 是否获得租约，Redis不可用时跳过本轮
+     */
+    private boolean acquireLease(String task, Duration ttl) {
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(LEASE_PREFIX + task, INSTANCE_ID, ttl);
+            if (!Boolean.TRUE.equals(acquired)) {
+                log.debug("定时任务{}已由其他实例执行，跳过", task);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("获取定时任务{}租约失败，跳过本轮执行", task, e);
+            return false;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.nextera.managenextera.util.RSAUtil;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -19,9 +20,10 @@ import java.nio.charset.StandardCharsets;
  * 专门处理角色更新接口的RSA+AES解密
  */
 @Slf4j
+@RequiredArgsConstructor
 public class HybridEncryptionFilter implements Filter {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -7,6 +7,7 @@ import com.nextera.managenextera.util.RSAUtil;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -22,11 +23,12 @@ import java.util.Map;
 @Slf4j
 @Component
 @Order(1)
+@RequiredArgsConstructor
 public class RSADecryptionFilter implements Filter {
 
     private static final String ENCRYPTED_HEADER = "X-Encrypted";
     private static final String ENCRYPTION_TYPE_HEADER = "X-Encryption-Type";
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) 
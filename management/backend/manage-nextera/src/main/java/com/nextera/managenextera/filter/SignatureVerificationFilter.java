@@ -10,6 +10,7 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
 import org.springframework.util.StringUtils;
@@ -22,11 +23,12 @@ import java.util.Map;
  * 对新增角色接口进行签名验证，并处理请求体缓存
  */
 @Slf4j
+@RequiredArgsConstructor
 public class SignatureVerificationFilter implements Filter {
 
     private static final String SIGNATURE_HEADER = "X-Signature";
     private static final String TIMESTAMP_HEADER = "X-Timestamp";
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
@@ -1,6 +1,8 @@
 package com.nextera.managenextera.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.nextera.managenextera.dto.HybridEncryptionRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +15,12 @@ public class HybridEncryptionUtil {
     
     private static final Logger logger = LoggerFactory.getLogger(HybridEncryptionUtil.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * 静态工具类无法注入Spring的ObjectMapper；混合加密报文只有两个字符串字段，不依赖全局序列化配置，
+     * 这里缓存绑定类型的读写器，避免每次调用重新解析类型
+     */
+    private static final ObjectReader REQUEST_READER = objectMapper.readerFor(HybridEncryptionRequest.class);
+    private static final ObjectWriter REQUEST_WRITER = objectMapper.writerFor(HybridEncryptionRequest.class);
     
     /**
      * 混合加密：使用RSA加密AES密钥，使用AES加密业务数据
@@ -38,7 +46,7 @@ public class HybridEncryptionUtil {
             HybridEncryptionRequest request = new HybridEncryptionRequest(encryptedKey, encryptedData);
             
             // 5. 转换为JSON字符串
-            return objectMapper.writeValueAsString(request);
+            return REQUEST_WRITER.writeValueAsString(request);
         } catch (Exception e) {
             logger.error("混合加密失败", e);
             throw new RuntimeException("混合加密失败", e);
@@ -54,7 +62,7 @@ public class HybridEncryptionUtil {
     public static String hybridDecrypt(String hybridEncryptedData, String rsaPrivateKey) {
         try {
             // 1. 解析混合加密请求对象
-            HybridEncryptionRequest request = objectMapper.readValue(hybridEncryptedData, HybridEncryptionRequest.class);
+            HybridEncryptionRequest request = REQUEST_READER.readValue(hybridEncryptedData);
             logger.debug("解析混合加密请求成功");
             
             // 2. 使用RSA解密AES密钥
@@ -84,7 +92,7 @@ public class HybridEncryptionUtil {
      */
     public static boolean isValidHybridEncryptedData(String hybridEncryptedData) {
         try {
-            HybridEncryptionRequest request = objectMapper.readValue(hybridEncryptedData, HybridEncryptionRequest.class);
+            HybridEncryptionRequest request = REQUEST_READER.readValue(hybridEncryptedData);
             return request.getEncryptedKey() != null && 
                    request.getEncryptedData() != null &&
                    !request.getEncryptedKey().trim().isEmpty() &&
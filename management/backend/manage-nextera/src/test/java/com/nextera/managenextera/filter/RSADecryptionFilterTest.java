@@ -32,7 +32,7 @@ public class RSADecryptionFilterTest {
 
     @BeforeEach
     public void setUp() {
-        filter = new RSADecryptionFilter();
+        filter = new RSADecryptionFilter(new ObjectMapper());
         filterChain = mock(FilterChain.class);
         request = new MockHttpServletRequest();
         response = new MockHttpServletResponse();
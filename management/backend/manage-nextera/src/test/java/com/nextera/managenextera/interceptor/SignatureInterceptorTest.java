@@ -28,7 +28,7 @@ public class SignatureInterceptorTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        signatureInterceptor = new SignatureInterceptor();
+        signatureInterceptor = new SignatureInterceptor(new ObjectMapper());
         objectMapper = new ObjectMapper();
     }
 
@@ -17,6 +17,7 @@ CREATE TABLE IF NOT EXISTS `rocketmq_transaction_log` (
     `article_id` bigint(20) DEFAULT NULL COMMENT '文章ID',
     `local_transaction_status` tinyint(1) NOT NULL DEFAULT 0 COMMENT '本地事务状态：0-准备中，1-已提交，2-已回滚',
     `error_message` text DEFAULT NULL COMMENT '错误信息',
+    `fencing_token` bigint(20) DEFAULT NULL COMMENT '最近一次认领补偿的集群租约防护令牌',
     `created_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `updated_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     `created_by` varchar(64) DEFAULT 'system' COMMENT '创建人',
@@ -30,6 +31,9 @@ CREATE TABLE IF NOT EXISTS `rocketmq_transaction_log` (
     KEY `idx_created_time` (`created_time`)
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='RocketMQ事务消息日志表';
 
+-- 已有库升级：
+-- ALTER TABLE `rocketmq_transaction_log` ADD COLUMN `fencing_token` bigint(20) DEFAULT NULL COMMENT '最近一次认领补偿的集群租约防护令牌' AFTER `error_message`;
+
 -- 用户操作记录表（用于记录用户更新文章的操作历史）
 CREATE TABLE IF NOT EXISTS `user_article_operation_log` (
     `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '主键ID',